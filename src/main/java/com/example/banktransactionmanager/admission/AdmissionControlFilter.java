@@ -0,0 +1,294 @@
+package com.example.banktransactionmanager.admission;
+
+import com.example.banktransactionmanager.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * API入口的准入控制，在请求进入控制器之前依次检查：
+ * <ol>
+ *     <li>令牌桶限流：按渠道、按 X-Api-Key 请求头的客户端各一个桶，超出返回429和Retry-After。
+ *     配置了渠道的API Key以配置为准，否则取 X-Channel 请求头；无法确定渠道的请求共用默认渠道桶，
+ *     省略请求头不能绕过限流</li>
+ *     <li>并发限制：按端点类别（读/写/导出/变更流）各一个 {@link ConcurrencyLimiter}，在途请求达到上限返回503</li>
+ * </ol>
+ * 拒绝时不解析请求体、不访问数据库，直接写出固定格式的错误响应。
+ * 异步请求（长轮询、SSE、流式下载）在异步处理结束时才释放并发名额。
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-Api-Key";
+    static final String CHANNEL_HEADER = "X-Channel";
+
+    private static final Map<String, Transaction.Channel> CHANNELS = new HashMap<>();
+
+    static {
+        for (Transaction.Channel channel : Transaction.Channel.values()) {
+            CHANNELS.put(channel.name(), channel);
+        }
+    }
+
+    private final Map<Transaction.Channel, TokenBucket> channelBuckets = new EnumMap<>(Transaction.Channel.class);
+    private final Map<Transaction.Channel, Counter> channelRejections = new EnumMap<>(Transaction.Channel.class);
+    private final Map<String, Transaction.Channel> apiKeyChannels;
+    private final TokenBucket defaultChannelBucket;
+    private final Counter defaultChannelRejections;
+    private final Map<String, RateLimit> apiKeyLimits;
+    private final RateLimit defaultApiKeyLimit;
+    private final int maxApiKeys;
+    private final Map<String, TokenBucket> apiKeyBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowApiKeyBucket;
+    private final Counter apiKeyRejections;
+    private final Map<EndpointClass, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> concurrencyRejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> admitted = new EnumMap<>(EndpointClass.class);
+    private final String[] exportPathPrefixes;
+    private final String[] streamPathPrefixes;
+
+    /**
+     * @param apiKeyChannels API Key所属的渠道，优先于客户端自报的 X-Channel 请求头
+     * @param defaultChannelLimit 无法确定渠道的请求共用的限额，为空表示不限
+     * @param defaultApiKeyLimit 未单独配置的API Key使用的限额，为空表示不限
+     * @param maxApiKeys 单独建桶的API Key数量上限，超出后未配置的Key共用一个桶，防止伪造Key撑大内存
+     * @param concurrencyLimits 未配置的端点类别不限并发
+     */
+    public AdmissionControlFilter(Map<Transaction.Channel, RateLimit> channelLimits,
+                                  Map<String, Transaction.Channel> apiKeyChannels,
+                                  RateLimit defaultChannelLimit,
+                                  Map<String, RateLimit> apiKeyLimits,
+                                  RateLimit defaultApiKeyLimit,
+                                  int maxApiKeys,
+                                  Map<EndpointClass, ConcurrencyLimit> concurrencyLimits,
+                                  List<String> exportPathPrefixes,
+                                  List<String> streamPathPrefixes,
+                                  MeterRegistry meterRegistry) {
+        channelLimits.forEach((channel, limit) -> {
+            channelBuckets.put(channel, limit.newBucket());
+            channelRejections.put(channel, rejectedCounter(meterRegistry, "rate", "channel:" + channel.name()));
+        });
+        this.apiKeyChannels = Map.copyOf(apiKeyChannels);
+        this.defaultChannelBucket = defaultChannelLimit != null ? defaultChannelLimit.newBucket() : null;
+        this.defaultChannelRejections = rejectedCounter(meterRegistry, "rate", "channel:default");
+        this.apiKeyLimits = Map.copyOf(apiKeyLimits);
+        this.defaultApiKeyLimit = defaultApiKeyLimit;
+        this.maxApiKeys = maxApiKeys;
+        this.overflowApiKeyBucket = defaultApiKeyLimit != null ? defaultApiKeyLimit.newBucket() : null;
+        this.apiKeyRejections = rejectedCounter(meterRegistry, "rate", "api-key");
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ConcurrencyLimit config = concurrencyLimits.get(endpointClass);
+            if (config != null) {
+                ConcurrencyLimiter limiter = config.newLimiter();
+                limiters.put(endpointClass, limiter);
+                Gauge.builder("admission.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                        .tag("class", endpointClass.tag())
+                        .description("Current concurrency limit of this endpoint class")
+                        .strongReference(true)
+                        .register(meterRegistry);
+                Gauge.builder("admission.concurrency.in-flight", limiter, ConcurrencyLimiter::getInFlight)
+                        .tag("class", endpointClass.tag())
+                        .description("Requests of this endpoint class currently being processed")
+                        .strongReference(true)
+                        .register(meterRegistry);
+                concurrencyRejections.put(endpointClass,
+                        rejectedCounter(meterRegistry, "concurrency", endpointClass.tag()));
+            }
+            admitted.put(endpointClass, Counter.builder("admission.admitted")
+                    .tag("class", endpointClass.tag())
+                    .description("Requests that passed admission control")
+                    .register(meterRegistry));
+        }
+        this.exportPathPrefixes = exportPathPrefixes.toArray(new String[0]);
+        this.streamPathPrefixes = streamPathPrefixes.toArray(new String[0]);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = checkRateLimits(request);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded", "RATE_LIMITED");
+            return;
+        }
+
+        EndpointClass endpointClass = classify(request);
+        ConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (limiter != null && !limiter.tryAcquire()) {
+            concurrencyRejections.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is overloaded, please retry later", "OVERLOADED");
+            return;
+        }
+        admitted.get(endpointClass).increment();
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        for (String prefix : streamPathPrefixes) {
+            if (uri.startsWith(prefix)) {
+                return EndpointClass.STREAM;
+            }
+        }
+        for (String prefix : exportPathPrefixes) {
+            if (uri.startsWith(prefix)) {
+                return EndpointClass.EXPORT;
+            }
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    /**
+     * @return 0表示放行，否则为建议的等待纳秒数
+     */
+    private long checkRateLimits(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        boolean hasApiKey = apiKey != null && !apiKey.isEmpty();
+        Transaction.Channel channel = hasApiKey ? apiKeyChannels.get(apiKey) : null;
+        if (channel == null) {
+            String channelHeader = request.getHeader(CHANNEL_HEADER);
+            channel = channelHeader != null ? CHANNELS.get(channelHeader) : null;
+        }
+        if (channel != null) {
+            TokenBucket bucket = channelBuckets.get(channel);
+            long wait = bucket != null ? bucket.tryAcquire() : 0;
+            if (wait > 0) {
+                channelRejections.get(channel).increment();
+                return wait;
+            }
+        } else if (defaultChannelBucket != null) {
+            long wait = defaultChannelBucket.tryAcquire();
+            if (wait > 0) {
+                defaultChannelRejections.increment();
+                return wait;
+            }
+        }
+        if (hasApiKey) {
+            TokenBucket bucket = apiKeyBucket(apiKey);
+            long wait = bucket != null ? bucket.tryAcquire() : 0;
+            if (wait > 0) {
+                apiKeyRejections.increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private TokenBucket apiKeyBucket(String apiKey) {
+        TokenBucket bucket = apiKeyBuckets.get(apiKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        RateLimit limit = apiKeyLimits.get(apiKey);
+        if (limit == null) {
+            if (defaultApiKeyLimit == null) {
+                return null;
+            }
+            if (apiKeyBuckets.size() >= maxApiKeys) {
+                return overflowApiKeyBucket;
+            }
+            limit = defaultApiKeyLimit;
+        }
+        RateLimit resolved = limit;
+        return apiKeyBuckets.computeIfAbsent(apiKey, key -> resolved.newBucket());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message, String errorCode)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = ("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"message\":\"" + message
+                + "\",\"errorCode\":\"" + errorCode + "\"}").getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason, String limiter) {
+        return Counter.builder("admission.rejected")
+                .tag("reason", reason)
+                .tag("limiter", limiter)
+                .description("Requests rejected by admission control")
+                .register(registry);
+    }
+
+    /**
+     * 异步请求在完成、超时或出错时释放名额（三者可能先后触发，只释放一次）
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final ConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnCompletion(ConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次进入异步模式时需要重新注册监听器
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+}
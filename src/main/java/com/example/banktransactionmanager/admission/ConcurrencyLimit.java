@@ -0,0 +1,20 @@
+package com.example.banktransactionmanager.admission;
+
+import java.time.Duration;
+
+/**
+ * 一类端点的并发限制配置，由 admission.concurrency.{read|write|export}.* 绑定
+ * @param latencyThreshold AIMD判定过载的延迟阈值
+ */
+public record ConcurrencyLimit(ConcurrencyLimiter.Algorithm algorithm,
+                               int initialLimit,
+                               int minLimit,
+                               int maxLimit,
+                               Duration latencyThreshold) {
+
+    public ConcurrencyLimiter newLimiter() {
+        return new ConcurrencyLimiter(algorithm != null ? algorithm : ConcurrencyLimiter.Algorithm.FIXED,
+                initialLimit, minLimit > 0 ? minLimit : 1, maxLimit > 0 ? maxLimit : initialLimit,
+                latencyThreshold != null ? latencyThreshold : Duration.ofMillis(500));
+    }
+}
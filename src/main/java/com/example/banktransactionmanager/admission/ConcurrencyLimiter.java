@@ -0,0 +1,116 @@
+package com.example.banktransactionmanager.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制：在途请求数达到上限时立即拒绝，上限根据实测延迟调整
+ * <ul>
+ *     <li>FIXED：固定上限</li>
+ *     <li>AIMD：延迟超过阈值或请求失败（5xx）时乘以0.9，否则在上限被用到一半以上时加1</li>
+ *     <li>GRADIENT：比较短期延迟均值（约10个样本）与长期基线（约100个样本），
+ *     梯度 = clamp(1.5 × 基线 / 短期, 0.5, 1)，新上限 = 上限 × 梯度 + √上限，再平滑；
+ *     排队导致延迟上升时上限随之收缩，恢复后再增长</li>
+ * </ul>
+ * 放行判断是无锁的；上限调整在每个样本上短暂加锁。
+ */
+public class ConcurrencyLimiter {
+
+    public enum Algorithm {
+        FIXED,
+        AIMD,
+        GRADIENT
+    }
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 0.01;
+    private static final double SMOOTHING = 0.2;
+
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    // 以下字段由 this 保护
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param latencyThreshold AIMD判定过载的延迟阈值，其它算法忽略
+     */
+    public ConcurrencyLimiter(Algorithm algorithm, int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("并发上限必须满足 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * @return 是否放行；放行后必须调用一次 {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos 请求耗时
+     * @param dropped 请求是否因服务端原因失败
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (algorithm != Algorithm.FIXED) {
+            onSample(rttNanos, inFlightAtCompletion, dropped);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        // 在途请求不到上限的一半时延迟不受本限制影响，不据此放大上限
+        boolean utilized = inFlightAtCompletion * 2 >= estimatedLimit;
+        if (algorithm == Algorithm.AIMD) {
+            if (dropped || rttNanos > latencyThresholdNanos) {
+                estimatedLimit = estimatedLimit * BACKOFF_RATIO;
+            } else if (utilized) {
+                estimatedLimit = estimatedLimit + 1;
+            }
+        } else {
+            shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos * (1 - SHORT_RTT_WEIGHT) + rttNanos * SHORT_RTT_WEIGHT;
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * (1 - LONG_RTT_WEIGHT) + rttNanos * LONG_RTT_WEIGHT;
+            if (longRttNanos > shortRttNanos * 2) {
+                // 延迟持续好转后让基线跟上，避免基线停留在历史高位
+                longRttNanos *= 0.95;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+            if (gradient < 1.0 || utilized) {
+                double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+                estimatedLimit = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+            }
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.banktransactionmanager.admission;
+
+/**
+ * 并发限制按端点类别隔离，导出类长连接占满时不影响普通读写
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    /**
+     * 流式导出、批量生成与对账等长时间占用连接或线程的请求
+     */
+    EXPORT,
+    /**
+     * 变更流的长轮询与SSE：连接保持时间长但几乎不占线程和数据库，单独限额，不挤占导出类名额
+     */
+    STREAM;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
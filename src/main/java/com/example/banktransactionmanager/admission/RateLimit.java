@@ -0,0 +1,13 @@
+package com.example.banktransactionmanager.admission;
+
+/**
+ * 令牌桶限流配置
+ * @param permitsPerSecond 持续速率（每秒请求数）
+ * @param burst 突发容量，0表示取持续速率（至少1）
+ */
+public record RateLimit(double permitsPerSecond, int burst) {
+
+    public TokenBucket newBucket() {
+        return new TokenBucket(permitsPerSecond, burst > 0 ? burst : (int) Math.max(1, Math.ceil(permitsPerSecond)));
+    }
+}
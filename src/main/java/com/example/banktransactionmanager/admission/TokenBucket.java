@@ -0,0 +1,52 @@
+package com.example.banktransactionmanager.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶（GCRA形式）：只保存一个"理论到达时间"，每次放行把它推后一个发放间隔，
+ * 超出突发容量时拒绝，不需要后台线程补充令牌
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    /**
+     * 理论到达时间最多领先当前时间 (burst - 1) 个间隔
+     */
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param permitsPerSecond 持续速率
+     * @param burst 突发容量（可连续放行的请求数）
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("令牌桶速率和突发容量必须大于0");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return 0表示放行，否则为距离下一个令牌的纳秒数
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long arrival = current - now > 0 ? current : now;
+            long ahead = arrival - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
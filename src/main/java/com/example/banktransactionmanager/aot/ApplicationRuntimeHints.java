@@ -0,0 +1,176 @@
+package com.example.banktransactionmanager.aot;
+
+import com.example.banktransactionmanager.admission.ConcurrencyLimit;
+import com.example.banktransactionmanager.admission.RateLimit;
+import com.example.banktransactionmanager.cache.TransactionCacheKeySerializer;
+import com.example.banktransactionmanager.cache.TransactionDTOSerializer;
+import com.example.banktransactionmanager.codec.MinorUnitsDeserializer;
+import com.example.banktransactionmanager.codec.MinorUnitsSerializer;
+import com.example.banktransactionmanager.exception.GlobalExceptionHandler;
+import com.example.banktransactionmanager.model.ImportJob;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionAggregateSnapshot;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.example.banktransactionmanager.model.dto.BulkDeleteRequest;
+import com.example.banktransactionmanager.model.dto.BulkOperationResponse;
+import com.example.banktransactionmanager.model.dto.BulkStatusUpdateRequest;
+import com.example.banktransactionmanager.model.dto.DailyTransactionStats;
+import com.example.banktransactionmanager.model.dto.ImportJobStatus;
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.model.dto.ReconciliationReport;
+import com.example.banktransactionmanager.model.dto.ReconciliationRequest;
+import com.example.banktransactionmanager.model.dto.StatementBatchResult;
+import com.example.banktransactionmanager.model.dto.TransactionChangePage;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.dto.TransactionLookupRequest;
+import com.example.banktransactionmanager.model.dto.TransactionLookupResponse;
+import com.example.banktransactionmanager.model.dto.TransactionSlice;
+import com.example.banktransactionmanager.model.dto.TransactionStats;
+import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.DailyTotal;
+import com.example.banktransactionmanager.model.projection.ReconciliationEntry;
+import com.example.banktransactionmanager.model.projection.SampleCount;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+import com.example.banktransactionmanager.model.projection.StatementTypeTotal;
+import com.example.banktransactionmanager.model.projection.StatusTypeCount;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.profiling.JfrRecordingStatus;
+import com.example.banktransactionmanager.risk.VelocityRule;
+import com.example.banktransactionmanager.tracing.SlowRequest;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.TargetAware;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * native-image运行时提示
+ * Spring AOT能自动推导出Bean定义、控制器入参/返回值和JPA托管类型，这里补充它推导不到的部分：
+ * <ul>
+ *     <li>实体与Lombok DTO：Jackson按getter/setter/builder反射绑定，outbox事件与变更流不经过控制器签名</li>
+ *     <li>@Cacheable键表达式：SpEL通过反射调用Pageable的getter</li>
+ *     <li>Ehcache XML配置：JAXB反射实例化org.ehcache.xml.model下的类，并读取XSD做校验；
+ *     XML中声明的序列化器按类名反射构造</li>
+ *     <li>protobuf生成类：GeneratedMessageV3按字段名反射查找访问器</li>
+ *     <li>springdoc：swagger-ui静态资源（springdoc自带的提示只覆盖其自身模型）</li>
+ * </ul>
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] BINDING_TYPES = {
+            Transaction.class,
+            TransactionOutboxEvent.class,
+            TransactionDTO.class,
+            TransactionCreateRequest.class,
+            TransactionCreateResponse.class,
+            TransactionUpdateRequest.class,
+            TransactionLookupRequest.class,
+            TransactionLookupResponse.class,
+            TransactionSlice.class,
+            TransactionStats.class,
+            DailyTransactionStats.class,
+            BulkDeleteRequest.class,
+            BulkStatusUpdateRequest.class,
+            BulkOperationResponse.class,
+            TransactionChangeEvent.class,
+            TransactionChangePage.class,
+            StatementBatchResult.class,
+            ReconciliationRequest.class,
+            ReconciliationReport.class,
+            ImportJob.class,
+            ImportJobStatus.class,
+            TransactionAggregateSnapshot.class,
+            GlobalExceptionHandler.ErrorDetails.class,
+            SlowRequest.class,
+            JfrRecordingStatus.class,
+            VelocityRule.class,
+            RateLimit.class,
+            ConcurrencyLimit.class,
+            PageImpl.class,
+            PageRequest.class,
+            Sort.class,
+            Sort.Order.class
+    };
+
+    private static final Class<?>[] PROJECTION_TYPES = {
+            TransactionRef.class,
+            StatementTypeTotal.class,
+            StatusTypeCount.class,
+            SampleCount.class,
+            DailyTotal.class
+    };
+
+    private static final String EHCACHE_MODEL_CLASSES = "classpath*:org/ehcache/xml/model/*.class";
+
+    private static final String PROTO_CLASSES = "classpath*:com/example/banktransactionmanager/grpc/proto/*.class";
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), BINDING_TYPES);
+        hints.reflection()
+                .registerType(MinorUnitsSerializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(MinorUnitsDeserializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(TransactionCacheKeySerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(TransactionDTOSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                // JPQL构造表达式通过反射调用
+                .registerType(StatementLine.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(ReconciliationEntry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                // 稀疏字段集的mix-in，Jackson通过反射读取其上的 @JsonFilter
+                .registerType(TypeReference.of("com.example.banktransactionmanager.codec.TransactionFieldFilter$FilteredTransaction"));
+
+        // Spring Data接口投影在运行时生成JDK代理
+        for (Class<?> projection : PROJECTION_TYPES) {
+            hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+            hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, Advised.class,
+                    DecoratingProxy.class);
+        }
+
+        hints.resources()
+                .registerPattern("ehcache.xml")
+                .registerPattern("ehcache-*.xsd")
+                .registerPattern("db/*.sql")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/*");
+
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        registerPackage(hints, resolver, EHCACHE_MODEL_CLASSES, "org.ehcache.xml.model.",
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+        registerPackage(hints, resolver, PROTO_CLASSES, "com.example.banktransactionmanager.grpc.proto.",
+                MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+    }
+
+    /**
+     * 按类文件扫描整个包并注册反射提示，避免生成代码或三方库升级后漏掉新增的类
+     */
+    private static void registerPackage(RuntimeHints hints, PathMatchingResourcePatternResolver resolver,
+                                        String pattern, String packagePrefix, MemberCategory... categories) {
+        try {
+            for (Resource resource : resolver.getResources(pattern)) {
+                String filename = resource.getFilename();
+                if (filename == null || filename.equals("package-info.class")) {
+                    continue;
+                }
+                String className = packagePrefix + filename.substring(0, filename.length() - ".class".length());
+                hints.reflection().registerType(TypeReference.of(className), categories);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan " + pattern, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banktransactionmanager.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * 批量读写扩展：Spring的 {@link Cache} 只有单键操作，批量查询时逐键访问会在共享层上产生同样多次网络往返
+ * <p>
+ * 本包和profiling包中的装饰器都实现本接口并逐层委托，最终落到Hazelcast的getAll/setAll或JCache的getAll/putAll。
+ * 调用方通过静态方法访问，对未实现本接口的缓存退化为逐键操作。
+ * 与 {@link Cache#get(Object)} 一致，缓存的空结果以值为null的 {@link Cache.ValueWrapper} 返回。
+ */
+public interface BulkCache {
+
+    /**
+     * @return 命中的键及其值，未命中的键不在结果中
+     */
+    Map<Object, Cache.ValueWrapper> getAll(Collection<?> keys);
+
+    /**
+     * 批量写入，值为null表示缓存空结果
+     */
+    void putAll(Map<?, ?> entries);
+
+    static Map<Object, Cache.ValueWrapper> getAll(Cache cache, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        if (cache instanceof BulkCache bulk) {
+            return bulk.getAll(keys);
+        }
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> jcache) {
+            return jcacheGetAll(jcache, keys);
+        }
+        Map<Object, Cache.ValueWrapper> found = new HashMap<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper value = cache.get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    static void putAll(Cache cache, Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof BulkCache bulk) {
+            bulk.putAll(entries);
+        } else if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> jcache) {
+            jcachePutAll(jcache, entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+
+    /**
+     * JCacheCache（Spring提供，无法实现本接口）直接使用底层JCache的批量操作，空结果按Spring的约定存为 {@link NullValue}
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Cache.ValueWrapper> jcacheGetAll(javax.cache.Cache<?, ?> jcache, Collection<?> keys) {
+        Map<Object, Object> stored = ((javax.cache.Cache<Object, Object>) jcache).getAll(new HashSet<>(keys));
+        Map<Object, Cache.ValueWrapper> found = new HashMap<>(stored.size() * 2);
+        stored.forEach((key, value) -> found.put(key, new SimpleValueWrapper(value instanceof NullValue ? null : value)));
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void jcachePutAll(javax.cache.Cache<?, ?> jcache, Map<?, ?> entries) {
+        Map<Object, Object> stored = new HashMap<>(entries.size() * 2);
+        entries.forEach((key, value) -> stored.put(key, value != null ? value : NullValue.INSTANCE));
+        ((javax.cache.Cache<Object, Object>) jcache).putAll(stored);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.banktransactionmanager.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存失效广播
+ * 每个副本在共享层前面各有一份本地堆缓存，某个副本修改数据后只能清掉自己的本地副本，
+ * 其它副本需要通过广播得知并丢弃各自的本地条目，否则会一直读到旧值直到本地TTL过期。
+ * 消息投递是异步的，失效生效前的短暂窗口内其它副本仍可能读到旧值。
+ */
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String TOPIC_NAME = "cache-invalidation";
+
+    private final ITopic<CacheInvalidationMessage> topic;
+    private final UUID localMember;
+    private final Map<String, Cache> localCaches = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<Object>> listeners = new ConcurrentHashMap<>();
+    private final UUID listenerRegistration;
+
+    public CacheInvalidationBus(HazelcastInstance hazelcast) {
+        this.topic = hazelcast.getTopic(TOPIC_NAME);
+        this.localMember = hazelcast.getCluster().getLocalMember().getUuid();
+        this.listenerRegistration = topic.addMessageListener(this::onMessage);
+    }
+
+    /**
+     * 注册本地缓存，收到对应名称的失效消息时清理
+     */
+    public void register(String cacheName, Cache localCache) {
+        localCaches.put(cacheName, localCache);
+    }
+
+    /**
+     * 注册缓存以外的本地派生状态（如 {@link TransactionWatermarks}），收到对应名称的消息时以消息中的键回调
+     */
+    public void register(String name, Consumer<Object> listener) {
+        listeners.put(name, listener);
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        topic.publish(new CacheInvalidationMessage(localMember, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        topic.publish(new CacheInvalidationMessage(localMember, cacheName, null));
+    }
+
+    private void onMessage(Message<CacheInvalidationMessage> message) {
+        CacheInvalidationMessage invalidation = message.getMessageObject();
+        if (localMember.equals(invalidation.origin())) {
+            return;
+        }
+        Consumer<Object> listener = listeners.get(invalidation.cacheName());
+        if (listener != null) {
+            listener.accept(invalidation.key());
+            return;
+        }
+        Cache cache = localCaches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clear();
+        } else {
+            cache.evict(invalidation.key());
+        }
+        log.trace("Applied remote invalidation {}", invalidation);
+    }
+
+    public void close() {
+        topic.removeMessageListener(listenerRegistration);
+    }
+}
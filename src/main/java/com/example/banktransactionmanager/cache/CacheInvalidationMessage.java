@@ -0,0 +1,17 @@
+package com.example.banktransactionmanager.cache;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * 集群内广播的本地缓存失效消息
+ * @param origin 发出消息的成员ID，收到自己发出的消息时忽略
+ * @param cacheName 缓存名称
+ * @param key 失效的键，为null表示清空整个缓存
+ */
+public record CacheInvalidationMessage(UUID origin, String cacheName, Object key) implements Serializable {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
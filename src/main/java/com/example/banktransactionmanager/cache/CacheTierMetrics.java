@@ -0,0 +1,83 @@
+package com.example.banktransactionmanager.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.ehcache.config.ResourceType;
+import org.ehcache.core.internal.statistics.DefaultTierStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按缓存层（heap/offheap/disk）输出Ehcache的命中、未命中、条目数和占用字节数
+ * <p>
+ * 读取时逐层向下查找：堆上未命中再查堆外，堆外命中的条目会回填到堆上，
+ * 因此 cache.tier.hits{tier=offheap} 升高说明热点集合超出了堆上容量。
+ */
+public class CacheTierMetrics implements MeterBinder {
+
+    private static final Map<ResourceType<?>, Tier> TIERS = Map.of(
+            ResourceType.Core.HEAP, new Tier("OnHeap", "heap", false),
+            ResourceType.Core.OFFHEAP, new Tier("OffHeap", "offheap", true),
+            ResourceType.Core.DISK, new Tier("Disk", "disk", true));
+
+    private final javax.cache.CacheManager cacheManager;
+    /**
+     * Micrometer只弱引用函数型指标的取值对象，这里持有强引用，避免统计对象被GC回收后指标停在最后一次的值
+     */
+    private final List<TierStatistics> boundStatistics = new CopyOnWriteArrayList<>();
+
+    public CacheTierMetrics(javax.cache.CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            org.ehcache.Cache<?, ?> cache = cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class);
+            for (ResourceType<?> type : cache.getRuntimeConfiguration().getResourcePools().getResourceTypeSet()) {
+                Tier tier = TIERS.get(type);
+                if (tier != null) {
+                    bindTier(registry, cacheName, tier, new DefaultTierStatistics(cache, tier.statisticsName()));
+                }
+            }
+        }
+    }
+
+    private void bindTier(MeterRegistry registry, String cacheName, Tier tier, TierStatistics statistics) {
+        boundStatistics.add(statistics);
+        Tags tags = Tags.of("cache", cacheName, "tier", tier.tag());
+        FunctionCounter.builder("cache.tier.hits", statistics, TierStatistics::getHits)
+                .tags(tags)
+                .description("Lookups answered by this cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.misses", statistics, TierStatistics::getMisses)
+                .tags(tags)
+                .description("Lookups that fell through this cache tier")
+                .register(registry);
+        Gauge.builder("cache.tier.entries", statistics, TierStatistics::getMappings)
+                .tags(tags)
+                .description("Entries held in this cache tier")
+                .register(registry);
+        if (tier.sizedInBytes()) {
+            Gauge.builder("cache.tier.occupied", statistics, TierStatistics::getOccupiedByteSize)
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .description("Bytes occupied in this cache tier")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @param statisticsName Ehcache内部的层名称
+     * @param tag 指标标签值
+     * @param sizedInBytes 是否按字节计容量（堆上层按条目计，不统计占用字节数）
+     */
+    private record Tier(String statisticsName, String tag, boolean sizedInBytes) {
+    }
+}
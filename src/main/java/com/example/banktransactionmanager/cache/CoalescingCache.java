@@ -0,0 +1,245 @@
+package com.example.banktransactionmanager.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 缓存击穿保护装饰器，作用于 {@code @Cacheable(sync = true)} 发起的 {@link #get(Object, Callable)}：
+ * <ul>
+ *     <li>单飞：同一个键的并发未命中只执行一次加载，其余调用等待同一个结果</li>
+ *     <li>提前刷新：自上次加载以来命中次数达到 minHits 的热点条目，在 refreshAfter 之后被命中时交给后台线程重新加载，
+ *     调用方照常拿到当前值，条目在过期之前就被新值替换</li>
+ *     <li>概率提前过期（XFetch）：离过期越近、上次加载越慢，命中被当作未命中的概率越大，
+ *     由单个调用方同步重算，避免所有副本在同一时刻一起过期</li>
+ * </ul>
+ * 后两项需要配置 {@link RefreshPolicy}，加载时间和命中次数保存在本装饰器中，失效/清空时一并丢弃；
+ * 后台刷新复用触发它的那次调用的加载函数。其余操作直接委托。
+ */
+@Slf4j
+public class CoalescingCache implements Cache, BulkCache {
+
+    /**
+     * 记录加载时间的条目上限，超出后整体丢弃（只影响提前刷新，不影响缓存内容）
+     */
+    static final int MAX_TRACKED_ENTRIES = 10_000;
+
+    private final Cache target;
+    private final RefreshPolicy refreshPolicy;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, LoadStamp> stamps = new ConcurrentHashMap<>();
+
+    /**
+     * @param refreshPolicy 为null时只做单飞
+     */
+    public CoalescingCache(Cache target, RefreshPolicy refreshPolicy, Executor refreshExecutor) {
+        this(target, refreshPolicy, refreshExecutor, System::nanoTime);
+    }
+
+    CoalescingCache(Cache target, RefreshPolicy refreshPolicy, Executor refreshExecutor, LongSupplier nanoTime) {
+        this.target = target;
+        this.refreshPolicy = refreshPolicy;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoTime = nanoTime;
+    }
+
+    public Cache getTarget() {
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = target.get(key);
+        if (cached == null) {
+            return (T) load(key, valueLoader, true);
+        }
+        LoadStamp stamp = refreshPolicy != null ? stamps.get(key) : null;
+        if (stamp != null) {
+            long ageNanos = nanoTime.getAsLong() - stamp.loadedAtNanos();
+            if (refreshPolicy.expiresEarly(ageNanos, stamp.loadNanos(), 1.0 - ThreadLocalRandom.current().nextDouble())) {
+                return (T) load(key, valueLoader, false);
+            }
+            if (stamp.hits().incrementAndGet() >= refreshPolicy.minHits()
+                    && ageNanos >= refreshPolicy.refreshAfter().toNanos()) {
+                refreshAsync(key, valueLoader);
+            }
+        }
+        return (T) cached.get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+        stamps.remove(key);
+    }
+
+    /**
+     * 批量读取不做单飞和提前刷新，由调用方对未命中的键统一加载
+     */
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        return BulkCache.getAll(target, keys);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        BulkCache.putAll(target, entries);
+        entries.keySet().forEach(stamps::remove);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // 正在进行的加载可能读到了旧数据，让它不再写回缓存
+        inFlight.remove(key);
+        stamps.remove(key);
+        target.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        inFlight.clear();
+        stamps.clear();
+        target.clear();
+    }
+
+    /**
+     * 由当前线程加载，或等待同一个键上已经在进行的加载
+     * @param recheck 抢到加载权后是否先重查缓存（上一轮加载可能刚刚写回）；提前过期时需要强制重算
+     */
+    private Object load(Object key, Callable<?> valueLoader, boolean recheck) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(key, valueLoader, existing);
+        }
+        try {
+            ValueWrapper cached = recheck ? target.get(key) : null;
+            Object value = cached != null ? cached.get() : loadAndStore(key, valueLoader, flight);
+            flight.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CancellationException ex) {
+            // 后台刷新没能提交，自己加载
+            return load(key, valueLoader, true);
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    flight.complete(loadAndStore(key, valueLoader, flight));
+                } catch (Throwable ex) {
+                    log.warn("Refresh-ahead of cache {} key {} failed", getName(), key, ex);
+                    flight.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, flight);
+            flight.cancel(false);
+        }
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) throws Exception {
+        long start = nanoTime.getAsLong();
+        Object value = valueLoader.call();
+        long end = nanoTime.getAsLong();
+        // 加载期间键被失效时不写回
+        if (inFlight.get(key) == flight) {
+            target.put(key, value);
+            if (refreshPolicy != null) {
+                if (stamps.size() >= MAX_TRACKED_ENTRIES) {
+                    stamps.clear();
+                }
+                stamps.put(key, new LoadStamp(end, end - start, new AtomicInteger()));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 提前刷新策略
+     * @param ttl 缓存条目的过期时间，需要与底层缓存配置一致
+     * @param refreshAfter 条目加载多久之后被命中会触发后台刷新，应小于ttl
+     * @param minHits 自上次加载以来至少命中多少次才算热点条目
+     * @param earlyExpirationBeta XFetch系数，0表示关闭概率提前过期，1为常用值，越大越早重算
+     */
+    public record RefreshPolicy(Duration ttl, Duration refreshAfter, int minHits, double earlyExpirationBeta) {
+
+        /**
+         * XFetch：age - loadTime * beta * ln(rand) >= ttl 时提前过期，rand取值(0, 1]
+         */
+        boolean expiresEarly(long ageNanos, long loadNanos, double rand) {
+            return earlyExpirationBeta > 0
+                    && ageNanos - loadNanos * earlyExpirationBeta * Math.log(rand) >= ttl.toNanos();
+        }
+    }
+
+    /**
+     * @param loadedAtNanos 写回缓存的时间
+     * @param loadNanos 加载耗时
+     * @param hits 自上次加载以来的命中次数
+     */
+    private record LoadStamp(long loadedAtNanos, long loadNanos, AtomicInteger hits) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.banktransactionmanager.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 为所有缓存加上单飞加载（{@link CoalescingCache}），refreshPolicies 中列出的缓存额外启用提前刷新
+ * 后台刷新线程为守护线程且空闲后自动退出，不需要随容器关闭；队列满时放弃本次刷新，条目按原TTL过期。
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+
+    private final CacheManager targetCacheManager;
+    private final Map<String, CoalescingCache.RefreshPolicy> refreshPolicies;
+    private final Executor refreshExecutor;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager targetCacheManager,
+                                  Map<String, CoalescingCache.RefreshPolicy> refreshPolicies,
+                                  int refreshThreads) {
+        this(targetCacheManager, refreshPolicies, refreshExecutor(refreshThreads));
+    }
+
+    CoalescingCacheManager(CacheManager targetCacheManager,
+                           Map<String, CoalescingCache.RefreshPolicy> refreshPolicies,
+                           Executor refreshExecutor) {
+        this.targetCacheManager = targetCacheManager;
+        this.refreshPolicies = Map.copyOf(refreshPolicies);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache == null) {
+            Cache target = targetCacheManager.getCache(name);
+            if (target == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name,
+                    key -> new CoalescingCache(target, refreshPolicies.get(key), refreshExecutor));
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return targetCacheManager.getCacheNames();
+    }
+
+    private static Executor refreshExecutor(int threads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.banktransactionmanager.cache;
+
+import com.hazelcast.map.IMap;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 基于Hazelcast分布式Map的共享缓存层
+ * 过期时间与容量上限在MapConfig中按缓存名称配置（见CacheConfig）。
+ */
+public class HazelcastMapCache extends AbstractValueAdaptingCache implements BulkCache {
+
+    private final IMap<Object, Object> map;
+
+    public HazelcastMapCache(IMap<Object, Object> map) {
+        super(true);
+        this.map = map;
+    }
+
+    @Override
+    public String getName() {
+        return map.getName();
+    }
+
+    @Override
+    public IMap<Object, Object> getNativeCache() {
+        return map;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = map.get(key);
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        map.set(key, toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        map.set(key, toStoreValue(value));
+    }
+
+    /**
+     * 按分区分组批量读取，每个成员一次往返
+     */
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, Object> stored = map.getAll(new HashSet<>(keys));
+        Map<Object, ValueWrapper> found = new HashMap<>(stored.size() * 2);
+        stored.forEach((key, value) -> found.put(key, toValueWrapper(value)));
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<Object, Object> stored = new HashMap<>(entries.size() * 2);
+        entries.forEach((key, value) -> stored.put(key, toStoreValue(value)));
+        map.setAll(stored);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return toValueWrapper(map.putIfAbsent(key, toStoreValue(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        map.delete(key);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.util.AfterCommit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 交易缓存的精确失效
+ * 单条缓存按ID、业务编号、参考号三个键逐一失效；分页列表无法定位到具体条目，只能整体清空。
+ * 处于事务中时延迟到提交后执行，避免并发读在提交前把旧数据重新放回缓存。
+ * 同时在提交后提升列表的高水位标记（{@link TransactionWatermarks}），列表的条件请求据此判断是否修改。
+ * 近似计数和看板汇总由写路径另行通过 {@link com.example.banktransactionmanager.stats.TransactionStatsRecorder} 更新。
+ */
+@Component
+public class TransactionCacheInvalidator {
+
+    static final String TRANSACTIONS_CACHE = "transactions";
+    static final String TRANSACTION_LIST_CACHE = "transactionList";
+
+    private final CacheManager cacheManager;
+    private final TransactionWatermarks watermarks;
+
+    public TransactionCacheInvalidator(CacheManager cacheManager, TransactionWatermarks watermarks) {
+        this.cacheManager = cacheManager;
+        this.watermarks = watermarks;
+    }
+
+    /**
+     * 失效给定交易的单条缓存以及全部分页列表缓存
+     */
+    public void evict(Collection<? extends TransactionRef> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Object> keys = new ArrayList<>(transactions.size() * 3);
+        for (TransactionRef ref : transactions) {
+            addKeys(keys, ref.getId(), ref.getTransactionBizNo(), ref.getReferenceNumber());
+        }
+        evictKeys(keys);
+        // 批量状态流转时投影中是变化前的状态，按全部状态提升
+        AfterCommit.run(() -> transactions.forEach(ref ->
+                watermarks.markChanged(ref.getAccountNumber(), ref.getTransactionType(), null)));
+    }
+
+    /**
+     * 记录单笔交易的变化（新建、更新、删除），提交后提升包含它的列表的高水位标记
+     * 单条缓存和分页列表缓存由调用方按各自的方式失效
+     * @param statuses 交易变化前后的状态
+     */
+    public void markChanged(String accountNumber, Transaction.TransactionType transactionType,
+                            Transaction.Status... statuses) {
+        AfterCommit.run(() -> {
+            for (Transaction.Status status : statuses) {
+                watermarks.markChanged(accountNumber, transactionType, status);
+            }
+        });
+    }
+
+    private static void addKeys(List<Object> keys, Long id, String transactionBizNo, String referenceNumber) {
+        keys.add(id);
+        if (transactionBizNo != null) {
+            keys.add(transactionBizNo);
+        }
+        if (referenceNumber != null) {
+            keys.add(referenceNumber);
+        }
+    }
+
+    private void evictKeys(List<Object> keys) {
+        AfterCommit.run(() -> {
+            Cache cache = cacheManager.getCache(TRANSACTIONS_CACHE);
+            if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+            Cache listCache = cacheManager.getCache(TRANSACTION_LIST_CACHE);
+            if (listCache != null) {
+                listCache.clear();
+            }
+        });
+    }
+}
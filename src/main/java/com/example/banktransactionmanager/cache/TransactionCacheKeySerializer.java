@@ -0,0 +1,54 @@
+package com.example.banktransactionmanager.cache;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * "transactions"缓存的键序列化器：键为交易ID（Long）或业务编号/参考号（String）
+ * 布局：类型标记(1) + 定长long或UTF-8字节
+ */
+public class TransactionCacheKeySerializer implements Serializer<Object> {
+
+    private static final byte TAG_LONG = 0;
+    private static final byte TAG_STRING = 1;
+
+    /**
+     * Ehcache按类名实例化序列化器时使用的构造方法
+     */
+    public TransactionCacheKeySerializer(ClassLoader classLoader) {
+    }
+
+    @Override
+    public ByteBuffer serialize(Object key) throws SerializerException {
+        if (key instanceof Long id) {
+            return ByteBuffer.allocate(1 + Long.BYTES).put(TAG_LONG).putLong(id).flip();
+        }
+        if (key instanceof String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(1 + bytes.length).put(TAG_STRING).put(bytes).flip();
+        }
+        throw new SerializerException("Unsupported cache key type: " + key.getClass().getName());
+    }
+
+    @Override
+    public Object read(ByteBuffer binary) throws SerializerException {
+        byte tag = binary.get();
+        return switch (tag) {
+            case TAG_LONG -> binary.getLong();
+            case TAG_STRING -> {
+                byte[] bytes = new byte[binary.remaining()];
+                binary.get(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            default -> throw new SerializerException("Unknown cache key tag: " + tag);
+        };
+    }
+
+    @Override
+    public boolean equals(Object key, ByteBuffer binary) throws SerializerException {
+        return key.equals(read(binary));
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.springframework.cache.support.NullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * "transactions"缓存堆外/磁盘层使用的紧凑二进制序列化器，替代Java序列化
+ * <p>
+ * 布局：类型标记(1) + 格式版本(1) + 字段存在位图(4) + 按声明顺序写出的非空字段。
+ * 长整数定长写出，枚举写序号，时间写UTC下的epoch秒和纳秒，字符串写修改版UTF-8。
+ * 查询结果为空时Spring缓存保存的 {@link NullValue} 只占一个字节。
+ * 磁盘层可以跨重启保留数据，因此枚举只能在末尾追加新值，字段变化需要提升 {@link #FORMAT_VERSION}；
+ * 读到旧版本的数据时抛出 {@link SerializerException}。
+ */
+public class TransactionDTOSerializer implements Serializer<Object> {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_DTO = 1;
+
+    private static final Transaction.TransactionType[] TRANSACTION_TYPES = Transaction.TransactionType.values();
+    private static final Transaction.Status[] STATUSES = Transaction.Status.values();
+    private static final Transaction.AccountType[] ACCOUNT_TYPES = Transaction.AccountType.values();
+    private static final Transaction.Channel[] CHANNELS = Transaction.Channel.values();
+
+    /**
+     * Ehcache按类名实例化序列化器时使用的构造方法
+     */
+    public TransactionDTOSerializer(ClassLoader classLoader) {
+    }
+
+    @Override
+    public ByteBuffer serialize(Object object) throws SerializerException {
+        if (object instanceof NullValue) {
+            return ByteBuffer.wrap(new byte[]{TAG_NULL});
+        }
+        if (!(object instanceof TransactionDTO dto)) {
+            throw new SerializerException("Unsupported cache value type: " + object.getClass().getName());
+        }
+        FieldWriter writer = new FieldWriter();
+        writer.writeLong(dto.getId());
+        writer.writeString(dto.getTransactionBizNo());
+        writer.writeEnum(dto.getTransactionType());
+        writer.writeEnum(dto.getStatus());
+        writer.writeString(dto.getCurrency());
+        writer.writeString(dto.getDescription());
+        writer.writeTime(dto.getTransactionTime());
+        writer.writeString(dto.getAccountNumber());
+        writer.writeEnum(dto.getAccountType());
+        writer.writeString(dto.getCounterpartyAccountNumber());
+        writer.writeString(dto.getCounterpartyName());
+        writer.writeEnum(dto.getChannel());
+        writer.writeString(dto.getExternalReferenceNo());
+        writer.writeString(dto.getRemarks());
+        writer.writeBoolean(dto.getIsDeleted());
+        writer.writeTime(dto.getDeletedTime());
+        writer.writeTime(dto.getCreateTime());
+        writer.writeTime(dto.getUpdateTime());
+        writer.writeString(dto.getCreator());
+        writer.writeString(dto.getUpdater());
+        writer.writeLong(dto.getAmount());
+        writer.writeLong(dto.getFee());
+        return writer.toByteBuffer();
+    }
+
+    @Override
+    public Object read(ByteBuffer binary) throws SerializerException {
+        byte tag = binary.get();
+        if (tag == TAG_NULL) {
+            return NullValue.INSTANCE;
+        }
+        if (tag != TAG_DTO) {
+            throw new SerializerException("Unknown cache value tag: " + tag);
+        }
+        byte version = binary.get();
+        if (version != FORMAT_VERSION) {
+            throw new SerializerException("Unsupported TransactionDTO format version: " + version);
+        }
+        FieldReader reader = new FieldReader(binary);
+        return TransactionDTO.builder()
+                .id(reader.readLong())
+                .transactionBizNo(reader.readString())
+                .transactionType(reader.readEnum(TRANSACTION_TYPES))
+                .status(reader.readEnum(STATUSES))
+                .currency(reader.readString())
+                .description(reader.readString())
+                .transactionTime(reader.readTime())
+                .accountNumber(reader.readString())
+                .accountType(reader.readEnum(ACCOUNT_TYPES))
+                .counterpartyAccountNumber(reader.readString())
+                .counterpartyName(reader.readString())
+                .channel(reader.readEnum(CHANNELS))
+                .externalReferenceNo(reader.readString())
+                .remarks(reader.readString())
+                .isDeleted(reader.readBoolean())
+                .deletedTime(reader.readTime())
+                .createTime(reader.readTime())
+                .updateTime(reader.readTime())
+                .creator(reader.readString())
+                .updater(reader.readString())
+                .amount(reader.readLong())
+                .fee(reader.readLong())
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object object, ByteBuffer binary) throws SerializerException {
+        return object.equals(read(binary));
+    }
+
+    /**
+     * 按字段顺序写出非空值，并在位图中记录每个字段是否存在
+     */
+    private static final class FieldWriter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int presence;
+        private int field;
+
+        void writeLong(Long value) {
+            if (present(value)) {
+                write(() -> out.writeLong(value));
+            }
+        }
+
+        void writeString(String value) {
+            if (present(value)) {
+                write(() -> out.writeUTF(value));
+            }
+        }
+
+        void writeEnum(Enum<?> value) {
+            if (present(value)) {
+                write(() -> out.writeByte(value.ordinal()));
+            }
+        }
+
+        void writeBoolean(Boolean value) {
+            if (present(value)) {
+                write(() -> out.writeBoolean(value));
+            }
+        }
+
+        void writeTime(LocalDateTime value) {
+            if (present(value)) {
+                write(() -> {
+                    out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(value.getNano());
+                });
+            }
+        }
+
+        ByteBuffer toByteBuffer() {
+            byte[] body = bytes.toByteArray();
+            return ByteBuffer.allocate(2 + Integer.BYTES + body.length)
+                    .put(TAG_DTO)
+                    .put(FORMAT_VERSION)
+                    .putInt(presence)
+                    .put(body)
+                    .flip();
+        }
+
+        private boolean present(Object value) {
+            boolean present = value != null;
+            if (present) {
+                presence |= 1 << field;
+            }
+            field++;
+            return present;
+        }
+
+        private void write(IOAction action) {
+            try {
+                action.run();
+            } catch (IOException e) {
+                // 写入内存缓冲区不会发生IO异常
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 与 {@link FieldWriter} 对称的读取器，位图中未置位的字段返回null
+     */
+    private static final class FieldReader {
+
+        private final DataInputStream in;
+        private final int presence;
+        private int field;
+
+        FieldReader(ByteBuffer binary) {
+            this.presence = binary.getInt();
+            byte[] body = new byte[binary.remaining()];
+            binary.get(body);
+            this.in = new DataInputStream(new ByteArrayInputStream(body));
+        }
+
+        Long readLong() {
+            return present() ? read(in::readLong) : null;
+        }
+
+        String readString() {
+            return present() ? read(in::readUTF) : null;
+        }
+
+        <E extends Enum<E>> E readEnum(E[] values) {
+            return present() ? values[read(in::readUnsignedByte)] : null;
+        }
+
+        Boolean readBoolean() {
+            return present() ? read(in::readBoolean) : null;
+        }
+
+        LocalDateTime readTime() {
+            if (!present()) {
+                return null;
+            }
+            long epochSecond = read(in::readLong);
+            int nano = read(in::readInt);
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+
+        private boolean present() {
+            return (presence & (1 << field++)) != 0;
+        }
+
+        private <T> T read(IOSupplier<T> supplier) {
+            try {
+                return supplier.get();
+            } catch (IOException e) {
+                throw new SerializerException("Truncated TransactionDTO cache entry", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 交易列表按筛选条件的高水位标记，作为列表接口条件请求（ETag）的校验值
+ * <p>
+ * 筛选条件为 (账号, 交易类型, 状态)，每一项都可以不限。交易变化时提升所有可能包含它的筛选组合：
+ * 一笔交易只落在 2^3 = 8 个组合中，状态未知（批量状态流转）时按全部状态提升。
+ * 标记取自单调递增的毫秒时钟。没有记录的组合返回下限，
+ * 下限为启动时间，组合数超过上限被整体清空时提升到当前时间，因此重启或清空后所有列表都会被视为修改过一次，
+ * 只会多返回一次完整响应，不会误判为未修改。
+ * <p>
+ * 时钟只在本进程内有意义，ETag中带有进程标识，不同副本签发的ETag互不匹配；
+ * 集群模式下交易变化通过 {@link CacheInvalidationBus} 广播，其它副本用各自的时钟提升对应组合。
+ */
+public class TransactionWatermarks {
+
+    static final String BUS_NAME = "transactionWatermarks";
+
+    private static final Transaction.Status[] STATUSES = Transaction.Status.values();
+
+    private final int maxEntries;
+    private final CacheInvalidationBus invalidationBus;
+    private final String instanceTag = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private final Map<FilterKey, Long> marks = new ConcurrentHashMap<>();
+    private volatile long floor = clock.get();
+
+    /**
+     * @param maxEntries 记录的筛选组合上限，超出后整体清空
+     * @param invalidationBus 集群广播，单机部署时为null
+     */
+    public TransactionWatermarks(int maxEntries, CacheInvalidationBus invalidationBus) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("高水位标记条目上限必须为正数");
+        }
+        this.maxEntries = maxEntries;
+        this.invalidationBus = invalidationBus;
+        if (invalidationBus != null) {
+            invalidationBus.register(BUS_NAME, key -> {
+                if (key instanceof Change change) {
+                    apply(change);
+                }
+            });
+        }
+    }
+
+    /**
+     * 筛选组合当前的高水位标记（毫秒）
+     * @param accountNumber 账号，null表示不限
+     * @param transactionType 交易类型，null表示不限
+     * @param status 状态，null表示不限
+     */
+    public long current(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status) {
+        Long mark = marks.get(new FilterKey(accountNumber, transactionType, status));
+        long lowest = floor;
+        return mark != null && mark > lowest ? mark : lowest;
+    }
+
+    /**
+     * 由标记生成弱ETag：响应可能被压缩，字节不保证一致
+     */
+    public String entityTag(long watermark) {
+        return "W/\"" + instanceTag + "-" + Long.toString(watermark, 36) + "\"";
+    }
+
+    /**
+     * 记录一笔交易的变化，应在事务提交后调用
+     * @param status 交易变化前后所处的状态，null表示未知（按全部状态提升）
+     */
+    public void markChanged(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status) {
+        Change change = new Change(accountNumber, transactionType, status);
+        apply(change);
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(BUS_NAME, change);
+        }
+    }
+
+    private void apply(Change change) {
+        if (marks.size() > maxEntries) {
+            marks.clear();
+            floor = tick();
+        }
+        long mark = tick();
+        if (change.status() != null) {
+            mark(change.accountNumber(), change.transactionType(), change.status(), mark);
+        } else {
+            for (Transaction.Status status : STATUSES) {
+                mark(change.accountNumber(), change.transactionType(), status, mark);
+            }
+        }
+    }
+
+    // 提升包含该交易的全部筛选组合（状态不限的组合在调用方按每个状态重复提升，结果相同）
+    private void mark(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status,
+                      long mark) {
+        for (int mask = 0; mask < 8; mask++) {
+            FilterKey key = new FilterKey((mask & 1) != 0 ? accountNumber : null,
+                    (mask & 2) != 0 ? transactionType : null,
+                    (mask & 4) != 0 ? status : null);
+            marks.merge(key, mark, Math::max);
+        }
+    }
+
+    // 毫秒时钟，同一毫秒内的多次变化依次加一，保证严格递增
+    private long tick() {
+        return clock.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+    }
+
+    private record FilterKey(String accountNumber, Transaction.TransactionType transactionType,
+                             Transaction.Status status) {
+    }
+
+    /**
+     * 广播给其它副本的交易变化
+     */
+    record Change(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status)
+            implements Serializable {
+    }
+}
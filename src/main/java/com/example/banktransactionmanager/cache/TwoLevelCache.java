@@ -0,0 +1,147 @@
+package com.example.banktransactionmanager.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 两级缓存：本地堆缓存（L1）在前，集群共享缓存（L2）在后
+ * 读：先查L1，未命中再查L2并回填L1；写/失效：先写L2再写L1，然后广播让其它副本丢弃各自的L1条目。
+ * L1只是L2的就近副本，正确性依赖失效广播和L1较短的TTL。
+ */
+public class TwoLevelCache implements Cache, BulkCache {
+
+    private final String name;
+    private final Cache local;
+    private final Cache shared;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoLevelCache(String name, Cache local, Cache shared, CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    public Cache getShared() {
+        return shared;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = shared.get(key);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        T loaded = shared.get(key, valueLoader);
+        local.put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        local.put(key, value);
+        invalidationBus.publishEvict(name, key);
+    }
+
+    /**
+     * 先批量查L1，只把L1未命中的键交给L2批量查询，L2命中的条目批量回填L1
+     */
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> found = new HashMap<>(BulkCache.getAll(local, keys));
+        if (found.size() == keys.size()) {
+            return found;
+        }
+        List<Object> misses = new ArrayList<>(keys.size() - found.size());
+        for (Object key : keys) {
+            if (!found.containsKey(key)) {
+                misses.add(key);
+            }
+        }
+        Map<Object, ValueWrapper> fromShared = BulkCache.getAll(shared, misses);
+        if (!fromShared.isEmpty()) {
+            Map<Object, Object> backfill = new HashMap<>(fromShared.size() * 2);
+            fromShared.forEach((key, value) -> backfill.put(key, value.get()));
+            BulkCache.putAll(local, backfill);
+            found.putAll(fromShared);
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        BulkCache.putAll(shared, entries);
+        BulkCache.putAll(local, entries);
+        entries.keySet().forEach(key -> invalidationBus.publishEvict(name, key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = shared.putIfAbsent(key, value);
+        local.put(key, existing != null ? existing.get() : value);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        local.evict(key);
+        invalidationBus.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        local.clear();
+        invalidationBus.publishClear(name);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.banktransactionmanager.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按缓存名称选择部署模式：列在 clusteredCacheNames 中的缓存使用 {@link TwoLevelCache}，
+ * 其余缓存直接使用本地CacheManager
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final HazelcastInstance hazelcast;
+    private final Set<String> clusteredCacheNames;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager localCacheManager, HazelcastInstance hazelcast,
+                                Set<String> clusteredCacheNames, CacheInvalidationBus invalidationBus) {
+        this.localCacheManager = localCacheManager;
+        this.hazelcast = hazelcast;
+        this.clusteredCacheNames = Set.copyOf(clusteredCacheNames);
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!clusteredCacheNames.contains(name)) {
+            return localCacheManager.getCache(name);
+        }
+        Cache cache = caches.get(name);
+        if (cache == null) {
+            Cache local = localCacheManager.getCache(name);
+            if (local == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name, key -> {
+                invalidationBus.register(key, local);
+                return new TwoLevelCache(key, local, new HazelcastMapCache(hazelcast.getMap(key)), invalidationBus);
+            });
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return localCacheManager.getCacheNames();
+    }
+}
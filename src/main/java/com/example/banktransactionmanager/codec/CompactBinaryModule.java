@@ -0,0 +1,152 @@
+package com.example.banktransactionmanager.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 紧凑二进制传输格式（Smile）的Jackson模块
+ * <p>
+ * 金额统一编码为保留两位小数的缩放整数（分），时间编码为epoch毫秒，枚举编码为序号，空字段不输出；
+ * Smile本身会对重复出现的字段名做回引用，分页列表中每条记录的字段名只在首次出现时写出。
+ * 由于使用枚举序号，枚举只能在末尾追加新值。
+ * 以分保存的金额字段（{@link MinorUnits}）本身就是整数，直接按long读写。
+ */
+public class CompactBinaryModule extends SimpleModule {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * 金额缩放位数，1.23 编码为 123
+     */
+    public static final int AMOUNT_SCALE = 2;
+
+    public CompactBinaryModule(ZoneId zone) {
+        super("CompactBinaryModule");
+        addSerializer(BigDecimal.class, new ScaledLongSerializer());
+        addDeserializer(BigDecimal.class, new ScaledLongDeserializer());
+        addSerializer(LocalDateTime.class, new EpochMillisSerializer(zone));
+        addDeserializer(LocalDateTime.class, new EpochMillisDeserializer(zone));
+    }
+
+    /**
+     * 创建紧凑二进制格式使用的ObjectMapper
+     * @param zone LocalDateTime 与 epoch毫秒互转使用的时区
+     */
+    public static ObjectMapper createSmileMapper(ZoneId zone) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        // 后注册的模块优先，覆盖 JavaTimeModule 对 LocalDateTime 的处理以及 @JsonFormat 的字符串格式
+        return TransactionFieldFilter.configure(Jackson2ObjectMapperBuilder.smile())
+                .factory(factory)
+                .modules(new JavaTimeModule(), new CompactBinaryModule(zone))
+                .annotationIntrospector(new RawMinorUnitsIntrospector())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .build();
+    }
+
+    /**
+     * 忽略 {@link MinorUnits} 上的十进制(反)序列化器，使金额字段按原始long编码
+     */
+    static final class RawMinorUnitsIntrospector extends JacksonAnnotationIntrospector {
+
+        @Override
+        public Object findSerializer(Annotated a) {
+            return a.hasAnnotation(MinorUnits.class) ? null : super.findSerializer(a);
+        }
+
+        @Override
+        public Object findDeserializer(Annotated a) {
+            return a.hasAnnotation(MinorUnits.class) ? null : super.findDeserializer(a);
+        }
+    }
+
+    static final class ScaledLongSerializer extends StdScalarSerializer<BigDecimal> {
+
+        ScaledLongSerializer() {
+            super(BigDecimal.class);
+        }
+
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.movePointRight(AMOUNT_SCALE).longValueExact());
+        }
+    }
+
+    static final class ScaledLongDeserializer extends StdScalarDeserializer<BigDecimal> {
+
+        ScaledLongDeserializer() {
+            super(BigDecimal.class);
+        }
+
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return BigDecimal.valueOf(p.getLongValue(), AMOUNT_SCALE);
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return new BigDecimal(p.getText().trim());
+            }
+            return (BigDecimal) ctxt.handleUnexpectedToken(BigDecimal.class, p);
+        }
+    }
+
+    static final class EpochMillisSerializer extends StdScalarSerializer<LocalDateTime> {
+
+        private final ZoneId zone;
+
+        EpochMillisSerializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+        }
+    }
+
+    static final class EpochMillisDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+        private final ZoneId zone;
+
+        EpochMillisDeserializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), zone);
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return LocalDateTime.parse(p.getText().trim());
+            }
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+    }
+}
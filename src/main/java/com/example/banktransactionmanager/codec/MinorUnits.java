@@ -0,0 +1,23 @@
+package com.example.banktransactionmanager.codec;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记以分（long）保存的金额字段
+ * JSON中仍按两位小数的十进制数读写（100.00），与改为long之前的格式一致；
+ * 紧凑二进制格式（Smile）忽略该注解，直接读写分的整数值。
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = MinorUnitsSerializer.class)
+@JsonDeserialize(using = MinorUnitsDeserializer.class)
+public @interface MinorUnits {
+}
@@ -0,0 +1,43 @@
+package com.example.banktransactionmanager.codec;
+
+import com.example.banktransactionmanager.model.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * JSON十进制数值 → 分（123.45 → 12345），小数超过两位时拒绝，不做舍入
+ */
+public class MinorUnitsDeserializer extends StdScalarDeserializer<Long> {
+
+    public MinorUnitsDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        BigDecimal value;
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            value = p.getDecimalValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            try {
+                value = new BigDecimal(p.getText().trim());
+            } catch (NumberFormatException e) {
+                throw InvalidFormatException.from(p, "Amount is not a valid decimal number", p.getText(), Long.class);
+            }
+        } else {
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+        try {
+            return Money.toMinorUnits(value);
+        } catch (ArithmeticException e) {
+            throw InvalidFormatException.from(p, "Amount must have at most " + Money.SCALE + " decimal places", value, Long.class);
+        }
+    }
+}
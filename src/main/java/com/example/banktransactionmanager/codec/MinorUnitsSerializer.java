@@ -0,0 +1,24 @@
+package com.example.banktransactionmanager.codec;
+
+import com.example.banktransactionmanager.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+
+/**
+ * 分 → 两位小数的JSON数值（12345 → 123.45），直接写字符，不创建BigDecimal
+ */
+public class MinorUnitsSerializer extends StdScalarSerializer<Long> {
+
+    public MinorUnitsSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[22];
+        gen.writeNumber(buffer, 0, Money.format(value, buffer));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.banktransactionmanager.codec;
+
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.projection.TransactionField;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 稀疏字段集的序列化：只输出请求选择的 {@link TransactionDTO} 属性
+ * <p>
+ * 过滤器通过mix-in挂到DTO上，不修改DTO本身；ObjectMapper的默认过滤器输出全部属性，
+ * 只有带过滤条件的响应（{@link #select}）才会裁剪。JSON和Smile两个ObjectMapper都需要经过 {@link #configure}。
+ */
+public final class TransactionFieldFilter {
+
+    static final String FILTER_ID = "transactionFields";
+
+    private TransactionFieldFilter() {
+    }
+
+    public static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.mixIn(TransactionDTO.class, FilteredTransaction.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * 包装响应体，序列化其中的交易时只输出指定字段
+     */
+    public static MappingJacksonValue select(Object body, Set<TransactionField> fields) {
+        Set<String> properties = fields.stream().map(TransactionField::getProperty).collect(Collectors.toSet());
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+        return value;
+    }
+
+    @JsonFilter(FILTER_ID)
+    interface FilteredTransaction {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.admission.AdmissionControlFilter;
+import com.example.banktransactionmanager.admission.ConcurrencyLimit;
+import com.example.banktransactionmanager.admission.EndpointClass;
+import com.example.banktransactionmanager.admission.RateLimit;
+import com.example.banktransactionmanager.model.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(value = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    /**
+     * 排在链路追踪之后，被拒绝的请求也有链路和状态码
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${admission.rate-limits.max-api-keys:10000}") int maxApiKeys,
+            @Value("${admission.export-paths:}") List<String> exportPaths,
+            @Value("${admission.stream-paths:}") List<String> streamPaths) {
+        Binder binder = Binder.get(environment);
+        Map<Transaction.Channel, RateLimit> channelLimits = binder.bind("admission.rate-limits.channels",
+                Bindable.mapOf(Transaction.Channel.class, RateLimit.class)).orElse(Map.of());
+        Map<String, Transaction.Channel> apiKeyChannels = binder.bind("admission.rate-limits.api-key-channels",
+                Bindable.mapOf(String.class, Transaction.Channel.class)).orElse(Map.of());
+        RateLimit defaultChannelLimit = binder.bind("admission.rate-limits.default-channel", RateLimit.class)
+                .orElse(null);
+        Map<String, RateLimit> apiKeyLimits = binder.bind("admission.rate-limits.api-keys",
+                Bindable.mapOf(String.class, RateLimit.class)).orElse(Map.of());
+        RateLimit defaultApiKeyLimit = binder.bind("admission.rate-limits.default-api-key", RateLimit.class)
+                .orElse(null);
+        Map<EndpointClass, ConcurrencyLimit> concurrencyLimits = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            binder.bind("admission.concurrency." + endpointClass.tag(), ConcurrencyLimit.class)
+                    .ifBound(limit -> concurrencyLimits.put(endpointClass, limit));
+        }
+        AdmissionControlFilter filter = new AdmissionControlFilter(channelLimits, apiKeyChannels, defaultChannelLimit,
+                apiKeyLimits, defaultApiKeyLimit, maxApiKeys, concurrencyLimits, exportPaths, streamPaths, meterRegistry);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
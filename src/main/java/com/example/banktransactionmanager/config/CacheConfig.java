@@ -1,21 +1,243 @@
 package com.example.banktransactionmanager.config;
 
+import com.example.banktransactionmanager.cache.CacheInvalidationBus;
+import com.example.banktransactionmanager.cache.CacheTierMetrics;
+import com.example.banktransactionmanager.cache.CoalescingCache;
+import com.example.banktransactionmanager.cache.CoalescingCacheManager;
+import com.example.banktransactionmanager.cache.TransactionWatermarks;
+import com.example.banktransactionmanager.cache.TwoLevelCacheManager;
+import com.example.banktransactionmanager.profiling.ProfiledCacheManager;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.ehcache.config.FluentConfigurationBuilder;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.core.io.Resource;
+
 import javax.cache.Caching;
-import javax.cache.spi.CachingProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    static final String TRANSACTIONS_CACHE = "transactions";
+
+    /**
+     * 集群模式下可以启用共享层的缓存，以及各自共享层的过期时间和每个成员的条目上限
+     * 过期时间与ehcache.xml中本地层保持一致；共享层由所有副本分摊，上限按单个成员计算
+     */
+    static final Map<String, SharedTier> SHARED_TIERS = Map.of(
+            TRANSACTIONS_CACHE, new SharedTier(Duration.ofMinutes(10), 50_000),
+            "transactionList", new SharedTier(Duration.ofMinutes(5), 1_000),
+            "idempotencyKeys", new SharedTier(Duration.ofHours(24), 100_000));
+
+    /**
+     * 基于ehcache.xml创建JCache缓存管理器（默认URI不会加载任何缓存定义）
+     * Hazelcast同样注册了JCache提供者，这里显式指定Ehcache。
+     * "transactions"缓存的各层容量按 cache.transactions.* 覆盖XML中的默认值。
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheManager(
+            @Value("${spring.cache.jcache.config:classpath:ehcache.xml}") Resource config,
+            @Value("${cache.transactions.heap-entries:1000}") long heapEntries,
+            @Value("${cache.transactions.offheap-mb:32}") long offHeapMb,
+            @Value("${cache.transactions.disk-mb:0}") long diskMb,
+            @Value("${cache.transactions.disk-persistent:false}") boolean diskPersistent,
+            @Value("${cache.transactions.disk-path:cache-data}") String diskPath) throws IOException {
+        LocalTiers tiers = new LocalTiers(heapEntries, offHeapMb, diskMb, diskPersistent, Path.of(diskPath));
+        return createJCacheManager(config.getURI(), config.getURL(), getClass().getClassLoader(), tiers);
+    }
+
+    static javax.cache.CacheManager createJCacheManager(URI uri, URL config, ClassLoader classLoader,
+                                                        LocalTiers transactionTiers) {
+        FluentConfigurationBuilder<?> builder = new XmlConfiguration(config, classLoader).derive()
+                .updateCache(TRANSACTIONS_CACHE, cache -> cache.withResourcePools(transactionTiers.resourcePools()));
+        if (transactionTiers.diskEnabled()) {
+            builder = builder.withService(new CacheManagerPersistenceConfiguration(transactionTiers.diskPath().toFile()));
+        }
+        EhcacheCachingProvider cachingProvider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return cachingProvider.getCacheManager(uri, builder.build());
+    }
+
+    /**
+     * 按缓存层输出命中/未命中指标
+     */
     @Bean
-    public CacheManager cacheManager() {
-        CachingProvider cachingProvider = Caching.getCachingProvider();
-        javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager();
-        return new JCacheCacheManager(cacheManager);
+    public CacheTierMetrics cacheTierMetrics(javax.cache.CacheManager jCacheManager) {
+        return new CacheTierMetrics(jCacheManager);
+    }
+
+    @Bean
+    public CacheManager cacheManager(javax.cache.CacheManager jCacheManager,
+                                     ObjectProvider<HazelcastInstance> cacheHazelcastInstance,
+                                     ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+                                     @Value("${cache.cluster.caches:transactions,transactionList,idempotencyKeys}") Set<String> clusteredCaches,
+                                     @Value("${cache.refresh-ahead.caches:transactionList}") Set<String> refreshAheadCaches,
+                                     @Value("${cache.refresh-ahead.ttl:PT5M}") Duration refreshAheadTtl,
+                                     @Value("${cache.refresh-ahead.refresh-after:PT4M}") Duration refreshAfter,
+                                     @Value("${cache.refresh-ahead.min-hits:3}") int refreshMinHits,
+                                     @Value("${cache.refresh-ahead.early-expiration-beta:0}") double earlyExpirationBeta,
+                                     @Value("${cache.refresh-ahead.threads:2}") int refreshThreads) {
+        CacheManager cacheManager = new JCacheCacheManager(jCacheManager);
+        HazelcastInstance hazelcast = cacheHazelcastInstance.getIfAvailable();
+        if (hazelcast != null) {
+            cacheManager = new TwoLevelCacheManager(cacheManager, hazelcast, clusteredCaches,
+                    cacheInvalidationBus.getObject());
+        }
+        // 缓存击穿保护：并发未命中合并为一次加载，热点条目在过期前后台刷新
+        CoalescingCache.RefreshPolicy refreshPolicy = new CoalescingCache.RefreshPolicy(
+                refreshAheadTtl, refreshAfter, refreshMinHits, earlyExpirationBeta);
+        Map<String, CoalescingCache.RefreshPolicy> refreshPolicies = new HashMap<>();
+        refreshAheadCaches.forEach(name -> refreshPolicies.put(name, refreshPolicy));
+        cacheManager = new CoalescingCacheManager(cacheManager, refreshPolicies, refreshThreads);
+        // 包装一层以便为缓存查询发出JFR事件
+        return new ProfiledCacheManager(cacheManager);
+    }
+
+    /**
+     * 交易列表按筛选条件的高水位标记，用于列表缓存键和条件请求
+     */
+    @Bean
+    public TransactionWatermarks transactionWatermarks(
+            ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+            @Value("${transaction.watermarks.max-entries:100000}") int maxEntries) {
+        return new TransactionWatermarks(maxEntries, cacheInvalidationBus.getIfAvailable());
+    }
+
+    /**
+     * 集群缓存：嵌入式Hazelcast成员作为各副本共享的二级缓存，并承载本地缓存失效广播
+     * 共享层按主键、业务流水号和幂等键缓存，要求所有副本连接同一个数据库
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(value = "cache.cluster.enabled", havingValue = "true")
+    public HazelcastInstance cacheHazelcastInstance(
+            @Value("${spring.datasource.url:}") String datasourceUrl,
+            @Value("${cache.cluster.name:bank-transaction-manager}") String clusterName,
+            @Value("${cache.cluster.port:5701}") int port,
+            @Value("${cache.cluster.join:tcp}") String join,
+            @Value("${cache.cluster.members:127.0.0.1}") List<String> members,
+            @Value("${cache.cluster.kubernetes.service-dns:}") String serviceDns,
+            @Value("${cache.cluster.caches:transactions,transactionList,idempotencyKeys}") Set<String> clusteredCaches) {
+        requireSharedDatabase(datasourceUrl);
+        return Hazelcast.newHazelcastInstance(
+                hazelcastConfig(clusterName, port, join, members, serviceDns, clusteredCaches));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(value = "cache.cluster.enabled", havingValue = "true")
+    public CacheInvalidationBus cacheInvalidationBus(HazelcastInstance cacheHazelcastInstance) {
+        return new CacheInvalidationBus(cacheHazelcastInstance);
+    }
+
+    /**
+     * 内存数据库由每个副本独占，自增主键在各副本上都从1开始，
+     * 共享层会把其他副本的同号交易和幂等响应返回给本副本，因此拒绝启动
+     */
+    static void requireSharedDatabase(String datasourceUrl) {
+        if (datasourceUrl.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("cache.cluster.enabled=true requires a database shared by all replicas, "
+                    + "but spring.datasource.url is an in-memory database: " + datasourceUrl);
+        }
+    }
+
+    static Config hazelcastConfig(String clusterName, int port, String join, List<String> members,
+                                  String serviceDns, Set<String> clusteredCaches) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        // 由Spring容器负责关闭，避免JVM关闭钩子抢先断开集群
+        config.setProperty("hazelcast.shutdownhook.enabled", "false");
+        config.getNetworkConfig().setPort(port).setPortAutoIncrement(true);
+
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getAutoDetectionConfig().setEnabled(false);
+        switch (join) {
+            case "tcp" -> joinConfig.getTcpIpConfig().setEnabled(true).setMembers(members);
+            case "kubernetes" -> joinConfig.getKubernetesConfig().setEnabled(true)
+                    .setProperty("service-dns", serviceDns);
+            default -> throw new IllegalArgumentException("Unsupported cache.cluster.join: " + join);
+        }
+
+        for (String cacheName : clusteredCaches) {
+            SharedTier tier = SHARED_TIERS.get(cacheName);
+            if (tier == null) {
+                throw new IllegalArgumentException("No shared tier defined for cache " + cacheName);
+            }
+            config.addMapConfig(new MapConfig(cacheName)
+                    .setInMemoryFormat(InMemoryFormat.BINARY)
+                    .setBackupCount(1)
+                    .setTimeToLiveSeconds((int) tier.ttl().toSeconds())
+                    .setEvictionConfig(new EvictionConfig()
+                            .setEvictionPolicy(EvictionPolicy.LRU)
+                            .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                            .setSize(tier.maxEntriesPerMember())));
+        }
+        return config;
+    }
+
+    /**
+     * 共享层配置
+     * @param ttl 条目过期时间
+     * @param maxEntriesPerMember 每个集群成员最多保存的条目数
+     */
+    record SharedTier(Duration ttl, int maxEntriesPerMember) {
+    }
+
+    /**
+     * 本地缓存的分层容量：堆上按条目数，堆外与磁盘按MB；0表示不启用该层
+     * 磁盘层容量必须大于堆外层
+     * @param heapEntries 堆上层条目数，只保存热点条目以控制GC压力
+     * @param offHeapMb 堆外层容量，占用直接内存
+     * @param diskMb 磁盘层容量
+     * @param diskPersistent 磁盘层是否跨重启保留
+     * @param diskPath 磁盘层目录，每个实例独占
+     */
+    record LocalTiers(long heapEntries, long offHeapMb, long diskMb, boolean diskPersistent, Path diskPath) {
+
+        boolean diskEnabled() {
+            return diskMb > 0;
+        }
+
+        ResourcePools resourcePools() {
+            ResourcePoolsBuilder pools = ResourcePoolsBuilder.heap(heapEntries);
+            if (offHeapMb > 0) {
+                pools = pools.offheap(offHeapMb, MemoryUnit.MB);
+            }
+            if (diskEnabled()) {
+                pools = pools.disk(diskMb, MemoryUnit.MB, diskPersistent);
+            }
+            return pools.build();
+        }
     }
-}
\ No newline at end of file
+}
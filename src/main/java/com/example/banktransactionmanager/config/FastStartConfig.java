@@ -0,0 +1,48 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.grpc.GrpcServerLifecycle;
+import com.example.banktransactionmanager.outbox.OutboxRelay;
+import com.example.banktransactionmanager.profiling.JfrRecordingManager;
+import com.example.banktransactionmanager.settlement.SettlementEngine;
+import com.example.banktransactionmanager.startup.WarmupRunner;
+import com.example.banktransactionmanager.stats.TransactionAggregates;
+import com.example.banktransactionmanager.stats.TransactionCounters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 快速启动配置（配合faststart profile使用）
+ * 开启spring.main.lazy-initialization后，只有被请求触达的Bean才会初始化；
+ * 但带@Scheduled的后台任务和需要在启动时打开的资源不会被任何请求触达，必须保持立即初始化。
+ */
+@Configuration
+@ConditionalOnProperty(value = "faststart.enabled", havingValue = "true")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundWorkers() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SettlementEngine.class, OutboxRelay.class, GrpcServerLifecycle.class, JfrRecordingManager.class,
+                TransactionCounters.class, TransactionAggregates.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "faststart.warmup.enabled", havingValue = "true", matchIfMissing = true)
+    public WarmupRunner warmupRunner(ConfigurableApplicationContext context,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${faststart.warmup.requests-per-round:200}") int requestsPerRound,
+                                     @Value("${faststart.warmup.max-rounds:50}") int maxRounds,
+                                     @Value("${faststart.warmup.plateau-rounds:3}") int plateauRounds,
+                                     @Value("${faststart.warmup.max-duration:PT30S}") Duration maxDuration,
+                                     @Value("${faststart.training-run:false}") boolean trainingRun) {
+        return new WarmupRunner(context, meterRegistry, requestsPerRound, maxRounds, plateauRounds,
+                maxDuration, trainingRun);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.grpc.GrpcServerLifecycle;
+import com.example.banktransactionmanager.grpc.TransactionGrpcService;
+import com.example.banktransactionmanager.grpc.TransactionProtoMapper;
+import com.example.banktransactionmanager.service.TransactionService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(value = "grpc.server.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    @Bean
+    public TransactionGrpcService transactionGrpcService(TransactionService transactionService,
+                                                         Validator validator,
+                                                         @Value("${wire.binary.time-zone:}") String timeZone) {
+        ZoneId zone = timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+        return new TransactionGrpcService(transactionService, new TransactionProtoMapper(zone), validator);
+    }
+
+    @Bean
+    public GrpcServerLifecycle grpcServer(TransactionGrpcService transactionGrpcService,
+                                          @Value("${grpc.server.port:9090}") int port,
+                                          @Value("${grpc.server.max-inbound-message-size:4194304}") int maxInboundMessageSize,
+                                          @Value("${grpc.server.shutdown-grace-period:PT10S}") Duration shutdownGracePeriod) {
+        Server server = NettyServerBuilder.forPort(port)
+                .addService(transactionGrpcService)
+                .maxInboundMessageSize(maxInboundMessageSize)
+                .permitKeepAliveTime(30, TimeUnit.SECONDS)
+                .build();
+        return new GrpcServerLifecycle(server, shutdownGracePeriod);
+    }
+}
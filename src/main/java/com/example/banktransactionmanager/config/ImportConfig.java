@@ -0,0 +1,60 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.imports.FileImportEngine;
+import com.example.banktransactionmanager.imports.FixedWidthColumn;
+import com.example.banktransactionmanager.imports.ImportFileLayout;
+import com.example.banktransactionmanager.repository.ImportJobRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableScheduling
+public class ImportConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public FileImportEngine fileImportEngine(
+            ImportJobRepository importJobRepository,
+            TransactionRepository transactionRepository,
+            TransactionTemplate transactionTemplate,
+            JdbcTemplate jdbcTemplate,
+            TransactionCacheInvalidator cacheInvalidator,
+            TransactionStatsRecorder statsRecorder,
+            Validator validator,
+            MeterRegistry meterRegistry,
+            @Value("${imports.inbox.enabled:true}") boolean inboxEnabled,
+            @Value("${imports.inbox-dir:imports/inbox}") String inboxDirectory,
+            @Value("${imports.work-dir:imports/work}") String workDirectory,
+            @Value("${imports.archive-dir:imports/archive}") String archiveDirectory,
+            @Value("${imports.report-dir:imports/reports}") String reportDirectory,
+            @Value("${imports.inbox.settle-time:PT10S}") Duration settleTime,
+            @Value("${imports.lease-duration:PT2M}") Duration leaseDuration,
+            @Value("${imports.chunk-size:1000}") int chunkSize,
+            @Value("${imports.parallelism:0}") int parallelism,
+            @Value("${imports.charset:UTF-8}") String charset,
+            @Value("${imports.max-line-bytes:4096}") int maxLineBytes,
+            @Value("${imports.csv.delimiter:,}") char delimiter,
+            @Value("${imports.fixed-width.columns:}") List<String> fixedWidthColumns) {
+        ImportFileLayout layout = new ImportFileLayout(Charset.forName(charset), delimiter,
+                fixedWidthColumns.stream().map(FixedWidthColumn::parse).toList(), maxLineBytes);
+        // 0表示按CPU核数
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new FileImportEngine(importJobRepository, transactionRepository, transactionTemplate, jdbcTemplate,
+                cacheInvalidator, statsRecorder, validator, meterRegistry, layout,
+                inboxEnabled ? Path.of(inboxDirectory) : null, Path.of(workDirectory),
+                Path.of(archiveDirectory), Path.of(reportDirectory), settleTime, leaseDuration, chunkSize, workers);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.aot.ApplicationRuntimeHints;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * native-image构建（mvn -Pnative）使用的运行时提示，JVM运行时不产生任何效果
+ */
+@Configuration
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
+public class NativeConfig {
+}
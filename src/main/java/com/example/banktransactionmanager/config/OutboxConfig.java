@@ -0,0 +1,60 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.outbox.ChangeFeed;
+import com.example.banktransactionmanager.outbox.FileOutboxEventSink;
+import com.example.banktransactionmanager.outbox.OutboxEventSink;
+import com.example.banktransactionmanager.outbox.OutboxRelay;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    public ChangeFeed changeFeed(@Value("${outbox.feed.capacity:10000}") int capacity) {
+        return new ChangeFeed(capacity);
+    }
+
+    /**
+     * SSE变更推送的发送线程：变更流在中继线程上回调订阅者，套接字写入在这里完成
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService changeStreamExecutor(@Value("${outbox.feed.stream-threads:4}") int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "change-stream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @ConditionalOnProperty("outbox.file-sink.path")
+    public FileOutboxEventSink fileOutboxEventSink(@Value("${outbox.file-sink.path}") String path,
+                                                   ObjectMapper objectMapper) {
+        return new FileOutboxEventSink(Path.of(path), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(TransactionOutboxRepository outboxRepository,
+                                   List<OutboxEventSink> sinks,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${outbox.relay.batch-size:500}") int batchSize,
+                                   @Value("${outbox.relay.max-batches-per-poll:10}") int maxBatchesPerPoll) {
+        return new OutboxRelay(outboxRepository, sinks, meterRegistry, batchSize, maxBatchesPerPoll);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.profiling.JfrEndpoint;
+import com.example.banktransactionmanager.profiling.JfrRecordingManager;
+import com.example.banktransactionmanager.profiling.QueryProfilingAspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(value = "profiling.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingConfig {
+
+    @Bean
+    public QueryProfilingAspect queryProfilingAspect() {
+        return new QueryProfilingAspect();
+    }
+
+    @Bean
+    public JfrRecordingManager jfrRecordingManager(
+            @Value("${profiling.jfr.settings:default}") String settings,
+            @Value("${profiling.jfr.max-age:PT30M}") Duration maxAge,
+            @Value("${profiling.jfr.max-size:64MB}") DataSize maxSize,
+            @Value("${profiling.jfr.dump-directory:${java.io.tmpdir}}") String dumpDirectory,
+            @Value("${profiling.jfr.always-on:false}") boolean alwaysOn) {
+        return new JfrRecordingManager(settings, maxAge, maxSize.toBytes(), Path.of(dumpDirectory), alwaysOn);
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrRecordingManager jfrRecordingManager) {
+        return new JfrEndpoint(jfrRecordingManager);
+    }
+}
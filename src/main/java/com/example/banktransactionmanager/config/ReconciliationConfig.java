@@ -0,0 +1,41 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.reconciliation.ReconciliationEngine;
+import com.example.banktransactionmanager.reconciliation.SettlementFileFormat;
+import com.example.banktransactionmanager.reconciliation.SettlementFileMatcher;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+@Configuration
+public class ReconciliationConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ReconciliationEngine reconciliationEngine(
+            TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${reconciliation.inbox-dir:reconciliation/inbox}") String inboxDirectory,
+            @Value("${reconciliation.report-dir:reconciliation/reports}") String reportDirectory,
+            @Value("${reconciliation.parallelism:0}") int parallelism,
+            @Value("${reconciliation.max-reported-issues:100000}") int maxReportedIssues,
+            @Value("${reconciliation.file.delimiter:,}") char delimiter,
+            @Value("${reconciliation.file.reference-column:0}") int referenceColumn,
+            @Value("${reconciliation.file.amount-column:1}") int amountColumn,
+            @Value("${reconciliation.file.header:true}") boolean header) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // 0表示按CPU核数
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        SettlementFileMatcher matcher = new SettlementFileMatcher(
+                new SettlementFileFormat((byte) delimiter, referenceColumn, amountColumn, header), workers);
+        return new ReconciliationEngine(transactionRepository, readOnly, matcher, meterRegistry,
+                Path.of(inboxDirectory), Path.of(reportDirectory), maxReportedIssues);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.outbox.TransactionOutbox;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.settlement.DefaultSettlementProcessor;
+import com.example.banktransactionmanager.settlement.SettlementEngine;
+import com.example.banktransactionmanager.settlement.SettlementProcessor;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(value = "settlement.enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SettlementProcessor settlementProcessor() {
+        return new DefaultSettlementProcessor();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public SettlementEngine settlementEngine(
+            TransactionRepository transactionRepository,
+            TransactionTemplate transactionTemplate,
+            TransactionCacheInvalidator cacheInvalidator,
+            TransactionStatsRecorder statsRecorder,
+            TransactionOutbox outbox,
+            SettlementProcessor settlementProcessor,
+            MeterRegistry meterRegistry,
+            @Value("${settlement.node-id:}") String nodeId,
+            @Value("${settlement.workers:4}") int workers,
+            @Value("${settlement.batch-size:200}") int batchSize,
+            @Value("${settlement.max-batches-per-poll:10}") int maxBatchesPerPoll,
+            @Value("${settlement.lease-duration:PT1M}") Duration leaseDuration,
+            @Value("${settlement.retry-backoff:PT10S}") Duration retryBackoff,
+            @Value("${settlement.max-attempts:5}") int maxAttempts) {
+        // 租约令牌为 节点ID-启动随机串-批次序号：节点重启后不会复用上一次进程留下的令牌
+        String instanceId = UUID.randomUUID().toString().substring(0, 8);
+        String trimmedNodeId = nodeId.length() > 32 ? nodeId.substring(nodeId.length() - 32) : nodeId;
+        String resolvedNodeId = trimmedNodeId.isBlank() ? instanceId : trimmedNodeId + "-" + instanceId;
+        return new SettlementEngine(transactionRepository, transactionTemplate, cacheInvalidator, statsRecorder, outbox, settlementProcessor,
+                meterRegistry, resolvedNodeId, workers, batchSize, maxBatchesPerPoll, leaseDuration, retryBackoff, maxAttempts);
+    }
+}
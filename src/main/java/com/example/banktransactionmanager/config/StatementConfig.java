@@ -0,0 +1,35 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.statement.StatementBatchJob;
+import com.example.banktransactionmanager.statement.StatementGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+@Configuration
+public class StatementConfig {
+
+    @Bean
+    public StatementGenerator statementGenerator(TransactionRepository transactionRepository,
+                                                 PlatformTransactionManager transactionManager,
+                                                 MeterRegistry meterRegistry) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new StatementGenerator(transactionRepository, readOnly, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public StatementBatchJob statementBatchJob(
+            TransactionRepository transactionRepository,
+            StatementGenerator statementGenerator,
+            @Value("${statement.batch.output-dir:statements}") String outputDirectory,
+            @Value("${statement.batch.parallelism:4}") int parallelism) {
+        return new StatementBatchJob(transactionRepository, statementGenerator, Path.of(outputDirectory), parallelism);
+    }
+}
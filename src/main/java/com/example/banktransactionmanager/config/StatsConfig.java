@@ -0,0 +1,53 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.cache.CacheInvalidationBus;
+import com.example.banktransactionmanager.repository.TransactionAggregateSnapshotRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.stats.TransactionAggregates;
+import com.example.banktransactionmanager.stats.TransactionCounters;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableScheduling
+public class StatsConfig {
+
+    /**
+     * 未删除交易的近似计数，按 transaction.counters.refresh-interval-ms 定期从数据库重新汇总
+     */
+    @Bean
+    public TransactionCounters transactionCounters(
+            TransactionRepository transactionRepository,
+            @Value("${transaction.counters.max-accounts:100000}") int maxAccounts) {
+        return new TransactionCounters(transactionRepository, maxAccounts);
+    }
+
+    /**
+     * 看板用的交易汇总，初始化时从快照恢复，按 transaction.aggregates.snapshot-interval-ms 定期写入快照
+     */
+    @Bean(initMethod = "recover", destroyMethod = "shutdown")
+    public TransactionAggregates transactionAggregates(
+            TransactionRepository transactionRepository,
+            TransactionAggregateSnapshotRepository snapshotRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+            @Value("${transaction.aggregates.retention-days:90}") int retentionDays,
+            @Value("${transaction.aggregates.recovery-days:2}") int recoveryDays) {
+        return new TransactionAggregates(transactionRepository, snapshotRepository, transactionTemplate,
+                cacheInvalidationBus.getIfAvailable(), retentionDays, recoveryDays);
+    }
+
+    /**
+     * 写路径提交后更新近似计数和看板汇总
+     */
+    @Bean
+    public TransactionStatsRecorder transactionStatsRecorder(TransactionCounters transactionCounters,
+                                                             TransactionAggregates transactionAggregates) {
+        return new TransactionStatsRecorder(transactionCounters, transactionAggregates);
+    }
+}
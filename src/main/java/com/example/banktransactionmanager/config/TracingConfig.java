@@ -0,0 +1,52 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.tracing.SlowRequestRecorder;
+import com.example.banktransactionmanager.tracing.SlowRequestsEndpoint;
+import com.example.banktransactionmanager.tracing.SpanExporter;
+import com.example.banktransactionmanager.tracing.Tracer;
+import com.example.banktransactionmanager.tracing.TracingAspect;
+import com.example.banktransactionmanager.tracing.TracingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(value = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public SlowRequestRecorder slowRequestRecorder(
+            @Value("${tracing.slow-requests.capacity:50}") int capacity,
+            @Value("${tracing.slow-requests.threshold-ms:200}") long thresholdMillis) {
+        return new SlowRequestRecorder(capacity, thresholdMillis);
+    }
+
+    @Bean
+    public Tracer tracer(@Value("${tracing.sampling-probability:1.0}") double samplingProbability,
+                         List<SpanExporter> exporters) {
+        return new Tracer(samplingProbability, exporters);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect() {
+        return new TracingAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestRecorder slowRequestRecorder) {
+        return new SlowRequestsEndpoint(slowRequestRecorder);
+    }
+}
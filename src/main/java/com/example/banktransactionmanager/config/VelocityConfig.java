@@ -0,0 +1,34 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.risk.VelocityRule;
+import com.example.banktransactionmanager.risk.VelocityRuleEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class VelocityConfig {
+
+    /**
+     * 规则列表按 velocity.rules[n].* 绑定；默认 velocity.enabled=false，此时引擎不带规则，评估直接放行
+     */
+    @Bean(destroyMethod = "shutdown")
+    public VelocityRuleEngine velocityRuleEngine(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${velocity.enabled:false}") boolean enabled,
+            @Value("${velocity.max-accounts:1000000}") int maxAccounts,
+            @Value("${velocity.sweep-interval:PT30S}") Duration sweepInterval) {
+        List<VelocityRule> rules = enabled
+                ? Binder.get(environment).bind("velocity.rules", Bindable.listOf(VelocityRule.class)).orElse(List.of())
+                : List.of();
+        return new VelocityRuleEngine(rules, maxAccounts, sweepInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.codec.CompactBinaryModule;
+import com.example.banktransactionmanager.codec.TransactionFieldFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 内容协商：Accept / Content-Type 为 application/x-jackson-smile 时使用紧凑二进制格式，其余仍为JSON
+ * 两种格式都支持列表接口的稀疏字段集（{@link TransactionFieldFilter}）
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ZoneId zone;
+
+    public WireFormatConfig(@Value("${wire.binary.time-zone:}") String timeZone) {
+        this.zone = timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    /**
+     * JSON使用的ObjectMapper同样支持稀疏字段集
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer transactionFieldFilterCustomizer() {
+        return TransactionFieldFilter::configure;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // 替换框架按类路径自动注册的默认Smile转换器；追加在末尾，保证未指定格式的请求仍返回JSON
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(CompactBinaryModule.createSmileMapper(zone)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * 列表接口的总数统计方式
+ */
+enum CountMode {
+
+    /**
+     * 执行COUNT，返回精确总数（默认）
+     */
+    EXACT,
+
+    /**
+     * 不执行COUNT，返回近似总数
+     */
+    ESTIMATE,
+
+    /**
+     * 不执行COUNT，只返回是否有下一页
+     */
+    NONE;
+
+    /**
+     * 按请求参数解析（不区分大小写）
+     */
+    static CountMode fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported count mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.imports.FileImportEngine;
+import com.example.banktransactionmanager.model.ImportJob;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.ImportJobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 渠道交易文件导入：上传后异步执行，通过任务ID查询进度和下载拒绝行报告
+ * 也可以把文件投递到 imports.inbox-dir，由后台轮询领取
+ */
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    @Autowired
+    private FileImportEngine fileImportEngine;
+
+    /**
+     * 上传交易文件并排队导入
+     * @param file CSV（带表头）或定长文件
+     * @param channel 文件所属渠道，写入每笔交易
+     * @param format CSV 或 FIXED_WIDTH，不传时按扩展名判断
+     * @param creator 导入交易的创建人
+     * @return 202和任务进度
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobStatus> upload(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam Transaction.Channel channel,
+                                                  @RequestParam(required = false) ImportJob.Format format,
+                                                  @RequestParam(required = false) String creator) {
+        if (file.isEmpty()) {
+            throw new BusinessException("Uploaded file is empty");
+        }
+        if (creator != null && creator.length() > 50) {
+            throw new BusinessException("Creator must not exceed 50 characters");
+        }
+        try (InputStream content = file.getInputStream()) {
+            return ResponseEntity.accepted()
+                    .body(fileImportEngine.submit(file.getOriginalFilename(), content, channel, format, creator));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded file", e);
+        }
+    }
+
+    /**
+     * 查询导入进度
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobStatus> getStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(fileImportEngine.getStatus(id));
+    }
+
+    /**
+     * 从检查点继续一个失败的导入
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobStatus> resume(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(fileImportEngine.resume(id));
+    }
+
+    /**
+     * 下载拒绝行报告（CSV：行号、原因、原始行）
+     */
+    @GetMapping("/{id}/rejected")
+    public ResponseEntity<Resource> getRejectedRows(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("import-" + id + "-rejected.csv").build().toString())
+                .body(new FileSystemResource(fileImportEngine.rejectedReport(id)));
+    }
+}
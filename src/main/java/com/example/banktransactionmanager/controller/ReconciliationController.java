@@ -0,0 +1,33 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.model.dto.ReconciliationReport;
+import com.example.banktransactionmanager.model.dto.ReconciliationRequest;
+import com.example.banktransactionmanager.reconciliation.ReconciliationEngine;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 与外部清算文件对账
+ */
+@RestController
+@RequestMapping("/api/reconciliations")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationEngine reconciliationEngine;
+
+    /**
+     * 用收件目录中的清算文件与对账区间内的交易按外部参考号和金额对账，阻塞到完成
+     * @param request 文件名、对账区间和渠道
+     * @return 各类差异的计数及明细文件目录
+     */
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> reconcile(@Valid @RequestBody ReconciliationRequest request) {
+        return ResponseEntity.ok(reconciliationEngine.reconcile(request));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.model.dto.StatementBatchResult;
+import com.example.banktransactionmanager.statement.StatementBatchJob;
+import com.example.banktransactionmanager.statement.StatementFormat;
+import com.example.banktransactionmanager.statement.StatementGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 账户对账单：单个账户按账期流式下载，或为所有账户批量生成文件
+ */
+@RestController
+@RequestMapping("/api")
+public class StatementController {
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("^[0-9]{10,20}$");
+
+    @Autowired
+    private StatementGenerator statementGenerator;
+
+    @Autowired
+    private StatementBatchJob statementBatchJob;
+
+    @Value("${statement.max-days:366}")
+    private long maxDays;
+
+    /**
+     * 下载账户对账单：按交易时间顺序列出账期内已入账的交易及流水余额，附期初/期末余额和手续费汇总
+     * 边查询边输出，响应头发出后才开始读取交易
+     * @param accountNumber 账号
+     * @param from 账期首日（含）
+     * @param to 账期末日（含）
+     * @param format csv 或 pdf
+     * @return 对账单文件
+     */
+    @GetMapping("/accounts/{accountNumber}/statements")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        if (!ACCOUNT_NUMBER.matcher(accountNumber).matches()) {
+            throw new BusinessException("Account number must be 10-20 digits");
+        }
+        validatePeriod(from, to);
+        StatementFormat statementFormat = StatementFormat.fromParameter(format);
+        String fileName = "statement-" + accountNumber + "-" + from + "_" + to + "." + statementFormat.getExtension();
+        StreamingResponseBody body = out -> statementGenerator.generate(accountNumber, from, to, statementFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(statementFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 为账期结束前有已入账交易的所有账户批量生成对账单文件，阻塞到全部完成
+     * @param from 账期首日（含）
+     * @param to 账期末日（含）
+     * @param format csv 或 pdf
+     * @return 生成的文件目录、成功数及失败的账号
+     */
+    @PostMapping("/statements/batch")
+    public ResponseEntity<StatementBatchResult> generateStatements(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        validatePeriod(from, to);
+        return ResponseEntity.ok(statementBatchJob.run(from, to, StatementFormat.fromParameter(format)));
+    }
+
+    private void validatePeriod(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Statement period end must not be before its start");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BusinessException("Statement period must not exceed " + maxDays + " days");
+        }
+    }
+}
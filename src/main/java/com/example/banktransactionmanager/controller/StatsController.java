@@ -0,0 +1,40 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionStats;
+import com.example.banktransactionmanager.stats.TransactionAggregates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 看板统计，直接读取内存中的交易汇总，不查询数据库
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private TransactionAggregates transactionAggregates;
+
+    /**
+     * 各渠道按状态的交易数，以及最近若干天的每日交易数和成功交易金额
+     * @param channel 渠道，不传表示全部渠道
+     * @param days 每日统计的天数（含当天）
+     * @return 统计结果
+     */
+    @GetMapping
+    public ResponseEntity<TransactionStats> getStats(
+            @RequestParam(required = false) Transaction.Channel channel,
+            @RequestParam(defaultValue = "7") int days) {
+        int retentionDays = transactionAggregates.getRetentionDays();
+        if (days < 1 || days > retentionDays) {
+            throw new BusinessException("Days must be between 1 and " + retentionDays);
+        }
+        return ResponseEntity.ok(transactionAggregates.stats(channel, days));
+    }
+}
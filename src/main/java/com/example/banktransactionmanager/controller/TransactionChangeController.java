@@ -0,0 +1,181 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangePage;
+import com.example.banktransactionmanager.outbox.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 交易变更流，下游系统以 since 游标持续拉取变更，替代反复全量查询列表
+ */
+@RestController
+@RequestMapping("/api/transactions/changes")
+public class TransactionChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final long MAX_WAIT_MS = 60_000L;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    @Qualifier("changeStreamExecutor")
+    private ExecutorService changeStreamExecutor;
+
+    @Value("${outbox.feed.sse-timeout:PT5M}")
+    private Duration sseTimeout;
+
+    /**
+     * 长轮询：有 since 之后的事件时立即返回，否则最多等待 waitMs 毫秒
+     * @param epoch 上一次返回的 epoch，首次不传
+     * @param since 上一次返回的 nextOffset，首次传0
+     * @param limit 最多返回的事件数
+     * @param waitMs 没有新事件时的最长等待时间，0表示立即返回
+     * @return 变更事件及下一次拉取的游标
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<TransactionChangePage> getChanges(
+            @RequestParam(required = false) Long epoch,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "30000") long waitMs) {
+        int pageLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        long timeout = Math.max(0L, Math.min(waitMs, MAX_WAIT_MS));
+        DeferredResult<TransactionChangePage> result = new DeferredResult<>(timeout > 0 ? timeout : null);
+        if (timeout == 0) {
+            result.setResult(changeFeed.read(epoch, since, pageLimit));
+            return result;
+        }
+
+        Runnable listener = () -> result.setResult(changeFeed.read(epoch, since, pageLimit));
+        TransactionChangePage page = changeFeed.readOrSubscribe(epoch, since, pageLimit, listener);
+        if (!page.getEvents().isEmpty()) {
+            result.setResult(page);
+            return result;
+        }
+        result.onTimeout(() -> result.setResult(changeFeed.read(epoch, since, pageLimit)));
+        result.onCompletion(() -> changeFeed.unsubscribe(listener));
+        return result;
+    }
+
+    /**
+     * SSE推送：先补发 since 之后的事件，再持续推送新事件，事件ID为 epoch:offset
+     * 连接最长保持 outbox.feed.sse-timeout，到期后正常结束，客户端按 Last-Event-ID 重连
+     * @param epoch 起始游标的 epoch
+     * @param since 起始游标
+     * @param lastEventId 断线重连时浏览器自动携带的最后事件ID，优先于 epoch 和 since
+     * @return SSE连接
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long epoch,
+                                    @RequestParam(defaultValue = "0") long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        SseCursor cursor = lastEventId != null ? resumeCursor(emitter, lastEventId)
+                : new SseCursor(emitter, epoch, since);
+        changeFeed.subscribe(cursor);
+        emitter.onCompletion(() -> changeFeed.unsubscribe(cursor));
+        emitter.onTimeout(() -> {
+            changeFeed.unsubscribe(cursor);
+            emitter.complete();
+        });
+        emitter.onError(e -> changeFeed.unsubscribe(cursor));
+        cursor.run();
+        return emitter;
+    }
+
+    /**
+     * 按 Last-Event-ID 恢复游标；兼容只有 offset 的旧格式
+     */
+    private SseCursor resumeCursor(SseEmitter emitter, String lastEventId) {
+        int separator = lastEventId.indexOf(':');
+        try {
+            if (separator < 0) {
+                return new SseCursor(emitter, null, Long.parseLong(lastEventId));
+            }
+            return new SseCursor(emitter, Long.parseLong(lastEventId.substring(0, separator)),
+                    Long.parseLong(lastEventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            // 无法识别的事件ID按游标失效处理，从保留窗口的最早事件开始并标记截断
+            return new SseCursor(emitter, null, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 单个SSE连接的游标
+     * <p>
+     * 变更流在发件箱中继线程上回调 run()，这里只记一次信号并把发送交给 changeStreamExecutor，
+     * 中继线程不会写套接字。同一连接任意时刻只有一个发送任务，按游标读取，保证顺序且不重复；
+     * 发送期间到达的信号合并为发送结束后的再一轮读取。
+     */
+    private final class SseCursor implements Runnable {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger signals = new AtomicInteger();
+        private Long epoch;
+        private long offset;
+
+        private SseCursor(SseEmitter emitter, Long epoch, long since) {
+            this.emitter = emitter;
+            this.epoch = epoch;
+            this.offset = since;
+        }
+
+        @Override
+        public void run() {
+            if (signals.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                changeStreamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                changeFeed.unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void drain() {
+            int pending = signals.get();
+            try {
+                do {
+                    sendPending();
+                    pending = signals.addAndGet(-pending);
+                } while (pending != 0);
+            } catch (IOException | IllegalStateException e) {
+                changeFeed.unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void sendPending() throws IOException {
+            TransactionChangePage page;
+            do {
+                page = changeFeed.read(epoch, offset, MAX_LIMIT);
+                for (TransactionChangeEvent event : page.getEvents()) {
+                    emitter.send(SseEmitter.event()
+                            .id(page.getEpoch() + ":" + event.getOffset())
+                            .name(event.getChangeType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                epoch = page.getEpoch();
+                offset = page.getNextOffset();
+            } while (page.getEvents().size() == MAX_LIMIT);
+        }
+    }
+}
@@ -1,60 +1,202 @@
 package com.example.banktransactionmanager.controller;
 
+import com.example.banktransactionmanager.cache.TransactionWatermarks;
+import com.example.banktransactionmanager.codec.TransactionFieldFilter;
 import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.exception.ResourceNotFoundException;
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.BulkDeleteRequest;
+import com.example.banktransactionmanager.model.dto.BulkOperationResponse;
+import com.example.banktransactionmanager.model.dto.BulkStatusUpdateRequest;
 import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
 import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.dto.TransactionLookupRequest;
+import com.example.banktransactionmanager.model.dto.TransactionLookupResponse;
+import com.example.banktransactionmanager.model.dto.TransactionSlice;
 import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.TransactionField;
 import com.example.banktransactionmanager.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // 客户端可以保存响应，但每次使用前都要带校验值重新验证
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String ALL_FIELDS = "*";
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionWatermarks transactionWatermarks;
+
     /**
-     * 创建新交易
+     * 创建新交易（幂等）
+     * 携带 Idempotency-Key 请求头（或外部参考号）的重复请求返回首次创建的结果
      * @param request 交易信息
-     * @return 是否创建成功
+     * @param idempotencyKey 幂等键（可选）
+     * @return 新建时返回201，重放时返回200，响应体包含交易ID和业务编号
      */
     @PostMapping
-    public ResponseEntity<String> createTransaction(@Valid @RequestBody TransactionCreateRequest request) {
-        try {
-            transactionService.createTransaction(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body("Transaction created successfully");
-        } catch (BusinessException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to create transaction: " + e.getMessage());
-        }
+    public ResponseEntity<TransactionCreateResponse> createTransaction(
+            @Valid @RequestBody TransactionCreateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        TransactionCreateResponse response = transactionService.createTransaction(request, idempotencyKey);
+        return ResponseEntity.status(response.isReplayed() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
     }
 
     /**
      * 获取所有交易，支持分页和筛选条件
+     * 支持条件请求：ETag取自筛选组合的高水位标记，未修改时直接返回304，不读缓存也不查库。
+     * 不发送Last-Modified：HTTP日期只有秒级，同一秒内的修改会被 If-Modified-Since 误判为未修改
+     * 默认返回精简的列表视图（{@link TransactionField#COMPACT}），fields 指定要返回的字段，"*" 返回全部字段；
+     * 查询只选择这些列，序列化也只输出这些属性
+     * count 为 estimate 或 none 时不执行COUNT，返回 {@link TransactionSlice}（estimate 附带近似总数）
      * @param pageable 分页参数
      * @param accountNumber 账号筛选条件（可选）
      * @param transactionType 交易类型筛选条件（可选）
      * @param status 状态筛选条件（可选）
-     * @return 分页后的交易列表
+     * @param fields 逗号分隔的字段名（可选）
+     * @param count 总数统计方式：exact（默认）、estimate 或 none
+     * @return 分页后的交易列表，带ETag
      */
     @GetMapping
-    public ResponseEntity<Page<TransactionDTO>> getAllTransactions(
+    public ResponseEntity<MappingJacksonValue> getAllTransactions(
             Pageable pageable,
             @RequestParam(required = false) String accountNumber,
             @RequestParam(required = false) Transaction.TransactionType transactionType,
-            @RequestParam(required = false) Transaction.Status status) {
-        Page<TransactionDTO> transactions = transactionService.getAllTransactions(pageable, accountNumber, transactionType, status);
-        return ResponseEntity.ok(transactions);
+            @RequestParam(required = false) Transaction.Status status,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
+        Set<TransactionField> selected = parseFields(fields);
+        CountMode countMode = CountMode.fromParameter(count);
+        // 先取标记再查询：查询期间发生的变化只会让内容比ETag新，下次请求时不匹配，不会把旧内容当作最新
+        long watermark = transactionWatermarks.current(accountNumber, transactionType, status);
+        String eTag = transactionWatermarks.entityTag(watermark);
+        varyByAccept(webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        MappingJacksonValue body;
+        if (countMode != CountMode.EXACT) {
+            TransactionSlice slice = transactionService.getTransactionSlice(pageable, accountNumber, transactionType, status,
+                    selected != null ? selected : EnumSet.allOf(TransactionField.class), countMode == CountMode.ESTIMATE);
+            body = selected != null ? TransactionFieldFilter.select(slice, selected) : new MappingJacksonValue(slice);
+        } else if (selected == null) {
+            body = new MappingJacksonValue(transactionService.getAllTransactions(pageable, accountNumber, transactionType, status));
+        } else {
+            body = TransactionFieldFilter.select(transactionService.getAllTransactions(pageable, accountNumber,
+                    transactionType, status, selected), selected);
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(body);
+    }
+
+    /**
+     * 按金额范围查询交易
+     * @param minAmount 最小金额（含）
+     * @param maxAmount 最大金额（含）
+     * @param count 总数统计方式：exact（默认，返回Page）、estimate 或 none（返回Slice）
+     * @return 分页后的交易列表
+     */
+    @GetMapping("/amount-range")
+    public ResponseEntity<?> getTransactionsByAmountRange(@RequestParam BigDecimal minAmount,
+                                                          @RequestParam BigDecimal maxAmount,
+                                                          @RequestParam(defaultValue = "exact") String count,
+                                                          Pageable pageable) {
+        if (minAmount.compareTo(maxAmount) > 0) {
+            throw new BusinessException("Minimum amount must not exceed maximum amount");
+        }
+        CountMode countMode = CountMode.fromParameter(count);
+        return ResponseEntity.ok(countMode == CountMode.EXACT
+                ? transactionService.getTransactionsByAmountRange(minAmount, maxAmount, pageable)
+                : transactionService.getTransactionSliceByAmountRange(minAmount, maxAmount, pageable,
+                        countMode == CountMode.ESTIMATE));
+    }
+
+    /**
+     * 按描述关键词搜索交易
+     * @param keyword 关键词（不区分大小写）
+     * @param count 总数统计方式：exact（默认，返回Page）、estimate 或 none（返回Slice）
+     * @return 分页后的交易列表
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTransactions(@RequestParam String keyword,
+                                                @RequestParam(defaultValue = "exact") String count,
+                                                Pageable pageable) {
+        if (keyword.isBlank()) {
+            throw new BusinessException("Keyword must not be blank");
+        }
+        CountMode countMode = CountMode.fromParameter(count);
+        return ResponseEntity.ok(countMode == CountMode.EXACT
+                ? transactionService.searchTransactionsByKeyword(keyword, pageable)
+                : transactionService.searchTransactionSliceByKeyword(keyword, pageable, countMode == CountMode.ESTIMATE));
+    }
+
+    /**
+     * 根据ID获取交易
+     * 支持条件请求：ETag取自更新时间，交易从缓存读出后即可判断，未修改时不序列化响应体
+     * @param id 交易ID
+     * @return 交易详情，带ETag
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TransactionDTO> getTransactionById(@PathVariable Long id, WebRequest webRequest) {
+        TransactionDTO transaction = transactionService.getTransactionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
+        LocalDateTime modified = transaction.getUpdateTime() != null ? transaction.getUpdateTime() : transaction.getCreateTime();
+        if (modified == null) {
+            return ResponseEntity.ok(transaction);
+        }
+        Instant modifiedAt = modified.atZone(ZoneId.systemDefault()).toInstant();
+        // 更新时间精确到微秒，ETag带上完整精度；秒级的Last-Modified无法区分同一秒内的修改，因此不发送
+        String eTag = "W/\"" + id + "-" + Long.toString(modifiedAt.getEpochSecond(), 36) + "."
+                + modifiedAt.getNano() + "\"";
+        varyByAccept(webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(transaction);
+    }
+
+    // JSON和Smile两种表示共用同一个ETag，共享缓存需按Accept区分；304响应同样带上
+    private static void varyByAccept(WebRequest webRequest) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    /**
+     * 批量查询交易，替代逐条按ID/业务编号查询
+     * @param request ID、交易业务编号或参考号列表（三选一）
+     * @return 按请求顺序排列的交易，以及未找到的键
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<TransactionLookupResponse> lookupTransactions(@Valid @RequestBody TransactionLookupRequest request) {
+        return ResponseEntity.ok(transactionService.lookupTransactions(request));
     }
 
     /**
@@ -88,4 +230,45 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(false);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量软删除交易：按ID列表，或按账号/交易时间范围筛选
+     * @param request 批量删除条件
+     * @return 实际被删除的记录数
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkOperationResponse> bulkSoftDelete(@Valid @RequestBody BulkDeleteRequest request) {
+        int affected = request.getIds() != null && !request.getIds().isEmpty()
+                ? transactionService.softDeleteTransactions(request.getIds(), request.getUpdater())
+                : transactionService.softDeleteTransactions(request.getAccountNumber(), request.getFromTime(),
+                        request.getToTime(), request.getUpdater());
+        return ResponseEntity.ok(new BulkOperationResponse(affected));
+    }
+
+    /**
+     * 批量状态流转（如结算批次 PENDING → SUCCESS/FAILED）
+     * @param request 批量状态流转请求
+     * @return 实际被更新的记录数
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<BulkOperationResponse> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        int affected = transactionService.updateTransactionStatus(request.getIds(), request.getFromStatus(),
+                request.getToStatus(), request.getUpdater());
+        return ResponseEntity.ok(new BulkOperationResponse(affected));
+    }
+
+    // 未指定时为精简视图，"*" 表示全部字段（返回null）
+    private static Set<TransactionField> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return TransactionField.COMPACT;
+        }
+        if (ALL_FIELDS.equals(fields.trim())) {
+            return null;
+        }
+        try {
+            return TransactionField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+    }
+}
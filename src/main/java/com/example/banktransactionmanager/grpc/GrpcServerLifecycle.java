@@ -0,0 +1,62 @@
+package com.example.banktransactionmanager.grpc;
+
+import io.grpc.Server;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 随Spring容器启停gRPC服务
+ * 停止时先拒绝新调用，等待进行中的调用在宽限期内结束，超时后强制关闭。
+ */
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final Server server;
+    private final Duration shutdownGracePeriod;
+    private volatile boolean running;
+
+    public GrpcServerLifecycle(Server server, Duration shutdownGracePeriod) {
+        this.server = server;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server", e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.banktransactionmanager.grpc;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.exception.ResourceNotFoundException;
+import com.example.banktransactionmanager.grpc.proto.BulkCreateError;
+import com.example.banktransactionmanager.grpc.proto.BulkCreateTransactionsResponse;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionRequest;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionResponse;
+import com.example.banktransactionmanager.grpc.proto.GetTransactionByBizNoRequest;
+import com.example.banktransactionmanager.grpc.proto.ListTransactionsRequest;
+import com.example.banktransactionmanager.grpc.proto.TransactionMessage;
+import com.example.banktransactionmanager.grpc.proto.TransactionServiceGrpc;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.service.TransactionService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 交易gRPC服务，与REST控制器并列，复用同一个 {@link TransactionService}
+ * 请求先转换为REST使用的DTO并走相同的Bean Validation规则，保证两种入口的校验结果一致。
+ */
+@Slf4j
+public class TransactionGrpcService extends TransactionServiceGrpc.TransactionServiceImplBase {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final TransactionService transactionService;
+    private final TransactionProtoMapper mapper;
+    private final Validator validator;
+
+    public TransactionGrpcService(TransactionService transactionService, TransactionProtoMapper mapper, Validator validator) {
+        this.transactionService = transactionService;
+        this.mapper = mapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public void createTransaction(CreateTransactionRequest request, StreamObserver<CreateTransactionResponse> responseObserver) {
+        try {
+            responseObserver.onNext(create(request));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * 客户端流式批量创建
+     * 关闭自动请求，每处理完一条再向客户端请求下一条，客户端发送速度受服务端处理速度约束。
+     * 单条失败不会中断整个流，失败原因按序号汇总在响应中。
+     */
+    @Override
+    public StreamObserver<CreateTransactionRequest> bulkCreateTransactions(StreamObserver<BulkCreateTransactionsResponse> responseObserver) {
+        ServerCallStreamObserver<BulkCreateTransactionsResponse> serverObserver =
+                (ServerCallStreamObserver<BulkCreateTransactionsResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+        serverObserver.request(1);
+
+        return new StreamObserver<>() {
+            private final BulkCreateTransactionsResponse.Builder response = BulkCreateTransactionsResponse.newBuilder();
+            private int index;
+
+            @Override
+            public void onNext(CreateTransactionRequest request) {
+                try {
+                    CreateTransactionResponse result = create(request);
+                    response.addResults(result);
+                    if (result.getReplayed()) {
+                        response.setReplayed(response.getReplayed() + 1);
+                    } else {
+                        response.setCreated(response.getCreated() + 1);
+                    }
+                } catch (RuntimeException e) {
+                    Status status = toStatusException(e).getStatus();
+                    if (status.getCode() == Status.Code.INTERNAL) {
+                        log.error("Bulk create item {} failed", index, e);
+                    }
+                    response.setFailed(response.getFailed() + 1);
+                    response.addErrors(BulkCreateError.newBuilder()
+                            .setIndex(index)
+                            .setMessage(status.getDescription() != null ? status.getDescription() : status.getCode().name()));
+                }
+                index++;
+                serverObserver.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("Bulk create stream aborted by client after {} items: {}", index, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onNext(response.build());
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void getTransactionByBizNo(GetTransactionByBizNoRequest request, StreamObserver<TransactionMessage> responseObserver) {
+        try {
+            if (request.getTransactionBizNo().isEmpty()) {
+                throw Status.INVALID_ARGUMENT.withDescription("transaction_biz_no is required").asRuntimeException();
+            }
+            TransactionDTO transaction = transactionService.getTransactionByTransactionBizNo(request.getTransactionBizNo())
+                    .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with bizNo: " + request.getTransactionBizNo()));
+            responseObserver.onNext(mapper.toMessage(transaction));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * 服务端流式列表/导出
+     * 只在客户端可接收（isReady）时推送，按页从数据库读取，不会把整个结果集放进内存；
+     * 客户端取消后停止读取。
+     */
+    @Override
+    public void listTransactions(ListTransactionsRequest request, StreamObserver<TransactionMessage> responseObserver) {
+        ServerCallStreamObserver<TransactionMessage> serverObserver = (ServerCallStreamObserver<TransactionMessage>) responseObserver;
+        int pageSize = request.getPageSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getPageSize(), MAX_PAGE_SIZE);
+        if (request.getMaxResults() < 0) {
+            serverObserver.onError(Status.INVALID_ARGUMENT.withDescription("max_results must not be negative").asRuntimeException());
+            return;
+        }
+        ListCursor cursor = new ListCursor(request, pageSize, serverObserver);
+        serverObserver.setOnCancelHandler(cursor::cancel);
+        serverObserver.setOnReadyHandler(cursor);
+        // 首次onReady回调在方法返回后才会触发，这里不主动推送，避免与回调并发
+    }
+
+    private CreateTransactionResponse create(CreateTransactionRequest message) {
+        TransactionCreateRequest request = mapper.toCreateRequest(message);
+        Set<ConstraintViolation<TransactionCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String description = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            throw Status.INVALID_ARGUMENT.withDescription(description).asRuntimeException();
+        }
+        TransactionCreateResponse response = transactionService.createTransaction(
+                request, TransactionProtoMapper.emptyToNull(message.getIdempotencyKey()));
+        return mapper.toMessage(response);
+    }
+
+    static StatusRuntimeException toStatusException(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof BusinessException || e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("gRPC call failed", e);
+        return Status.INTERNAL.withDescription("Internal server error").asRuntimeException();
+    }
+
+    /**
+     * 列表流的游标，由gRPC的onReady回调驱动（同一调用的回调是串行的）
+     */
+    private class ListCursor implements Runnable {
+
+        private final ListTransactionsRequest request;
+        private final int pageSize;
+        private final ServerCallStreamObserver<TransactionMessage> observer;
+        private Iterator<TransactionDTO> current;
+        // 按ID游标翻页，不经过列表缓存：流式期间有写入也不会跳过或重复
+        private long lastId;
+        private boolean lastPage;
+        private long sent;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        ListCursor(ListTransactionsRequest request, int pageSize, ServerCallStreamObserver<TransactionMessage> observer) {
+            this.request = request;
+            this.pageSize = pageSize;
+            this.observer = observer;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                return;
+            }
+            try {
+                while (observer.isReady() && !cancelled) {
+                    if (request.getMaxResults() > 0 && sent >= request.getMaxResults()) {
+                        complete();
+                        return;
+                    }
+                    if (current == null || !current.hasNext()) {
+                        if (lastPage) {
+                            complete();
+                            return;
+                        }
+                        List<TransactionDTO> page = transactionService.getTransactionsAfter(lastId, pageSize,
+                                TransactionProtoMapper.emptyToNull(request.getAccountNumber()),
+                                mapper.toTransactionType(request.getTransactionType()),
+                                mapper.toStatus(request.getStatus()));
+                        lastPage = page.size() < pageSize;
+                        current = page.iterator();
+                        continue;
+                    }
+                    TransactionDTO next = current.next();
+                    lastId = next.getId();
+                    observer.onNext(mapper.toMessage(next));
+                    sent++;
+                }
+                if (cancelled) {
+                    done = true;
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                if (!cancelled) {
+                    observer.onError(toStatusException(e));
+                }
+            }
+        }
+
+        private void complete() {
+            done = true;
+            observer.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.banktransactionmanager.grpc;
+
+import com.example.banktransactionmanager.grpc.proto.AccountType;
+import com.example.banktransactionmanager.grpc.proto.Channel;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionRequest;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionResponse;
+import com.example.banktransactionmanager.grpc.proto.Status;
+import com.example.banktransactionmanager.grpc.proto.TransactionMessage;
+import com.example.banktransactionmanager.grpc.proto.TransactionType;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Protobuf消息与DTO之间的转换
+ * proto3没有null，字符串空串、枚举UNSPECIFIED都视为未设置；金额两边都是分，直接传递
+ */
+public class TransactionProtoMapper {
+
+    private final ZoneId zone;
+
+    public TransactionProtoMapper(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public TransactionCreateRequest toCreateRequest(CreateTransactionRequest message) {
+        return TransactionCreateRequest.builder()
+                .transactionType(message.getTransactionType() == TransactionType.TRANSACTION_TYPE_UNSPECIFIED ? null
+                        : Transaction.TransactionType.valueOf(message.getTransactionType().name()))
+                .amount(message.getAmount())
+                .currency(emptyToNull(message.getCurrency()))
+                .description(emptyToNull(message.getDescription()))
+                .transactionTime(message.getTransactionTime() == 0L ? null : toDateTime(message.getTransactionTime()))
+                .accountNumber(emptyToNull(message.getAccountNumber()))
+                .accountType(message.getAccountType() == AccountType.ACCOUNT_TYPE_UNSPECIFIED ? null
+                        : Transaction.AccountType.valueOf(message.getAccountType().name()))
+                .counterpartyAccountNumber(emptyToNull(message.getCounterpartyAccountNumber()))
+                .counterpartyName(emptyToNull(message.getCounterpartyName()))
+                .channel(message.getChannel() == Channel.CHANNEL_UNSPECIFIED ? null
+                        : Transaction.Channel.valueOf(message.getChannel().name()))
+                .externalReferenceNo(emptyToNull(message.getExternalReferenceNo()))
+                .fee(message.getFee())
+                .remarks(emptyToNull(message.getRemarks()))
+                .creator(emptyToNull(message.getCreator()))
+                .build();
+    }
+
+    public CreateTransactionResponse toMessage(TransactionCreateResponse response) {
+        CreateTransactionResponse.Builder builder = CreateTransactionResponse.newBuilder()
+                .setId(response.getId() != null ? response.getId() : 0L)
+                .setTransactionBizNo(nullToEmpty(response.getTransactionBizNo()))
+                .setReplayed(response.isReplayed());
+        if (response.getStatus() != null) {
+            builder.setStatus(Status.valueOf(response.getStatus().name()));
+        }
+        if (response.getCreateTime() != null) {
+            builder.setCreateTime(toEpochMillis(response.getCreateTime()));
+        }
+        return builder.build();
+    }
+
+    public TransactionMessage toMessage(TransactionDTO dto) {
+        TransactionMessage.Builder builder = TransactionMessage.newBuilder()
+                .setId(dto.getId() != null ? dto.getId() : 0L)
+                .setTransactionBizNo(nullToEmpty(dto.getTransactionBizNo()))
+                .setCurrency(nullToEmpty(dto.getCurrency()))
+                .setDescription(nullToEmpty(dto.getDescription()))
+                .setAccountNumber(nullToEmpty(dto.getAccountNumber()))
+                .setCounterpartyAccountNumber(nullToEmpty(dto.getCounterpartyAccountNumber()))
+                .setCounterpartyName(nullToEmpty(dto.getCounterpartyName()))
+                .setExternalReferenceNo(nullToEmpty(dto.getExternalReferenceNo()))
+                .setRemarks(nullToEmpty(dto.getRemarks()))
+                .setCreator(nullToEmpty(dto.getCreator()))
+                .setUpdater(nullToEmpty(dto.getUpdater()))
+                .setAmount(dto.getAmount())
+                .setFee(dto.getFee());
+        if (dto.getTransactionType() != null) {
+            builder.setTransactionType(TransactionType.valueOf(dto.getTransactionType().name()));
+        }
+        if (dto.getStatus() != null) {
+            builder.setStatus(Status.valueOf(dto.getStatus().name()));
+        }
+        if (dto.getAccountType() != null) {
+            builder.setAccountType(AccountType.valueOf(dto.getAccountType().name()));
+        }
+        if (dto.getChannel() != null) {
+            builder.setChannel(Channel.valueOf(dto.getChannel().name()));
+        }
+        if (dto.getTransactionTime() != null) {
+            builder.setTransactionTime(toEpochMillis(dto.getTransactionTime()));
+        }
+        if (dto.getCreateTime() != null) {
+            builder.setCreateTime(toEpochMillis(dto.getCreateTime()));
+        }
+        if (dto.getUpdateTime() != null) {
+            builder.setUpdateTime(toEpochMillis(dto.getUpdateTime()));
+        }
+        return builder.build();
+    }
+
+    public Transaction.TransactionType toTransactionType(TransactionType type) {
+        return type == TransactionType.TRANSACTION_TYPE_UNSPECIFIED ? null : Transaction.TransactionType.valueOf(type.name());
+    }
+
+    public Transaction.Status toStatus(Status status) {
+        return status == Status.STATUS_UNSPECIFIED ? null : Transaction.Status.valueOf(status.name());
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 把一块原始行切成若干段，由工作线程并行解析并按 {@link TransactionCreateRequest} 上的约束校验，
+ * 与接口创建交易使用同一套规则；结果按文件顺序合并。
+ */
+class ChunkValidator {
+
+    private final Validator validator;
+    private final int parallelism;
+    private final int maxLineBytes;
+    private final ExecutorService workers;
+
+    ChunkValidator(Validator validator, int parallelism, int maxLineBytes) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("导入校验并行度必须大于0");
+        }
+        this.validator = validator;
+        this.parallelism = parallelism;
+        this.maxLineBytes = maxLineBytes;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "import-validator-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 异步校验一块，调用方可以在此期间读取下一块或写入上一块
+     * @param channel 导入任务的渠道，写入每个请求后参与校验
+     * @param creator 导入任务的创建人，写入每个请求后参与校验
+     */
+    CompletableFuture<ValidatedChunk> validate(RawChunk chunk, RowParser parser,
+                                               Transaction.Channel channel, String creator) {
+        int slices = Math.min(parallelism, chunk.size());
+        int sliceSize = (chunk.size() + slices - 1) / slices;
+        List<CompletableFuture<ValidatedChunk>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, chunk.size());
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> validateSlice(chunk, start, end, parser, channel, creator), workers));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<ImportRow> accepted = new ArrayList<>(chunk.size());
+            List<RejectedRow> rejected = new ArrayList<>();
+            for (CompletableFuture<ValidatedChunk> future : futures) {
+                ValidatedChunk slice = future.join();
+                accepted.addAll(slice.accepted());
+                rejected.addAll(slice.rejected());
+            }
+            return new ValidatedChunk(accepted, rejected, chunk.endOffset(), chunk.endLineNumber());
+        });
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private ValidatedChunk validateSlice(RawChunk chunk, int start, int end, RowParser parser,
+                                         Transaction.Channel channel, String creator) {
+        List<ImportRow> accepted = new ArrayList<>(end - start);
+        List<RejectedRow> rejected = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            long lineNumber = chunk.lineNumbers()[i];
+            String line = chunk.lines()[i];
+            if (chunk.truncated()[i]) {
+                rejected.add(new RejectedRow(lineNumber, "Line exceeds " + maxLineBytes + " bytes", line));
+                continue;
+            }
+            TransactionCreateRequest request;
+            try {
+                request = parser.parse(line);
+            } catch (IllegalArgumentException e) {
+                rejected.add(new RejectedRow(lineNumber, e.getMessage(), line));
+                continue;
+            }
+            request.setChannel(channel);
+            request.setCreator(creator);
+            Set<ConstraintViolation<TransactionCreateRequest>> violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                accepted.add(new ImportRow(lineNumber, line, request));
+            } else {
+                // 违规顺序不固定，按字段排序使报告稳定
+                rejected.add(new RejectedRow(lineNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")), line));
+            }
+        }
+        return new ValidatedChunk(accepted, rejected, 0, 0);
+    }
+}
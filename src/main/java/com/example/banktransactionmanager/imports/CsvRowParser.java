@@ -0,0 +1,118 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按表头确定列顺序的分隔文件解析器
+ * 支持双引号包裹的值（值内的分隔符和 "" 转义），不支持跨行的值；未加引号的值去掉首尾空白。
+ * 表头中不认识的列被忽略，便于渠道在文件中附带自己的字段。
+ */
+public class CsvRowParser implements RowParser {
+
+    private final char delimiter;
+    /**
+     * 每个物理列对应的字段，null表示忽略该列
+     */
+    private final ImportField[] fields;
+
+    private CsvRowParser(char delimiter, ImportField[] fields) {
+        this.delimiter = delimiter;
+        this.fields = fields;
+    }
+
+    /**
+     * @throws IllegalArgumentException 表头中没有任何已知列，或同一列出现两次
+     */
+    public static CsvRowParser fromHeader(String header, char delimiter) {
+        List<String> names = split(header, delimiter);
+        ImportField[] fields = new ImportField[names.size()];
+        boolean known = false;
+        for (int i = 0; i < fields.length; i++) {
+            ImportField field = ImportField.forColumnName(names.get(i));
+            if (field != null) {
+                for (int j = 0; j < i; j++) {
+                    if (fields[j] == field) {
+                        throw new IllegalArgumentException("Duplicate column in header: " + names.get(i));
+                    }
+                }
+                known = true;
+            }
+            fields[i] = field;
+        }
+        if (!known) {
+            throw new IllegalArgumentException("Header contains no known column: " + header);
+        }
+        return new CsvRowParser(delimiter, fields);
+    }
+
+    @Override
+    public TransactionCreateRequest parse(String line) {
+        List<String> values = split(line, delimiter);
+        if (values.size() != fields.length) {
+            throw new IllegalArgumentException("Expected " + fields.length + " columns but found " + values.size());
+        }
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                fields[i].apply(request, values.get(i));
+            }
+        }
+        return request;
+    }
+
+    static List<String> split(String line, char delimiter) {
+        List<String> values = new ArrayList<>();
+        int length = line.length();
+        int pos = 0;
+        while (true) {
+            // 跳过引号前的空白
+            int start = pos;
+            while (start < length && line.charAt(start) == ' ') {
+                start++;
+            }
+            if (start < length && line.charAt(start) == '"') {
+                StringBuilder value = new StringBuilder();
+                int i = start + 1;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted value");
+                    }
+                    char c = line.charAt(i);
+                    if (c == '"') {
+                        if (i + 1 < length && line.charAt(i + 1) == '"') {
+                            value.append('"');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    value.append(c);
+                    i++;
+                }
+                while (i < length && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < length && line.charAt(i) != delimiter) {
+                    throw new IllegalArgumentException("Unexpected character after quoted value");
+                }
+                values.add(value.toString());
+                if (i >= length) {
+                    return values;
+                }
+                pos = i + 1;
+            } else {
+                int end = line.indexOf(delimiter, pos);
+                if (end < 0) {
+                    values.add(line.substring(pos).trim());
+                    return values;
+                }
+                values.add(line.substring(pos, end).trim());
+                pos = end + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,658 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.exception.ResourceNotFoundException;
+import com.example.banktransactionmanager.model.ImportJob;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.ImportJobStatus;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.repository.ImportJobRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import com.example.banktransactionmanager.util.BizNoEncoder;
+import com.example.banktransactionmanager.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 渠道交易文件的批量导入
+ * <p>
+ * 文件通过上传或投递到收件目录进入，先移动到工作目录再建任务；任务在单个执行线程上依次运行：
+ * <ol>
+ *     <li>{@link LineReader} 从检查点的字节位置开始流式读取，每次读出一块行，不把整个文件读入内存</li>
+ *     <li>{@link ChunkValidator} 并行解析和校验这一块，同时执行线程读取下一块、写入上一块</li>
+ *     <li>每块在一个事务中：按渠道+外部参考号排除已存在和块内重复的行，由 {@link TransactionBatchWriter}
+ *     批量写入交易和CREATED变更事件，推进任务检查点；拒绝行在提交前追加到报告，回滚时截断</li>
+ * </ol>
+ * 进程中断后，租约过期的未完成任务由下一次轮询从检查点继续；失败的任务可以手动恢复。
+ * <p>
+ * 文件中的交易带有历史交易时间，在几秒内重放一整天的交易会误触发按当前时间窗口计数的频率规则，
+ * 因此导入不经过频率/限额规则评估，交易以 PENDING 状态入库，由结算任务正常处理。
+ */
+@Slf4j
+public class FileImportEngine {
+
+    private static final Set<ImportJob.Status> UNFINISHED = EnumSet.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING);
+    private static final Pattern UNSAFE_FILE_NAME_CHARS = Pattern.compile("[^0-9A-Za-z._-]");
+    private static final int MAX_FILE_NAME_LENGTH = 100;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+    private static final String DEFAULT_CURRENCY = "CNY";
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    /**
+     * 与交易服务（1, 1）使用不同的机器号，两者在同一毫秒内生成的编号不会相同
+     */
+    private final SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(1, 2);
+
+    private final ImportJobRepository importJobRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatchWriter batchWriter;
+    private final TransactionCacheInvalidator cacheInvalidator;
+    private final TransactionStatsRecorder statsRecorder;
+    private final ChunkValidator chunkValidator;
+    private final ImportFileLayout layout;
+    private final Path inboxDirectory;
+    private final Path workDirectory;
+    private final Path archiveDirectory;
+    private final Path reportDirectory;
+    private final Duration settleTime;
+    private final Duration leaseDuration;
+    private final int chunkSize;
+    private final String owner;
+    private final ExecutorService runner;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer chunkTimer;
+    private volatile boolean stopping;
+
+    /**
+     * @param inboxDirectory 投递目录，文件名形如 {渠道}_xxx.csv 或 {渠道}_xxx.dat；为null时不轮询
+     * @param settleTime 投递文件最后修改后至少经过这么久才会被领取，避免读到尚未写完的文件
+     * @param leaseDuration 任务租约时长，持有节点每次轮询续约
+     */
+    public FileImportEngine(ImportJobRepository importJobRepository,
+                            TransactionRepository transactionRepository,
+                            TransactionTemplate transactionTemplate,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionCacheInvalidator cacheInvalidator,
+                            TransactionStatsRecorder statsRecorder,
+                            Validator validator,
+                            MeterRegistry meterRegistry,
+                            ImportFileLayout layout,
+                            Path inboxDirectory,
+                            Path workDirectory,
+                            Path archiveDirectory,
+                            Path reportDirectory,
+                            Duration settleTime,
+                            Duration leaseDuration,
+                            int chunkSize,
+                            int parallelism) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("导入块大小必须大于0");
+        }
+        this.importJobRepository = importJobRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchWriter = new TransactionBatchWriter(jdbcTemplate);
+        this.cacheInvalidator = cacheInvalidator;
+        this.statsRecorder = statsRecorder;
+        this.chunkValidator = new ChunkValidator(validator, parallelism, layout.maxLineBytes());
+        this.layout = layout;
+        this.inboxDirectory = inboxDirectory;
+        this.workDirectory = workDirectory;
+        this.archiveDirectory = archiveDirectory;
+        this.reportDirectory = reportDirectory;
+        this.settleTime = settleTime;
+        this.leaseDuration = leaseDuration;
+        this.chunkSize = chunkSize;
+        this.owner = UUID.randomUUID().toString();
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "import-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+        this.chunkTimer = Timer.builder("imports.chunk")
+                .description("单块交易去重、写入并推进检查点的耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 保存上传的文件并排队导入
+     * @param format 为null时按扩展名判断（.csv 为CSV，.dat/.txt 为定长）
+     */
+    public ImportJobStatus submit(String fileName, InputStream content, Transaction.Channel channel,
+                                  ImportJob.Format format, String creator) {
+        ImportJob.Format resolved = format != null ? format : formatOf(fileName);
+        if (resolved == null) {
+            throw new BusinessException("Cannot determine file format from name, please specify format");
+        }
+        Path stored = workDirectory.resolve(storedName(fileName));
+        try {
+            Files.createDirectories(workDirectory);
+            Files.copy(content, stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store uploaded file " + fileName, e);
+        }
+        return toStatus(enqueue(createJob(fileName, stored, resolved, channel, creator)));
+    }
+
+    public ImportJobStatus getStatus(Long id) {
+        return toStatus(findJob(id));
+    }
+
+    /**
+     * 从检查点继续一个失败的任务
+     */
+    public ImportJobStatus resume(Long id) {
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob found = findJob(id);
+            if (found.getStatus() != ImportJob.Status.FAILED) {
+                throw new BusinessException("Only failed imports can be resumed, import " + id + " is " + found.getStatus());
+            }
+            found.setStatus(ImportJob.Status.QUEUED);
+            found.setOwner(owner);
+            found.setLeaseUntil(LocalDateTime.now().plus(leaseDuration));
+            found.setErrorMessage(null);
+            found.setFinishTime(null);
+            found.setUpdateTime(LocalDateTime.now());
+            return found;
+        });
+        return toStatus(enqueue(job));
+    }
+
+    /**
+     * @return 拒绝行报告文件
+     */
+    public Path rejectedReport(Long id) {
+        ImportJob job = findJob(id);
+        Path report = reportPath(job.getId());
+        if (job.getRejectedRows() == 0 || !Files.isRegularFile(report)) {
+            throw new ResourceNotFoundException("Import " + id + " has no rejected rows");
+        }
+        return report;
+    }
+
+    /**
+     * 定时轮询：续约本节点的任务，接管租约过期的任务，领取收件目录中的新文件
+     */
+    @Scheduled(fixedDelayString = "${imports.poll-interval-ms:5000}")
+    public void poll() {
+        if (stopping) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            importJobRepository.renewLeases(owner, now.plus(leaseDuration), UNFINISHED);
+            recoverExpired(now);
+            if (inboxDirectory != null) {
+                scanInbox();
+            }
+        } catch (Exception e) {
+            log.error("Import poll failed", e);
+        }
+    }
+
+    /**
+     * 等待当前块提交后停止；未完成的任务释放租约，下次启动（或其他节点）立即从检查点继续
+     */
+    public void shutdown() {
+        stopping = true;
+        runner.shutdown();
+        try {
+            if (!runner.awaitTermination(30, TimeUnit.SECONDS)) {
+                runner.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runner.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        chunkValidator.shutdown();
+        try {
+            importJobRepository.renewLeases(owner, LocalDateTime.now(), UNFINISHED);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release import leases on shutdown", e);
+        }
+    }
+
+    private void recoverExpired(LocalDateTime now) {
+        for (Long id : importJobRepository.findExpiredIds(UNFINISHED, now)) {
+            ImportJob job = importJobRepository.findById(id).orElse(null);
+            // 文件只在领取它的节点本地，其他节点上找不到时留给原节点重启后处理
+            if (job == null || !Files.isRegularFile(Path.of(job.getStoredPath()))) {
+                continue;
+            }
+            if (importJobRepository.claimExpired(id, owner, now.plus(leaseDuration), ImportJob.Status.QUEUED,
+                    UNFINISHED, now) == 1) {
+                log.info("Resuming import {} of {} from offset {}", id, job.getFileName(), job.getCheckpointOffset());
+                runner.execute(() -> run(id));
+            }
+        }
+    }
+
+    private void scanInbox() throws IOException {
+        if (!Files.isDirectory(inboxDirectory)) {
+            return;
+        }
+        long settledBefore = System.currentTimeMillis() - settleTime.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inboxDirectory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                Transaction.Channel channel = channelOf(fileName);
+                ImportJob.Format format = formatOf(fileName);
+                if (channel == null || format == null || !Files.isRegularFile(file)
+                        || Files.getLastModifiedTime(file).toMillis() > settledBefore) {
+                    continue;
+                }
+                Files.createDirectories(workDirectory);
+                Path stored = workDirectory.resolve(storedName(fileName));
+                try {
+                    Files.move(file, stored, StandardCopyOption.ATOMIC_MOVE);
+                } catch (NoSuchFileException e) {
+                    // 已被其他节点领取
+                    continue;
+                }
+                ImportJob job = createJob(fileName, stored, format, channel, null);
+                log.info("Picked up {} from the import inbox as import {}", fileName, job.getId());
+                enqueue(job);
+            }
+        }
+    }
+
+    private ImportJob createJob(String fileName, Path stored, ImportJob.Format format, Transaction.Channel channel,
+                                String creator) {
+        long fileBytes;
+        try {
+            fileBytes = Files.size(stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read size of " + stored, e);
+        }
+        return importJobRepository.save(ImportJob.builder()
+                .fileName(fileName)
+                .storedPath(stored.toAbsolutePath().toString())
+                .format(format)
+                .channel(channel)
+                .status(ImportJob.Status.QUEUED)
+                .creator(creator != null && !creator.isBlank() ? creator : "FILE_IMPORT")
+                .fileBytes(fileBytes)
+                .owner(owner)
+                .leaseUntil(LocalDateTime.now().plus(leaseDuration))
+                .build());
+    }
+
+    private ImportJob enqueue(ImportJob job) {
+        Long id = job.getId();
+        runner.execute(() -> run(id));
+        return job;
+    }
+
+    private void run(Long id) {
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob found = importJobRepository.findById(id).orElse(null);
+            if (found == null || found.getStatus() != ImportJob.Status.QUEUED || !owner.equals(found.getOwner())) {
+                return null;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            found.setStatus(ImportJob.Status.RUNNING);
+            if (found.getStartTime() == null) {
+                found.setStartTime(now);
+            }
+            found.setUpdateTime(now);
+            return found;
+        });
+        if (job == null || stopping) {
+            return;
+        }
+        try {
+            if (importFile(job)) {
+                finish(id, ImportJob.Status.COMPLETED, null);
+                archive(job);
+            }
+        } catch (Exception e) {
+            if (stopping) {
+                log.info("Import {} interrupted by shutdown, will resume from its checkpoint", id);
+                return;
+            }
+            log.warn("Import {} of {} failed", id, job.getFileName(), e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            finish(id, ImportJob.Status.FAILED,
+                    message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message);
+        }
+    }
+
+    /**
+     * @return 文件是否已全部处理；停机时返回false，任务保持RUNNING等待恢复
+     */
+    private boolean importFile(ImportJob job) throws IOException {
+        Path file = Path.of(job.getStoredPath());
+        long offset = job.getCheckpointOffset();
+        long lineNumber = job.getLinesRead();
+        String header = null;
+        if (layout.hasHeader(job.getFormat())) {
+            try (LineReader reader = new LineReader(file, 0, layout.charset(), layout.maxLineBytes())) {
+                header = reader.readLine();
+                if (header == null) {
+                    return true;
+                }
+                if (offset == 0) {
+                    offset = reader.position();
+                    lineNumber = 1;
+                }
+            }
+        }
+        RowParser parser;
+        try {
+            parser = layout.newParser(job.getFormat(), header);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unrecognized file layout: " + e.getMessage());
+        }
+
+        long started = System.nanoTime();
+        long committedRows = 0;
+        try (LineReader reader = new LineReader(file, offset, layout.charset(), layout.maxLineBytes());
+             RejectedRowReport report = new RejectedRowReport(reportPath(job.getId()), job.getReportBytes())) {
+            long[] cursor = {lineNumber};
+            RawChunk raw = readChunk(reader, cursor);
+            CompletableFuture<ValidatedChunk> pending = raw != null
+                    ? chunkValidator.validate(raw, parser, job.getChannel(), job.getCreator()) : null;
+            while (pending != null) {
+                ValidatedChunk chunk = pending.join();
+                if (stopping) {
+                    return false;
+                }
+                // 下一块在写入本块期间校验
+                RawChunk next = readChunk(reader, cursor);
+                pending = next != null ? chunkValidator.validate(next, parser, job.getChannel(), job.getCreator()) : null;
+                committedRows += persist(job, chunk, report);
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Imported {} ({}): {} rows in {} ms", job.getId(), job.getFileName(), committedRows, elapsedMillis);
+        return true;
+    }
+
+    /**
+     * 读出最多 chunkSize 个非空行
+     * @param cursor 单元素数组，已读到的行号，随读取推进
+     * @return 文件已读完且没有非空行时返回null
+     */
+    private RawChunk readChunk(LineReader reader, long[] cursor) throws IOException {
+        String[] lines = new String[chunkSize];
+        long[] lineNumbers = new long[chunkSize];
+        boolean[] truncated = new boolean[chunkSize];
+        int size = 0;
+        while (size < chunkSize) {
+            String line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            cursor[0]++;
+            if (line.isBlank() && !reader.isTruncated()) {
+                continue;
+            }
+            lines[size] = line;
+            lineNumbers[size] = cursor[0];
+            truncated[size] = reader.isTruncated();
+            size++;
+        }
+        return size == 0 ? null : new RawChunk(lines, lineNumbers, truncated, size, reader.position(), cursor[0]);
+    }
+
+    /**
+     * 在一个事务中写入一块并推进检查点；与接口并发创建同一参考号导致唯一约束冲突时整块重试，重试时重新排除已存在的参考号
+     * @return 本块导入和拒绝的总行数
+     */
+    private long persist(ImportJob job, ValidatedChunk chunk, RejectedRowReport report) throws IOException {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            long reportMark = report.size();
+            try {
+                int[] imported = new int[1];
+                List<RejectedRow> rejected = new ArrayList<>(chunk.rejected());
+                transactionTemplate.executeWithoutResult(status -> {
+                    imported[0] = writeChunk(job, chunk, rejected, report);
+                });
+                importedRows.increment(imported[0]);
+                rejectedRows.increment(rejected.size());
+                chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return imported[0] + rejected.size();
+            } catch (DataIntegrityViolationException e) {
+                report.truncate(reportMark);
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Import {} chunk ending at line {} conflicted, retrying", job.getId(), chunk.endLineNumber());
+            } catch (RuntimeException e) {
+                report.truncate(reportMark);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @param rejected 本块已被拒绝的行，重复的行追加到其中
+     * @return 写入的交易数
+     */
+    private int writeChunk(ImportJob job, ValidatedChunk chunk, List<RejectedRow> rejected, RejectedRowReport report) {
+        String keyPrefix = job.getChannel().name() + ":";
+        List<String> keys = new ArrayList<>(chunk.accepted().size());
+        for (ImportRow row : chunk.accepted()) {
+            String reference = row.request().getExternalReferenceNo();
+            if (reference != null && !reference.isBlank()) {
+                keys.add(keyPrefix + reference);
+            }
+        }
+        Set<String> existing = keys.isEmpty() ? Set.of()
+                : new HashSet<>(transactionRepository.findExistingIdempotencyKeys(keys));
+
+        List<Transaction> transactions = new ArrayList<>(chunk.accepted().size());
+        Set<String> seen = new HashSet<>();
+        int rejectedBefore = rejected.size();
+        for (ImportRow row : chunk.accepted()) {
+            String reference = row.request().getExternalReferenceNo();
+            String key = reference != null && !reference.isBlank() ? keyPrefix + reference : null;
+            if (key != null && (existing.contains(key) || !seen.add(key))) {
+                rejected.add(new RejectedRow(row.lineNumber(), "Duplicate external reference number: " + reference,
+                        row.raw()));
+                continue;
+            }
+            transactions.add(buildTransaction(row.request(), key));
+        }
+        if (rejected.size() > rejectedBefore) {
+            rejected.sort(Comparator.comparingLong(RejectedRow::lineNumber));
+        }
+
+        batchWriter.write(transactions);
+        // 提交后提升列表的高水位标记（块内同一账号和类型只提升一次）
+        transactions.stream()
+                .map(transaction -> Map.entry(transaction.getAccountNumber(), transaction.getTransactionType()))
+                .distinct()
+                .forEach(key -> cacheInvalidator.markChanged(key.getKey(), key.getValue(), Transaction.Status.PENDING));
+        // 提交后更新近似计数和看板汇总
+        statsRecorder.recordAll(transactions.stream().map(TransactionRef::of).toList(), Transaction.Status.PENDING, 1);
+        long reportBytes;
+        try {
+            report.append(rejected);
+            reportBytes = report.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rejected rows of import " + job.getId(), e);
+        }
+        int advanced = importJobRepository.advanceCheckpoint(job.getId(), owner, chunk.endOffset(),
+                chunk.endLineNumber(), transactions.size(), rejected.size(), reportBytes, LocalDateTime.now());
+        if (advanced == 0) {
+            throw new IllegalStateException("Import " + job.getId() + " is no longer owned by this node");
+        }
+        return transactions.size();
+    }
+
+    private Transaction buildTransaction(TransactionCreateRequest request, String idempotencyKey) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionBizNo(BizNoEncoder.encode(request.getChannel(), snowflakeIdGenerator.nextId()));
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setAccountNumber(request.getAccountNumber());
+        transaction.setAccountType(request.getAccountType());
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(request.getCurrency() != null ? request.getCurrency() : DEFAULT_CURRENCY);
+        transaction.setTransactionType(request.getTransactionType());
+        transaction.setTransactionTime(request.getTransactionTime() != null ? request.getTransactionTime() : LocalDateTime.now());
+        transaction.setStatus(Transaction.Status.PENDING);
+        transaction.setDescription(request.getDescription());
+        transaction.setChannel(request.getChannel());
+        transaction.setCounterpartyAccountNumber(request.getCounterpartyAccountNumber());
+        transaction.setCounterpartyName(request.getCounterpartyName());
+        transaction.setExternalReferenceNo(request.getExternalReferenceNo());
+        transaction.setFee(request.getFee());
+        transaction.setRemarks(request.getRemarks());
+        transaction.setIsDeleted(false);
+        transaction.setCreator(request.getCreator());
+        return transaction;
+    }
+
+    private void finish(Long id, ImportJob.Status status, String errorMessage) {
+        transactionTemplate.executeWithoutResult(tx -> importJobRepository.findById(id).ifPresent(job -> {
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage);
+            job.setUpdateTime(now);
+            job.setFinishTime(now);
+            if (status == ImportJob.Status.COMPLETED) {
+                job.setOwner(null);
+                job.setLeaseUntil(null);
+            }
+        }));
+    }
+
+    /**
+     * 已完成的文件移到归档目录，失败的文件留在工作目录以便恢复
+     */
+    private void archive(ImportJob job) {
+        Path stored = Path.of(job.getStoredPath());
+        try {
+            Files.createDirectories(archiveDirectory);
+            Path archived = archiveDirectory.resolve(stored.getFileName());
+            Files.move(stored, archived, StandardCopyOption.REPLACE_EXISTING);
+            transactionTemplate.executeWithoutResult(tx -> importJobRepository.findById(job.getId())
+                    .ifPresent(found -> found.setStoredPath(archived.toAbsolutePath().toString())));
+        } catch (IOException e) {
+            log.warn("Failed to archive imported file {}", stored, e);
+        }
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + id));
+    }
+
+    private Path reportPath(Long id) {
+        return reportDirectory.resolve(id + "-rejected.csv");
+    }
+
+    private ImportJobStatus toStatus(ImportJob job) {
+        long processed = job.getImportedRows() + job.getRejectedRows();
+        double rowsPerSecond = 0;
+        if (job.getStartTime() != null && job.getUpdateTime() != null && processed > 0) {
+            long millis = Duration.between(job.getStartTime(), job.getUpdateTime()).toMillis();
+            rowsPerSecond = millis > 0 ? processed * 1000.0 / millis : processed;
+        }
+        boolean completed = job.getStatus() == ImportJob.Status.COMPLETED;
+        return ImportJobStatus.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .format(job.getFormat())
+                .channel(job.getChannel())
+                .status(job.getStatus())
+                .fileBytes(job.getFileBytes())
+                .processedBytes(completed ? job.getFileBytes() : job.getCheckpointOffset())
+                .progressPercent(completed || job.getFileBytes() == 0 ? 100.0
+                        : Math.min(100.0, job.getCheckpointOffset() * 100.0 / job.getFileBytes()))
+                .linesRead(job.getLinesRead())
+                .importedRows(job.getImportedRows())
+                .rejectedRows(job.getRejectedRows())
+                .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0)
+                .rejectedReportAvailable(job.getRejectedRows() > 0)
+                .errorMessage(job.getErrorMessage())
+                .createTime(job.getCreateTime())
+                .startTime(job.getStartTime())
+                .updateTime(job.getUpdateTime())
+                .finishTime(job.getFinishTime())
+                .build();
+    }
+
+    /**
+     * 存放名加随机前缀，同名文件重复上传不会相互覆盖；只保留安全字符，防止路径逃逸
+     */
+    private static String storedName(String fileName) {
+        String safe = UNSAFE_FILE_NAME_CHARS.matcher(fileName != null ? fileName : "upload").replaceAll("_");
+        if (safe.length() > MAX_FILE_NAME_LENGTH) {
+            safe = safe.substring(safe.length() - MAX_FILE_NAME_LENGTH);
+        }
+        return UUID.randomUUID().toString().substring(0, 8) + "-" + safe;
+    }
+
+    static ImportJob.Format formatOf(String fileName) {
+        String lower = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (lower.endsWith(".csv")) {
+            return ImportJob.Format.CSV;
+        }
+        if (lower.endsWith(".dat") || lower.endsWith(".txt")) {
+            return ImportJob.Format.FIXED_WIDTH;
+        }
+        return null;
+    }
+
+    /**
+     * 投递文件名以 渠道名_ 开头，如 COUNTER_20240101.csv、THIRD_PARTY_20240101.dat
+     */
+    static Transaction.Channel channelOf(String fileName) {
+        String upper = fileName.toUpperCase(Locale.ROOT);
+        for (Transaction.Channel channel : Transaction.Channel.values()) {
+            if (upper.startsWith(channel.name() + "_")) {
+                return channel;
+            }
+        }
+        return null;
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("imports.rows")
+                .tag("outcome", outcome)
+                .description("导入文件中已提交的行数")
+                .register(registry);
+    }
+}
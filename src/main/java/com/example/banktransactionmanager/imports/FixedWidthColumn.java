@@ -0,0 +1,34 @@
+package com.example.banktransactionmanager.imports;
+
+/**
+ * 定长文件中的一列，由 imports.fixed-width.columns 中的 "列名:宽度" 解析
+ * @param width 字符数
+ */
+public record FixedWidthColumn(ImportField field, int width) {
+
+    public FixedWidthColumn {
+        if (width < 1) {
+            throw new IllegalArgumentException("定长列宽度必须大于0: " + field);
+        }
+    }
+
+    /**
+     * @param spec 如 "accountNumber:20"；列名为 "filler" 表示跳过的填充列
+     */
+    public static FixedWidthColumn parse(String spec) {
+        int separator = spec.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("定长列定义格式应为 列名:宽度，实际为: " + spec);
+        }
+        String name = spec.substring(0, separator).trim();
+        ImportField field = ImportField.forColumnName(name);
+        if (field == null && !"filler".equalsIgnoreCase(name)) {
+            throw new IllegalArgumentException("未知的定长列: " + name);
+        }
+        try {
+            return new FixedWidthColumn(field, Integer.parseInt(spec.substring(separator + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("定长列宽度不是整数: " + spec);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+
+import java.util.List;
+
+/**
+ * 按列宽切分定长行，值去掉首尾空白
+ * 行尾的空白常被编辑器或传输工具截掉，因此行比布局短时缺失的列视为空值，只有比布局长才拒绝。
+ */
+public class FixedWidthRowParser implements RowParser {
+
+    private final FixedWidthColumn[] columns;
+    private final int lineWidth;
+
+    public FixedWidthRowParser(List<FixedWidthColumn> columns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("定长文件至少需要定义一列");
+        }
+        this.columns = columns.toArray(new FixedWidthColumn[0]);
+        this.lineWidth = columns.stream().mapToInt(FixedWidthColumn::width).sum();
+    }
+
+    @Override
+    public TransactionCreateRequest parse(String line) {
+        if (line.length() > lineWidth) {
+            throw new IllegalArgumentException("Line is " + line.length() + " characters, layout defines " + lineWidth);
+        }
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        int start = 0;
+        for (FixedWidthColumn column : columns) {
+            if (start >= line.length()) {
+                break;
+            }
+            int end = Math.min(start + column.width(), line.length());
+            if (column.field() != null) {
+                column.field().apply(request, line.substring(start, end).trim());
+            }
+            start = end;
+        }
+        return request;
+    }
+}
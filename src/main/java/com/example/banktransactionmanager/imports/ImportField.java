@@ -0,0 +1,104 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.Money;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 导入文件中可出现的列，与 {@link TransactionCreateRequest} 的字段一一对应
+ * 金额与手续费按两位小数的元书写（与JSON接口一致），时间格式为 yyyy-MM-dd HH:mm:ss；
+ * 渠道和创建人由导入任务统一指定，不从文件读取。
+ */
+public enum ImportField {
+
+    TRANSACTION_TYPE("transactionType",
+            (request, value) -> request.setTransactionType(parseEnum(Transaction.TransactionType.class, value, "transaction type"))),
+    AMOUNT("amount", (request, value) -> request.setAmount(parseMinorUnits(value, "amount"))),
+    CURRENCY("currency", TransactionCreateRequest::setCurrency),
+    DESCRIPTION("description", TransactionCreateRequest::setDescription),
+    TRANSACTION_TIME("transactionTime", (request, value) -> request.setTransactionTime(parseTime(value))),
+    ACCOUNT_NUMBER("accountNumber", TransactionCreateRequest::setAccountNumber),
+    ACCOUNT_TYPE("accountType",
+            (request, value) -> request.setAccountType(parseEnum(Transaction.AccountType.class, value, "account type"))),
+    COUNTERPARTY_ACCOUNT_NUMBER("counterpartyAccountNumber", TransactionCreateRequest::setCounterpartyAccountNumber),
+    COUNTERPARTY_NAME("counterpartyName", TransactionCreateRequest::setCounterpartyName),
+    EXTERNAL_REFERENCE_NO("externalReferenceNo", TransactionCreateRequest::setExternalReferenceNo),
+    FEE("fee", (request, value) -> request.setFee(parseMinorUnits(value, "fee"))),
+    REMARKS("remarks", TransactionCreateRequest::setRemarks);
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Map<String, ImportField> BY_COLUMN_NAME = new HashMap<>();
+
+    static {
+        for (ImportField field : values()) {
+            BY_COLUMN_NAME.put(normalize(field.columnName), field);
+        }
+    }
+
+    private final String columnName;
+    private final BiConsumer<TransactionCreateRequest, String> setter;
+
+    ImportField(String columnName, BiConsumer<TransactionCreateRequest, String> setter) {
+        this.columnName = columnName;
+        this.setter = setter;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * 按列名查找字段，忽略大小写和下划线（transactionType、transaction_type、TRANSACTION_TYPE 等价）
+     * @return 不是已知列时返回null
+     */
+    public static ImportField forColumnName(String name) {
+        return BY_COLUMN_NAME.get(normalize(name));
+    }
+
+    /**
+     * 把一个单元格的值写入请求，空值保持为null交给校验处理
+     * @throws IllegalArgumentException 值无法解析，消息作为拒绝原因
+     */
+    void apply(TransactionCreateRequest request, String value) {
+        if (!value.isEmpty()) {
+            setter.accept(request, value);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+
+    private static Long parseMinorUnits(String value, String label) {
+        try {
+            return Money.toMinorUnits(new BigDecimal(value));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value, TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid transaction time: " + value);
+        }
+    }
+}
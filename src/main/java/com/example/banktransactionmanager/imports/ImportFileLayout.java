@@ -0,0 +1,40 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.ImportJob;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * 导入文件的格式参数
+ * @param delimiter CSV分隔符
+ * @param fixedWidthColumns 定长文件的列布局，按出现顺序
+ * @param maxLineBytes 单行字节数上限，超出的行被拒绝
+ */
+public record ImportFileLayout(Charset charset,
+                               char delimiter,
+                               List<FixedWidthColumn> fixedWidthColumns,
+                               int maxLineBytes) {
+
+    public ImportFileLayout {
+        if (maxLineBytes < 1) {
+            throw new IllegalArgumentException("导入文件的单行字节数上限必须大于0");
+        }
+        fixedWidthColumns = List.copyOf(fixedWidthColumns);
+    }
+
+    boolean hasHeader(ImportJob.Format format) {
+        return format == ImportJob.Format.CSV;
+    }
+
+    /**
+     * @param header 表头行，无表头的格式传null
+     * @throws IllegalArgumentException 表头无法识别
+     */
+    RowParser newParser(ImportJob.Format format, String header) {
+        return switch (format) {
+            case CSV -> CsvRowParser.fromHeader(header, delimiter);
+            case FIXED_WIDTH -> new FixedWidthRowParser(fixedWidthColumns);
+        };
+    }
+}
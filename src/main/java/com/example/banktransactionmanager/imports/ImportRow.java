@@ -0,0 +1,10 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+
+/**
+ * 通过解析和校验、等待写入的一行
+ * @param lineNumber 文件中的物理行号（从1开始，含表头）
+ */
+record ImportRow(long lineNumber, String raw, TransactionCreateRequest request) {
+}
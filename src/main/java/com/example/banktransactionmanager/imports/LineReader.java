@@ -0,0 +1,115 @@
+package com.example.banktransactionmanager.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 从指定字节位置开始逐行读取文件，并记录每行结束后的字节位置作为检查点
+ * BufferedReader解码后无法知道对应的字节位置，因此这里按字节找换行符再逐行解码，
+ * 要求字符集中 '\n' 只以单字节出现（UTF-8、GBK等都满足）。
+ * 行尾的 '\r' 被去掉；文件开头的UTF-8 BOM被跳过。超过长度上限的行只保留前面部分并标记为超长，不会撑大内存。
+ */
+final class LineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final Charset charset;
+    private final int maxLineBytes;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private byte[] line = new byte[256];
+    private long position;
+    private boolean truncated;
+
+    /**
+     * @param offset 开始读取的字节位置，必须是某一行的行首
+     */
+    LineReader(Path file, long offset, Charset charset, int maxLineBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        this.in = Channels.newInputStream(channel);
+        this.charset = charset;
+        this.maxLineBytes = maxLineBytes;
+        this.position = offset;
+    }
+
+    /**
+     * @return 下一行（不含换行符），文件结束时返回null
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        boolean found = false;
+        truncated = false;
+        long lineStart = position;
+        while (!found) {
+            if (pos == limit) {
+                limit = in.read(buffer, 0, BUFFER_SIZE);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (length == 0 && !truncated) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            int start = pos;
+            while (pos < limit && buffer[pos] != '\n') {
+                pos++;
+            }
+            int chunk = pos - start;
+            if (pos < limit) {
+                found = true;
+                pos++;
+                position++;
+            }
+            position += chunk;
+            int room = maxLineBytes - length;
+            if (chunk > room) {
+                truncated = true;
+                chunk = Math.max(room, 0);
+            }
+            if (length + chunk > line.length) {
+                line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, length + chunk), maxLineBytes));
+            }
+            System.arraycopy(buffer, start, line, length, chunk);
+            length += chunk;
+        }
+        int from = 0;
+        if (lineStart == 0 && length >= 3 && line[0] == (byte) 0xEF && line[1] == (byte) 0xBB && line[2] == (byte) 0xBF) {
+            from = 3;
+        }
+        if (length > from && line[length - 1] == '\r' && !truncated) {
+            length--;
+        }
+        return new String(line, from, length - from, charset);
+    }
+
+    /**
+     * @return 已读取内容之后的字节位置，即下一行的行首
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * @return 最近一次读到的行是否超过长度上限被截断
+     */
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.banktransactionmanager.imports;
+
+/**
+ * 从文件中连续读出的一块非空行
+ * @param size 有效行数，数组后面的元素未使用
+ * @param endOffset 块中最后一行之后的字节位置，该块提交后即为新的检查点
+ * @param endLineNumber 块中最后一行（含其后跳过的空行）的行号
+ */
+record RawChunk(String[] lines, long[] lineNumbers, boolean[] truncated, int size,
+                long endOffset, long endLineNumber) {
+}
@@ -0,0 +1,8 @@
+package com.example.banktransactionmanager.imports;
+
+/**
+ * 被拒绝的一行，写入拒绝行报告
+ * @param lineNumber 文件中的物理行号（从1开始，含表头）
+ */
+record RejectedRow(long lineNumber, String reason, String raw) {
+}
@@ -0,0 +1,79 @@
+package com.example.banktransactionmanager.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 导入任务的拒绝行报告（CSV：lineNumber,reason,row）
+ * 打开时截断到与检查点一起提交的长度，丢弃上次中断时尚未提交的块写出的行，
+ * 因此报告中的每一行都对应检查点之前的一个被拒绝的行，恢复后不会重复。
+ */
+final class RejectedRowReport implements Closeable {
+
+    private static final String HEADER = "lineNumber,reason,row\n";
+
+    private final FileChannel channel;
+    private final Writer writer;
+
+    RejectedRowReport(Path file, long committedBytes) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        truncate(committedBytes);
+        if (committedBytes == 0) {
+            writer.write(HEADER);
+            writer.flush();
+        }
+    }
+
+    /**
+     * 追加并刷到文件
+     */
+    void append(List<RejectedRow> rows) throws IOException {
+        for (RejectedRow row : rows) {
+            writer.write(Long.toString(row.lineNumber()));
+            writer.write(',');
+            csvText(row.reason());
+            writer.write(',');
+            csvText(row.raw());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    long size() throws IOException {
+        return channel.position();
+    }
+
+    /**
+     * 丢弃指定长度之后的内容（所在块回滚时调用）
+     */
+    void truncate(long size) throws IOException {
+        writer.flush();
+        channel.truncate(size);
+        channel.position(size);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void csvText(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
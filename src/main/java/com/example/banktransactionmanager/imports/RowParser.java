@@ -0,0 +1,16 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+
+/**
+ * 把导入文件的一行解析为交易创建请求，实现必须是线程安全的（多个校验线程共用）
+ */
+public interface RowParser {
+
+    /**
+     * @param line 不含换行符的一行
+     * @return 只填充了文件中出现的列的请求，渠道和创建人由调用方补齐
+     * @throws IllegalArgumentException 行格式错误或值无法解析，消息作为拒绝原因
+     */
+    TransactionCreateRequest parse(String line);
+}
@@ -0,0 +1,118 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用JDBC批量语句写入导入的交易及其CREATED变更事件
+ * <p>
+ * 交易主键为IDENTITY，Hibernate不能对这类实体的插入做JDBC批处理，逐个persist还会重复执行实体校验，
+ * 压测中每行约0.4ms，远低于导入需要的吞吐。导入的行已在校验阶段按同样的约束检查过，
+ * 这里按列批量插入交易，再用返回的自增主键批量插入变更事件。
+ * 必须在事务中调用（JdbcTemplate加入当前JPA事务），与检查点一起提交或回滚。
+ */
+class TransactionBatchWriter {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction (transaction_biz_no, idempotency_key, "
+            + "account_number, account_type, transaction_type, amount, fee, currency, transaction_time, status, channel, "
+            + "counterparty_account_number, counterparty_name, description, external_reference_no, remarks, "
+            + "creator, create_time, update_time, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE)";
+
+    private static final String INSERT_OUTBOX_EVENT = "INSERT INTO transaction_outbox (change_type, transaction_id, "
+            + "transaction_biz_no, account_number, transaction_type, channel, status, amount, transaction_time, create_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TransactionBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 写入交易并回填自增主键
+     */
+    void write(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            LocalDateTime now = LocalDateTime.now();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSACTION, new String[]{"id"})) {
+                for (Transaction transaction : transactions) {
+                    bindTransaction(statement, transaction, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                readGeneratedIds(statement, transactions);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_OUTBOX_EVENT)) {
+                for (Transaction transaction : transactions) {
+                    bindCreatedEvent(statement, transaction, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    private static void bindTransaction(PreparedStatement statement, Transaction transaction, LocalDateTime now)
+            throws SQLException {
+        statement.setString(1, transaction.getTransactionBizNo());
+        statement.setString(2, transaction.getIdempotencyKey());
+        statement.setString(3, transaction.getAccountNumber());
+        statement.setString(4, transaction.getAccountType().name());
+        statement.setString(5, transaction.getTransactionType().name());
+        statement.setLong(6, transaction.getAmount());
+        statement.setLong(7, transaction.getFee());
+        statement.setString(8, transaction.getCurrency());
+        statement.setObject(9, transaction.getTransactionTime());
+        statement.setString(10, transaction.getStatus().name());
+        statement.setString(11, transaction.getChannel().name());
+        statement.setString(12, transaction.getCounterpartyAccountNumber());
+        statement.setString(13, transaction.getCounterpartyName());
+        statement.setString(14, transaction.getDescription());
+        statement.setString(15, transaction.getExternalReferenceNo());
+        statement.setString(16, transaction.getRemarks());
+        statement.setString(17, transaction.getCreator());
+        statement.setObject(18, now);
+        statement.setObject(19, now);
+        transaction.setCreateTime(now);
+        transaction.setUpdateTime(now);
+    }
+
+    private static void readGeneratedIds(PreparedStatement statement, List<Transaction> transactions) throws SQLException {
+        int index = 0;
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys.next() && index < transactions.size()) {
+                transactions.get(index++).setId(keys.getLong(1));
+            }
+        }
+        if (index != transactions.size()) {
+            throw new IllegalStateException("Expected " + transactions.size() + " generated keys but got " + index);
+        }
+    }
+
+    private static void bindCreatedEvent(PreparedStatement statement, Transaction transaction, LocalDateTime now)
+            throws SQLException {
+        statement.setString(1, TransactionOutboxEvent.ChangeType.CREATED.name());
+        statement.setLong(2, transaction.getId());
+        statement.setString(3, transaction.getTransactionBizNo());
+        statement.setString(4, transaction.getAccountNumber());
+        statement.setString(5, transaction.getTransactionType().name());
+        statement.setString(6, transaction.getChannel().name());
+        statement.setString(7, transaction.getStatus().name());
+        statement.setLong(8, transaction.getAmount());
+        statement.setObject(9, transaction.getTransactionTime());
+        statement.setObject(10, now);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.banktransactionmanager.imports;
+
+import java.util.List;
+
+/**
+ * 完成解析和校验的一块，行按文件顺序排列
+ */
+record ValidatedChunk(List<ImportRow> accepted, List<RejectedRow> rejected, long endOffset, long endLineNumber) {
+}
@@ -0,0 +1,128 @@
+package com.example.banktransactionmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 渠道交易文件的导入任务
+ * 检查点（已提交到的字节位置、行号和计数）与每一块交易在同一个事务中更新，
+ * 重启或失败后从检查点继续，已提交的行不会重复导入。
+ * 任务由 owner 节点持有租约，节点定期续约；租约过期的未完成任务可被其他进程接管。
+ */
+@Entity
+@Table(name = "import_job", indexes = {
+        @Index(name = "idx_import_job_status_lease", columnList = "status, lease_until")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 上传或投递时的原始文件名
+     */
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    /**
+     * 待导入文件在本机的存放路径
+     */
+    @Column(name = "stored_path", nullable = false, length = 1024)
+    private String storedPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Channel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * 导入交易的创建人
+     */
+    @Column(length = 50)
+    private String creator;
+
+    @Column(name = "file_bytes", nullable = false)
+    private long fileBytes;
+
+    /**
+     * 检查点：下一个未提交行的字节位置
+     */
+    @Column(name = "checkpoint_offset", nullable = false)
+    private long checkpointOffset;
+
+    /**
+     * 检查点之前的物理行数（含表头）
+     */
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "rejected_rows", nullable = false)
+    private long rejectedRows;
+
+    /**
+     * 拒绝行报告中已与检查点一起提交的字节数，恢复时截断到此处
+     */
+    @Column(name = "report_bytes", nullable = false)
+    private long reportBytes;
+
+    @Column(length = 64)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "create_time", nullable = false, updatable = false)
+    private LocalDateTime createTime;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "update_time")
+    private LocalDateTime updateTime;
+
+    @Column(name = "finish_time")
+    private LocalDateTime finishTime;
+
+    public enum Format {
+        /**
+         * 带表头的逗号分隔文件，列名与交易创建请求的字段名一致
+         */
+        CSV,
+        /**
+         * 按 imports.fixed-width.columns 定义列宽的定长文件，无表头
+         */
+        FIXED_WIDTH
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
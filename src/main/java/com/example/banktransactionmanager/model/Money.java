@@ -0,0 +1,57 @@
+package com.example.banktransactionmanager.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 金额换算：实体与DTO中的金额字段以最小货币单位（分）的long保存（BIGINT列），比较、累加都是基本类型运算。
+ * 校验层已将交易金额限制为14位整数+2位小数、手续费8+2位，都能由long精确表示。
+ * 本类只提供与BigDecimal、十进制文本之间的互转。
+ */
+public final class Money {
+
+    /**
+     * 小数位数，1.23 保存为 123
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * BigDecimal转为分，小数超过两位或超出long范围时抛出ArithmeticException
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * 按两位小数格式化为十进制文本（如 12345 → "123.45"），不经过BigDecimal
+     * @param buffer 至少22个字符的缓冲区
+     * @return 写入的字符数
+     */
+    public static int format(long minorUnits, char[] buffer) {
+        boolean negative = minorUnits < 0;
+        // 以负数运算，避免Long.MIN_VALUE取反溢出
+        long value = negative ? minorUnits : -minorUnits;
+        int pos = buffer.length;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--pos] = (char) ('0' - (int) (value % 10));
+            value /= 10;
+        }
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' - (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            buffer[--pos] = '-';
+        }
+        int length = buffer.length - pos;
+        System.arraycopy(buffer, pos, buffer, 0, length);
+        return length;
+    }
+}
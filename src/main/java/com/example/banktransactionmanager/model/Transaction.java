@@ -10,14 +10,16 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transaction", indexes = {
         @Index(name = "idx_transaction_biz_no", columnList = "transaction_biz_no", unique = true),
         @Index(name = "idx_account_number", columnList = "account_number"),
-        @Index(name = "idx_transaction_time", columnList = "transaction_time")
+        @Index(name = "idx_transaction_time", columnList = "transaction_time"),
+        @Index(name = "idx_transaction_account_time", columnList = "account_number, transaction_time"),
+        @Index(name = "idx_transaction_idempotency_key", columnList = "idempotency_key", unique = true),
+        @Index(name = "idx_transaction_settlement", columnList = "status, settlement_lease_until")
 })
 @Data
 @NoArgsConstructor
@@ -44,10 +46,13 @@ public class Transaction {
     @Column(nullable = false)
     private Status status;
 
-    @NotNull(message = "Amount is required")
-    @Min(value = 1, message = "Amount must be greater than zero")
-    @Digits(integer = 14, fraction = 2, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
-    private BigDecimal amount;
+    /**
+     * 金额，单位为分（100.00 保存为 10000）
+     */
+    @Min(value = 100, message = "Amount must be greater than zero")
+    @Max(value = 9_999_999_999_999_999L, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
+    @Column(name = "amount", nullable = false)
+    private long amount;
 
     @NotBlank(message = "Currency is required")
     @Size(min = 3, max = 3, message = "Currency must be 3 characters")
@@ -89,21 +94,48 @@ public class Transaction {
     @Column(name = "external_reference_no")
     private String externalReferenceNo;
 
-    @NotNull(message = "Fee is required")
+    /**
+     * 手续费，单位为分
+     */
     @Min(value = 0, message = "Fee must be greater than or equal to zero")
-    @Digits(integer = 8, fraction = 2, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
-    private BigDecimal fee;
+    @Max(value = 9_999_999_999L, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
+    @Column(name = "fee", nullable = false)
+    private long fee;
 
     @Size(max = 500, message = "Remarks must not exceed 500 characters")
     private String remarks;
 
+    @Size(max = 128, message = "Idempotency key must not exceed 128 characters")
+    @Column(name = "idempotency_key", unique = true, length = 128)
+    private String idempotencyKey;
+
     @Size(max = 50, message = "Reference number must not exceed 50 characters")
     @Column(name = "reference_number")
     private String referenceNumber;
 
-    @NotNull(message = "Is deleted flag is required")
+    /**
+     * 结算租约持有者（领取批次令牌），结算完成或租约释放后清空
+     */
+    @Column(name = "settlement_owner", length = 64)
+    private String settlementOwner;
+
+    /**
+     * 结算租约到期时间，过期后其他节点可重新领取
+     */
+    @Column(name = "settlement_lease_until")
+    private LocalDateTime settlementLeaseUntil;
+
+    /**
+     * 结算出错的次数，达到上限后转为 HELD 等待人工处理
+     */
+    @Column(name = "settlement_attempts", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int settlementAttempts;
+
+    /**
+     * 逻辑删除标记，使用基本类型避免装箱且不会为null
+     */
     @Column(name = "is_deleted", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
-    private Boolean isDeleted;
+    private boolean isDeleted;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Column(name = "deleted_time")
@@ -126,19 +158,39 @@ public class Transaction {
     @Size(max = 50, message = "Updater must not exceed 50 characters")
     private String updater;
 
+    // 保持与包装类型时期一致的访问器名称（Lombok对基本类型boolean会生成isDeleted()/setDeleted()）
+    public boolean getIsDeleted() {
+        return isDeleted;
+    }
+
+    public void setIsDeleted(boolean isDeleted) {
+        this.isDeleted = isDeleted;
+    }
+
     public enum TransactionType {
         DEPOSIT,
         WITHDRAWAL,
         TRANSFER,
         PAYMENT,
-        REFUND
+        REFUND;
+
+        /**
+         * 是否为入账：存款和退款增加账户余额，其余类型减少余额；手续费总是出账
+         */
+        public boolean isCredit() {
+            return this == DEPOSIT || this == REFUND;
+        }
     }
 
     public enum Status {
         PENDING,
         SUCCESS,
         FAILED,
-        CANCELLED
+        CANCELLED,
+        /**
+         * 触发频率/限额规则被挂起，不进入结算，人工复核后流转为 PENDING 或 CANCELLED
+         */
+        HELD
     }
 
     public enum AccountType {
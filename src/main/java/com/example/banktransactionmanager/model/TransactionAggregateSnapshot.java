@@ -0,0 +1,59 @@
+package com.example.banktransactionmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 交易汇总的快照行，重启时据此恢复内存中的汇总而不必扫描交易表
+ * 每次快照写入一组 snapshot_time 相同的行，恢复时只读取最新一组。
+ */
+@Entity
+@Table(name = "transaction_aggregate_snapshot", indexes = {
+        @Index(name = "idx_aggregate_snapshot_time", columnList = "snapshot_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionAggregateSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Channel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private Transaction.TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Status status;
+
+    /**
+     * 交易日，为null表示保留期之前各日的合计
+     */
+    @Column(name = "business_day")
+    private LocalDate businessDay;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    /**
+     * 金额合计，单位为分
+     */
+    @Column(name = "amount_total", nullable = false)
+    private long amountTotal;
+
+    @Column(name = "snapshot_time", nullable = false)
+    private LocalDateTime snapshotTime;
+}
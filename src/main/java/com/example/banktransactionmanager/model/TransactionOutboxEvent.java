@@ -0,0 +1,73 @@
+package com.example.banktransactionmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 交易变更事件（事务性发件箱）
+ * 与交易的增删改在同一个数据库事务中写入，由中继批量投递后删除。
+ */
+@Entity
+@Table(name = "transaction_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "transaction_biz_no", nullable = false)
+    private String transactionBizNo;
+
+    @Column(name = "account_number")
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type")
+    private Transaction.TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    private Transaction.Channel channel;
+
+    @Enumerated(EnumType.STRING)
+    private Transaction.Status status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private Transaction.Status previousStatus;
+
+    /**
+     * 金额，单位为分
+     */
+    private Long amount;
+
+    @Column(name = "transaction_time")
+    private LocalDateTime transactionTime;
+
+    @CreationTimestamp
+    @Column(name = "create_time", nullable = false, updatable = false)
+    private LocalDateTime createTime;
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量软删除请求：按ID列表，或按账号/交易时间范围筛选（二选一）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteRequest {
+
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+
+    @Size(max = 50, message = "Account number must not exceed 50 characters")
+    private String accountNumber;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime fromTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime toTime;
+
+    @Size(max = 50, message = "Updater must not exceed 50 characters")
+    private String updater;
+
+    @AssertTrue(message = "Either ids or a filter (accountNumber/fromTime/toTime) is required, but not both")
+    @JsonIgnore
+    public boolean isSelectionValid() {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = accountNumber != null || fromTime != null || toTime != null;
+        return byIds != byFilter;
+    }
+}
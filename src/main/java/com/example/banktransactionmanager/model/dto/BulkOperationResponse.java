@@ -0,0 +1,21 @@
+package com.example.banktransactionmanager.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量操作结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResponse {
+
+    /**
+     * 实际受影响的记录数
+     */
+    private int affected;
+}
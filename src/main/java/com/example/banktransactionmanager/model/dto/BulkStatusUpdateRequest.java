@@ -0,0 +1,35 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.Transaction;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量状态流转请求，只有当前状态为 fromStatus 的交易会被更新
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "Ids are required")
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+
+    @NotNull(message = "From status is required")
+    private Transaction.Status fromStatus;
+
+    @NotNull(message = "To status is required")
+    private Transaction.Status toStatus;
+
+    @Size(max = 50, message = "Updater must not exceed 50 characters")
+    private String updater;
+}
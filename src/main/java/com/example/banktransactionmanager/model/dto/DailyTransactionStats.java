@@ -0,0 +1,34 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.codec.MinorUnits;
+import com.example.banktransactionmanager.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 单个交易日的统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyTransactionStats {
+
+    private LocalDate day;
+
+    /**
+     * 状态 -> 未删除交易数
+     */
+    private Map<Transaction.Status, Long> counts;
+
+    /**
+     * 成功交易的金额合计
+     */
+    @MinorUnits
+    private Long volume;
+}
@@ -0,0 +1,76 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.ImportJob;
+import com.example.banktransactionmanager.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导入任务的进度，计数都截至最近一次提交的检查点
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobStatus {
+
+    private Long id;
+
+    private String fileName;
+
+    private ImportJob.Format format;
+
+    private Transaction.Channel channel;
+
+    private ImportJob.Status status;
+
+    private long fileBytes;
+
+    /**
+     * 已提交的字节数
+     */
+    private long processedBytes;
+
+    /**
+     * 按字节计的完成百分比
+     */
+    private double progressPercent;
+
+    /**
+     * 已提交的物理行数（含表头和空行）
+     */
+    private long linesRead;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    /**
+     * 从开始执行到最近一次检查点的平均处理速度（导入+拒绝行数/秒）
+     */
+    private double rowsPerSecond;
+
+    /**
+     * 有被拒绝的行时，可通过 GET /api/imports/{id}/rejected 下载报告
+     */
+    private boolean rejectedReportAvailable;
+
+    private String errorMessage;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updateTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishTime;
+}
@@ -0,0 +1,66 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 对账结果汇总，差异明细见 reportDirectory 下的CSV文件
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+
+    private String runId;
+
+    private String fileName;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Transaction.Channel channel;
+
+    /**
+     * 文件数据行数
+     */
+    private long fileRows;
+
+    /**
+     * 对账区间内带外部参考号的我方交易数
+     */
+    private long ledgerTransactions;
+
+    private long matched;
+
+    private long amountMismatches;
+
+    private long statusMismatches;
+
+    private long duplicatesInFile;
+
+    private long malformedRows;
+
+    private long missingInLedger;
+
+    private long missingInFile;
+
+    /**
+     * 差异过多，明细文件只包含前 reconciliation.max-reported-issues 条
+     */
+    private boolean issuesTruncated;
+
+    private String reportDirectory;
+
+    private long indexMillis;
+
+    private long matchMillis;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,59 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 对账请求：清算文件需事先放入对账收件目录（reconciliation.inbox-dir）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRequest {
+
+    /**
+     * 收件目录下的文件名
+     */
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must not exceed 255 characters")
+    private String fileName;
+
+    /**
+     * 对账区间首日（含），按我方交易时间
+     */
+    @NotNull(message = "From date is required")
+    private LocalDate from;
+
+    /**
+     * 对账区间末日（含）
+     */
+    @NotNull(message = "To date is required")
+    private LocalDate to;
+
+    /**
+     * 只对账该渠道的交易（可选），文件来自单一合作方时建议指定
+     */
+    private Transaction.Channel channel;
+
+    /**
+     * 是否同时输出已匹配明细（行数与文件相当）
+     */
+    private boolean includeMatched;
+
+    @AssertTrue(message = "To date must not be before from date")
+    @JsonIgnore
+    public boolean isPeriodValid() {
+        return from == null || to == null || !to.isBefore(from);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.banktransactionmanager.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 批量生成对账单的结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementBatchResult {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private String format;
+
+    /**
+     * 对账单文件所在目录
+     */
+    private String outputDirectory;
+
+    /**
+     * 需要出对账单的账户数
+     */
+    private int accounts;
+
+    private int generated;
+
+    /**
+     * 生成失败的账号，可单独重新下载
+     */
+    private List<String> failedAccounts;
+
+    private long elapsedMillis;
+}
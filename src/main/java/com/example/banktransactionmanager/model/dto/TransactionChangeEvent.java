@@ -0,0 +1,58 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.codec.MinorUnits;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 交易变更事件，offset 为变更流中的位置，消费者以此作为下一次拉取的 since
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionChangeEvent {
+
+    private Long offset;
+
+    /**
+     * 发件箱记录ID，变更流据此丢弃重投的事件，不对外输出
+     */
+    @JsonIgnore
+    private Long outboxId;
+
+    private TransactionOutboxEvent.ChangeType changeType;
+
+    private Long transactionId;
+
+    private String transactionBizNo;
+
+    private String accountNumber;
+
+    private Transaction.TransactionType transactionType;
+
+    private Transaction.Channel channel;
+
+    private Transaction.Status status;
+
+    private Transaction.Status previousStatus;
+
+    @MinorUnits
+    private Long amount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime transactionTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime occurredAt;
+}
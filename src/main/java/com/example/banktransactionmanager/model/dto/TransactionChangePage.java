@@ -0,0 +1,35 @@
+package com.example.banktransactionmanager.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 变更流的一次拉取结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionChangePage {
+
+    private List<TransactionChangeEvent> events;
+
+    /**
+     * 变更流实例标识，下一次拉取时与 nextOffset 一起带回
+     */
+    private long epoch;
+
+    /**
+     * 下一次拉取使用的 since
+     */
+    private long nextOffset;
+
+    /**
+     * since 之后的部分事件已不在保留窗口内（或游标来自重启前或其他副本），消费者应按需全量对账
+     */
+    private boolean truncated;
+}
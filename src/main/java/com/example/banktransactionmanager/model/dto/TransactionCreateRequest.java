@@ -1,5 +1,6 @@
 package com.example.banktransactionmanager.model.dto;
 
+import com.example.banktransactionmanager.codec.MinorUnits;
 import com.example.banktransactionmanager.model.Transaction;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.*;
@@ -8,7 +9,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -20,10 +20,18 @@ public class TransactionCreateRequest {
     @NotNull(message = "Transaction type is required")
     private Transaction.TransactionType transactionType;
 
+    /**
+     * 金额，单位为分（100.00 保存为 10000）
+     */
     @NotNull(message = "Amount is required")
-    @Min(value = 1, message = "Amount must be greater than zero")
-    @Digits(integer = 14, fraction = 2, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
-    private BigDecimal amount;
+    @Min(value = 100, message = "Amount must be greater than zero")
+    @Max(value = 9_999_999_999_999_999L, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
+    @MinorUnits
+    private Long amount;
+
+    @Size(min = 3, max = 3, message = "Currency must be 3 characters")
+    @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be 3 uppercase letters")
+    private String currency;
 
     @NotBlank(message = "Description is required")
     @Size(max = 255, message = "Description must not exceed 255 characters")
@@ -51,10 +59,14 @@ public class TransactionCreateRequest {
     @Size(max = 64, message = "External reference number must not exceed 64 characters")
     private String externalReferenceNo;
 
+    /**
+     * 手续费，单位为分
+     */
     @NotNull(message = "Fee is required")
     @Min(value = 0, message = "Fee must be greater than or equal to zero")
-    @Digits(integer = 8, fraction = 2, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
-    private BigDecimal fee;
+    @Max(value = 9_999_999_999L, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
+    @MinorUnits
+    private Long fee;
 
     @Size(max = 500, message = "Remarks must not exceed 500 characters")
     private String remarks;
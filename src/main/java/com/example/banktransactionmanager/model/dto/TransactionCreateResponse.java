@@ -0,0 +1,34 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 创建交易的返回结果；幂等重放时返回首次创建的结果且 replayed = true
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TransactionCreateResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String transactionBizNo;
+
+    private Transaction.Status status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    private boolean replayed;
+}
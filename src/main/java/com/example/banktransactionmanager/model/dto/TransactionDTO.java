@@ -1,5 +1,6 @@
 package com.example.banktransactionmanager.model.dto;
 
+import com.example.banktransactionmanager.codec.MinorUnits;
 import com.example.banktransactionmanager.model.Transaction;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.*;
@@ -8,14 +9,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class TransactionDTO {
+public class TransactionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
 
@@ -29,10 +32,13 @@ public class TransactionDTO {
     @NotNull(message = "Status is required")
     private Transaction.Status status;
 
-    @NotNull(message = "Amount is required")
-    @Min(value = 1, message = "Amount must be greater than zero")
-    @Digits(integer = 14, fraction = 2, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
-    private BigDecimal amount;
+    /**
+     * 金额，单位为分（100.00 保存为 10000）
+     */
+    @Min(value = 100, message = "Amount must be greater than zero")
+    @Max(value = 9_999_999_999_999_999L, message = "Amount must have up to 14 digits before decimal point and 2 digits after")
+    @MinorUnits
+    private long amount;
 
     @NotBlank(message = "Currency is required")
     @Size(min = 3, max = 3, message = "Currency must be 3 characters")
@@ -65,10 +71,13 @@ public class TransactionDTO {
     @Size(max = 64, message = "External reference number must not exceed 64 characters")
     private String externalReferenceNo;
 
-    @NotNull(message = "Fee is required")
+    /**
+     * 手续费，单位为分
+     */
     @Min(value = 0, message = "Fee must be greater than or equal to zero")
-    @Digits(integer = 8, fraction = 2, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
-    private BigDecimal fee;
+    @Max(value = 9_999_999_999L, message = "Fee must have up to 8 digits before decimal point and 2 digits after")
+    @MinorUnits
+    private long fee;
 
     @Size(max = 500, message = "Remarks must not exceed 500 characters")
     private String remarks;
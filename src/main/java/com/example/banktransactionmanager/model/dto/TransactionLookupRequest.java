@@ -0,0 +1,40 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询请求：按ID、交易业务编号或参考号之一查询
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionLookupRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+
+    @Size(max = 1000, message = "At most 1000 transaction biz numbers per request")
+    private List<String> transactionBizNos;
+
+    @Size(max = 1000, message = "At most 1000 reference numbers per request")
+    private List<String> referenceNumbers;
+
+    @AssertTrue(message = "Exactly one of ids, transactionBizNos or referenceNumbers is required")
+    @JsonIgnore
+    public boolean isSelectionValid() {
+        int selected = 0;
+        selected += ids != null && !ids.isEmpty() ? 1 : 0;
+        selected += transactionBizNos != null && !transactionBizNos.isEmpty() ? 1 : 0;
+        selected += referenceNumbers != null && !referenceNumbers.isEmpty() ? 1 : 0;
+        return selected == 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.banktransactionmanager.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询结果，按请求中键的顺序排列（重复的键只出现一次）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionLookupResponse {
+
+    /**
+     * 找到的交易
+     */
+    private List<TransactionDTO> transactions;
+
+    /**
+     * 不存在或已删除的键
+     */
+    private List<Object> notFound;
+}
@@ -0,0 +1,37 @@
+package com.example.banktransactionmanager.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 不统计总数的分页结果：只知道是否还有下一页，总数为可选的估计值
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSlice implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<TransactionDTO> content;
+
+    /**
+     * 页码，从0开始
+     */
+    private int number;
+
+    private int size;
+
+    private boolean hasNext;
+
+    /**
+     * 近似总数，仅在请求估计时返回；无法估计时为null
+     */
+    private Long approximateTotal;
+}
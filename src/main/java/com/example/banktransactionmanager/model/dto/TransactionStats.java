@@ -0,0 +1,35 @@
+package com.example.banktransactionmanager.model.dto;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 看板统计：各渠道按状态的交易数，以及最近若干天的每日交易数和成交金额
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionStats {
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedAt;
+
+    /**
+     * 渠道 -> 状态 -> 未删除交易数
+     */
+    private Map<Transaction.Channel, Map<Transaction.Status, Long>> countsByChannel;
+
+    /**
+     * 按交易日升序，没有交易的日期也会列出
+     */
+    private List<DailyTransactionStats> daily;
+}
@@ -0,0 +1,26 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.time.LocalDate;
+
+/**
+ * 按渠道、交易类型、状态和交易日分组的未删除交易数及金额合计
+ */
+public interface DailyTotal {
+
+    Transaction.Channel getChannel();
+
+    Transaction.TransactionType getTransactionType();
+
+    Transaction.Status getStatus();
+
+    LocalDate getBusinessDay();
+
+    long getCount();
+
+    /**
+     * 金额合计，单位为分
+     */
+    long getVolume();
+}
@@ -0,0 +1,10 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 对账用的交易投影，由JPQL构造表达式直接生成
+ * @param amount 金额，单位为分
+ */
+public record ReconciliationEntry(Long id, String externalReferenceNo, long amount, Transaction.Status status) {
+}
@@ -0,0 +1,11 @@
+package com.example.banktransactionmanager.model.projection;
+
+/**
+ * 抽样窗口内的未删除交易数，以及其中满足查询条件的交易数
+ */
+public interface SampleCount {
+
+    Long getSampled();
+
+    Long getMatched();
+}
@@ -0,0 +1,21 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 对账单中的一行交易，由JPQL构造表达式直接生成，不进入持久化上下文，流式读取整个账期也不会堆积实体
+ * @param amount 金额，单位为分
+ * @param fee 手续费，单位为分
+ */
+public record StatementLine(LocalDateTime transactionTime,
+                            String transactionBizNo,
+                            Transaction.TransactionType transactionType,
+                            Transaction.Channel channel,
+                            String description,
+                            String counterpartyName,
+                            long amount,
+                            long fee,
+                            String currency) {
+}
@@ -0,0 +1,21 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 按交易类型汇总的金额和手续费，用于计算期初余额
+ */
+public interface StatementTypeTotal {
+
+    Transaction.TransactionType getTransactionType();
+
+    /**
+     * 金额合计，单位为分
+     */
+    long getAmount();
+
+    /**
+     * 手续费合计，单位为分
+     */
+    long getFee();
+}
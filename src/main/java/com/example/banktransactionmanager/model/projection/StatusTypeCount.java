@@ -0,0 +1,15 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 按状态和交易类型分组的未删除交易数
+ */
+public interface StatusTypeCount {
+
+    Transaction.Status getStatus();
+
+    Transaction.TransactionType getTransactionType();
+
+    long getCount();
+}
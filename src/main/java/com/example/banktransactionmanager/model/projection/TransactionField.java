@@ -0,0 +1,105 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 列表接口可选择的交易字段（稀疏字段集）
+ * <p>
+ * 字段名同时是 {@link TransactionDTO} 的JSON属性名和 {@link Transaction} 的实体属性名，
+ * 查询时只选择这些列，序列化时只输出这些属性。
+ */
+public enum TransactionField {
+
+    ID("id", (dto, value) -> dto.setId((Long) value)),
+    TRANSACTION_BIZ_NO("transactionBizNo", (dto, value) -> dto.setTransactionBizNo((String) value)),
+    TRANSACTION_TYPE("transactionType", (dto, value) -> dto.setTransactionType((Transaction.TransactionType) value)),
+    STATUS("status", (dto, value) -> dto.setStatus((Transaction.Status) value)),
+    AMOUNT("amount", (dto, value) -> dto.setAmount((Long) value)),
+    CURRENCY("currency", (dto, value) -> dto.setCurrency((String) value)),
+    DESCRIPTION("description", (dto, value) -> dto.setDescription((String) value)),
+    TRANSACTION_TIME("transactionTime", (dto, value) -> dto.setTransactionTime((LocalDateTime) value)),
+    ACCOUNT_NUMBER("accountNumber", (dto, value) -> dto.setAccountNumber((String) value)),
+    ACCOUNT_TYPE("accountType", (dto, value) -> dto.setAccountType((Transaction.AccountType) value)),
+    COUNTERPARTY_ACCOUNT_NUMBER("counterpartyAccountNumber", (dto, value) -> dto.setCounterpartyAccountNumber((String) value)),
+    COUNTERPARTY_NAME("counterpartyName", (dto, value) -> dto.setCounterpartyName((String) value)),
+    CHANNEL("channel", (dto, value) -> dto.setChannel((Transaction.Channel) value)),
+    EXTERNAL_REFERENCE_NO("externalReferenceNo", (dto, value) -> dto.setExternalReferenceNo((String) value)),
+    FEE("fee", (dto, value) -> dto.setFee((Long) value)),
+    REMARKS("remarks", (dto, value) -> dto.setRemarks((String) value)),
+    IS_DELETED("isDeleted", (dto, value) -> dto.setIsDeleted((Boolean) value)),
+    DELETED_TIME("deletedTime", (dto, value) -> dto.setDeletedTime((LocalDateTime) value)),
+    CREATE_TIME("createTime", (dto, value) -> dto.setCreateTime((LocalDateTime) value)),
+    UPDATE_TIME("updateTime", (dto, value) -> dto.setUpdateTime((LocalDateTime) value)),
+    CREATOR("creator", (dto, value) -> dto.setCreator((String) value)),
+    UPDATER("updater", (dto, value) -> dto.setUpdater((String) value));
+
+    /**
+     * 默认的列表视图：列表页展示的字段，不含备注、对手方和审计字段
+     */
+    public static final Set<TransactionField> COMPACT = Collections.unmodifiableSet(EnumSet.of(
+            ID, TRANSACTION_BIZ_NO, TRANSACTION_TYPE, STATUS, AMOUNT, CURRENCY, DESCRIPTION,
+            TRANSACTION_TIME, ACCOUNT_NUMBER, CHANNEL));
+
+    private static final Map<String, TransactionField> BY_NAME = new HashMap<>();
+
+    static {
+        for (TransactionField field : values()) {
+            BY_NAME.put(field.property.toLowerCase(Locale.ROOT), field);
+        }
+    }
+
+    private final String property;
+    private final BiConsumer<TransactionDTO, Object> setter;
+
+    TransactionField(String property, BiConsumer<TransactionDTO, Object> setter) {
+        this.property = property;
+        this.setter = setter;
+    }
+
+    /**
+     * DTO的JSON属性名，同时也是实体属性名
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * 把查询出的列值写入DTO
+     */
+    public void apply(TransactionDTO dto, Object value) {
+        setter.accept(dto, value);
+    }
+
+    /**
+     * 解析逗号分隔的字段列表（不区分大小写）
+     * @throws IllegalArgumentException 包含未知字段或列表为空
+     */
+    public static Set<TransactionField> parse(String fields) {
+        EnumSet<TransactionField> parsed = EnumSet.noneOf(TransactionField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            TransactionField field = BY_NAME.get(trimmed.toLowerCase(Locale.ROOT));
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return parsed;
+    }
+}
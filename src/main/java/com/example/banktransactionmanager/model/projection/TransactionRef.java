@@ -0,0 +1,47 @@
+package com.example.banktransactionmanager.model.projection;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 交易的轻量投影，只包含缓存键、批量操作和变更事件需要的字段
+ */
+public interface TransactionRef {
+
+    Long getId();
+
+    String getTransactionBizNo();
+
+    String getReferenceNumber();
+
+    Transaction.Status getStatus();
+
+    String getAccountNumber();
+
+    Transaction.TransactionType getTransactionType();
+
+    Transaction.Channel getChannel();
+
+    /**
+     * 金额，单位为分
+     */
+    long getAmount();
+
+    LocalDateTime getTransactionTime();
+
+    /**
+     * 取实体当前字段的快照，实体之后被修改不影响快照
+     */
+    static TransactionRef of(Transaction transaction) {
+        return new Snapshot(transaction.getId(), transaction.getTransactionBizNo(), transaction.getReferenceNumber(),
+                transaction.getStatus(), transaction.getAccountNumber(), transaction.getTransactionType(),
+                transaction.getChannel(), transaction.getAmount(), transaction.getTransactionTime());
+    }
+
+    record Snapshot(Long getId, String getTransactionBizNo, String getReferenceNumber, Transaction.Status getStatus,
+                    String getAccountNumber, Transaction.TransactionType getTransactionType,
+                    Transaction.Channel getChannel, long getAmount, LocalDateTime getTransactionTime)
+            implements TransactionRef {
+    }
+}
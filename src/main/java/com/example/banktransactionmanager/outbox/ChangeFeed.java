@@ -0,0 +1,141 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangePage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 进程内变更流：保留最近的若干事件，供 /api/transactions/changes 长轮询和SSE读取
+ * <p>
+ * offset 在事件进入变更流时按顺序分配，而不是使用发件箱的自增ID：
+ * 自增ID的提交顺序可能与分配顺序不同，直接使用会让消费者跳过晚提交的事件。
+ * 订阅者只收到"有新事件"的信号，再按各自的游标读取，因此不会丢失或重复。
+ * 删除发件箱记录失败时中继会重投整批，仍在缓冲区内的发件箱ID不再分配 offset。
+ * <p>
+ * offset 只在本进程内有效：中继投递后即删除发件箱记录，重启后 offset 从1重新分配，
+ * 每个副本也各自分配。每个变更流实例生成一个随机的 epoch，与 offset 一起构成游标；
+ * 消费者带回的 epoch 与当前不同时，说明游标来自重启前或其他副本，读取结果标记为截断。
+ */
+public class ChangeFeed implements OutboxEventSink {
+
+    private final int capacity;
+    private final long epoch;
+    private final ArrayDeque<TransactionChangeEvent> buffer;
+    private final Set<Long> bufferedOutboxIds = new HashSet<>();
+    private final Set<Runnable> listeners = new CopyOnWriteArraySet<>();
+    private long lastOffset;
+
+    public ChangeFeed(int capacity) {
+        this(capacity, ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+    }
+
+    ChangeFeed(int capacity, long epoch) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("变更流容量必须大于0");
+        }
+        this.capacity = capacity;
+        this.epoch = epoch;
+        this.buffer = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    @Override
+    public void publish(List<TransactionChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            long before = lastOffset;
+            for (TransactionChangeEvent event : events) {
+                if (event.getOutboxId() != null && !bufferedOutboxIds.add(event.getOutboxId())) {
+                    continue;
+                }
+                buffer.addLast(event.toBuilder().offset(++lastOffset).build());
+                if (buffer.size() > capacity) {
+                    bufferedOutboxIds.remove(buffer.pollFirst().getOutboxId());
+                }
+            }
+            if (lastOffset == before) {
+                return;
+            }
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * 读取 since 之后的事件，不校验游标的 epoch
+     * @param since 上一次拉取返回的 nextOffset，首次传0
+     * @param limit 最多返回的事件数
+     */
+    public TransactionChangePage read(long since, int limit) {
+        return read(null, since, limit);
+    }
+
+    /**
+     * 读取 since 之后的事件
+     * @param epoch 上一次拉取返回的 epoch，首次传null
+     * @param since 上一次拉取返回的 nextOffset，首次传0
+     * @param limit 最多返回的事件数
+     */
+    public synchronized TransactionChangePage read(Long epoch, long since, int limit) {
+        long oldest = buffer.isEmpty() ? lastOffset + 1 : buffer.peekFirst().getOffset();
+        // epoch 不同或 since 超过当前最新位置，说明游标来自重启前或其他副本，从头开始
+        boolean truncated = (epoch != null && epoch != this.epoch) || since + 1 < oldest || since > lastOffset;
+        long from = truncated ? oldest - 1 : since;
+        List<TransactionChangeEvent> events = new ArrayList<>(Math.min(limit, buffer.size()));
+        Iterator<TransactionChangeEvent> iterator = buffer.iterator();
+        long skip = from + 1 - oldest;
+        for (long i = 0; i < skip && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (iterator.hasNext() && events.size() < limit) {
+            events.add(iterator.next());
+        }
+        long nextOffset = events.isEmpty() ? from : events.get(events.size() - 1).getOffset();
+        return new TransactionChangePage(events, this.epoch, nextOffset, truncated);
+    }
+
+    /**
+     * 读取 since 之后的事件；没有新事件时原子地注册监听器，避免读取与注册之间到达的事件被错过
+     */
+    public synchronized TransactionChangePage readOrSubscribe(Long epoch, long since, int limit, Runnable listener) {
+        TransactionChangePage page = read(epoch, since, limit);
+        if (page.getEvents().isEmpty()) {
+            listeners.add(listener);
+        }
+        return page;
+    }
+
+    /**
+     * 注册监听器，有新事件进入变更流时回调（在投递线程上执行，不能阻塞）
+     */
+    public void subscribe(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public boolean isInProcess() {
+        return true;
+    }
+
+    public synchronized long getLastOffset() {
+        return lastOffset;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+}
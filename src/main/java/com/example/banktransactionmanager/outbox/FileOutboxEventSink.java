@@ -0,0 +1,46 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 以JSON Lines格式追加写入文件的投递目标，可作为下游批处理或消息代理的替身
+ */
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<TransactionChangeEvent> events) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (TransactionChangeEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append change events to " + file, e);
+        }
+    }
+}
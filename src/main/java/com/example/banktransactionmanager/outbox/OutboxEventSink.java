@@ -0,0 +1,26 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+
+import java.util.List;
+
+/**
+ * 发件箱事件的投递目标
+ * 中继在所有投递目标都成功返回后才删除事件；任一目标抛出异常时整批保留并在下一轮重投，
+ * 因此投递语义为至少一次，实现需要能容忍重复事件。
+ * 进程内目标（{@link #isInProcess()}）排在所有外部目标之后投递，外部目标失败时不会先收到整批事件。
+ */
+public interface OutboxEventSink {
+
+    /**
+     * 投递一批事件（按写入顺序）
+     */
+    void publish(List<TransactionChangeEvent> events);
+
+    /**
+     * 是否为进程内目标（如 {@link ChangeFeed}），重启即丢失、无需持久化确认
+     */
+    default boolean isInProcess() {
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 发件箱中继：按写入顺序批量读取事件，投递到所有目标后删除已确认的事件
+ * 外部目标按注册顺序先投递，进程内目标最后投递：外部目标失败时整批重投，进程内的变更流不会反复收到同一批事件。
+ * 随Spring容器启停：停止后不再轮询，并等待进行中的一轮结束，避免在数据源关闭后访问数据库。
+ */
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final TransactionOutboxRepository outboxRepository;
+    private final List<OutboxEventSink> sinks;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Object pollLock = new Object();
+    private volatile boolean running;
+
+    public OutboxRelay(TransactionOutboxRepository outboxRepository,
+                       List<OutboxEventSink> sinks,
+                       MeterRegistry meterRegistry,
+                       int batchSize,
+                       int maxBatchesPerPoll) {
+        if (batchSize < 1 || maxBatchesPerPoll < 1) {
+            throw new IllegalArgumentException("中继批大小和每轮批次数必须大于0");
+        }
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.stream()
+                .sorted(Comparator.comparing(OutboxEventSink::isInProcess))
+                .toList();
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.relayed = Counter.builder("outbox.relayed")
+                .description("已投递并删除的发件箱事件数")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("投递失败的批次数")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void poll() {
+        synchronized (pollLock) {
+            try {
+                for (int i = 0; i < maxBatchesPerPoll && running; i++) {
+                    if (relayBatch() < batchSize) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Outbox relay failed, batch will be retried", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // 等待进行中的一轮投递结束
+        synchronized (pollLock) {
+            log.info("Outbox relay stopped");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 投递一批事件
+     * @return 本批投递的事件数
+     */
+    public int relayBatch() {
+        List<TransactionOutboxEvent> batch = outboxRepository.findBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<TransactionChangeEvent> events = batch.stream().map(OutboxRelay::toChangeEvent).toList();
+        for (OutboxEventSink sink : sinks) {
+            sink.publish(events);
+        }
+        outboxRepository.deleteByIdIn(batch.stream().map(TransactionOutboxEvent::getId).toList());
+        relayed.increment(batch.size());
+        return batch.size();
+    }
+
+    private static TransactionChangeEvent toChangeEvent(TransactionOutboxEvent event) {
+        return TransactionChangeEvent.builder()
+                .outboxId(event.getId())
+                .changeType(event.getChangeType())
+                .transactionId(event.getTransactionId())
+                .transactionBizNo(event.getTransactionBizNo())
+                .accountNumber(event.getAccountNumber())
+                .transactionType(event.getTransactionType())
+                .channel(event.getChannel())
+                .status(event.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .amount(event.getAmount())
+                .transactionTime(event.getTransactionTime())
+                .occurredAt(event.getCreateTime())
+                .build();
+    }
+}
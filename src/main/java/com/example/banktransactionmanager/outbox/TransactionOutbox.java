@@ -0,0 +1,88 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent.ChangeType;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 发件箱写入端，必须在业务数据所在的事务中调用，保证变更与事件同时提交或同时回滚
+ */
+@Component
+public class TransactionOutbox {
+
+    private final TransactionOutboxRepository outboxRepository;
+
+    public TransactionOutbox(TransactionOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * 记录单笔交易的变更
+     * @param previousStatus 变更前的状态（状态未变或未知时为null）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeType changeType, Transaction transaction, Transaction.Status previousStatus) {
+        outboxRepository.save(TransactionOutboxEvent.builder()
+                .changeType(changeType)
+                .transactionId(transaction.getId())
+                .transactionBizNo(transaction.getTransactionBizNo())
+                .accountNumber(transaction.getAccountNumber())
+                .transactionType(transaction.getTransactionType())
+                .channel(transaction.getChannel())
+                .status(transaction.getStatus())
+                .previousStatus(previousStatus)
+                .amount(transaction.getAmount())
+                .transactionTime(transaction.getTransactionTime())
+                .build());
+    }
+
+    /**
+     * 批量记录软删除
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(Collection<? extends TransactionRef> transactions) {
+        List<TransactionOutboxEvent> events = new ArrayList<>(transactions.size());
+        for (TransactionRef ref : transactions) {
+            events.add(toEvent(ChangeType.DELETED, ref, ref.getStatus(), null));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    /**
+     * 批量记录状态流转
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Collection<? extends TransactionRef> transactions,
+                                    Transaction.Status fromStatus, Transaction.Status toStatus) {
+        List<TransactionOutboxEvent> events = new ArrayList<>(transactions.size());
+        for (TransactionRef ref : transactions) {
+            events.add(toEvent(ChangeType.STATUS_CHANGED, ref, toStatus, fromStatus));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    private static TransactionOutboxEvent toEvent(ChangeType changeType, TransactionRef ref,
+                                                  Transaction.Status status, Transaction.Status previousStatus) {
+        return TransactionOutboxEvent.builder()
+                .changeType(changeType)
+                .transactionId(ref.getId())
+                .transactionBizNo(ref.getTransactionBizNo())
+                .accountNumber(ref.getAccountNumber())
+                .transactionType(ref.getTransactionType())
+                .channel(ref.getChannel())
+                .status(status)
+                .previousStatus(previousStatus)
+                .amount(ref.getAmount())
+                .transactionTime(ref.getTransactionTime())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 缓存查询事件（JFR）
+ */
+@Name("bank.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Bank Transaction Manager", "Cache"})
+@Description("A lookup against a Spring cache")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache Name")
+    public String cacheName;
+
+    @Label("Hit")
+    public boolean hit;
+}
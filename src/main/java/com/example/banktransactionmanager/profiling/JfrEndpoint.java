@@ -0,0 +1,51 @@
+package com.example.banktransactionmanager.profiling;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * /actuator/jfr：查看状态；POST /actuator/jfr/{start|stop|dump} 控制录制
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrRecordingManager recordingManager;
+
+    public JfrEndpoint(JfrRecordingManager recordingManager) {
+        this.recordingManager = recordingManager;
+    }
+
+    @ReadOperation
+    public JfrRecordingStatus status() {
+        return recordingManager.status();
+    }
+
+    @WriteOperation
+    public JfrRecordingStatus control(@Selector String action,
+                                      @Nullable Long maxAgeSeconds,
+                                      @Nullable Long maxSizeMb) {
+        switch (action) {
+            case "start":
+                return recordingManager.start(
+                        maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : null,
+                        maxSizeMb != null ? maxSizeMb * 1024 * 1024 : null);
+            case "stop":
+                return recordingManager.stop();
+            case "dump":
+                try {
+                    return recordingManager.dump();
+                } catch (IllegalStateException e) {
+                    throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+                }
+            default:
+                throw new InvalidEndpointRequestException("Unknown action: " + action,
+                        "Supported actions are start, stop and dump");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 管理一个有界的JFR录制（按时长和大小滚动），支持按需启动、停止和转储
+ */
+public class JfrRecordingManager implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingManager.class);
+
+    static final String RECORDING_NAME = "bank-transaction-manager";
+
+    private static final DateTimeFormatter DUMP_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String settings;
+    private final Duration maxAgeLimit;
+    private final long maxSizeLimitBytes;
+    private final Path dumpDirectory;
+    private final boolean alwaysOn;
+    private Recording recording;
+    private Path lastDump;
+
+    public JfrRecordingManager(String settings, Duration maxAgeLimit, long maxSizeLimitBytes,
+                               Path dumpDirectory, boolean alwaysOn) {
+        this.settings = settings;
+        this.maxAgeLimit = maxAgeLimit;
+        this.maxSizeLimitBytes = maxSizeLimitBytes;
+        this.dumpDirectory = dumpDirectory;
+        this.alwaysOn = alwaysOn;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (alwaysOn) {
+            start(null, null);
+            log.info("Always-on JFR recording started (settings={}, maxAge={}, maxSize={} bytes)",
+                    settings, maxAgeLimit, maxSizeLimitBytes);
+        }
+    }
+
+    /**
+     * 启动录制，超出上限的参数会被截断到配置上限
+     * @param maxAge 保留时长，null表示使用上限
+     * @param maxSizeBytes 最大磁盘占用，null表示使用上限
+     */
+    public synchronized JfrRecordingStatus start(Duration maxAge, Long maxSizeBytes) {
+        if (isRunning()) {
+            return status();
+        }
+        closeRecording();
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName(RECORDING_NAME);
+            newRecording.setToDisk(true);
+            newRecording.setMaxAge(maxAge == null || maxAge.compareTo(maxAgeLimit) > 0 ? maxAgeLimit : maxAge);
+            newRecording.setMaxSize(maxSizeBytes == null || maxSizeBytes > maxSizeLimitBytes
+                    ? maxSizeLimitBytes : maxSizeBytes);
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to load JFR settings '" + settings + "'", e);
+        }
+        return status();
+    }
+
+    public synchronized JfrRecordingStatus stop() {
+        if (isRunning()) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    /**
+     * 将当前录制内容转储到文件，录制不会停止
+     */
+    public synchronized JfrRecordingStatus dump() {
+        if (recording == null) {
+            throw new IllegalStateException("No JFR recording has been started");
+        }
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path file = dumpDirectory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(DUMP_FILE_FORMAT) + ".jfr");
+            recording.dump(file);
+            lastDump = file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump JFR recording", e);
+        }
+        return status();
+    }
+
+    public synchronized JfrRecordingStatus status() {
+        if (recording == null) {
+            return new JfrRecordingStatus(false, RECORDING_NAME, null, maxAgeLimit, maxSizeLimitBytes, 0L,
+                    lastDump != null ? lastDump.toString() : null);
+        }
+        return new JfrRecordingStatus(
+                isRunning(),
+                recording.getName(),
+                recording.getStartTime(),
+                recording.getMaxAge(),
+                recording.getMaxSize(),
+                recording.getSize(),
+                lastDump != null ? lastDump.toString() : null);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeRecording();
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
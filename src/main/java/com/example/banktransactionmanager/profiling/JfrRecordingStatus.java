@@ -0,0 +1,21 @@
+package com.example.banktransactionmanager.profiling;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * JFR录制状态
+ */
+@Value
+public class JfrRecordingStatus {
+
+    boolean running;
+    String name;
+    Instant startTime;
+    Duration maxAge;
+    long maxSizeBytes;
+    long sizeBytes;
+    String dumpFile;
+}
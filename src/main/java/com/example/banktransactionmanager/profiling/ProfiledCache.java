@@ -0,0 +1,118 @@
+package com.example.banktransactionmanager.profiling;
+
+import com.example.banktransactionmanager.cache.BulkCache;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 为缓存查询发出 {@link CacheLookupEvent} 的装饰器，其余操作直接委托
+ * 批量查询只发出一个事件，全部命中才记为命中
+ */
+public class ProfiledCache implements Cache, BulkCache {
+
+    private final Cache target;
+
+    public ProfiledCache(Cache target) {
+        this.target = target;
+    }
+
+    public Cache getTarget() {
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        ValueWrapper value = target.get(key);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        T value = target.get(key, type);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        boolean[] loaded = new boolean[1];
+        T value = target.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        commit(event, !loaded[0]);
+        return value;
+    }
+
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        Map<Object, ValueWrapper> found = BulkCache.getAll(target, keys);
+        commit(event, found.size() == keys.size());
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        BulkCache.putAll(target, entries);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+
+    private void commit(CacheLookupEvent event, boolean hit) {
+        if (event.shouldCommit()) {
+            event.cacheName = target.getName();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
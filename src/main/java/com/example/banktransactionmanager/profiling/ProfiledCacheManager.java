@@ -0,0 +1,43 @@
+package com.example.banktransactionmanager.profiling;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 将目标CacheManager返回的缓存包装为 {@link ProfiledCache}
+ */
+public class ProfiledCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public ProfiledCacheManager(CacheManager target) {
+        this.target = target;
+    }
+
+    public CacheManager getTarget() {
+        return target;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache == null) {
+            Cache targetCache = target.getCache(name);
+            if (targetCache == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name, key -> new ProfiledCache(targetCache));
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+}
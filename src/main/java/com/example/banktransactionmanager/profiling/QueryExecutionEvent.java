@@ -0,0 +1,26 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 仓储查询执行事件（JFR）
+ */
+@Name("bank.QueryExecution")
+@Label("Query Execution")
+@Category({"Bank Transaction Manager", "Database"})
+@Description("One repository method invocation")
+@StackTrace(false)
+public class QueryExecutionEvent extends Event {
+
+    @Label("Query Name")
+    public String queryName;
+
+    @Label("Row Count")
+    @Description("Rows returned or affected, -1 when unknown")
+    public long rowCount;
+}
@@ -0,0 +1,75 @@
+package com.example.banktransactionmanager.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为每次仓储调用发出 {@link QueryExecutionEvent}，包含查询名和返回/影响的行数
+ */
+@Aspect
+public class QueryProfilingAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.example.banktransactionmanager.repository.";
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.example.banktransactionmanager.repository.*Repository+.*(..))")
+    public Object profileQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            if (event.shouldCommit()) {
+                event.queryName = repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName();
+                event.rowCount = rowCount(result);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 继承自JpaRepository的方法（如save）声明类型是Spring Data接口，这里取代理实现的业务仓储接口名
+     */
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+
+    static long rowCount(Object result) {
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof Boolean exists) {
+            return exists ? 1 : 0;
+        }
+        return result == null ? -1 : 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 雪花算法序列号耗尽后等待下一毫秒的事件（JFR）
+ */
+@Name("bank.SnowflakeWait")
+@Label("Snowflake Wait")
+@Category({"Bank Transaction Manager", "Id Generation"})
+@Description("Time spent spinning for the next millisecond after the sequence was exhausted")
+@StackTrace(false)
+public class SnowflakeWaitEvent extends Event {
+
+    @Label("Last Timestamp")
+    public long lastTimestamp;
+}
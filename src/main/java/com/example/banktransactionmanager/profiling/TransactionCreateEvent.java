@@ -0,0 +1,31 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 交易创建事件（JFR）
+ */
+@Name("bank.TransactionCreate")
+@Label("Transaction Create")
+@Category({"Bank Transaction Manager", "Service"})
+@Description("One call of TransactionService.createTransaction")
+@StackTrace(false)
+public class TransactionCreateEvent extends Event {
+
+    @Label("Channel")
+    public String channel;
+
+    @Label("Transaction Business Number")
+    public String transactionBizNo;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,84 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 匹配结果：各类差异的计数总是准确的，明细受整次对账共享的条数上限约束，超出后只计数
+ */
+public final class MatchResult {
+
+    private final AtomicInteger issueBudget;
+    private final long[] issueCounts = new long[ReconciliationIssue.Type.values().length];
+    private final List<ReconciliationIssue> issues = new ArrayList<>();
+    private long fileRows;
+    private long matched;
+    private boolean truncated;
+
+    MatchResult(AtomicInteger issueBudget) {
+        this.issueBudget = issueBudget;
+    }
+
+    /**
+     * 文件中的数据行数（不含表头和空行）
+     */
+    public long getFileRows() {
+        return fileRows;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getIssueCount(ReconciliationIssue.Type type) {
+        return issueCounts[type.ordinal()];
+    }
+
+    public List<ReconciliationIssue> getIssues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    /**
+     * 差异明细是否因超出上限而不完整
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    void countRow() {
+        fileRows++;
+    }
+
+    void countMatched() {
+        matched++;
+    }
+
+    /**
+     * 计入一条差异
+     * @return 是否还需要记录明细，调用方据此决定是否构造 {@link ReconciliationIssue}
+     */
+    boolean countIssue(ReconciliationIssue.Type type) {
+        issueCounts[type.ordinal()]++;
+        if (issueBudget.getAndDecrement() > 0) {
+            return true;
+        }
+        truncated = true;
+        return false;
+    }
+
+    void addIssue(ReconciliationIssue issue) {
+        issues.add(issue);
+    }
+
+    void merge(MatchResult other) {
+        fileRows += other.fileRows;
+        matched += other.matched;
+        for (int i = 0; i < issueCounts.length; i++) {
+            issueCounts[i] += other.issueCounts[i];
+        }
+        issues.addAll(other.issues);
+        truncated |= other.truncated;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.exception.ResourceNotFoundException;
+import com.example.banktransactionmanager.model.Money;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.ReconciliationReport;
+import com.example.banktransactionmanager.model.dto.ReconciliationRequest;
+import com.example.banktransactionmanager.model.projection.ReconciliationEntry;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 与外部清算文件对账：
+ * <ol>
+ *     <li>在只读事务内流式读取对账区间内带外部参考号的交易，构建 {@link ReferenceIndex}</li>
+ *     <li>{@link SettlementFileMatcher} 并行解析文件并匹配</li>
+ *     <li>索引中未被任何文件行认领的 SUCCESS 交易即文件中缺失的交易</li>
+ *     <li>差异明细写入 {reportDir}/{runId}/ 下的CSV：mismatched.csv（金额/状态不一致、重复、无法解析）、
+ *     missing-in-ledger.csv、missing-in-file.csv，按需输出 matched.csv</li>
+ * </ol>
+ * 索引和文件映射都比较占内存，同一时间只允许一次对账。
+ */
+@Slf4j
+public class ReconciliationEngine {
+
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final Set<ReconciliationIssue.Type> MISMATCH_TYPES = EnumSet.of(
+            ReconciliationIssue.Type.AMOUNT_MISMATCH,
+            ReconciliationIssue.Type.STATUS_MISMATCH,
+            ReconciliationIssue.Type.DUPLICATE_IN_FILE,
+            ReconciliationIssue.Type.MALFORMED_ROW);
+    private static final String ISSUE_HEADER = "type,externalReferenceNo,transactionId,ledgerAmount,ledgerStatus,fileAmount\n";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final SettlementFileMatcher matcher;
+    private final Path inboxDirectory;
+    private final Path reportDirectory;
+    private final int maxReportedIssues;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param readOnlyTransactionTemplate 只读事务模板，流式查询需要在事务内读完
+     * @param maxReportedIssues 差异明细条数上限，超出后只计数
+     */
+    public ReconciliationEngine(TransactionRepository transactionRepository,
+                                TransactionTemplate readOnlyTransactionTemplate,
+                                SettlementFileMatcher matcher,
+                                MeterRegistry meterRegistry,
+                                Path inboxDirectory,
+                                Path reportDirectory,
+                                int maxReportedIssues) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransactionTemplate = readOnlyTransactionTemplate;
+        this.matcher = matcher;
+        this.inboxDirectory = inboxDirectory.toAbsolutePath().normalize();
+        this.reportDirectory = reportDirectory;
+        this.maxReportedIssues = maxReportedIssues;
+        this.runTimer = Timer.builder("reconciliation.run")
+                .description("单次对账（建索引、匹配、写报告）的耗时")
+                .register(meterRegistry);
+    }
+
+    public ReconciliationReport reconcile(ReconciliationRequest request) {
+        Path file = resolveInboxFile(request.getFileName());
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("A reconciliation is already running");
+        }
+        try {
+            return runTimer.recordCallable(() -> run(request, file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reconciliation of " + request.getFileName() + " failed", e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Reconciliation of " + request.getFileName() + " failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public void shutdown() {
+        matcher.shutdown();
+    }
+
+    private ReconciliationReport run(ReconciliationRequest request, Path file) throws IOException {
+        long start = System.nanoTime();
+        ReferenceIndex index = buildIndex(request.getFrom().atStartOfDay(), request.getTo().plusDays(1).atStartOfDay(),
+                request.getChannel());
+        long indexed = System.nanoTime();
+
+        AtomicInteger issueBudget = new AtomicInteger(maxReportedIssues);
+        MatchResult result = matcher.match(file, index, issueBudget);
+        MatchResult missingInFile = new MatchResult(issueBudget);
+        for (int entry = 0; entry < index.size(); entry++) {
+            if (!index.isClaimed(entry) && index.status(entry) == Transaction.Status.SUCCESS
+                    && missingInFile.countIssue(ReconciliationIssue.Type.MISSING_IN_FILE)) {
+                missingInFile.addIssue(new ReconciliationIssue(ReconciliationIssue.Type.MISSING_IN_FILE,
+                        index.reference(entry), index.id(entry), index.amount(entry), index.status(entry), null));
+            }
+        }
+        result.merge(missingInFile);
+        long matchedAt = System.nanoTime();
+
+        String runId = LocalDateTime.now().format(RUN_ID_FORMAT) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Path directory = reportDirectory.resolve(runId);
+        writeReports(directory, result, index, request.isIncludeMatched());
+
+        ReconciliationReport report = ReconciliationReport.builder()
+                .runId(runId)
+                .fileName(request.getFileName())
+                .from(request.getFrom())
+                .to(request.getTo())
+                .channel(request.getChannel())
+                .fileRows(result.getFileRows())
+                .ledgerTransactions(index.size())
+                .matched(result.getMatched())
+                .amountMismatches(result.getIssueCount(ReconciliationIssue.Type.AMOUNT_MISMATCH))
+                .statusMismatches(result.getIssueCount(ReconciliationIssue.Type.STATUS_MISMATCH))
+                .duplicatesInFile(result.getIssueCount(ReconciliationIssue.Type.DUPLICATE_IN_FILE))
+                .malformedRows(result.getIssueCount(ReconciliationIssue.Type.MALFORMED_ROW))
+                .missingInLedger(result.getIssueCount(ReconciliationIssue.Type.MISSING_IN_LEDGER))
+                .missingInFile(result.getIssueCount(ReconciliationIssue.Type.MISSING_IN_FILE))
+                .issuesTruncated(result.isTruncated())
+                .reportDirectory(directory.toAbsolutePath().toString())
+                .indexMillis(TimeUnit.NANOSECONDS.toMillis(indexed - start))
+                .matchMillis(TimeUnit.NANOSECONDS.toMillis(matchedAt - indexed))
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        log.info("Reconciled {}: {} rows, {} ledger transactions, {} matched, {} ms", request.getFileName(),
+                report.getFileRows(), report.getLedgerTransactions(), report.getMatched(), report.getElapsedMillis());
+        return report;
+    }
+
+    private ReferenceIndex buildIndex(LocalDateTime fromTime, LocalDateTime toTime, Transaction.Channel channel) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            long expected = transactionRepository.countReconciliationEntries(fromTime, toTime, channel);
+            ReferenceIndex index = new ReferenceIndex((int) Math.min(Integer.MAX_VALUE / 4, expected));
+            try (Stream<ReconciliationEntry> entries = transactionRepository.streamReconciliationEntries(fromTime, toTime, channel)) {
+                Iterator<ReconciliationEntry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    ReconciliationEntry entry = iterator.next();
+                    index.add(entry.externalReferenceNo(), entry.id(), entry.amount(), entry.status());
+                }
+            }
+            return index;
+        });
+    }
+
+    /**
+     * 文件名只能指向收件目录下的文件，拒绝绝对路径和 ".." 逃逸
+     */
+    private Path resolveInboxFile(String fileName) {
+        Path file = inboxDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(inboxDirectory) || file.equals(inboxDirectory)) {
+            throw new BusinessException("File name must refer to a file in the reconciliation inbox");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Settlement file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private void writeReports(Path directory, MatchResult result, ReferenceIndex index, boolean includeMatched)
+            throws IOException {
+        Files.createDirectories(directory);
+        try (Writer mismatched = Files.newBufferedWriter(directory.resolve("mismatched.csv"), StandardCharsets.UTF_8);
+             Writer missingInLedger = Files.newBufferedWriter(directory.resolve("missing-in-ledger.csv"), StandardCharsets.UTF_8);
+             Writer missingInFile = Files.newBufferedWriter(directory.resolve("missing-in-file.csv"), StandardCharsets.UTF_8)) {
+            mismatched.write(ISSUE_HEADER);
+            missingInLedger.write(ISSUE_HEADER);
+            missingInFile.write(ISSUE_HEADER);
+            for (ReconciliationIssue issue : result.getIssues()) {
+                Writer out = MISMATCH_TYPES.contains(issue.type()) ? mismatched
+                        : issue.type() == ReconciliationIssue.Type.MISSING_IN_LEDGER ? missingInLedger : missingInFile;
+                writeIssue(out, issue);
+            }
+        }
+        if (includeMatched) {
+            try (BufferedWriter matched = Files.newBufferedWriter(directory.resolve("matched.csv"), StandardCharsets.UTF_8)) {
+                matched.write("externalReferenceNo,transactionId,amount,status\n");
+                for (int entry = 0; entry < index.size(); entry++) {
+                    if (index.isReconciled(entry)) {
+                        csvText(matched, index.reference(entry));
+                        matched.write(',');
+                        matched.write(Long.toString(index.id(entry)));
+                        matched.write(',');
+                        matched.write(Money.toDecimal(index.amount(entry)).toPlainString());
+                        matched.write(',');
+                        matched.write(index.status(entry).name());
+                        matched.write('\n');
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeIssue(Writer out, ReconciliationIssue issue) throws IOException {
+        out.write(issue.type().name());
+        out.write(',');
+        csvText(out, issue.externalReferenceNo());
+        out.write(',');
+        if (issue.transactionId() != null) {
+            out.write(issue.transactionId().toString());
+        }
+        out.write(',');
+        if (issue.ledgerAmount() != null) {
+            out.write(Money.toDecimal(issue.ledgerAmount()).toPlainString());
+        }
+        out.write(',');
+        if (issue.ledgerStatus() != null) {
+            out.write(issue.ledgerStatus().name());
+        }
+        out.write(',');
+        if (issue.fileAmount() != null) {
+            out.write(Money.toDecimal(issue.fileAmount()).toPlainString());
+        }
+        out.write('\n');
+    }
+
+    private static void csvText(Writer out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 一条对账差异；我方或文件方不存在时对应字段为null，金额单位为分
+ * @param externalReferenceNo 外部参考号，无法解析的行为该行原文（截断）
+ */
+public record ReconciliationIssue(Type type,
+                                  String externalReferenceNo,
+                                  Long transactionId,
+                                  Long ledgerAmount,
+                                  Transaction.Status ledgerStatus,
+                                  Long fileAmount) {
+
+    public enum Type {
+        /**
+         * 双方都有，金额不一致
+         */
+        AMOUNT_MISMATCH,
+        /**
+         * 双方都有且金额一致，但我方交易不是 SUCCESS
+         */
+        STATUS_MISMATCH,
+        /**
+         * 文件中同一参考号出现的次数多于我方交易数
+         */
+        DUPLICATE_IN_FILE,
+        /**
+         * 文件行缺少参考号或金额无法解析
+         */
+        MALFORMED_ROW,
+        /**
+         * 文件中有、我方在对账区间内没有
+         */
+        MISSING_IN_LEDGER,
+        /**
+         * 我方 SUCCESS 交易在文件中没有
+         */
+        MISSING_IN_FILE
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 外部参考号 → 交易（ID、金额、状态）的开放寻址哈希索引
+ * <p>
+ * 条目字段保存在并列的基本类型数组中，参考号的UTF-8字节连续存放在堆外缓冲区，千万级条目也只有少量大对象，
+ * 不给GC增加负担；查找直接比较清算文件映射缓冲区中的字节，不为每一行创建字符串。
+ * 构建阶段单线程调用 {@link #add}；构建完成后 {@link #lookup} 可由多个线程并发调用，
+ * 命中的条目以CAS标记为已认领，同一参考号在文件中第二次出现时识别为重复；金额和状态也一致的条目再标记为已核对。
+ * 我方同一参考号有多笔交易（不限渠道时可能出现）时，文件中每出现一次依次认领其中一笔。
+ */
+public final class ReferenceIndex {
+
+    /**
+     * 索引中没有该参考号
+     */
+    public static final int ABSENT = -1;
+
+    /**
+     * 该参考号的所有交易都已被文件中更早的行匹配
+     */
+    public static final int DUPLICATE = -2;
+
+    private static final Transaction.Status[] STATUSES = Transaction.Status.values();
+    private static final int MAX_KEY_BYTES = Integer.MAX_VALUE - 8;
+
+    private int[] table;
+    private int mask;
+    private int[] hashes;
+    private long[] ids;
+    private long[] amounts;
+    private byte[] statuses;
+    /**
+     * 第i个条目的参考号位于 keys 的 [keyOffsets[i], keyOffsets[i + 1])
+     */
+    private int[] keyOffsets;
+    private ByteBuffer keys;
+    private AtomicLongArray claimed;
+    private AtomicLongArray reconciled;
+    private int size;
+
+    /**
+     * @param expectedSize 预计条目数，超出后自动扩容
+     */
+    public ReferenceIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        allocate(capacity, tableSize(capacity));
+        keys = ByteBuffer.allocateDirect((int) Math.min(MAX_KEY_BYTES, Math.max(64 * 1024L, capacity * 24L)));
+    }
+
+    /**
+     * 加入一笔交易（仅限构建阶段，非线程安全）
+     */
+    public void add(String externalReferenceNo, long id, long amount, Transaction.Status status) {
+        byte[] key = externalReferenceNo.getBytes(StandardCharsets.UTF_8);
+        if (size == ids.length) {
+            grow();
+        }
+        int offset = keyOffsets[size];
+        if (keys.capacity() - offset < key.length) {
+            growKeys(offset + (long) key.length);
+        }
+        keys.put(offset, key);
+        keyOffsets[size + 1] = offset + key.length;
+        int hash = hash(keys, offset, key.length);
+        hashes[size] = hash;
+        ids[size] = id;
+        amounts[size] = amount;
+        statuses[size] = (byte) status.ordinal();
+        insert(size, hash);
+        size++;
+    }
+
+    /**
+     * 查找并认领参考号为 source 中 [offset, offset + length) 的条目
+     * @param hash {@link #hash} 对同一段字节的结果
+     * @return 新认领的条目下标，或 {@link #ABSENT} / {@link #DUPLICATE}
+     */
+    public int lookup(ByteBuffer source, int offset, int length, int hash) {
+        boolean seen = false;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                return seen ? DUPLICATE : ABSENT;
+            }
+            if (hashes[entry] == hash && keyEquals(entry, source, offset, length)) {
+                if (setBit(claimed, entry)) {
+                    return entry;
+                }
+                seen = true;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a，构建和查找使用同一个函数
+     */
+    public static int hash(ByteBuffer source, int offset, int length) {
+        int hash = 0x811c9dc5;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = (hash ^ source.get(i)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int entry) {
+        return ids[entry];
+    }
+
+    public long amount(int entry) {
+        return amounts[entry];
+    }
+
+    public Transaction.Status status(int entry) {
+        return STATUSES[statuses[entry]];
+    }
+
+    public String reference(int entry) {
+        byte[] key = new byte[keyOffsets[entry + 1] - keyOffsets[entry]];
+        keys.get(keyOffsets[entry], key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 是否已被文件中的某一行认领（不论金额和状态是否一致）
+     */
+    public boolean isClaimed(int entry) {
+        return isSet(claimed, entry);
+    }
+
+    /**
+     * 是否与文件中的行完全一致
+     */
+    public boolean isReconciled(int entry) {
+        return isSet(reconciled, entry);
+    }
+
+    /**
+     * 标记已认领的条目金额和状态也一致（由认领它的线程调用）
+     */
+    public void markReconciled(int entry) {
+        setBit(reconciled, entry);
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int entry) {
+        return (bits.get(entry >>> 6) & (1L << entry)) != 0;
+    }
+
+    /**
+     * @return 该位之前是否未被设置
+     */
+    private static boolean setBit(AtomicLongArray bits, int entry) {
+        int word = entry >>> 6;
+        long bit = 1L << entry;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    private boolean keyEquals(int entry, ByteBuffer source, int offset, int length) {
+        int keyOffset = keyOffsets[entry];
+        return keyOffsets[entry + 1] - keyOffset == length
+                && keys.slice(keyOffset, length).mismatch(source.slice(offset, length)) < 0;
+    }
+
+    private void insert(int entry, int hash) {
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    private void allocate(int capacity, int tableSize) {
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        hashes = new int[capacity];
+        ids = new long[capacity];
+        amounts = new long[capacity];
+        statuses = new byte[capacity];
+        keyOffsets = new int[capacity + 1];
+        claimed = new AtomicLongArray((capacity + 63) >>> 6);
+        reconciled = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >>> 1);
+        hashes = Arrays.copyOf(hashes, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        keyOffsets = Arrays.copyOf(keyOffsets, capacity + 1);
+        claimed = new AtomicLongArray((capacity + 63) >>> 6);
+        reconciled = new AtomicLongArray((capacity + 63) >>> 6);
+        table = new int[tableSize(capacity)];
+        mask = table.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            insert(entry, hashes[entry]);
+        }
+    }
+
+    private void growKeys(long required) {
+        if (required > MAX_KEY_BYTES) {
+            throw new IllegalStateException("Reconciliation index exceeds " + MAX_KEY_BYTES + " bytes of references");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(MAX_KEY_BYTES, Math.max(required, keys.capacity() * 2L)));
+        grown.put(0, keys, 0, keyOffsets[size]);
+        keys = grown;
+    }
+
+    /**
+     * 负载因子不超过0.5，线性探测的平均探测次数保持在2次以内
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.banktransactionmanager.reconciliation;
+
+/**
+ * 清算文件格式：分隔符文本，每行一笔，按列号（从0开始）取外部参考号和金额
+ * 金额为最多两位小数的十进制数（如 123.45），字段两端的空白和双引号会被去掉，不支持字段内含分隔符
+ * @param header 首行是否为表头
+ */
+public record SettlementFileFormat(byte delimiter, int referenceColumn, int amountColumn, boolean header) {
+
+    public SettlementFileFormat {
+        if (referenceColumn < 0 || amountColumn < 0 || referenceColumn == amountColumn) {
+            throw new IllegalArgumentException("参考号列和金额列必须是不同的非负列号");
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行解析清算文件并与 {@link ReferenceIndex} 匹配
+ * <p>
+ * 文件按字节切成若干块，块边界对齐到行首，每块以只读方式内存映射后由一个工作线程逐字节解析：
+ * 参考号直接在映射缓冲区上计算哈希并与索引比较，金额直接解析为分，整个过程不为匹配成功的行分配对象，
+ * 只有差异行才解码出字符串。块数为并行度的若干倍，解析快慢不均时空闲线程可以接手剩余的块。
+ */
+public class SettlementFileMatcher {
+
+    private static final long DEFAULT_MIN_CHUNK_BYTES = 4L * 1024 * 1024;
+    /**
+     * 单块映射不超过1GB（MappedByteBuffer以int寻址）
+     */
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MAX_RAW_ROW_LENGTH = 200;
+    private static final long INVALID_AMOUNT = Long.MIN_VALUE;
+
+    private final SettlementFileFormat format;
+    private final int parallelism;
+    private final long minChunkBytes;
+    private final ExecutorService workers;
+
+    public SettlementFileMatcher(SettlementFileFormat format, int parallelism) {
+        this(format, parallelism, DEFAULT_MIN_CHUNK_BYTES);
+    }
+
+    SettlementFileMatcher(SettlementFileFormat format, int parallelism, long minChunkBytes) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("对账并行度必须大于0");
+        }
+        this.format = format;
+        this.parallelism = parallelism;
+        this.minChunkBytes = minChunkBytes;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 解析整个文件并匹配，阻塞到所有块完成；索引中的条目被标记为已认领/已核对
+     * @param issueBudget 差异明细的剩余条数，整次对账共享（计数不受限）
+     */
+    public MatchResult match(Path file, ReferenceIndex index, AtomicInteger issueBudget) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            List<Future<MatchResult>> chunks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean skipHeader = i == 0 && format.header();
+                chunks.add(workers.submit(() -> matchChunk(channel, start, end, skipHeader, index, issueBudget)));
+            }
+            MatchResult result = new MatchResult(issueBudget);
+            for (Future<MatchResult> chunk : chunks) {
+                result.merge(await(chunk));
+            }
+            return result;
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * 块边界，第一个为0、最后一个为文件大小，中间的都是行首
+     */
+    long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long bySize = (size + minChunkBytes - 1) / minChunkBytes;
+        long chunkCount = Math.max(1, Math.min(bySize, (long) parallelism * CHUNKS_PER_WORKER));
+        chunkCount = Math.max(chunkCount, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long[] bounds = new long[(int) chunkCount + 1];
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        for (int i = 1; i < chunkCount; i++) {
+            long target = Math.max(bounds[i - 1], size * i / chunkCount);
+            bounds[i] = target == 0 ? 0 : nextLineStart(channel, target - 1, size, probe);
+        }
+        bounds[(int) chunkCount] = size;
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private MatchResult matchChunk(FileChannel channel, long start, long end, boolean skipHeader,
+                                   ReferenceIndex index, AtomicInteger issueBudget) throws IOException {
+        MatchResult result = new MatchResult(issueBudget);
+        if (end <= start) {
+            return result;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = buffer.limit();
+        int position = 0;
+        boolean header = skipHeader;
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int rowEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (header) {
+                header = false;
+            } else if (rowEnd > position) {
+                matchRow(buffer, position, rowEnd, index, result);
+            }
+            position = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private void matchRow(ByteBuffer buffer, int start, int end, ReferenceIndex index, MatchResult result) {
+        int referenceStart = -1;
+        int referenceEnd = -1;
+        int amountStart = -1;
+        int amountEnd = -1;
+        int lastColumn = Math.max(format.referenceColumn(), format.amountColumn());
+        int column = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && column <= lastColumn; i++) {
+            if (i == end || buffer.get(i) == format.delimiter()) {
+                if (column == format.referenceColumn()) {
+                    referenceStart = fieldStart;
+                    referenceEnd = i;
+                } else if (column == format.amountColumn()) {
+                    amountStart = fieldStart;
+                    amountEnd = i;
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+        }
+        if (column <= lastColumn && isBlank(buffer, start, end)) {
+            return;
+        }
+        result.countRow();
+        if (referenceStart >= 0) {
+            while (referenceStart < referenceEnd && isPadding(buffer.get(referenceStart))) {
+                referenceStart++;
+            }
+            while (referenceEnd > referenceStart && isPadding(buffer.get(referenceEnd - 1))) {
+                referenceEnd--;
+            }
+        }
+        long fileAmount = amountStart >= 0 ? parseAmount(buffer, amountStart, amountEnd) : INVALID_AMOUNT;
+        if (referenceStart < 0 || referenceEnd == referenceStart || fileAmount == INVALID_AMOUNT) {
+            if (result.countIssue(ReconciliationIssue.Type.MALFORMED_ROW)) {
+                String raw = decode(buffer, start, Math.min(end, start + MAX_RAW_ROW_LENGTH));
+                result.addIssue(new ReconciliationIssue(ReconciliationIssue.Type.MALFORMED_ROW, raw, null, null, null, null));
+            }
+            return;
+        }
+
+        int length = referenceEnd - referenceStart;
+        int entry = index.lookup(buffer, referenceStart, length, ReferenceIndex.hash(buffer, referenceStart, length));
+        if (entry == ReferenceIndex.ABSENT || entry == ReferenceIndex.DUPLICATE) {
+            ReconciliationIssue.Type type = entry == ReferenceIndex.ABSENT
+                    ? ReconciliationIssue.Type.MISSING_IN_LEDGER : ReconciliationIssue.Type.DUPLICATE_IN_FILE;
+            if (result.countIssue(type)) {
+                result.addIssue(new ReconciliationIssue(type, decode(buffer, referenceStart, referenceEnd),
+                        null, null, null, fileAmount));
+            }
+        } else if (index.amount(entry) != fileAmount) {
+            issue(result, ReconciliationIssue.Type.AMOUNT_MISMATCH, index, entry, fileAmount);
+        } else if (index.status(entry) != Transaction.Status.SUCCESS) {
+            issue(result, ReconciliationIssue.Type.STATUS_MISMATCH, index, entry, fileAmount);
+        } else {
+            index.markReconciled(entry);
+            result.countMatched();
+        }
+    }
+
+    private static void issue(MatchResult result, ReconciliationIssue.Type type, ReferenceIndex index, int entry,
+                              long fileAmount) {
+        if (result.countIssue(type)) {
+            result.addIssue(new ReconciliationIssue(type, index.reference(entry), index.id(entry), index.amount(entry),
+                    index.status(entry), fileAmount));
+        }
+    }
+
+    /**
+     * 解析最多两位小数的十进制金额为分，格式不合法时返回 {@link #INVALID_AMOUNT}
+     */
+    static long parseAmount(ByteBuffer buffer, int start, int end) {
+        while (start < end && isPadding(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isPadding(buffer.get(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (buffer.get(start) == '-' || buffer.get(start) == '+')) {
+            negative = buffer.get(start) == '-';
+            start++;
+        }
+        long value = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && fractionDigits < 2 && integerDigits < 16) {
+                value = value * 10 + (b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                } else {
+                    integerDigits++;
+                }
+            } else {
+                return INVALID_AMOUNT;
+            }
+        }
+        if (integerDigits == 0) {
+            return INVALID_AMOUNT;
+        }
+        for (int i = Math.max(fractionDigits, 0); i < 2; i++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isPadding(byte b) {
+        return b == ' ' || b == '\t' || b == '"';
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MatchResult await(Future<MatchResult> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Failed to match settlement file chunk", e.getCause());
+        }
+    }
+}
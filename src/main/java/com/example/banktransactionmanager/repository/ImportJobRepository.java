@@ -0,0 +1,65 @@
+package com.example.banktransactionmanager.repository;
+
+import com.example.banktransactionmanager.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    /**
+     * 续约本节点持有的未完成任务
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.leaseUntil = :leaseUntil WHERE j.owner = :owner AND j.status IN :statuses")
+    int renewLeases(@Param("owner") String owner,
+                    @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("statuses") Collection<ImportJob.Status> statuses);
+
+    /**
+     * 查询租约已过期的未完成任务（持有节点已停止）
+     */
+    @Query("SELECT j.id FROM ImportJob j WHERE j.status IN :statuses AND j.leaseUntil < :now ORDER BY j.id")
+    List<Long> findExpiredIds(@Param("statuses") Collection<ImportJob.Status> statuses,
+                              @Param("now") LocalDateTime now);
+
+    /**
+     * 接管租约已过期的任务，返回0表示已被其他节点抢先
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.owner = :owner, j.leaseUntil = :leaseUntil, j.status = :queued " +
+           "WHERE j.id = :id AND j.status IN :statuses AND j.leaseUntil < :now")
+    int claimExpired(@Param("id") Long id,
+                     @Param("owner") String owner,
+                     @Param("leaseUntil") LocalDateTime leaseUntil,
+                     @Param("queued") ImportJob.Status queued,
+                     @Param("statuses") Collection<ImportJob.Status> statuses,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * 与一块交易在同一事务中推进检查点；任务已被其他节点接管时返回0，调用方应回滚该块
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.checkpointOffset = :offset, j.linesRead = :linesRead, " +
+           "j.importedRows = j.importedRows + :imported, j.rejectedRows = j.rejectedRows + :rejected, " +
+           "j.reportBytes = :reportBytes, j.updateTime = :now " +
+           "WHERE j.id = :id AND j.owner = :owner AND j.status = com.example.banktransactionmanager.model.ImportJob$Status.RUNNING")
+    int advanceCheckpoint(@Param("id") Long id,
+                          @Param("owner") String owner,
+                          @Param("offset") long offset,
+                          @Param("linesRead") long linesRead,
+                          @Param("imported") long imported,
+                          @Param("rejected") long rejected,
+                          @Param("reportBytes") long reportBytes,
+                          @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.example.banktransactionmanager.repository;
+
+import com.example.banktransactionmanager.model.TransactionAggregateSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionAggregateSnapshotRepository extends JpaRepository<TransactionAggregateSnapshot, Long> {
+
+    /**
+     * 查询最新一次快照的全部行
+     */
+    @Query("SELECT s FROM TransactionAggregateSnapshot s WHERE s.snapshotTime = " +
+           "(SELECT MAX(l.snapshotTime) FROM TransactionAggregateSnapshot l)")
+    List<TransactionAggregateSnapshot> findLatest();
+
+    /**
+     * 删除早于给定时间的快照；多个副本同时写入时各自只删除更早的快照，恢复时仍能读到完整的一组
+     */
+    @Modifying
+    @Query("DELETE FROM TransactionAggregateSnapshot s WHERE s.snapshotTime < :snapshotTime")
+    int deleteOlderThan(@Param("snapshotTime") LocalDateTime snapshotTime);
+}
@@ -0,0 +1,31 @@
+package com.example.banktransactionmanager.repository;
+
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutboxEvent, Long> {
+
+    /**
+     * 按写入顺序读取一批待投递的事件
+     */
+    @Query("SELECT e FROM TransactionOutboxEvent e ORDER BY e.id")
+    List<TransactionOutboxEvent> findBatch(Pageable pageable);
+
+    /**
+     * 删除已确认投递的事件
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TransactionOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
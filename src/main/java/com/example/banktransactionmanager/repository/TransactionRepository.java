@@ -1,28 +1,51 @@
 package com.example.banktransactionmanager.repository;
 
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.DailyTotal;
+import com.example.banktransactionmanager.model.projection.ReconciliationEntry;
+import com.example.banktransactionmanager.model.projection.SampleCount;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+import com.example.banktransactionmanager.model.projection.StatementTypeTotal;
+import com.example.banktransactionmanager.model.projection.StatusTypeCount;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
     /**
      * 根据交易业务编号查询交易记录
      */
     Optional<Transaction> findByTransactionBizNo(String transactionBizNo);
 
+    /**
+     * 根据幂等键查询交易记录
+     */
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * 查询给定幂等键中已存在的那些
+     */
+    @Query("SELECT t.idempotencyKey FROM Transaction t WHERE t.idempotencyKey IN :keys")
+    List<String> findExistingIdempotencyKeys(@Param("keys") Collection<String> keys);
+
     /**
      * 检查交易业务编号是否存在
      */
@@ -45,6 +68,22 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         @Param("accountNumber") String accountNumber,
         @Param("transactionType") Transaction.TransactionType transactionType,
         @Param("status") Transaction.Status status);
+
+    /**
+     * 按ID游标分块查询未删除的交易，支持筛选条件；翻页期间有写入也不会跳过或重复
+     * @param afterId 上一块的最大ID，首块传0
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.isDeleted = false AND t.id > :afterId " +
+           "AND (:accountNumber IS NULL OR t.accountNumber = :accountNumber) " +
+           "AND (:transactionType IS NULL OR t.transactionType = :transactionType) " +
+           "AND (:status IS NULL OR t.status = :status) " +
+           "ORDER BY t.id")
+    List<Transaction> findByIsDeletedFalseAndFiltersAfterId(
+        @Param("afterId") Long afterId,
+        @Param("accountNumber") String accountNumber,
+        @Param("transactionType") Transaction.TransactionType transactionType,
+        @Param("status") Transaction.Status status,
+        Pageable pageable);
     
     /**
      * 查询未删除的交易记录，支持分页
@@ -61,12 +100,210 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     void softDeleteById(@Param("id") Long id);
     
     /**
-     * 根据金额范围查询未删除的交易记录
+     * 批量软删除交易记录（单条集合式UPDATE）
+     * @return 实际被删除的记录数
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.isDeleted = true, t.deletedTime = :now, t.updateTime = :now, t.updater = :updater " +
+           "WHERE t.id IN :ids AND t.isDeleted = false")
+    int softDeleteByIdIn(@Param("ids") Collection<Long> ids,
+                         @Param("updater") String updater,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * 批量状态流转（单条集合式UPDATE），只更新当前状态为 fromStatus 的未删除记录
+     * @return 实际被更新的记录数
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = :toStatus, t.updateTime = :now, t.updater = :updater " +
+           "WHERE t.id IN :ids AND t.status = :fromStatus AND t.isDeleted = false")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("fromStatus") Transaction.Status fromStatus,
+                           @Param("toStatus") Transaction.Status toStatus,
+                           @Param("updater") String updater,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * 查询给定ID中未删除交易的轻量投影
+     */
+    @Query("SELECT t.id AS id, t.transactionBizNo AS transactionBizNo, t.referenceNumber AS referenceNumber, t.status AS status, " +
+           "t.accountNumber AS accountNumber, t.transactionType AS transactionType, t.channel AS channel, " +
+           "t.amount AS amount, t.transactionTime AS transactionTime " +
+           "FROM Transaction t WHERE t.id IN :ids AND t.isDeleted = false")
+    List<TransactionRef> findRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按账号和交易时间范围分块查询未删除交易的轻量投影（按ID游标翻页）
+     * @param afterId 上一块的最大ID，首块传0
+     */
+    @Query("SELECT t.id AS id, t.transactionBizNo AS transactionBizNo, t.referenceNumber AS referenceNumber, t.status AS status, " +
+           "t.accountNumber AS accountNumber, t.transactionType AS transactionType, t.channel AS channel, " +
+           "t.amount AS amount, t.transactionTime AS transactionTime " +
+           "FROM Transaction t WHERE t.isDeleted = false AND t.id > :afterId " +
+           "AND (:accountNumber IS NULL OR t.accountNumber = :accountNumber) " +
+           "AND (:fromTime IS NULL OR t.transactionTime >= :fromTime) " +
+           "AND (:toTime IS NULL OR t.transactionTime < :toTime) " +
+           "ORDER BY t.id")
+    List<TransactionRef> findRefsByFilter(@Param("accountNumber") String accountNumber,
+                                          @Param("fromTime") LocalDateTime fromTime,
+                                          @Param("toTime") LocalDateTime toTime,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    /**
+     * 按交易时间顺序流式读取账户在 [fromTime, toTime) 内已入账（SUCCESS）的交易，用于生成对账单
+     * 调用方需在事务内消费并关闭返回的流
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.banktransactionmanager.model.projection.StatementLine(" +
+           "t.transactionTime, t.transactionBizNo, t.transactionType, t.channel, t.description, t.counterpartyName, " +
+           "t.amount, t.fee, t.currency) " +
+           "FROM Transaction t WHERE t.accountNumber = :accountNumber AND t.isDeleted = false " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.SUCCESS " +
+           "AND t.transactionTime >= :fromTime AND t.transactionTime < :toTime " +
+           "ORDER BY t.transactionTime, t.id")
+    Stream<StatementLine> streamStatementLines(@Param("accountNumber") String accountNumber,
+                                               @Param("fromTime") LocalDateTime fromTime,
+                                               @Param("toTime") LocalDateTime toTime);
+
+    /**
+     * 按交易类型汇总账户在 before 之前已入账交易的金额和手续费，用于计算期初余额
+     */
+    @Query("SELECT t.transactionType AS transactionType, SUM(t.amount) AS amount, SUM(t.fee) AS fee " +
+           "FROM Transaction t WHERE t.accountNumber = :accountNumber AND t.isDeleted = false " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.SUCCESS " +
+           "AND t.transactionTime < :before GROUP BY t.transactionType")
+    List<StatementTypeTotal> sumPostedByTypeBefore(@Param("accountNumber") String accountNumber,
+                                                   @Param("before") LocalDateTime before);
+
+    /**
+     * 查询在 before 之前有已入账交易的账号（即需要出对账单的账户），按账号排序
+     */
+    @Query("SELECT DISTINCT t.accountNumber FROM Transaction t WHERE t.isDeleted = false " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.SUCCESS " +
+           "AND t.transactionTime < :before ORDER BY t.accountNumber")
+    List<String> findPostedAccountNumbersBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 流式读取 [fromTime, toTime) 内带外部参考号的未删除交易，用于与外部清算文件对账
+     * 调用方需在事务内消费并关闭返回的流
+     * @param channel 渠道，为null时不限
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.banktransactionmanager.model.projection.ReconciliationEntry(" +
+           "t.id, t.externalReferenceNo, t.amount, t.status) " +
+           "FROM Transaction t WHERE t.isDeleted = false AND t.externalReferenceNo IS NOT NULL " +
+           "AND t.transactionTime >= :fromTime AND t.transactionTime < :toTime " +
+           "AND (:channel IS NULL OR t.channel = :channel)")
+    Stream<ReconciliationEntry> streamReconciliationEntries(@Param("fromTime") LocalDateTime fromTime,
+                                                            @Param("toTime") LocalDateTime toTime,
+                                                            @Param("channel") Transaction.Channel channel);
+
+    /**
+     * 统计 {@link #streamReconciliationEntries} 将返回的行数，用于预分配对账索引
+     */
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.isDeleted = false AND t.externalReferenceNo IS NOT NULL " +
+           "AND t.transactionTime >= :fromTime AND t.transactionTime < :toTime " +
+           "AND (:channel IS NULL OR t.channel = :channel)")
+    long countReconciliationEntries(@Param("fromTime") LocalDateTime fromTime,
+                                    @Param("toTime") LocalDateTime toTime,
+                                    @Param("channel") Transaction.Channel channel);
+
+    /**
+     * 查询可领取的待结算交易ID（租约为空或已过期）
+     * 排除仍有其他有效租约的账户，保证同一账户同一时间只在一个节点上结算
+     */
+    @Query("SELECT t.id FROM Transaction t WHERE t.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING " +
+           "AND t.isDeleted = false AND (t.settlementLeaseUntil IS NULL OR t.settlementLeaseUntil < :now) " +
+           "AND NOT EXISTS (SELECT o.id FROM Transaction o WHERE o.accountNumber = t.accountNumber " +
+           "AND o.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING AND o.settlementLeaseUntil >= :now) " +
+           "ORDER BY t.id")
+    List<Long> findSettlementCandidates(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 条件更新领取结算租约；并发领取同一行时只有一个节点能更新成功
+     * 更新时再次排除账户内有其他有效租约（含重试退避）的行；并发领取同一账户不同行的情况由
+     * {@link #findContestedSettlementAccounts} 在领取提交后检出
+     * @return 实际领取到的记录数
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.settlementOwner = :owner, t.settlementLeaseUntil = :leaseUntil " +
+           "WHERE t.id IN :ids AND t.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING " +
+           "AND t.isDeleted = false AND (t.settlementLeaseUntil IS NULL OR t.settlementLeaseUntil < :now) " +
+           "AND NOT EXISTS (SELECT o.id FROM Transaction o WHERE o.accountNumber = t.accountNumber " +
+           "AND o.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING AND o.settlementLeaseUntil >= :now " +
+           "AND (o.settlementOwner IS NULL OR o.settlementOwner <> :owner))")
+    int claimForSettlement(@Param("ids") Collection<Long> ids,
+                           @Param("owner") String owner,
+                           @Param("leaseUntil") LocalDateTime leaseUntil,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * 查询 owner 领取的交易中，账户同时还有其他有效租约（其他节点的领取或重试退避）的账户
+     * 在领取提交后调用：两个节点并发领取同一账户的不同交易时，后检查的一方一定能看到先提交的领取
+     */
+    @Query("SELECT DISTINCT t.accountNumber FROM Transaction t WHERE t.settlementOwner = :owner " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING " +
+           "AND EXISTS (SELECT o.id FROM Transaction o WHERE o.accountNumber = t.accountNumber " +
+           "AND o.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING AND o.settlementLeaseUntil >= :now " +
+           "AND (o.settlementOwner IS NULL OR o.settlementOwner <> :owner))")
+    List<String> findContestedSettlementAccounts(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询指定租约持有者领取到的待结算交易
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.settlementOwner = :owner " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING ORDER BY t.id")
+    List<Transaction> findClaimedForSettlement(@Param("owner") String owner);
+
+    /**
+     * 完成结算：批量流转状态并释放租约，只更新仍由 owner 持有的记录
+     * @return 实际完成的记录数
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = :toStatus, t.settlementOwner = NULL, t.settlementLeaseUntil = NULL, " +
+           "t.updateTime = :now, t.updater = :updater " +
+           "WHERE t.id IN :ids AND t.settlementOwner = :owner " +
+           "AND t.status = com.example.banktransactionmanager.model.Transaction$Status.PENDING")
+    int completeSettlement(@Param("ids") Collection<Long> ids,
+                           @Param("owner") String owner,
+                           @Param("toStatus") Transaction.Status toStatus,
+                           @Param("updater") String updater,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * 释放未处理交易的结算租约，使其可被立即重新领取
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.settlementOwner = NULL, t.settlementLeaseUntil = NULL " +
+           "WHERE t.id IN :ids AND t.settlementOwner = :owner")
+    int releaseSettlementClaim(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    /**
+     * 结算出错的交易退避重试：释放持有者、租约延到 retryAt 并累加尝试次数
+     * 退避期间租约仍然有效，同一账户的其他交易也不会被领取，保持账户内的顺序
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.settlementOwner = NULL, t.settlementLeaseUntil = :retryAt, " +
+           "t.settlementAttempts = t.settlementAttempts + 1 " +
+           "WHERE t.id IN :ids AND t.settlementOwner = :owner")
+    int deferSettlement(@Param("ids") Collection<Long> ids,
+                        @Param("owner") String owner,
+                        @Param("retryAt") LocalDateTime retryAt);
+
+    /**
+     * 根据金额范围查询未删除的交易记录（金额单位为分）
      */
     @Query("SELECT t FROM Transaction t WHERE t.amount BETWEEN :minAmount AND :maxAmount AND t.isDeleted = false")
     Page<Transaction> findByAmountBetweenAndIsDeletedFalse(
-        @Param("minAmount") BigDecimal minAmount,
-        @Param("maxAmount") BigDecimal maxAmount,
+        @Param("minAmount") long minAmount,
+        @Param("maxAmount") long maxAmount,
         Pageable pageable);
         
     /**
@@ -77,9 +314,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         @Param("keyword") String keyword,
         Pageable pageable);
         
+    /**
+     * 与 {@link #findByAmountBetweenAndIsDeletedFalse} 相同，但不统计总数，只多取一行判断是否有下一页
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.amount BETWEEN :minAmount AND :maxAmount AND t.isDeleted = false")
+    Slice<Transaction> findSliceByAmountBetweenAndIsDeletedFalse(
+        @Param("minAmount") long minAmount,
+        @Param("maxAmount") long maxAmount,
+        Pageable pageable);
+
+    /**
+     * 与 {@link #findByDescriptionContainingIgnoreCaseAndIsDeletedFalse} 相同，但不统计总数
+     */
+    @Query("SELECT t FROM Transaction t WHERE LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')) AND t.isDeleted = false")
+    Slice<Transaction> findSliceByDescriptionContainingIgnoreCaseAndIsDeletedFalse(
+        @Param("keyword") String keyword,
+        Pageable pageable);
+
+    /**
+     * 按状态和交易类型汇总未删除的交易数，用于刷新近似计数
+     */
+    @Query("SELECT t.status AS status, t.transactionType AS transactionType, COUNT(t) AS count " +
+           "FROM Transaction t WHERE t.isDeleted = false GROUP BY t.status, t.transactionType")
+    List<StatusTypeCount> countByStatusAndType();
+
+    /**
+     * 按渠道、交易类型、状态和交易日汇总给定时间之后的未删除交易（走交易时间索引），用于恢复内存中的交易汇总
+     */
+    @Query("SELECT t.channel AS channel, t.transactionType AS transactionType, t.status AS status, " +
+           "CAST(t.transactionTime AS LocalDate) AS businessDay, COUNT(t) AS count, SUM(t.amount) AS volume " +
+           "FROM Transaction t WHERE t.isDeleted = false AND t.transactionTime >= :from " +
+           "GROUP BY t.channel, t.transactionType, t.status, CAST(t.transactionTime AS LocalDate)")
+    List<DailyTotal> sumByChannelTypeStatusAndDay(@Param("from") LocalDateTime from);
+
+    /**
+     * 统计账户未删除的交易数（走账号索引），作为账号近似计数的初值
+     */
+    long countByAccountNumberAndIsDeletedFalse(String accountNumber);
+
+    @Query("SELECT MIN(t.id) FROM Transaction t")
+    Long findMinId();
+
+    @Query("SELECT MAX(t.id) FROM Transaction t")
+    Long findMaxId();
+
+    /**
+     * 在ID窗口 [fromId, toId) 内抽样：统计未删除交易数及其中金额在范围内的交易数（按主键范围扫描）
+     */
+    @Query("SELECT COUNT(t) AS sampled, " +
+           "SUM(CASE WHEN t.amount BETWEEN :minAmount AND :maxAmount THEN 1 ELSE 0 END) AS matched " +
+           "FROM Transaction t WHERE t.isDeleted = false AND t.id >= :fromId AND t.id < :toId")
+    SampleCount sampleAmountBetween(@Param("minAmount") long minAmount,
+                                    @Param("maxAmount") long maxAmount,
+                                    @Param("fromId") long fromId,
+                                    @Param("toId") long toId);
+
+    /**
+     * 在ID窗口 [fromId, toId) 内抽样：统计未删除交易数及其中描述包含关键词的交易数
+     */
+    @Query("SELECT COUNT(t) AS sampled, " +
+           "SUM(CASE WHEN LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')) THEN 1 ELSE 0 END) AS matched " +
+           "FROM Transaction t WHERE t.isDeleted = false AND t.id >= :fromId AND t.id < :toId")
+    SampleCount sampleDescriptionContaining(@Param("keyword") String keyword,
+                                            @Param("fromId") long fromId,
+                                            @Param("toId") long toId);
+
     /**
      * 根据参考号查询未删除的交易记录
      */
     @Query("SELECT t FROM Transaction t WHERE t.referenceNumber = :referenceNumber AND t.isDeleted = false")
     Optional<Transaction> findByReferenceNumberAndIsDeletedFalse(@Param("referenceNumber") String referenceNumber);
-}
\ No newline at end of file
+
+    /**
+     * 按ID批量查询未删除的交易记录，不保证顺序
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND t.isDeleted = false")
+    List<Transaction> findByIdInAndIsDeletedFalse(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按交易业务编号批量查询未删除的交易记录，不保证顺序
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.transactionBizNo IN :bizNos AND t.isDeleted = false")
+    List<Transaction> findByTransactionBizNoInAndIsDeletedFalse(@Param("bizNos") Collection<String> transactionBizNos);
+
+    /**
+     * 按参考号批量查询未删除的交易记录，不保证顺序
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.referenceNumber IN :referenceNumbers AND t.isDeleted = false")
+    List<Transaction> findByReferenceNumberInAndIsDeletedFalse(@Param("referenceNumbers") Collection<String> referenceNumbers);
+}
@@ -0,0 +1,37 @@
+package com.example.banktransactionmanager.repository;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.projection.TransactionField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Set;
+
+/**
+ * 交易仓库中无法用派生查询或 @Query 表达的查询
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * 与 {@link TransactionRepository#findByIsDeletedFalseAndFilters} 条件相同，但只查询指定的列
+     * @param fields 要查询的字段，未选择的DTO属性保持默认值
+     */
+    Page<TransactionDTO> findFieldsByIsDeletedFalseAndFilters(
+            Set<TransactionField> fields,
+            Pageable pageable,
+            String accountNumber,
+            Transaction.TransactionType transactionType,
+            Transaction.Status status);
+
+    /**
+     * 与 {@link #findFieldsByIsDeletedFalseAndFilters} 相同，但不统计总数，只多取一行判断是否有下一页
+     */
+    Slice<TransactionDTO> findFieldsSliceByIsDeletedFalseAndFilters(
+            Set<TransactionField> fields,
+            Pageable pageable,
+            String accountNumber,
+            Transaction.TransactionType transactionType,
+            Transaction.Status status);
+}
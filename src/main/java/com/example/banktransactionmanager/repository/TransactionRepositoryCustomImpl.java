@@ -0,0 +1,117 @@
+package com.example.banktransactionmanager.repository;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.projection.TransactionField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 动态投影：按请求的字段拼出SELECT列表，结果直接填入DTO，不加载实体，也不经过持久化上下文
+ */
+class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TransactionDTO> findFieldsByIsDeletedFalseAndFilters(Set<TransactionField> fields, Pageable pageable,
+                                                                     String accountNumber,
+                                                                     Transaction.TransactionType transactionType,
+                                                                     Transaction.Status status) {
+        List<TransactionDTO> content = select(fields, pageable, pageable.isPaged() ? pageable.getPageSize() : -1,
+                accountNumber, transactionType, status);
+        // 首页不满或最后一页时可以直接算出总数，不再执行COUNT
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> count(accountNumber, transactionType, status));
+    }
+
+    @Override
+    public Slice<TransactionDTO> findFieldsSliceByIsDeletedFalseAndFilters(Set<TransactionField> fields,
+                                                                           Pageable pageable, String accountNumber,
+                                                                           Transaction.TransactionType transactionType,
+                                                                           Transaction.Status status) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(select(fields, pageable, -1, accountNumber, transactionType, status), pageable, false);
+        }
+        // 多取一行：取到说明还有下一页
+        List<TransactionDTO> content = select(fields, pageable, pageable.getPageSize() + 1,
+                accountNumber, transactionType, status);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    // maxResults为负数时不限行数
+    private List<TransactionDTO> select(Set<TransactionField> fields, Pageable pageable, int maxResults,
+                                        String accountNumber, Transaction.TransactionType transactionType,
+                                        Transaction.Status status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> root = query.from(Transaction.class);
+        List<TransactionField> selected = List.copyOf(fields);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        for (TransactionField field : selected) {
+            columns.add(root.get(field.getProperty()));
+        }
+        query.multiselect(columns)
+                .where(filters(cb, root, accountNumber, transactionType, status))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+        }
+        if (maxResults >= 0) {
+            typedQuery.setMaxResults(maxResults);
+        }
+        return typedQuery.getResultList().stream().map(tuple -> {
+            TransactionDTO dto = new TransactionDTO();
+            for (int i = 0; i < selected.size(); i++) {
+                selected.get(i).apply(dto, tuple.get(i));
+            }
+            return dto;
+        }).toList();
+    }
+
+    private long count(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(cb.count(root)).where(filters(cb, root, accountNumber, transactionType, status));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // 与 findByIsDeletedFalseAndFilters 相同的条件，为null的条件不参与查询
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Transaction> root, String accountNumber,
+                                       Transaction.TransactionType transactionType, Transaction.Status status) {
+        List<Predicate> predicates = new ArrayList<>(4);
+        predicates.add(cb.isFalse(root.get("isDeleted")));
+        if (accountNumber != null) {
+            predicates.add(cb.equal(root.get("accountNumber"), accountNumber));
+        }
+        if (transactionType != null) {
+            predicates.add(cb.equal(root.get("transactionType"), transactionType));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
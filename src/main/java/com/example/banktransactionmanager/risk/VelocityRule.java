@@ -0,0 +1,75 @@
+package com.example.banktransactionmanager.risk;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 频率/限额规则：同一账户在滑动窗口内的交易笔数或累计金额（含本笔）超过上限时触发
+ * 由 velocity.rules[n].* 绑定，例如：
+ * <pre>
+ * velocity.rules[0].name=burst
+ * velocity.rules[0].window=PT1M
+ * velocity.rules[0].max-count=60
+ * velocity.rules[0].action=HOLD
+ * </pre>
+ * @param channel 只统计该渠道的交易，为空表示所有渠道
+ * @param transactionTypes 只统计这些类型的交易，为空表示所有类型
+ * @param maxCount 窗口内笔数上限，0表示不限
+ * @param maxAmount 窗口内累计金额上限（元），为空表示不限
+ */
+public record VelocityRule(String name,
+                           Transaction.Channel channel,
+                           Set<Transaction.TransactionType> transactionTypes,
+                           Duration window,
+                           long maxCount,
+                           BigDecimal maxAmount,
+                           Action action) {
+
+    public VelocityRule {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("规则名称不能为空");
+        }
+        if (window == null || window.toMillis() < 1) {
+            throw new IllegalArgumentException("规则 " + name + " 的窗口必须为正数");
+        }
+        if (maxCount < 0 || (maxAmount != null && maxAmount.signum() < 0) || (maxCount == 0 && maxAmount == null)) {
+            throw new IllegalArgumentException("规则 " + name + " 至少需要一个非负的笔数或金额上限");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("规则 " + name + " 缺少触发动作");
+        }
+        transactionTypes = transactionTypes == null || transactionTypes.isEmpty() ? null : Set.copyOf(transactionTypes);
+    }
+
+    boolean appliesTo(Transaction.Channel transactionChannel, Transaction.TransactionType transactionType) {
+        return (channel == null || channel == transactionChannel)
+                && (transactionTypes == null || transactionTypes.contains(transactionType));
+    }
+
+    /**
+     * 规则触发后的处理，多条规则同时触发时取最严重的（声明顺序靠后的更严重）
+     */
+    public enum Action {
+        /**
+         * 交易以 HELD 状态入库，不进入结算，人工复核后再流转
+         */
+        HOLD(Transaction.Status.HELD),
+        /**
+         * 交易直接以 FAILED 状态入库
+         */
+        FAIL(Transaction.Status.FAILED);
+
+        private final Transaction.Status status;
+
+        Action(Transaction.Status status) {
+            this.status = status;
+        }
+
+        public Transaction.Status status() {
+            return status;
+        }
+    }
+}
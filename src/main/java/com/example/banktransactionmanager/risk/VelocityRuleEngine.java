@@ -0,0 +1,271 @@
+package com.example.banktransactionmanager.risk;
+
+import com.example.banktransactionmanager.model.Money;
+import com.example.banktransactionmanager.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 创建交易时内联评估的频率/限额规则引擎，计数全部在内存中，不查询数据库
+ * <p>
+ * 每个账户一组滑动窗口：每条规则把窗口切成 {@link #BUCKETS} 个桶，桶内累计笔数和金额，
+ * 评估时把未过期的桶相加，精度为窗口的1/{@value #BUCKETS}。同一账户的评估在该账户的窗口对象上同步，
+ * 不同账户互不竞争；评估和记录在同一个临界区内完成，并发请求不会一起越过上限。
+ * 记录先于入库，交易最终没有入库（写入失败或并发重放）时由调用方 {@link #release} 撤销。
+ * <p>
+ * 空闲时间超过最长窗口的账户所有桶都已过期，由后台线程定期移除，不会丢失计数；
+ * 跟踪的账户数达到上限时新账户不再登记（只按本笔评估）并立即触发一次清理。
+ * 计数只在本实例内有效，多实例部署时每个实例各自计数。
+ */
+@Slf4j
+public class VelocityRuleEngine {
+
+    static final int BUCKETS = 10;
+
+    private final VelocityRule[] rules;
+    private final long[] granularityMillis;
+    private final long[] maxAmounts;
+    private final Counter[] hits;
+    private final long idleMillis;
+    private final int maxAccounts;
+    private final Clock clock;
+    private final Map<String, AccountWindows> accounts = new ConcurrentHashMap<>();
+    private final Counter untracked;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * @param maxAccounts 同时跟踪的账户数上限
+     * @param sweepInterval 清理空闲账户的间隔
+     */
+    public VelocityRuleEngine(List<VelocityRule> rules, int maxAccounts, Duration sweepInterval, MeterRegistry meterRegistry) {
+        this(rules, maxAccounts, sweepInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    VelocityRuleEngine(List<VelocityRule> rules, int maxAccounts, Duration sweepInterval, MeterRegistry meterRegistry,
+                       Clock clock) {
+        if (maxAccounts < 1) {
+            throw new IllegalArgumentException("跟踪账户数上限必须大于0");
+        }
+        this.rules = rules.toArray(new VelocityRule[0]);
+        this.granularityMillis = new long[this.rules.length];
+        this.maxAmounts = new long[this.rules.length];
+        this.hits = new Counter[this.rules.length];
+        long longestWindow = 0;
+        for (int i = 0; i < this.rules.length; i++) {
+            VelocityRule rule = this.rules[i];
+            granularityMillis[i] = Math.max(1, rule.window().toMillis() / BUCKETS);
+            maxAmounts[i] = rule.maxAmount() == null ? 0 : Money.toMinorUnits(rule.maxAmount());
+            hits[i] = Counter.builder("velocity.rule.hits")
+                    .tag("rule", rule.name())
+                    .tag("action", rule.action().name())
+                    .description("Transactions that exceeded this velocity rule")
+                    .register(meterRegistry);
+            longestWindow = Math.max(longestWindow, granularityMillis[i] * BUCKETS);
+        }
+        this.idleMillis = longestWindow;
+        this.maxAccounts = maxAccounts;
+        this.clock = clock;
+        this.untracked = Counter.builder("velocity.accounts.untracked")
+                .description("Evaluations for new accounts while the tracked account limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("velocity.accounts.tracked", accounts, Map::size)
+                .description("Accounts with live velocity windows")
+                .strongReference(true)
+                .register(meterRegistry);
+        if (this.rules.length == 0) {
+            this.sweeper = null;
+            return;
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "velocity-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 评估一笔新交易并计入窗口；被判定为 FAIL 的交易不计入（不会产生资金变动）
+     * @param amount 金额（分）
+     */
+    public VelocityVerdict evaluate(String accountNumber, Transaction.Channel channel,
+                                    Transaction.TransactionType transactionType, long amount) {
+        if (rules.length == 0 || accountNumber == null) {
+            return VelocityVerdict.ALLOW;
+        }
+        long now = clock.millis();
+        while (true) {
+            AccountWindows windows = windowsFor(accountNumber);
+            synchronized (windows) {
+                if (windows.evicted) {
+                    // 清理线程刚移除了该账户，重新登记
+                    continue;
+                }
+                windows.lastSeen = now;
+                return evaluate(windows, channel, transactionType, amount, now);
+            }
+        }
+    }
+
+    /**
+     * 撤销 {@link #evaluate} 计入窗口的一笔，参数须与评估时相同；已随窗口滑出的桶不再处理
+     */
+    public void release(String accountNumber, Transaction.Channel channel,
+                        Transaction.TransactionType transactionType, long amount, VelocityVerdict verdict) {
+        if (!verdict.isRecorded() || accountNumber == null) {
+            return;
+        }
+        AccountWindows windows = accounts.get(accountNumber);
+        if (windows == null) {
+            return;
+        }
+        synchronized (windows) {
+            for (int r = 0; r < rules.length; r++) {
+                if (rules[r].appliesTo(channel, transactionType)) {
+                    long epoch = verdict.recordedAt() / granularityMillis[r];
+                    int slot = r * BUCKETS + (int) (epoch % BUCKETS);
+                    if (windows.epochs[slot] == epoch) {
+                        windows.counts[slot]--;
+                        windows.amounts[slot] -= amount;
+                    }
+                }
+            }
+        }
+    }
+
+    public int trackedAccounts() {
+        return accounts.size();
+    }
+
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private VelocityVerdict evaluate(AccountWindows windows, Transaction.Channel channel,
+                                     Transaction.TransactionType transactionType, long amount, long now) {
+        VelocityRule decisive = null;
+        for (int r = 0; r < rules.length; r++) {
+            if (!rules[r].appliesTo(channel, transactionType)) {
+                continue;
+            }
+            long epoch = now / granularityMillis[r];
+            long count = 1;
+            long total = amount;
+            for (int slot = r * BUCKETS, end = slot + BUCKETS; slot < end; slot++) {
+                if (windows.epochs[slot] > epoch - BUCKETS) {
+                    count += windows.counts[slot];
+                    total += windows.amounts[slot];
+                }
+            }
+            if ((rules[r].maxCount() > 0 && count > rules[r].maxCount())
+                    || (rules[r].maxAmount() != null && total > maxAmounts[r])) {
+                hits[r].increment();
+                if (decisive == null || rules[r].action().compareTo(decisive.action()) > 0) {
+                    decisive = rules[r];
+                }
+            }
+        }
+        if (decisive != null && decisive.action() == VelocityRule.Action.FAIL) {
+            return new VelocityVerdict(decisive.action(), decisive.name());
+        }
+        for (int r = 0; r < rules.length; r++) {
+            if (rules[r].appliesTo(channel, transactionType)) {
+                long epoch = now / granularityMillis[r];
+                int slot = r * BUCKETS + (int) (epoch % BUCKETS);
+                if (windows.epochs[slot] != epoch) {
+                    windows.epochs[slot] = epoch;
+                    windows.counts[slot] = 0;
+                    windows.amounts[slot] = 0;
+                }
+                windows.counts[slot]++;
+                windows.amounts[slot] += amount;
+            }
+        }
+        // 未登记账户的窗口用完即弃，无需撤销
+        long recordedAt = windows.tracked ? now : VelocityVerdict.NOT_RECORDED;
+        return decisive == null
+                ? new VelocityVerdict(null, null, recordedAt)
+                : new VelocityVerdict(decisive.action(), decisive.name(), recordedAt);
+    }
+
+    private AccountWindows windowsFor(String accountNumber) {
+        AccountWindows windows = accounts.get(accountNumber);
+        if (windows != null) {
+            return windows;
+        }
+        if (accounts.size() >= maxAccounts) {
+            untracked.increment();
+            if (sweeping.compareAndSet(false, true)) {
+                sweeper.execute(this::sweep);
+            }
+            return new AccountWindows(rules.length * BUCKETS, false);
+        }
+        return accounts.computeIfAbsent(accountNumber, key -> new AccountWindows(rules.length * BUCKETS, true));
+    }
+
+    /**
+     * 移除空闲超过最长窗口的账户，这些账户的桶都已过期
+     */
+    void sweep() {
+        try {
+            long cutoff = clock.millis() - idleMillis;
+            int removed = 0;
+            for (Map.Entry<String, AccountWindows> entry : accounts.entrySet()) {
+                AccountWindows windows = entry.getValue();
+                if (windows.lastSeen < cutoff) {
+                    synchronized (windows) {
+                        if (windows.lastSeen < cutoff && accounts.remove(entry.getKey(), windows)) {
+                            windows.evicted = true;
+                            removed++;
+                        }
+                    }
+                }
+            }
+            if (removed > 0) {
+                log.debug("Evicted {} idle velocity windows, {} remain", removed, accounts.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Velocity window sweep failed", e);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * 一个账户所有规则的桶，第r条规则占 [r * BUCKETS, (r + 1) * BUCKETS)，由对象自身的监视器保护
+     */
+    private static final class AccountWindows {
+
+        final long[] epochs;
+        final long[] counts;
+        final long[] amounts;
+        final boolean tracked;
+        volatile long lastSeen;
+        boolean evicted;
+
+        AccountWindows(int slots, boolean tracked) {
+            this.tracked = tracked;
+            epochs = new long[slots];
+            Arrays.fill(epochs, Long.MIN_VALUE);
+            counts = new long[slots];
+            amounts = new long[slots];
+        }
+    }
+}
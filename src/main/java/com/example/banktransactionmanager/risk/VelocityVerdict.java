@@ -0,0 +1,27 @@
+package com.example.banktransactionmanager.risk;
+
+/**
+ * 规则评估结果
+ * @param action 触发的动作，未触发任何规则时为空
+ * @param rule 决定该动作的规则名称
+ * @param recordedAt 本笔计入窗口的时间（毫秒），未计入时为 {@link #NOT_RECORDED}；
+ *                   交易最终没有入库时凭此从原来的桶中撤销
+ */
+public record VelocityVerdict(VelocityRule.Action action, String rule, long recordedAt) {
+
+    public static final long NOT_RECORDED = -1L;
+
+    public static final VelocityVerdict ALLOW = new VelocityVerdict(null, null, NOT_RECORDED);
+
+    public VelocityVerdict(VelocityRule.Action action, String rule) {
+        this(action, rule, NOT_RECORDED);
+    }
+
+    public boolean isAllowed() {
+        return action == null;
+    }
+
+    public boolean isRecorded() {
+        return recordedAt != NOT_RECORDED;
+    }
+}
@@ -2,22 +2,39 @@ package com.example.banktransactionmanager.service;
 
 import com.example.banktransactionmanager.model.Transaction;
 import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
 import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.dto.TransactionLookupRequest;
+import com.example.banktransactionmanager.model.dto.TransactionLookupResponse;
+import com.example.banktransactionmanager.model.dto.TransactionSlice;
 import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.TransactionField;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TransactionService {
 
     /**
-     * 创建新交易
+     * 创建新交易，若请求带有外部参考号则按 渠道+外部参考号 去重
      * @param request 交易信息
-     * @return 是否创建成功
+     * @return 创建结果
      */
-    boolean createTransaction(TransactionCreateRequest request);
+    TransactionCreateResponse createTransaction(TransactionCreateRequest request);
+
+    /**
+     * 幂等地创建新交易
+     * 同一幂等键（未提供时使用外部参考号）的重复请求直接返回首次创建的结果，不会再次写库
+     * @param request 交易信息
+     * @param idempotencyKey 幂等键（可选）
+     * @return 创建结果，重放时 replayed = true
+     */
+    TransactionCreateResponse createTransaction(TransactionCreateRequest request, String idempotencyKey);
 
     /**
      * 根据ID获取交易
@@ -39,6 +56,34 @@ public interface TransactionService {
      */
     void softDeleteTransaction(Long id);
 
+    /**
+     * 按ID列表批量软删除交易，按块执行集合式UPDATE
+     * @param ids 交易ID列表
+     * @param updater 操作人（可选）
+     * @return 实际被删除的记录数
+     */
+    int softDeleteTransactions(List<Long> ids, String updater);
+
+    /**
+     * 按账号和交易时间范围批量软删除交易，按块执行集合式UPDATE
+     * @param accountNumber 账号（可选）
+     * @param fromTime 交易时间起点，包含（可选）
+     * @param toTime 交易时间终点，不包含（可选）
+     * @param updater 操作人（可选）
+     * @return 实际被删除的记录数
+     */
+    int softDeleteTransactions(String accountNumber, LocalDateTime fromTime, LocalDateTime toTime, String updater);
+
+    /**
+     * 批量状态流转（如结算批次 PENDING → SUCCESS/FAILED），只更新当前状态为 fromStatus 的交易
+     * @param ids 交易ID列表
+     * @param fromStatus 期望的当前状态
+     * @param toStatus 目标状态
+     * @param updater 操作人（可选）
+     * @return 实际被更新的记录数
+     */
+    int updateTransactionStatus(List<Long> ids, Transaction.Status fromStatus, Transaction.Status toStatus, String updater);
+
     /**
      * 获取所有未删除的交易，支持分页
      * @param pageable 分页参数
@@ -56,6 +101,39 @@ public interface TransactionService {
      */
     Page<TransactionDTO> getAllTransactions(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status);
 
+    /**
+     * 按ID升序分块获取未删除的交易，不经过列表缓存，用于流式导出
+     * @param afterId 上一块最后一条的ID，首块传0
+     * @param limit 块大小
+     * @param accountNumber 账号筛选条件（可选）
+     * @param transactionType 交易类型筛选条件（可选）
+     * @param status 状态筛选条件（可选）
+     * @return ID大于 afterId 的至多 limit 条交易
+     */
+    List<TransactionDTO> getTransactionsAfter(long afterId, int limit, String accountNumber,
+                                              Transaction.TransactionType transactionType, Transaction.Status status);
+
+    /**
+     * 获取所有未删除的交易，只查询和返回指定的字段
+     * @param pageable 分页参数
+     * @param accountNumber 账号筛选条件（可选）
+     * @param transactionType 交易类型筛选条件（可选）
+     * @param status 状态筛选条件（可选）
+     * @param fields 要返回的字段，未选择的属性保持默认值
+     * @return 分页后的交易列表
+     */
+    Page<TransactionDTO> getAllTransactions(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType,
+                                            Transaction.Status status, Set<TransactionField> fields);
+
+    /**
+     * 获取所有未删除的交易，不统计总数（只判断是否有下一页）
+     * @param fields 要返回的字段，未选择的属性保持默认值
+     * @param estimateTotal 是否附带近似总数（来自按筛选条件维护的计数）
+     * @return 分页后的交易列表
+     */
+    TransactionSlice getTransactionSlice(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType,
+                                         Transaction.Status status, Set<TransactionField> fields, boolean estimateTotal);
+
     /**
      * 根据参考号查找交易
      * @param referenceNumber 参考号
@@ -70,6 +148,13 @@ public interface TransactionService {
      */
     Optional<TransactionDTO> getTransactionByTransactionBizNo(String transactionBizNo);
 
+    /**
+     * 批量查询交易：先批量查缓存，只对未命中的键按块执行一条IN查询，查询结果（包括不存在的键）批量写回缓存
+     * @param request 按ID、交易业务编号或参考号之一
+     * @return 按请求顺序排列的交易，以及不存在或已删除的键
+     */
+    TransactionLookupResponse lookupTransactions(TransactionLookupRequest request);
+
     /**
      * 根据金额范围查询交易
      * @param minAmount 最小金额
@@ -79,6 +164,13 @@ public interface TransactionService {
      */
     Page<TransactionDTO> getTransactionsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
 
+    /**
+     * 根据金额范围查找交易，不统计总数
+     * @param estimateTotal 是否附带近似总数（抽样估计）
+     */
+    TransactionSlice getTransactionSliceByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable,
+                                                      boolean estimateTotal);
+
     /**
      * 根据描述关键词搜索交易
      * @param keyword 关键词
@@ -86,4 +178,10 @@ public interface TransactionService {
      * @return 分页后的交易列表
      */
     Page<TransactionDTO> searchTransactionsByKeyword(String keyword, Pageable pageable);
+
+    /**
+     * 根据描述关键词搜索交易，不统计总数
+     * @param estimateTotal 是否附带近似总数（抽样估计）
+     */
+    TransactionSlice searchTransactionSliceByKeyword(String keyword, Pageable pageable, boolean estimateTotal);
 }
\ No newline at end of file
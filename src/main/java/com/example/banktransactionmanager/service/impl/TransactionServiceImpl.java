@@ -1,99 +1,235 @@
 package com.example.banktransactionmanager.service.impl;
 
+import com.example.banktransactionmanager.cache.BulkCache;
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
 import com.example.banktransactionmanager.exception.BusinessException;
 import com.example.banktransactionmanager.exception.ResourceNotFoundException;
+import com.example.banktransactionmanager.model.Money;
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent.ChangeType;
 import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
 import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.dto.TransactionLookupRequest;
+import com.example.banktransactionmanager.model.dto.TransactionLookupResponse;
+import com.example.banktransactionmanager.model.dto.TransactionSlice;
 import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.SampleCount;
+import com.example.banktransactionmanager.model.projection.TransactionField;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.outbox.TransactionOutbox;
+import com.example.banktransactionmanager.profiling.TransactionCreateEvent;
 import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.risk.VelocityRuleEngine;
+import com.example.banktransactionmanager.risk.VelocityVerdict;
 import com.example.banktransactionmanager.service.TransactionService;
+import com.example.banktransactionmanager.stats.TransactionCounters;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import com.example.banktransactionmanager.tracing.Span;
+import com.example.banktransactionmanager.tracing.Tracer;
+import com.example.banktransactionmanager.util.BizNoEncoder;
 import com.example.banktransactionmanager.util.SnowflakeIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final String DEFAULT_CURRENCY = "CNY";
+    private static final String DEFAULT_OPERATOR = "SYSTEM";
+
+    // 幂等键的渠道前缀（"APP:"等），按枚举序号预先生成，避免每次请求拼接
+    private static final String[] IDEMPOTENCY_KEY_PREFIXES = Arrays.stream(Transaction.Channel.values())
+            .map(channel -> channel.name() + ":")
+            .toArray(String[]::new);
+    private static final String UNKNOWN_IDEMPOTENCY_KEY_PREFIX = "UNKNOWN:";
+
     private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache transactionCache;
+    private final Cache idempotencyCache;
+    private final TransactionCacheInvalidator cacheInvalidator;
+    private final TransactionOutbox outbox;
+    private final VelocityRuleEngine velocityRuleEngine;
+    private final TransactionCounters transactionCounters;
+    private final TransactionStatsRecorder statsRecorder;
     private final Random random = new Random();
     private final SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(1, 1);
 
+    @Value("${transaction.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    @Value("${transaction.counters.sample-size:2000}")
+    private int sampleSize = 2000;
+
     @Autowired
-    public TransactionServiceImpl(TransactionRepository transactionRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  CacheManager cacheManager,
+                                  TransactionCacheInvalidator cacheInvalidator,
+                                  TransactionOutbox outbox,
+                                  VelocityRuleEngine velocityRuleEngine,
+                                  TransactionCounters transactionCounters,
+                                  TransactionStatsRecorder statsRecorder) {
         this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionCache = cacheManager.getCache("transactions");
+        this.idempotencyCache = cacheManager.getCache("idempotencyKeys");
+        this.cacheInvalidator = cacheInvalidator;
+        this.outbox = outbox;
+        this.velocityRuleEngine = velocityRuleEngine;
+        this.transactionCounters = transactionCounters;
+        this.statsRecorder = statsRecorder;
     }
 
     @Override
-    @Transactional
-    public boolean createTransaction(TransactionCreateRequest request) {
-        // 最多重试3次来处理并发情况下可能的ID冲突
-        for (int i = 0; i < 3; i++) {
-            try {
-                // 生成唯一的交易业务编号
-                String transactionBizNo = generateTransactionBizNo(request.getChannel());
-                
-                // 检查是否已存在相同的交易业务编号
-                if (transactionRepository.existsByTransactionBizNo(transactionBizNo)) {
-                    // 如果已存在，则继续下一次循环重试
-                    continue;
-                }
-                
-                // 构建Transaction对象
-                Transaction transaction = new Transaction();
-                transaction.setTransactionBizNo(transactionBizNo);
-                transaction.setAccountNumber(request.getAccountNumber());
-                transaction.setAmount(request.getAmount());
-                transaction.setTransactionType(request.getTransactionType());
-                transaction.setTransactionTime(request.getTransactionTime());
-                transaction.setStatus(Transaction.Status.PENDING);
-                transaction.setDescription(request.getDescription());
-                transaction.setChannel(request.getChannel());
-                
-                // 保存到数据库
-                transactionRepository.save(transaction);
-                return true; // 成功保存后直接返回
-            } catch (Exception e) {
-                // 如果是最后一次尝试，抛出业务异常
-                if (i == 2) {
-                    throw new BusinessException("Failed to create transaction after 3 attempts due to ID conflicts", e);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionCreateResponse createTransaction(TransactionCreateRequest request) {
+        return createTransaction(request, null);
+    }
+
+    /**
+     * 幂等创建：先查内存幂等索引，再查数据库；都未命中才进入写路径。
+     * 写路径先按内存中的频率/限额规则评估（重放不评估），触发规则的交易以 HELD/FAILED 状态入库；
+     * 评估时已计入窗口，最终没有入库（写入失败或并发重放）时撤销。
+     * 写入在独立事务中执行，唯一约束冲突（并发重放）时事务已回滚，可以安全地回查首次结果。
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionCreateResponse createTransaction(TransactionCreateRequest request, String idempotencyKey) {
+        String key = resolveIdempotencyKey(request, idempotencyKey);
+        if (key != null) {
+            TransactionCreateResponse replay = findCreatedTransaction(key);
+            if (replay != null) {
+                return replay;
+            }
+        }
+
+        long amount = request.getAmount() != null ? request.getAmount() : 0L;
+        VelocityVerdict verdict;
+        try (Span ignored = Tracer.startSpan("velocity.evaluate")) {
+            verdict = velocityRuleEngine.evaluate(request.getAccountNumber(), request.getChannel(),
+                    request.getTransactionType(), amount);
+        }
+        Transaction.Status initialStatus = verdict.isAllowed() ? Transaction.Status.PENDING : verdict.action().status();
+
+        boolean inserted = false;
+        TransactionCreateEvent event = new TransactionCreateEvent();
+        event.begin();
+        try {
+            // 最多重试3次来处理并发情况下可能的ID冲突
+            for (int i = 0; i < 3; i++) {
+                event.attempts = i + 1;
+                try {
+                    // 生成唯一的交易业务编号
+                    String transactionBizNo;
+                    try (Span ignored = Tracer.startSpan("bizNo.generate")) {
+                        transactionBizNo = generateTransactionBizNo(request.getChannel());
+                    }
+
+                    // 不再预先查询编号是否存在：雪花ID本身唯一，极少数冲突由唯一索引兜底并进入下一次重试，
+                    // 省去每次创建一次查询往返及其分配
+
+                    // 构建Transaction对象
+                    Transaction transaction = buildTransaction(request, transactionBizNo, key, initialStatus);
+
+                    // 保存到数据库
+                    Transaction saved = transactionTemplate.execute(status -> {
+                        Transaction created = transactionRepository.save(transaction);
+                        outbox.record(ChangeType.CREATED, created, null);
+                        return created;
+                    });
+                    inserted = true;
+                    Transaction created = saved != null ? saved : transaction;
+                    cacheInvalidator.markChanged(created.getAccountNumber(), created.getTransactionType(), created.getStatus());
+                    statsRecorder.record(TransactionRef.of(created), 1);
+                    TransactionCreateResponse response = toCreateResponse(created);
+                    if (key != null) {
+                        idempotencyCache.put(key, response);
+                    }
+                    event.transactionBizNo = transactionBizNo;
+                    event.success = true;
+                    return response; // 成功保存后直接返回
+                } catch (Exception e) {
+                    // 幂等键唯一约束冲突：并发的重复请求已先一步写入，返回其结果
+                    if (key != null && e instanceof DataIntegrityViolationException) {
+                        TransactionCreateResponse replay = findCreatedTransaction(key);
+                        if (replay != null) {
+                            return replay;
+                        }
+                    }
+                    // 如果是最后一次尝试，抛出业务异常
+                    if (i == 2) {
+                        throw new BusinessException("Failed to create transaction after 3 attempts due to ID conflicts", e);
+                    }
+                    // 其他情况继续下一次循环重试
                 }
-                // 其他情况继续下一次循环重试
+            }
+
+            // 如果3次尝试后仍未成功，抛出业务异常
+            throw new BusinessException("Failed to create transaction after 3 attempts due to ID conflicts");
+        } finally {
+            if (!inserted) {
+                velocityRuleEngine.release(request.getAccountNumber(), request.getChannel(),
+                        request.getTransactionType(), amount, verdict);
+            }
+            if (event.shouldCommit()) {
+                event.channel = request.getChannel() != null ? request.getChannel().name() : null;
+                event.commit();
             }
         }
-        
-        // 如果3次尝试后仍未成功，抛出业务异常
-        throw new BusinessException("Failed to create transaction after 3 attempts due to ID conflicts");
     }
 
     @Override
-    @Cacheable(value = "transactions", key = "#id")
+    @Cacheable(value = "transactions", key = "#id", sync = true)
     public Optional<TransactionDTO> getTransactionById(Long id) {
         return transactionRepository.findById(id)
                 .filter(t -> !t.getIsDeleted())
                 .map(this::convertToDTO);
     }
 
+    /**
+     * 提交后按ID、业务编号、参考号精确失效单条缓存并清空分页列表缓存，集群模式下同时广播失效
+     */
     @Override
-    @CacheEvict(value = {"transactions", "transactionList", "accountBalance"}, key = "#id")
     public void updateTransaction(Long id, TransactionUpdateRequest request) {
         // 查找现有的交易记录
         Transaction existingTransaction = transactionRepository.findById(id)
                 .filter(t -> !t.getIsDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
 
+        Transaction.Status previousStatus = existingTransaction.getStatus();
+        TransactionRef previous = TransactionRef.of(existingTransaction);
+
         // 更新交易记录的属性
         existingTransaction.setTransactionType(request.getTransactionType());
         existingTransaction.setStatus(request.getStatus());
@@ -109,38 +245,160 @@ public class TransactionServiceImpl implements TransactionService {
         existingTransaction.setFee(request.getFee());
         existingTransaction.setRemarks(request.getRemarks());
         existingTransaction.setUpdateTime(LocalDateTime.now());
-        existingTransaction.setUpdater(request.getUpdater() != null ? request.getUpdater() : "SYSTEM");
+        existingTransaction.setUpdater(request.getUpdater() != null ? request.getUpdater() : DEFAULT_OPERATOR);
 
         // 保存更新后的交易记录
-        transactionRepository.save(existingTransaction);
+        Transaction saved = transactionRepository.save(existingTransaction);
+        outbox.record(ChangeType.UPDATED, saved != null ? saved : existingTransaction,
+                previousStatus != request.getStatus() ? previousStatus : null);
+        TransactionRef current = TransactionRef.of(existingTransaction);
+        cacheInvalidator.evict(List.of(previous, current));
+        statsRecorder.record(previous, -1);
+        statsRecorder.record(current, 1);
     }
 
     @Override
-    @CacheEvict(value = {"transactions", "transactionList", "accountBalance"}, allEntries = true)
     public void softDeleteTransaction(Long id) {
         Transaction transaction = transactionRepository.findById(id)
                 .filter(t -> !t.getIsDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
         
         transactionRepository.softDeleteById(id);
+        outbox.record(ChangeType.DELETED, transaction, null);
+        TransactionRef deleted = TransactionRef.of(transaction);
+        cacheInvalidator.evict(List.of(deleted));
+        statsRecorder.record(deleted, -1);
+    }
+
+    /**
+     * 每块在独立事务中先取缓存键再执行一条集合式UPDATE，提交后精确失效对应的缓存条目
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int softDeleteTransactions(List<Long> ids, String updater) {
+        String operator = updater != null ? updater : DEFAULT_OPERATOR;
+        int affected = 0;
+        for (List<Long> chunk : chunk(ids)) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<TransactionRef> refs = transactionRepository.findRefsByIdIn(chunk);
+                return softDeleteChunk(refs, operator);
+            });
+            affected += updated != null ? updated : 0;
+        }
+        return affected;
     }
 
     @Override
-    @Cacheable(value = "transactionList", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int softDeleteTransactions(String accountNumber, LocalDateTime fromTime, LocalDateTime toTime, String updater) {
+        if (accountNumber == null && fromTime == null && toTime == null) {
+            throw new BusinessException("At least one filter is required for bulk delete");
+        }
+        String operator = updater != null ? updater : DEFAULT_OPERATOR;
+        PageRequest chunkRequest = PageRequest.of(0, bulkChunkSize);
+        int affected = 0;
+        long afterId = 0L;
+        while (true) {
+            long cursor = afterId;
+            int[] updated = new int[1];
+            List<TransactionRef> refs = transactionTemplate.execute(status -> {
+                List<TransactionRef> chunk = transactionRepository.findRefsByFilter(accountNumber, fromTime, toTime, cursor, chunkRequest);
+                updated[0] = softDeleteChunk(chunk, operator);
+                return chunk;
+            });
+            affected += updated[0];
+            if (refs == null || refs.size() < bulkChunkSize) {
+                return affected;
+            }
+            afterId = refs.get(refs.size() - 1).getId();
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int updateTransactionStatus(List<Long> ids, Transaction.Status fromStatus, Transaction.Status toStatus, String updater) {
+        if (fromStatus == toStatus) {
+            throw new BusinessException("From status and to status must differ");
+        }
+        String operator = updater != null ? updater : DEFAULT_OPERATOR;
+        int affected = 0;
+        for (List<Long> chunk : chunk(ids)) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<TransactionRef> refs = transactionRepository.findRefsByIdIn(chunk).stream()
+                        .filter(ref -> ref.getStatus() == fromStatus)
+                        .toList();
+                if (refs.isEmpty()) {
+                    return 0;
+                }
+                List<Long> refIds = refs.stream().map(TransactionRef::getId).toList();
+                int count = transactionRepository.updateStatusByIdIn(refIds, fromStatus, toStatus, operator, LocalDateTime.now());
+                // 并发修改导致部分行未命中条件时，回查实际完成流转的行，避免写入不存在的变更事件
+                List<? extends TransactionRef> changed = count == refs.size() ? refs
+                        : transactionRepository.findRefsByIdIn(refIds).stream()
+                                .filter(ref -> ref.getStatus() == toStatus)
+                                .toList();
+                outbox.recordStatusChanges(changed, fromStatus, toStatus);
+                cacheInvalidator.evict(refs);
+                statsRecorder.recordAll(changed, fromStatus, -1);
+                statsRecorder.recordAll(changed, toStatus, 1);
+                return count;
+            });
+            affected += updated != null ? updated : 0;
+        }
+        return affected;
+    }
+
+    @Override
+    @Cacheable(value = "transactionList", key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort", sync = true)
     public Page<TransactionDTO> getAllTransactions(Pageable pageable) {
         Page<Transaction> transactions = transactionRepository.findByIsDeletedFalseAndFilters(pageable, null, null, null);
         return transactions.map(this::convertToDTO);
     }
 
+    // 缓存键带上筛选组合的高水位标记：范围内的交易变化后旧页不再命中，与列表接口签发的ETag保持一致
     @Override
-    @Cacheable(value = "transactionList", key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #accountNumber + '-' + #transactionType + '-' + #status")
+    @Cacheable(value = "transactionList", key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + #accountNumber + '-' + #transactionType + '-' + #status"
+            + " + '@' + @transactionWatermarks.current(#accountNumber, #transactionType, #status)", sync = true)
     public Page<TransactionDTO> getAllTransactions(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status) {
         Page<Transaction> transactions = transactionRepository.findByIsDeletedFalseAndFilters(pageable, accountNumber, transactionType, status);
         return transactions.map(this::convertToDTO);
     }
 
     @Override
-    @Cacheable(value = "transactions", key = "#transactionBizNo")
+    @Transactional(readOnly = true)
+    public List<TransactionDTO> getTransactionsAfter(long afterId, int limit, String accountNumber,
+                                                     Transaction.TransactionType transactionType, Transaction.Status status) {
+        return transactionRepository.findByIsDeletedFalseAndFiltersAfterId(afterId, accountNumber, transactionType, status,
+                        PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
+                .toList();
+    }
+
+    // 不同字段集各自缓存；调用方传入EnumSet，toString按声明顺序输出，相同集合得到相同的键
+    @Override
+    @Cacheable(value = "transactionList", key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + #accountNumber + '-' + #transactionType + '-' + #status"
+            + " + '-' + #fields + '@' + @transactionWatermarks.current(#accountNumber, #transactionType, #status)", sync = true)
+    @Transactional(readOnly = true)
+    public Page<TransactionDTO> getAllTransactions(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType,
+                                                   Transaction.Status status, Set<TransactionField> fields) {
+        return transactionRepository.findFieldsByIsDeletedFalseAndFilters(EnumSet.copyOf(fields), pageable,
+                accountNumber, transactionType, status);
+    }
+
+    @Override
+    @Cacheable(value = "transactionList", key = "'slice-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + #accountNumber + '-' + #transactionType + '-' + #status"
+            + " + '-' + #fields + '-' + #estimateTotal + '@' + @transactionWatermarks.current(#accountNumber, #transactionType, #status)", sync = true)
+    @Transactional(readOnly = true)
+    public TransactionSlice getTransactionSlice(Pageable pageable, String accountNumber, Transaction.TransactionType transactionType,
+                                                Transaction.Status status, Set<TransactionField> fields, boolean estimateTotal) {
+        Slice<TransactionDTO> slice = transactionRepository.findFieldsSliceByIsDeletedFalseAndFilters(
+                EnumSet.copyOf(fields), pageable, accountNumber, transactionType, status);
+        return toSlice(slice, estimateTotal ? transactionCounters.estimate(accountNumber, transactionType, status) : null,
+                estimateTotal);
+    }
+
+    @Override
+    @Cacheable(value = "transactions", key = "#transactionBizNo", sync = true)
     public Optional<TransactionDTO> getTransactionByTransactionBizNo(String transactionBizNo) {
         return transactionRepository.findByTransactionBizNo(transactionBizNo)
                 .filter(t -> !t.getIsDeleted())
@@ -148,25 +406,237 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
-    @Cacheable(value = "transactionList", key = "#minAmount + '-' + #maxAmount + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "transactionList", key = "#minAmount + '-' + #maxAmount + '-' + #pageable.pageNumber + '-' + #pageable.pageSize", sync = true)
     public Page<TransactionDTO> getTransactionsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
-        Page<Transaction> transactions = transactionRepository.findByAmountBetweenAndIsDeletedFalse(minAmount, maxAmount, pageable);
+        Page<Transaction> transactions = transactionRepository.findByAmountBetweenAndIsDeletedFalse(
+                Money.toMinorUnits(minAmount), Money.toMinorUnits(maxAmount), pageable);
         return transactions.map(this::convertToDTO);
     }
 
     @Override
-    @Cacheable(value = "transactionList", key = "#keyword + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "transactionList", key = "'slice-' + #minAmount + '-' + #maxAmount + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + #estimateTotal", sync = true)
+    @Transactional(readOnly = true)
+    public TransactionSlice getTransactionSliceByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable,
+                                                             boolean estimateTotal) {
+        long min = Money.toMinorUnits(minAmount);
+        long max = Money.toMinorUnits(maxAmount);
+        Slice<TransactionDTO> slice = transactionRepository.findSliceByAmountBetweenAndIsDeletedFalse(min, max, pageable)
+                .map(this::convertToDTO);
+        Long estimate = estimateTotal && slice.hasNext()
+                ? sampledEstimate("amount:" + min + "-" + max,
+                        (fromId, toId) -> transactionRepository.sampleAmountBetween(min, max, fromId, toId))
+                : null;
+        return toSlice(slice, estimate, estimateTotal);
+    }
+
+    @Override
+    @Cacheable(value = "transactionList", key = "#keyword + '-' + #pageable.pageNumber + '-' + #pageable.pageSize", sync = true)
     public Page<TransactionDTO> searchTransactionsByKeyword(String keyword, Pageable pageable) {
         Page<Transaction> transactions = transactionRepository.findByDescriptionContainingIgnoreCaseAndIsDeletedFalse(keyword, pageable);
         return transactions.map(this::convertToDTO);
     }
 
+    @Override
+    @Cacheable(value = "transactionList", key = "'slice-' + #keyword + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + #estimateTotal", sync = true)
+    @Transactional(readOnly = true)
+    public TransactionSlice searchTransactionSliceByKeyword(String keyword, Pageable pageable, boolean estimateTotal) {
+        Slice<TransactionDTO> slice = transactionRepository
+                .findSliceByDescriptionContainingIgnoreCaseAndIsDeletedFalse(keyword, pageable)
+                .map(this::convertToDTO);
+        Long estimate = estimateTotal && slice.hasNext()
+                ? sampledEstimate("keyword:" + keyword,
+                        (fromId, toId) -> transactionRepository.sampleDescriptionContaining(keyword, fromId, toId))
+                : null;
+        return toSlice(slice, estimate, estimateTotal);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionLookupResponse lookupTransactions(TransactionLookupRequest request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            return lookup(request.getIds(), transactionRepository::findByIdInAndIsDeletedFalse, Transaction::getId);
+        }
+        if (request.getTransactionBizNos() != null && !request.getTransactionBizNos().isEmpty()) {
+            return lookup(request.getTransactionBizNos(), transactionRepository::findByTransactionBizNoInAndIsDeletedFalse,
+                    Transaction::getTransactionBizNo);
+        }
+        if (request.getReferenceNumbers() != null && !request.getReferenceNumbers().isEmpty()) {
+            return lookup(request.getReferenceNumbers(), transactionRepository::findByReferenceNumberInAndIsDeletedFalse,
+                    Transaction::getReferenceNumber);
+        }
+        throw new BusinessException("Exactly one of ids, transactionBizNos or referenceNumbers is required");
+    }
+
+    // 辅助方法：批量查询，缓存键与对应单条查询的 @Cacheable 一致，两者共享缓存条目（包括"不存在"的空结果）
+    private <K> TransactionLookupResponse lookup(List<K> keys, Function<List<K>, List<Transaction>> loader,
+                                                 Function<Transaction, K> keyOf) {
+        List<List<K>> chunks = chunk(keys);
+        Map<Object, Object> values = new HashMap<>();
+        for (List<K> chunk : chunks) {
+            Map<Object, Cache.ValueWrapper> cached = BulkCache.getAll(transactionCache, chunk);
+            cached.forEach((key, value) -> values.put(key, value.get()));
+            List<K> misses = chunk.stream().filter(key -> !cached.containsKey(key)).toList();
+            if (misses.isEmpty()) {
+                continue;
+            }
+            Map<Object, Object> loaded = new HashMap<>(misses.size() * 2);
+            misses.forEach(key -> loaded.put(key, null));
+            for (Transaction transaction : loader.apply(misses)) {
+                loaded.put(keyOf.apply(transaction), convertToDTO(transaction));
+            }
+            BulkCache.putAll(transactionCache, loaded);
+            values.putAll(loaded);
+        }
+
+        List<TransactionDTO> transactions = new ArrayList<>(values.size());
+        List<Object> notFound = new ArrayList<>();
+        for (List<K> chunk : chunks) {
+            for (K key : chunk) {
+                if (values.get(key) instanceof TransactionDTO dto) {
+                    transactions.add(dto);
+                } else {
+                    notFound.add(key);
+                }
+            }
+        }
+        return new TransactionLookupResponse(transactions, notFound);
+    }
+
+    // 辅助方法：转换为不带精确总数的分页结果
+    // 没有下一页时总数可以直接算出；估计值不小于已经确定存在的行数
+    private static TransactionSlice toSlice(Slice<TransactionDTO> slice, Long estimate, boolean estimateTotal) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+        Long approximateTotal = null;
+        if (estimateTotal) {
+            approximateTotal = !slice.hasNext() ? Long.valueOf(seen)
+                    : estimate != null ? Long.valueOf(Math.max(estimate, seen + 1)) : null;
+        }
+        return new TransactionSlice(new ArrayList<>(slice.getContent()), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), approximateTotal);
+    }
+
+    // 辅助方法：抽样估计满足条件的交易数
+    // 在ID连续的窗口内统计命中比例，再乘以未删除交易总数的估计值；窗口起点由查询本身决定，同一查询翻页时估计值不变
+    private Long sampledEstimate(String query, BiFunction<Long, Long, SampleCount> sampler) {
+        Long total = transactionCounters.total();
+        Long minId = transactionRepository.findMinId();
+        Long maxId = transactionRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0L;
+        }
+        long span = maxId - minId + 1;
+        long fromId = span > sampleSize ? minId + Math.floorMod(query.hashCode(), span - sampleSize + 1) : minId;
+        SampleCount sample = sampler.apply(fromId, Math.min(fromId + sampleSize, maxId + 1));
+        long sampled = sample.getSampled() != null ? sample.getSampled() : 0;
+        long matched = sample.getMatched() != null ? sample.getMatched() : 0;
+        if (span <= sampleSize) {
+            // 窗口覆盖了全表，结果是精确的
+            return matched;
+        }
+        if (total == null || sampled == 0) {
+            return null;
+        }
+        return Math.round((double) total * matched / sampled);
+    }
+
+    // 辅助方法：软删除一块交易并失效其缓存
+    private int softDeleteChunk(List<TransactionRef> refs, String operator) {
+        if (refs.isEmpty()) {
+            return 0;
+        }
+        int count = transactionRepository.softDeleteByIdIn(
+                refs.stream().map(TransactionRef::getId).toList(), operator, LocalDateTime.now());
+        outbox.recordDeletes(refs);
+        cacheInvalidator.evict(refs);
+        statsRecorder.recordAll(refs, null, -1);
+        return count;
+    }
+
+    // 辅助方法：去重后按批量块大小切分键列表，保持原有顺序
+    private <K> List<List<K>> chunk(List<K> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        List<List<K>> chunks = new ArrayList<>((distinct.size() + bulkChunkSize - 1) / bulkChunkSize);
+        for (int from = 0; from < distinct.size(); from += bulkChunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + bulkChunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    // 辅助方法：确定幂等键，优先使用请求头，其次使用外部参考号，按渠道隔离
+    private String resolveIdempotencyKey(TransactionCreateRequest request, String idempotencyKey) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey.trim()
+                : request.getExternalReferenceNo();
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.length() > 64) {
+            throw new BusinessException("Idempotency key must not exceed 64 characters");
+        }
+        Transaction.Channel channel = request.getChannel();
+        return (channel != null ? IDEMPOTENCY_KEY_PREFIXES[channel.ordinal()] : UNKNOWN_IDEMPOTENCY_KEY_PREFIX) + key;
+    }
+
+    // 辅助方法：按幂等键查找已创建的交易（内存索引优先，未命中再查库并回填索引）
+    private TransactionCreateResponse findCreatedTransaction(String key) {
+        TransactionCreateResponse cached = idempotencyCache.get(key, TransactionCreateResponse.class);
+        if (cached == null) {
+            cached = transactionRepository.findByIdempotencyKey(key)
+                    .map(this::toCreateResponse)
+                    .orElse(null);
+            if (cached == null) {
+                return null;
+            }
+            idempotencyCache.put(key, cached);
+        }
+        return cached.toBuilder().replayed(true).build();
+    }
+
+    // 辅助方法：根据创建请求构建实体
+    private Transaction buildTransaction(TransactionCreateRequest request, String transactionBizNo, String idempotencyKey,
+                                         Transaction.Status status) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionBizNo(transactionBizNo);
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setAccountNumber(request.getAccountNumber());
+        transaction.setAccountType(request.getAccountType());
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(request.getCurrency() != null ? request.getCurrency() : DEFAULT_CURRENCY);
+        transaction.setTransactionType(request.getTransactionType());
+        transaction.setTransactionTime(request.getTransactionTime() != null ? request.getTransactionTime() : LocalDateTime.now());
+        transaction.setStatus(status);
+        transaction.setDescription(request.getDescription());
+        transaction.setChannel(request.getChannel());
+        transaction.setCounterpartyAccountNumber(request.getCounterpartyAccountNumber());
+        transaction.setCounterpartyName(request.getCounterpartyName());
+        transaction.setExternalReferenceNo(request.getExternalReferenceNo());
+        transaction.setFee(request.getFee());
+        transaction.setRemarks(request.getRemarks());
+        transaction.setIsDeleted(false);
+        transaction.setCreator(request.getCreator() != null ? request.getCreator() : DEFAULT_OPERATOR);
+        return transaction;
+    }
+
+    // 辅助方法：将实体转换为创建结果
+    private TransactionCreateResponse toCreateResponse(Transaction transaction) {
+        return TransactionCreateResponse.builder()
+                .id(transaction.getId())
+                .transactionBizNo(transaction.getTransactionBizNo())
+                .status(transaction.getStatus())
+                .createTime(transaction.getCreateTime())
+                .build();
+    }
+
     // 辅助方法：生成交易业务编号
     private String generateTransactionBizNo(Transaction.Channel channel) {
-        // 使用雪花算法生成唯一ID
-        long uniqueId = snowflakeIdGenerator.nextId();
-        String channelCode = channel != null ? channel.name() : "UNKNOWN"; // 使用枚举名称作为渠道编码
-        return channelCode + uniqueId;
+        // 使用雪花算法生成唯一ID，渠道编码为枚举名称
+        return BizNoEncoder.encode(channel, snowflakeIdGenerator.nextId());
     }
 
     // 辅助方法：将实体对象转换为DTO
@@ -198,7 +668,7 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
-    @Cacheable(value = "transactions", key = "#referenceNumber")
+    @Cacheable(value = "transactions", key = "#referenceNumber", sync = true)
     public Optional<TransactionDTO> getTransactionByReferenceNumber(String referenceNumber) {
         return transactionRepository.findByReferenceNumberAndIsDeletedFalse(referenceNumber)
                 .map(this::convertToDTO);
@@ -0,0 +1,26 @@
+package com.example.banktransactionmanager.settlement;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 默认结算逻辑：校验金额、手续费和转账对手方，不满足则结算失败
+ */
+public class DefaultSettlementProcessor implements SettlementProcessor {
+
+    @Override
+    public Transaction.Status settle(Transaction transaction) {
+        long amount = transaction.getAmount();
+        if (amount <= 0) {
+            return Transaction.Status.FAILED;
+        }
+        long fee = transaction.getFee();
+        if (fee < 0 || fee > amount) {
+            return Transaction.Status.FAILED;
+        }
+        if (transaction.getTransactionType() == Transaction.TransactionType.TRANSFER
+                && (transaction.getCounterpartyAccountNumber() == null || transaction.getCounterpartyAccountNumber().isBlank())) {
+            return Transaction.Status.FAILED;
+        }
+        return Transaction.Status.SUCCESS;
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.banktransactionmanager.settlement;
+
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.outbox.TransactionOutbox;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 结算引擎：批量领取待结算交易，按账户分区并行处理，再以批量UPDATE流转为 SUCCESS/FAILED
+ * <p>
+ * 多副本安全依赖租约列：领取是带条件的UPDATE（只有租约为空或已过期的行会被更新），
+ * 完成时也只更新仍由本批次令牌持有的行，因此租约过期后被其他节点重新领取的交易不会被重复结算。
+ * 同一账户的交易总是落在同一个工作线程上按ID顺序处理；领取候选和领取UPDATE都排除仍有其他有效租约的账户，
+ * 领取提交后再检查一次账户是否被其他节点同时领取，有冲突的账户让出，使同一账户同一时间只在一个节点上结算。
+ * <p>
+ * 处理出错的交易按指数退避延后重试（退避期间租约有效，同一账户的后续交易也等待），
+ * 达到最大尝试次数后转为 HELD 等待人工处理，不会无限循环。
+ */
+public class SettlementEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementEngine.class);
+
+    static final String UPDATER = "SETTLEMENT";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionCacheInvalidator cacheInvalidator;
+    private final TransactionStatsRecorder statsRecorder;
+    private final TransactionOutbox outbox;
+    private final SettlementProcessor processor;
+    private final String nodeId;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration leaseDuration;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final ExecutorService workers;
+    private final AtomicLong batchSequence = new AtomicLong();
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter deferred;
+    private final Counter held;
+    private final Counter claimsLost;
+    private final Counter leasesExpired;
+    private final Timer batchTimer;
+
+    public SettlementEngine(TransactionRepository transactionRepository,
+                            TransactionTemplate transactionTemplate,
+                            TransactionCacheInvalidator cacheInvalidator,
+                            TransactionStatsRecorder statsRecorder,
+                            TransactionOutbox outbox,
+                            SettlementProcessor processor,
+                            MeterRegistry meterRegistry,
+                            String nodeId,
+                            int workerCount,
+                            int batchSize,
+                            int maxBatchesPerPoll,
+                            Duration leaseDuration,
+                            Duration retryBackoff,
+                            int maxAttempts) {
+        if (workerCount < 1 || batchSize < 1 || maxBatchesPerPoll < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("结算工作线程数、批大小、每轮批次数和最大尝试次数必须大于0");
+        }
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheInvalidator = cacheInvalidator;
+        this.statsRecorder = statsRecorder;
+        this.outbox = outbox;
+        this.processor = processor;
+        this.nodeId = nodeId;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.leaseDuration = leaseDuration;
+        this.retryBackoff = retryBackoff;
+        this.maxAttempts = maxAttempts;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "settlement-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.succeeded = outcomeCounter(meterRegistry, "success");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.deferred = outcomeCounter(meterRegistry, "deferred");
+        this.held = outcomeCounter(meterRegistry, "held");
+        this.claimsLost = Counter.builder("settlement.claims.lost")
+                .description("领取时被其他节点抢先的交易数")
+                .register(meterRegistry);
+        this.leasesExpired = Counter.builder("settlement.leases.expired")
+                .description("完成时租约已被其他节点接管的交易数")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("settlement.batch")
+                .description("单个结算批次的耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 定时轮询：连续处理满批次，直到没有更多待结算交易或达到每轮批次上限
+     */
+    @Scheduled(fixedDelayString = "${settlement.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (settleBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Settlement poll failed", e);
+        }
+    }
+
+    /**
+     * 领取并结算一个批次
+     * @return 本批次领取到的交易数
+     */
+    public int settleBatch() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = transactionRepository.findSettlementCandidates(now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        String owner = nodeId + "-" + batchSequence.incrementAndGet();
+        int claimed = transactionRepository.claimForSettlement(candidates, owner, now.plus(leaseDuration), now);
+        claimsLost.increment(candidates.size() - claimed);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<Transaction> batch = yieldContestedAccounts(owner, now,
+                transactionRepository.findClaimedForSettlement(owner));
+        BatchResult result = process(batch);
+        complete(owner, result);
+        batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return claimed;
+    }
+
+    /**
+     * 停止工作线程池，等待进行中的批次最多一个租约时长
+     */
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(leaseDuration.toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 领取已提交，此时其他节点对同一账户的并发领取必定可见；有冲突的账户释放本批次的领取，留待下一轮
+    private List<Transaction> yieldContestedAccounts(String owner, LocalDateTime now, List<Transaction> batch) {
+        Set<String> contested = new HashSet<>(transactionRepository.findContestedSettlementAccounts(owner, now));
+        if (contested.isEmpty()) {
+            return batch;
+        }
+        List<Transaction> kept = new ArrayList<>(batch.size());
+        List<Transaction> yielded = new ArrayList<>();
+        for (Transaction transaction : batch) {
+            (contested.contains(transaction.getAccountNumber()) ? yielded : kept).add(transaction);
+        }
+        transactionRepository.releaseSettlementClaim(ids(yielded), owner);
+        claimsLost.increment(yielded.size());
+        return kept;
+    }
+
+    // 按账户分区到各工作线程，同一账户的交易在同一分区内保持ID顺序
+    private BatchResult process(List<Transaction> batch) {
+        Map<Integer, List<Transaction>> lanes = new HashMap<>();
+        for (Transaction transaction : batch) {
+            int lane = Math.floorMod(transaction.getAccountNumber().hashCode(), workerCount);
+            lanes.computeIfAbsent(lane, k -> new ArrayList<>()).add(transaction);
+        }
+
+        List<Future<BatchResult>> futures = new ArrayList<>(lanes.size());
+        for (List<Transaction> lane : lanes.values()) {
+            futures.add(workers.submit(() -> processLane(lane)));
+        }
+
+        BatchResult result = new BatchResult();
+        long deadline = System.nanoTime() + leaseDuration.toNanos();
+        int index = 0;
+        for (List<Transaction> lane : lanes.values()) {
+            Future<BatchResult> future = futures.get(index++);
+            try {
+                result.merge(future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | ExecutionException e) {
+                future.cancel(true);
+                log.warn("Settlement lane of {} transactions did not complete, retrying later", lane.size(), e);
+                result.retried.addAll(lane);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                result.deferred.addAll(lane);
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    private BatchResult processLane(List<Transaction> lane) {
+        BatchResult result = new BatchResult();
+        // 某笔交易处理出错后，同一账户后续的交易也推迟，避免打乱账户内的顺序
+        Set<String> blockedAccounts = new HashSet<>();
+        for (Transaction transaction : lane) {
+            if (blockedAccounts.contains(transaction.getAccountNumber())) {
+                result.deferred.add(transaction);
+                continue;
+            }
+            try {
+                Transaction.Status status = processor.settle(transaction);
+                if (status == Transaction.Status.SUCCESS) {
+                    result.succeeded.add(transaction);
+                } else if (status == Transaction.Status.FAILED) {
+                    result.failed.add(transaction);
+                } else {
+                    throw new IllegalStateException("Unsupported settlement status: " + status);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Settlement of transaction {} failed, retrying later", transaction.getTransactionBizNo(), e);
+                blockedAccounts.add(transaction.getAccountNumber());
+                result.retried.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    // 一个事务内批量提交结果：成功、失败、转人工各一条UPDATE，出错的按退避时间延后，其余未处理的释放租约
+    private void complete(String owner, BatchResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> exhausted = new ArrayList<>();
+        Map<LocalDateTime, List<Long>> retryAt = new HashMap<>();
+        for (Transaction transaction : result.retried) {
+            int attempts = transaction.getSettlementAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                exhausted.add(transaction);
+            } else {
+                retryAt.computeIfAbsent(now.plus(backoff(attempts)), k -> new ArrayList<>()).add(transaction.getId());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int successCount = completeAs(result.succeeded, owner, Transaction.Status.SUCCESS, now);
+            int failedCount = completeAs(result.failed, owner, Transaction.Status.FAILED, now);
+            int heldCount = completeAs(exhausted, owner, Transaction.Status.HELD, now);
+            retryAt.forEach((until, ids) -> transactionRepository.deferSettlement(ids, owner, until));
+            if (!result.deferred.isEmpty()) {
+                transactionRepository.releaseSettlementClaim(ids(result.deferred), owner);
+            }
+
+            succeeded.increment(successCount);
+            failed.increment(failedCount);
+            held.increment(heldCount);
+            deferred.increment(result.deferred.size() + result.retried.size() - exhausted.size());
+            leasesExpired.increment(result.succeeded.size() + result.failed.size() + exhausted.size()
+                    - successCount - failedCount - heldCount);
+        });
+        if (!exhausted.isEmpty()) {
+            log.warn("Settlement of {} transactions failed {} times, holding for manual review", exhausted.size(), maxAttempts);
+        }
+    }
+
+    // 第n次出错后的退避时间：retryBackoff * 2^(n-1)
+    private Duration backoff(int attempts) {
+        return retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+    }
+
+    // 批量流转并在同一事务中写入变更事件；租约被接管的行不会命中UPDATE，回查后只为实际流转的行写事件
+    private int completeAs(List<Transaction> transactions, String owner, Transaction.Status toStatus, LocalDateTime now) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = ids(transactions);
+        int count = transactionRepository.completeSettlement(ids, owner, toStatus, UPDATER, now);
+        List<TransactionRef> refs = transactionRepository.findRefsByIdIn(ids);
+        List<TransactionRef> settled = count == transactions.size() ? refs
+                : refs.stream().filter(ref -> ref.getStatus() == toStatus).toList();
+        outbox.recordStatusChanges(settled, Transaction.Status.PENDING, toStatus);
+        cacheInvalidator.evict(refs);
+        statsRecorder.recordAll(settled, Transaction.Status.PENDING, -1);
+        statsRecorder.recordAll(settled, toStatus, 1);
+        return count;
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("settlement.transactions")
+                .description("已处理的待结算交易数")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class BatchResult {
+        private final List<Transaction> succeeded = new ArrayList<>();
+        private final List<Transaction> failed = new ArrayList<>();
+        // 处理出错或超时，计入尝试次数并退避
+        private final List<Transaction> retried = new ArrayList<>();
+        // 未处理（同账户前序交易出错），立即释放
+        private final List<Transaction> deferred = new ArrayList<>();
+
+        private void merge(BatchResult other) {
+            succeeded.addAll(other.succeeded);
+            failed.addAll(other.failed);
+            retried.addAll(other.retried);
+            deferred.addAll(other.deferred);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.banktransactionmanager.settlement;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+/**
+ * 单笔交易的结算逻辑
+ * 同一账户的交易按ID顺序在同一个工作线程上依次调用，实现可以依赖这一顺序维护账户级状态。
+ */
+public interface SettlementProcessor {
+
+    /**
+     * 结算一笔待结算交易
+     * @param transaction 已领取的待结算交易
+     * @return 结算结果，只能是 {@link Transaction.Status#SUCCESS} 或 {@link Transaction.Status#FAILED}；
+     *         抛出异常时该交易保持待结算状态，稍后重试
+     */
+    Transaction.Status settle(Transaction transaction);
+}
@@ -0,0 +1,189 @@
+package com.example.banktransactionmanager.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 启动预热
+ * ApplicationRunner在就绪状态切换为ACCEPTING_TRAFFIC之前执行，因此预热期间就绪探针不会放行流量。
+ * 预热通过本机回环端口反复调用只读的热点接口（各种筛选条件的列表查询、参数校验失败的创建请求），
+ * 让懒加载的控制器/服务/JPA/Jackson组件完成初始化，并让JIT编译完热点方法，全程不写入任何数据。
+ *
+ * 同时记录两个启动指标：
+ * <ul>
+ *     <li>startup.time-to-first-request：JVM启动到第一个请求成功返回的毫秒数</li>
+ *     <li>startup.time-to-peak-throughput：JVM启动到吞吐量进入平台期的毫秒数</li>
+ * </ul>
+ * 连续 {@code plateauRounds} 轮吞吐量都没有超过历史峰值的 {@link #PLATEAU_GAIN} 倍即视为进入平台期。
+ */
+public class WarmupRunner implements ApplicationRunner, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /**
+     * 单轮吞吐量超过历史峰值的5%才算有效提升
+     */
+    static final double PLATEAU_GAIN = 1.05;
+
+    private static final String INVALID_CREATE_BODY = "{\"accountNumber\":\"\",\"amount\":\"1000.00\"}";
+
+    private final ConfigurableApplicationContext context;
+    private final MeterRegistry meterRegistry;
+    private final int requestsPerRound;
+    private final int maxRounds;
+    private final int plateauRounds;
+    private final Duration maxDuration;
+    private final boolean exitAfterWarmup;
+
+    private volatile WarmupResult result;
+
+    public WarmupRunner(ConfigurableApplicationContext context, MeterRegistry meterRegistry,
+                        int requestsPerRound, int maxRounds, int plateauRounds,
+                        Duration maxDuration, boolean exitAfterWarmup) {
+        if (requestsPerRound <= 0 || maxRounds <= 0 || plateauRounds <= 0) {
+            throw new IllegalArgumentException("预热轮数与每轮请求数必须为正数");
+        }
+        this.context = context;
+        this.meterRegistry = meterRegistry;
+        this.requestsPerRound = requestsPerRound;
+        this.maxRounds = maxRounds;
+        this.plateauRounds = plateauRounds;
+        this.maxDuration = maxDuration;
+        this.exitAfterWarmup = exitAfterWarmup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(context instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            log.info("No embedded web server, skipping warm-up");
+            return;
+        }
+        int port = webContext.getWebServer().getPort();
+        try {
+            result = warmUp(URI.create("http://localhost:" + port));
+            registerMetrics(result);
+            log.info("Warm-up finished: first request at {} ms, peak throughput {} req/s reached at {} ms after {} rounds",
+                    result.timeToFirstRequestMillis(), Math.round(result.peakThroughput()),
+                    result.timeToPeakThroughputMillis(), result.rounds());
+        } catch (IOException e) {
+            // 预热失败不影响服务可用性，只是首批请求会慢一些
+            log.warn("Warm-up aborted", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm-up interrupted");
+        }
+        if (exitAfterWarmup) {
+            // AppCDS训练运行：预热完成后正常退出，JVM在退出时写出类数据共享归档
+            log.info("Training run complete, exiting");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    WarmupResult warmUp(URI baseUri) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<HttpRequest> requests = List.of(
+                get(baseUri, "/api/transactions?page=0&size=20"),
+                get(baseUri, "/api/transactions?page=0&size=20&status=SUCCESS&transactionType=DEPOSIT"),
+                get(baseUri, "/api/transactions?page=0&size=20&accountNumber=0000000000"),
+                HttpRequest.newBuilder(baseUri.resolve("/api/transactions"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(INVALID_CREATE_BODY))
+                        .build());
+
+        send(client, requests.get(0));
+        long timeToFirstRequest = uptimeMillis();
+
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        double peakThroughput = 0.0;
+        long timeToPeak = timeToFirstRequest;
+        int roundsWithoutGain = 0;
+        int rounds = 0;
+        while (rounds < maxRounds && roundsWithoutGain < plateauRounds && System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            for (int i = 0; i < requestsPerRound; i++) {
+                send(client, requests.get(i % requests.size()));
+            }
+            double throughput = requestsPerRound * 1_000_000_000.0 / (System.nanoTime() - start);
+            rounds++;
+            if (throughput > peakThroughput * PLATEAU_GAIN) {
+                peakThroughput = throughput;
+                timeToPeak = uptimeMillis();
+                roundsWithoutGain = 0;
+            } else {
+                roundsWithoutGain++;
+            }
+        }
+        return new WarmupResult(timeToFirstRequest, timeToPeak, peakThroughput, rounds);
+    }
+
+    private static HttpRequest get(URI baseUri, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private static void send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 500) {
+            throw new IOException("Warm-up request " + request.uri() + " returned " + status);
+        }
+    }
+
+    private void registerMetrics(WarmupResult result) {
+        Gauge.builder("startup.time-to-first-request", result, WarmupResult::timeToFirstRequestMillis)
+                .description("JVM启动到第一个请求成功返回的时间")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("startup.time-to-peak-throughput", result, WarmupResult::timeToPeakThroughputMillis)
+                .description("JVM启动到预热吞吐量进入平台期的时间")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("startup.warmup.peak-throughput", result, WarmupResult::peakThroughput)
+                .description("预热阶段单线程峰值吞吐量")
+                .baseUnit("requests.per.second")
+                .register(meterRegistry);
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * 最近一次预热结果，未执行或失败时为null
+     */
+    public WarmupResult getResult() {
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        // 排在其它ApplicationRunner之后，预热覆盖的是完全初始化后的应用
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * 预热结果
+     * @param timeToFirstRequestMillis JVM启动到首个请求返回的毫秒数
+     * @param timeToPeakThroughputMillis JVM启动到吞吐量平台期的毫秒数
+     * @param peakThroughput 峰值吞吐量（请求/秒）
+     * @param rounds 实际执行的预热轮数
+     */
+    public record WarmupResult(long timeToFirstRequestMillis, long timeToPeakThroughputMillis,
+                               double peakThroughput, int rounds) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.Money;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV对账单，一张表内按 entry 列区分行类型：
+ * OPENING（期初余额）、TXN（交易流水）、FEE（按交易类型的手续费汇总）、CLOSING（入账/出账/手续费合计及期末余额）
+ * 金额输出为两位小数，出账和入账分列、均为正数；文本列以 = + - @ 开头时加单引号，避免被表格软件当作公式执行
+ */
+public class CsvStatementWriter implements StatementWriter {
+
+    static final String HEADER = "entry,time,transactionBizNo,transactionType,channel,description,counterparty,"
+            + "debit,credit,fee,balance,currency";
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Writer out;
+    private final char[] amountBuffer = new char[24];
+    private String currency = "";
+
+    public CsvStatementWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin(StatementHeader header) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        out.write("OPENING,");
+        out.write(header.from().atStartOfDay().format(TIME_FORMAT));
+        out.write(",,,,");
+        text("Account " + header.accountNumber() + " " + header.from() + " ~ " + header.to());
+        out.write(",,,,,");
+        amount(header.openingBalance());
+        out.write(",\n");
+    }
+
+    @Override
+    public void line(StatementLine line, long balance) throws IOException {
+        currency = line.currency();
+        out.write("TXN,");
+        out.write(line.transactionTime().format(TIME_FORMAT));
+        out.write(',');
+        text(line.transactionBizNo());
+        out.write(',');
+        out.write(line.transactionType().name());
+        out.write(',');
+        out.write(line.channel().name());
+        out.write(',');
+        text(line.description());
+        out.write(',');
+        text(line.counterpartyName());
+        out.write(',');
+        if (!line.transactionType().isCredit()) {
+            amount(line.amount());
+        }
+        out.write(',');
+        if (line.transactionType().isCredit()) {
+            amount(line.amount());
+        }
+        out.write(',');
+        amount(line.fee());
+        out.write(',');
+        amount(balance);
+        out.write(',');
+        text(line.currency());
+        out.write('\n');
+    }
+
+    @Override
+    public void finish(StatementSummary summary) throws IOException {
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            if (summary.getFeeCount(type) == 0) {
+                continue;
+            }
+            out.write("FEE,,,");
+            out.write(type.name());
+            out.write(",,");
+            out.write(summary.getFeeCount(type) + " charged");
+            out.write(",,,,");
+            amount(summary.getFees(type));
+            out.write(",,");
+            text(currency);
+            out.write('\n');
+        }
+        out.write("CLOSING,,,,,");
+        out.write(summary.getTransactionCount() + " transactions");
+        out.write(",,");
+        amount(summary.getTotalDebits());
+        out.write(',');
+        amount(summary.getTotalCredits());
+        out.write(',');
+        amount(summary.getTotalFees());
+        out.write(',');
+        amount(summary.getClosingBalance());
+        out.write(',');
+        text(currency);
+        out.write('\n');
+        out.flush();
+    }
+
+    private void amount(long minorUnits) throws IOException {
+        out.write(amountBuffer, 0, Money.format(minorUnits, amountBuffer));
+    }
+
+    private void text(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.Money;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PDF对账单（A4横向，等宽Courier字体逐行排版），每写满一页就把该页输出，内存中只保留当前页内容和各对象的偏移量
+ * 对象编号：1目录、2页树、3/4字体，之后每页依次为内容流和页对象；页树和交叉引用表在 finish 时最后写出
+ * 标准Type1字体只覆盖WinAnsi字符集，中文等字符输出为"?"，需要完整文本时使用CSV格式
+ */
+public class PdfStatementWriter implements StatementWriter {
+
+    private static final int PAGE_WIDTH = 842;
+    private static final int PAGE_HEIGHT = 595;
+    private static final int MARGIN = 36;
+    private static final int FONT_SIZE = 7;
+    private static final int LEADING = 10;
+    /**
+     * 每页行数，扣除页眉两行、表头下的分隔线和页脚
+     */
+    private static final int ROWS_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING - 4;
+
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_ID = 3;
+    private static final int BOLD_FONT_ID = 4;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String COLUMNS = row(new StringBuilder(), "Time", "Transaction No", "Type", "Channel",
+            "Description", "Counterparty", "Debit", "Credit", "Fee", "Balance");
+
+    private final OutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageIds = new ArrayList<>();
+    private final StringBuilder content = new StringBuilder(8192);
+    private final StringBuilder row = new StringBuilder(200);
+    private final char[] amountBuffer = new char[24];
+    private long position;
+    private int rowsOnPage = -1;
+    private String title;
+    private String currency = "";
+
+    public PdfStatementWriter(OutputStream out) {
+        this.out = new BufferedOutputStream(out, 16 * 1024);
+    }
+
+    @Override
+    public void begin(StatementHeader header) throws IOException {
+        title = "Account Statement  " + header.accountNumber() + "  " + header.from() + " ~ " + header.to();
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        object(FONT_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>");
+        object(BOLD_FONT_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier-Bold /Encoding /WinAnsiEncoding >>");
+        row.setLength(0);
+        row.append("Opening balance ").append(amount(header.openingBalance()));
+        text(row, true);
+    }
+
+    @Override
+    public void line(StatementLine line, long balance) throws IOException {
+        currency = line.currency();
+        boolean credit = line.transactionType().isCredit();
+        row(row, line.transactionTime().format(TIME_FORMAT), line.transactionBizNo(), line.transactionType().name(),
+                line.channel().name(), line.description(), line.counterpartyName(),
+                credit ? "" : amount(line.amount()), credit ? amount(line.amount()) : "",
+                line.fee() != 0 ? amount(line.fee()) : "", amount(balance));
+        text(row, false);
+    }
+
+    @Override
+    public void finish(StatementSummary summary) throws IOException {
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            if (summary.getFeeCount(type) > 0) {
+                row.setLength(0);
+                row.append("Fees ").append(type.name()).append(": ").append(summary.getFeeCount(type))
+                        .append(" charged, ").append(amount(summary.getFees(type))).append(' ').append(currency);
+                text(row, false);
+            }
+        }
+        row.setLength(0);
+        row.append(summary.getTransactionCount()).append(" transactions  Debits ").append(amount(summary.getTotalDebits()))
+                .append("  Credits ").append(amount(summary.getTotalCredits()))
+                .append("  Fees ").append(amount(summary.getTotalFees()))
+                .append("  Closing balance ").append(amount(summary.getClosingBalance())).append(' ').append(currency);
+        text(row, true);
+        flushPage();
+
+        StringBuilder kids = new StringBuilder("<< /Type /Pages /Kids [");
+        for (int pageId : pageIds) {
+            kids.append(pageId).append(" 0 R ");
+        }
+        kids.append("] /Count ").append(pageIds.size()).append(" >>");
+        object(PAGES_ID, kids);
+        object(CATALOG_ID, "<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder(20 * (offsets.size() + 1) + 64);
+        table.append("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n");
+        for (Long offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        table.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(CATALOG_ID)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table);
+        out.flush();
+    }
+
+    /**
+     * 追加一行文本，当前页写满时先输出该页
+     */
+    private void text(CharSequence text, boolean bold) throws IOException {
+        if (rowsOnPage >= ROWS_PER_PAGE) {
+            flushPage();
+        }
+        if (rowsOnPage < 0) {
+            startPage();
+        }
+        show(text, bold, MARGIN, top() - (rowsOnPage + 3) * LEADING);
+        rowsOnPage++;
+    }
+
+    private void startPage() {
+        content.setLength(0);
+        rowsOnPage = 0;
+        show(title, true, MARGIN, top());
+        show(COLUMNS, true, MARGIN, top() - LEADING);
+        int ruleY = top() - LEADING - 4;
+        content.append(MARGIN).append(' ').append(ruleY).append(" m ")
+                .append(PAGE_WIDTH - MARGIN).append(' ').append(ruleY).append(" l 0.5 w S\n");
+    }
+
+    private void flushPage() throws IOException {
+        if (rowsOnPage < 0) {
+            startPage();
+        }
+        show("Page " + (pageIds.size() + 1), false, PAGE_WIDTH - MARGIN - 40, MARGIN / 2);
+        int contentId = offsets.size() + 1;
+        byte[] bytes = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        beginObject(contentId);
+        write("<< /Length " + bytes.length + " >>\nstream\n");
+        out.write(bytes);
+        position += bytes.length;
+        write("\nendstream\nendobj\n");
+
+        int pageId = contentId + 1;
+        object(pageId, "<< /Type /Page /Parent " + PAGES_ID + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F1 " + FONT_ID + " 0 R /F2 " + BOLD_FONT_ID + " 0 R >> >>"
+                + " /Contents " + contentId + " 0 R >>");
+        pageIds.add(pageId);
+        // 把已完成的页推给客户端
+        out.flush();
+        rowsOnPage = -1;
+    }
+
+    private void show(CharSequence text, boolean bold, int x, int y) {
+        content.append("BT /").append(bold ? "F2 " : "F1 ").append(FONT_SIZE).append(" Tf ")
+                .append(x).append(' ').append(y).append(" Td (");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                content.append('\\').append(c);
+            } else if ((c >= 0x20 && c <= 0x7e) || (c >= 0xa0 && c <= 0xff)) {
+                content.append(c);
+            } else {
+                content.append('?');
+            }
+        }
+        content.append(") Tj ET\n");
+    }
+
+    private static int top() {
+        return PAGE_HEIGHT - MARGIN;
+    }
+
+    private void object(int id, CharSequence body) throws IOException {
+        beginObject(id);
+        write(body);
+        write("\nendobj\n");
+    }
+
+    private void beginObject(int id) throws IOException {
+        while (offsets.size() < id) {
+            offsets.add(0L);
+        }
+        offsets.set(id - 1, position);
+        write(id + " 0 obj\n");
+    }
+
+    private void write(CharSequence text) throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private String amount(long minorUnits) {
+        return new String(amountBuffer, 0, Money.format(minorUnits, amountBuffer));
+    }
+
+    /**
+     * 按固定列宽排成一行，超长的文本列截断
+     */
+    private static String row(StringBuilder row, String time, String bizNo, String type, String channel,
+                              String description, String counterparty, String debit, String credit,
+                              String fee, String balance) {
+        row.setLength(0);
+        column(row, time, 19, false);
+        column(row, bizNo, 26, false);
+        column(row, type, 10, false);
+        column(row, channel, 11, false);
+        column(row, description, 30, false);
+        column(row, counterparty, 20, false);
+        column(row, debit, 14, true);
+        column(row, credit, 14, true);
+        column(row, fee, 10, true);
+        column(row, balance, 16, true);
+        return row.toString();
+    }
+
+    private static void column(StringBuilder row, String value, int width, boolean alignRight) {
+        String text = value == null ? "" : value.length() > width ? value.substring(0, width - 1) + "~" : value;
+        if (alignRight) {
+            row.append(" ".repeat(width - text.length())).append(text);
+        } else {
+            row.append(text).append(" ".repeat(width - text.length()));
+        }
+        row.append(' ');
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.model.dto.StatementBatchResult;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 批量生成所有账户的对账单：按账号把账户列表对半拆分为fork-join任务，直到单个账户；
+ * 交易多的账户耗时更长，空闲工作线程会窃取其他线程尚未开始的账户，不需要预先按交易量均衡分区
+ * <p>
+ * 每个账户生成一个文件 {outputDirectory}/{from}_{to}/{账号}.{csv|pdf}，先写临时文件再改名，
+ * 下游看到的文件总是完整的；单个账户失败只记录在结果中，不影响其他账户。
+ * 工作线程在生成期间各占用一个数据库连接，并行度不应超过连接池大小；同一时间只允许一个批量任务运行。
+ */
+@Slf4j
+public class StatementBatchJob {
+
+    /**
+     * 账号会成为文件名，只接受字母、数字、下划线和连字符
+     */
+    private static final Pattern SAFE_ACCOUNT_NUMBER = Pattern.compile("[0-9A-Za-z_-]{1,64}");
+
+    private final TransactionRepository transactionRepository;
+    private final StatementGenerator generator;
+    private final Path outputDirectory;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StatementBatchJob(TransactionRepository transactionRepository,
+                             StatementGenerator generator,
+                             Path outputDirectory,
+                             int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("对账单批量生成的并行度必须大于0");
+        }
+        this.transactionRepository = transactionRepository;
+        this.generator = generator;
+        this.outputDirectory = outputDirectory;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("statement-batch-" + threadIndex.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 为账期结束前有已入账交易的所有账户生成对账单，阻塞到全部完成
+     * @param from 账期首日（含）
+     * @param to 账期末日（含）
+     * @return 生成结果
+     */
+    public StatementBatchResult run(LocalDate from, LocalDate to, StatementFormat format) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("A statement batch is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            List<String> accounts = transactionRepository.findPostedAccountNumbersBefore(to.plusDays(1).atStartOfDay());
+            Path directory = outputDirectory.resolve(from + "_" + to);
+            Files.createDirectories(directory);
+
+            AccountRange task = new AccountRange(new Batch(directory, from, to, format), accounts, 0, accounts.size());
+            pool.invoke(task);
+
+            Batch batch = task.batch;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Generated {} {} statements for {} ~ {} in {} ms, {} failed", batch.generated.get(), format,
+                    from, to, elapsedMillis, batch.failed.size());
+            return StatementBatchResult.builder()
+                    .from(from)
+                    .to(to)
+                    .format(format.name())
+                    .outputDirectory(directory.toAbsolutePath().toString())
+                    .accounts(accounts.size())
+                    .generated(batch.generated.get())
+                    .failedAccounts(new ArrayList<>(batch.failed))
+                    .elapsedMillis(elapsedMillis)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create statement directory", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void generateOne(Batch batch, String accountNumber) {
+        if (!SAFE_ACCOUNT_NUMBER.matcher(accountNumber).matches()) {
+            log.warn("Skipped statement for account number that is not a safe file name: {}", accountNumber);
+            batch.failed.add(accountNumber);
+            return;
+        }
+        Path target = batch.directory.resolve(accountNumber + "." + batch.format.getExtension());
+        Path partial = batch.directory.resolve(accountNumber + "." + batch.format.getExtension() + ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                generator.generate(accountNumber, batch.from, batch.to, batch.format, out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            batch.generated.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Failed to generate statement for account {}", accountNumber, e);
+            batch.failed.add(accountNumber);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // 临时文件留到下一次生成时覆盖
+            }
+        }
+    }
+
+    /**
+     * 一次批量任务的参数和进度，由所有子任务共享
+     */
+    private record Batch(Path directory, LocalDate from, LocalDate to, StatementFormat format,
+                         AtomicInteger generated, Queue<String> failed) {
+
+        private Batch(Path directory, LocalDate from, LocalDate to, StatementFormat format) {
+            this(directory, from, to, format, new AtomicInteger(), new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * 账户列表中 [start, end) 的一段
+     */
+    private final class AccountRange extends RecursiveAction {
+
+        private final Batch batch;
+        private final List<String> accounts;
+        private final int start;
+        private final int end;
+
+        private AccountRange(Batch batch, List<String> accounts, int start, int end) {
+            this.batch = batch;
+            this.accounts = accounts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= 1) {
+                if (end > start) {
+                    generateOne(batch, accounts.get(start));
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new AccountRange(batch, accounts, start, middle), new AccountRange(batch, accounts, middle, end));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 对账单输出格式
+ */
+public enum StatementFormat {
+
+    CSV("text/csv;charset=UTF-8", "csv", CsvStatementWriter::new),
+    PDF("application/pdf", "pdf", PdfStatementWriter::new);
+
+    private final String mediaType;
+    private final String extension;
+    private final Function<OutputStream, StatementWriter> writerFactory;
+
+    StatementFormat(String mediaType, String extension, Function<OutputStream, StatementWriter> writerFactory) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+        this.writerFactory = writerFactory;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public StatementWriter newWriter(OutputStream out) {
+        return writerFactory.apply(out);
+    }
+
+    /**
+     * 按请求参数解析格式（不区分大小写）
+     */
+    public static StatementFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported statement format: " + value);
+        }
+    }
+}
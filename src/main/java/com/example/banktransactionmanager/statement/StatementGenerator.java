@@ -0,0 +1,88 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.projection.StatementLine;
+import com.example.banktransactionmanager.model.projection.StatementTypeTotal;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 对账单生成：先汇总账期之前已入账交易得到期初余额，再在同一个只读事务内按时间顺序流式读取账期内的交易，
+ * 逐笔累计流水余额并交给渲染器输出；整个账期的交易不会同时驻留内存
+ * <p>
+ * 只统计 SUCCESS 状态的交易：存款、退款为入账，取款、转账、支付为出账，手续费总是出账。
+ */
+public class StatementGenerator {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Map<StatementFormat, Timer> timers = new EnumMap<>(StatementFormat.class);
+
+    /**
+     * @param readOnlyTransactionTemplate 只读事务模板，流式查询需要在事务内持有连接直到读完
+     */
+    public StatementGenerator(TransactionRepository transactionRepository,
+                              TransactionTemplate readOnlyTransactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransactionTemplate = readOnlyTransactionTemplate;
+        for (StatementFormat format : StatementFormat.values()) {
+            timers.put(format, Timer.builder("statement.generation")
+                    .description("单个账户对账单的生成耗时")
+                    .tag("format", format.getExtension())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 生成对账单并写入 out（不关闭 out）
+     * @param from 账期首日（含）
+     * @param to 账期末日（含）
+     * @return 对账单汇总
+     * @throws UncheckedIOException 写出失败，如客户端断开
+     */
+    public StatementSummary generate(String accountNumber, LocalDate from, LocalDate to,
+                                     StatementFormat format, OutputStream out) {
+        LocalDateTime fromTime = from.atStartOfDay();
+        LocalDateTime toTime = to.plusDays(1).atStartOfDay();
+        return timers.get(format).record(() -> readOnlyTransactionTemplate.execute(status -> {
+            StatementSummary summary = new StatementSummary(openingBalance(accountNumber, fromTime));
+            StatementWriter writer = format.newWriter(out);
+            try (Stream<StatementLine> lines = transactionRepository.streamStatementLines(accountNumber, fromTime, toTime)) {
+                writer.begin(new StatementHeader(accountNumber, from, to, summary.getOpeningBalance()));
+                Iterator<StatementLine> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    StatementLine line = iterator.next();
+                    writer.line(line, summary.post(line));
+                }
+                writer.finish(summary);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write statement for account " + accountNumber, e);
+            }
+            return summary;
+        }));
+    }
+
+    /**
+     * 期初余额：before 之前所有已入账交易的净额，单位为分
+     */
+    long openingBalance(String accountNumber, LocalDateTime before) {
+        long balance = 0;
+        for (StatementTypeTotal total : transactionRepository.sumPostedByTypeBefore(accountNumber, before)) {
+            balance += total.getTransactionType().isCredit() ? total.getAmount() : -total.getAmount();
+            balance -= total.getFee();
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.banktransactionmanager.statement;
+
+import java.time.LocalDate;
+
+/**
+ * 对账单抬头，在读取第一笔交易之前即可确定
+ * @param from 账期首日（含）
+ * @param to 账期末日（含）
+ * @param openingBalance 期初余额，单位为分
+ */
+public record StatementHeader(String accountNumber, LocalDate from, LocalDate to, long openingBalance) {
+}
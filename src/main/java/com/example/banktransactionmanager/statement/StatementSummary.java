@@ -0,0 +1,69 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 对账单汇总，随交易逐笔累加：流水余额、入账/出账合计及按交易类型的手续费
+ * 金额单位均为分；期末余额 = 期初余额 + 入账合计 - 出账合计 - 手续费合计
+ */
+@Getter
+public class StatementSummary {
+
+    private static final int TYPE_COUNT = Transaction.TransactionType.values().length;
+
+    private final long openingBalance;
+    private long closingBalance;
+    private long totalCredits;
+    private long totalDebits;
+    private long totalFees;
+    private int transactionCount;
+    @Getter(AccessLevel.NONE)
+    private final long[] feesByType = new long[TYPE_COUNT];
+    @Getter(AccessLevel.NONE)
+    private final int[] feeCountsByType = new int[TYPE_COUNT];
+
+    public StatementSummary(long openingBalance) {
+        this.openingBalance = openingBalance;
+        this.closingBalance = openingBalance;
+    }
+
+    /**
+     * 记入一笔交易
+     * @return 记入后的流水余额
+     */
+    public long post(StatementLine line) {
+        if (line.transactionType().isCredit()) {
+            totalCredits += line.amount();
+            closingBalance += line.amount();
+        } else {
+            totalDebits += line.amount();
+            closingBalance -= line.amount();
+        }
+        if (line.fee() != 0) {
+            int type = line.transactionType().ordinal();
+            feesByType[type] += line.fee();
+            feeCountsByType[type]++;
+            totalFees += line.fee();
+            closingBalance -= line.fee();
+        }
+        transactionCount++;
+        return closingBalance;
+    }
+
+    /**
+     * 某交易类型的手续费合计
+     */
+    public long getFees(Transaction.TransactionType type) {
+        return feesByType[type.ordinal()];
+    }
+
+    /**
+     * 某交易类型中收取了手续费的笔数
+     */
+    public int getFeeCount(Transaction.TransactionType type) {
+        return feeCountsByType[type.ordinal()];
+    }
+}
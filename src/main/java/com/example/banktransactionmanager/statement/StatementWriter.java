@@ -0,0 +1,24 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.projection.StatementLine;
+
+import java.io.IOException;
+
+/**
+ * 对账单渲染器：按 begin → line* → finish 的顺序逐笔输出，只缓冲当前行（PDF为当前页），
+ * 输出流由调用方负责关闭
+ */
+public interface StatementWriter {
+
+    void begin(StatementHeader header) throws IOException;
+
+    /**
+     * @param balance 记入本笔交易后的流水余额，单位为分
+     */
+    void line(StatementLine line, long balance) throws IOException;
+
+    /**
+     * 输出期末汇总并刷出缓冲
+     */
+    void finish(StatementSummary summary) throws IOException;
+}
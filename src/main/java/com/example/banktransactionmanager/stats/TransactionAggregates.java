@@ -0,0 +1,309 @@
+package com.example.banktransactionmanager.stats;
+
+import com.example.banktransactionmanager.cache.CacheInvalidationBus;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionAggregateSnapshot;
+import com.example.banktransactionmanager.model.dto.DailyTransactionStats;
+import com.example.banktransactionmanager.model.dto.TransactionStats;
+import com.example.banktransactionmanager.model.projection.DailyTotal;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.repository.TransactionAggregateSnapshotRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 看板用的交易汇总：按 (渠道, 交易类型, 状态, 交易日) 维护未删除交易的笔数和金额合计
+ * <p>
+ * 每个格子是一对 {@link LongAdder}，事务提交后按变化增减，热点格子（如某渠道当天的待处理交易）上的并发累加
+ * 分散到多个单元，不互相争用。查询只遍历格子，格子数只取决于渠道、类型、状态的取值和保留天数，与交易表的大小无关。
+ * 超出保留期的交易日在快照时并入该 (渠道, 类型, 状态) 的"更早"格子，按渠道的总数仍然完整。
+ * <p>
+ * 汇总定期整体写入快照表，关闭时再写一次。启动时读取最新快照，再从交易表重新汇总快照日期前 recoveryDays 天以来的交易
+ * （走交易时间索引），覆盖快照中的这些天，以补上快照之后、进程退出之前的变化；没有快照时汇总整张表一次。
+ * 异常退出时，快照之后对更早交易的修改（如旧交易的状态流转、删除）会丢失，该偏差不会自动消除，
+ * 需要时清空快照表后重启即可全量重建。
+ * <p>
+ * 多副本部署时各副本的变化通过 {@link CacheInvalidationBus} 广播，每个副本都持有完整的汇总；广播不保证送达。
+ */
+public class TransactionAggregates {
+
+    static final String BUS_NAME = "transactionAggregates";
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionAggregates.class);
+
+    private static final LocalDateTime EPOCH = LocalDate.of(1970, 1, 1).atStartOfDay();
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionAggregateSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final int retentionDays;
+    private final int recoveryDays;
+    private final Clock clock;
+    private final Map<Key, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    /**
+     * @param invalidationBus 集群广播，单机部署时为null
+     * @param retentionDays 按天保留的交易日数（含当天），更早的交易日合并为一项
+     * @param recoveryDays 恢复时从交易表重新汇总的天数（快照日期之前），须小于保留天数
+     */
+    public TransactionAggregates(TransactionRepository transactionRepository,
+                                 TransactionAggregateSnapshotRepository snapshotRepository,
+                                 TransactionTemplate transactionTemplate, CacheInvalidationBus invalidationBus,
+                                 int retentionDays, int recoveryDays) {
+        this(transactionRepository, snapshotRepository, transactionTemplate, invalidationBus, retentionDays,
+                recoveryDays, Clock.systemDefaultZone());
+    }
+
+    TransactionAggregates(TransactionRepository transactionRepository,
+                          TransactionAggregateSnapshotRepository snapshotRepository,
+                          TransactionTemplate transactionTemplate, CacheInvalidationBus invalidationBus,
+                          int retentionDays, int recoveryDays, Clock clock) {
+        if (retentionDays <= 0) {
+            throw new IllegalArgumentException("汇总保留天数必须为正数");
+        }
+        if (recoveryDays < 0 || recoveryDays >= retentionDays) {
+            throw new IllegalArgumentException("恢复天数必须不小于0且小于保留天数");
+        }
+        this.transactionRepository = transactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.invalidationBus = invalidationBus;
+        this.retentionDays = retentionDays;
+        this.recoveryDays = recoveryDays;
+        this.clock = clock;
+        if (invalidationBus != null) {
+            invalidationBus.register(BUS_NAME, key -> {
+                if (key instanceof List<?> deltas) {
+                    deltas.forEach(delta -> {
+                        if (delta instanceof Delta change) {
+                            apply(change, firstRetainedDay());
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    /**
+     * 从最新快照和最近几天的交易恢复汇总，应在接收任何变化之前调用
+     */
+    public void recover() {
+        LocalDate firstRetained = firstRetainedDay();
+        List<TransactionAggregateSnapshot> snapshot = snapshotRepository.findLatest();
+        LocalDateTime rebuildFrom = EPOCH;
+        if (!snapshot.isEmpty()) {
+            LocalDate rebuildDay = snapshot.get(0).getSnapshotTime().toLocalDate().minusDays(recoveryDays);
+            rebuildFrom = rebuildDay.atStartOfDay();
+            for (TransactionAggregateSnapshot row : snapshot) {
+                if (row.getBusinessDay() == null || row.getBusinessDay().isBefore(rebuildDay)) {
+                    cell(key(row.getChannel(), row.getTransactionType(), row.getStatus(), row.getBusinessDay(),
+                            firstRetained)).add(row.getTransactionCount(), row.getAmountTotal());
+                }
+            }
+        }
+        List<DailyTotal> totals = transactionRepository.sumByChannelTypeStatusAndDay(rebuildFrom);
+        for (DailyTotal total : totals) {
+            cell(key(total.getChannel(), total.getTransactionType(), total.getStatus(), total.getBusinessDay(),
+                    firstRetained)).add(total.getCount(), total.getVolume());
+        }
+        log.info("Recovered transaction aggregates from {} snapshot rows and {} groups since {}",
+                snapshot.size(), totals.size(), rebuildFrom.toLocalDate());
+    }
+
+    /**
+     * 记录单笔交易的变化，应在事务提交后调用
+     * @param status 计入的状态
+     * @param delta 新增为正，删除为负；状态流转记为原状态-1、新状态+1
+     */
+    public void add(TransactionRef transaction, Transaction.Status status, long delta) {
+        addAll(List.of(transaction), status, delta);
+    }
+
+    /**
+     * 记录一批交易的变化，应在事务提交后调用，集群模式下整批只广播一次
+     * @param status 计入的状态，为null时按投影中的状态
+     */
+    public void addAll(Collection<? extends TransactionRef> transactions, Transaction.Status status, long delta) {
+        LocalDate firstRetained = firstRetainedDay();
+        ArrayList<Delta> deltas = new ArrayList<>(transactions.size());
+        for (TransactionRef transaction : transactions) {
+            Transaction.Status counted = status != null ? status : transaction.getStatus();
+            if (transaction.getChannel() == null || transaction.getTransactionType() == null || counted == null) {
+                continue;
+            }
+            Delta change = new Delta(transaction.getChannel(), transaction.getTransactionType(), counted,
+                    transaction.getTransactionTime() != null ? transaction.getTransactionTime().toLocalDate() : null,
+                    delta, delta * transaction.getAmount());
+            apply(change, firstRetained);
+            deltas.add(change);
+        }
+        if (invalidationBus != null && !deltas.isEmpty()) {
+            invalidationBus.publishEvict(BUS_NAME, deltas);
+        }
+    }
+
+    /**
+     * 汇总当前各渠道按状态的交易数和最近 days 天的每日统计，只读内存中的格子
+     * @param channel 渠道，null表示不限
+     * @param days 天数（含当天），不超过保留天数
+     */
+    public TransactionStats stats(Transaction.Channel channel, int days) {
+        if (days <= 0 || days > retentionDays) {
+            throw new IllegalArgumentException("Days must be between 1 and " + retentionDays);
+        }
+        LocalDate today = LocalDate.now(clock);
+        LocalDate firstDay = today.minusDays(days - 1L);
+        Map<Transaction.Channel, Map<Transaction.Status, Long>> byChannel = new EnumMap<>(Transaction.Channel.class);
+        for (Transaction.Channel value : Transaction.Channel.values()) {
+            if (channel == null || channel == value) {
+                byChannel.put(value, zeroCounts());
+            }
+        }
+        List<DailyTransactionStats> daily = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            daily.add(new DailyTransactionStats(firstDay.plusDays(i), zeroCounts(), 0L));
+        }
+        cells.forEach((key, cell) -> {
+            if (channel != null && key.channel() != channel) {
+                return;
+            }
+            long count = cell.count.sum();
+            byChannel.get(key.channel()).merge(key.status(), count, Long::sum);
+            if (key.day() == null || key.day().isBefore(firstDay) || key.day().isAfter(today)) {
+                return;
+            }
+            DailyTransactionStats day = daily.get((int) (key.day().toEpochDay() - firstDay.toEpochDay()));
+            day.getCounts().merge(key.status(), count, Long::sum);
+            if (key.status() == Transaction.Status.SUCCESS) {
+                day.setVolume(day.getVolume() + cell.volume.sum());
+            }
+        });
+        return new TransactionStats(LocalDateTime.now(clock), byChannel, daily);
+    }
+
+    /**
+     * 合并超出保留期的交易日，并把全部格子写入快照表，替换之前的快照
+     */
+    @Scheduled(fixedDelayString = "${transaction.aggregates.snapshot-interval-ms:60000}",
+            initialDelayString = "${transaction.aggregates.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!snapshotting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compact(firstRetainedDay());
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<TransactionAggregateSnapshot> rows = new ArrayList<>(cells.size());
+            cells.forEach((key, cell) -> {
+                long count = cell.count.sum();
+                long volume = cell.volume.sum();
+                if (count != 0 || volume != 0) {
+                    rows.add(new TransactionAggregateSnapshot(null, key.channel(), key.transactionType(),
+                            key.status(), key.day(), count, volume, now));
+                }
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                snapshotRepository.saveAll(rows);
+                snapshotRepository.deleteOlderThan(now);
+            });
+            log.debug("Saved {} transaction aggregate rows", rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to snapshot transaction aggregates", e);
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    /**
+     * 关闭前写入最后一次快照
+     */
+    public void shutdown() {
+        snapshot();
+    }
+
+    // 把早于保留期的交易日并入"更早"格子；合并与并发累加之间存在竞争，极少数落在被移除格子上的变化会丢失
+    private void compact(LocalDate firstRetained) {
+        for (Key key : List.copyOf(cells.keySet())) {
+            if (key.day() != null && key.day().isBefore(firstRetained)) {
+                Cell expired = cells.remove(key);
+                if (expired != null) {
+                    cell(new Key(key.channel(), key.transactionType(), key.status(), null))
+                            .add(expired.count.sum(), expired.volume.sum());
+                }
+            }
+        }
+    }
+
+    private void apply(Delta change, LocalDate firstRetained) {
+        cell(key(change.channel(), change.transactionType(), change.status(), change.day(), firstRetained))
+                .add(change.count(), change.volume());
+    }
+
+    private Cell cell(Key key) {
+        return cells.computeIfAbsent(key, ignored -> new Cell());
+    }
+
+    private static Key key(Transaction.Channel channel, Transaction.TransactionType transactionType,
+                           Transaction.Status status, LocalDate day, LocalDate firstRetained) {
+        return new Key(channel, transactionType, status, day != null && day.isBefore(firstRetained) ? null : day);
+    }
+
+    private LocalDate firstRetainedDay() {
+        return LocalDate.now(clock).minusDays(retentionDays - 1L);
+    }
+
+    private static Map<Transaction.Status, Long> zeroCounts() {
+        Map<Transaction.Status, Long> counts = new EnumMap<>(Transaction.Status.class);
+        for (Transaction.Status status : Transaction.Status.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * @param day 交易日，null表示保留期之前
+     */
+    private record Key(Transaction.Channel channel, Transaction.TransactionType transactionType,
+                       Transaction.Status status, LocalDate day) {
+    }
+
+    private static final class Cell {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder volume = new LongAdder();
+
+        void add(long transactions, long amount) {
+            count.add(transactions);
+            volume.add(amount);
+        }
+    }
+
+    /**
+     * 广播给其它副本的汇总变化
+     */
+    record Delta(Transaction.Channel channel, Transaction.TransactionType transactionType, Transaction.Status status,
+                 LocalDate day, long count, long volume) implements Serializable {
+    }
+}
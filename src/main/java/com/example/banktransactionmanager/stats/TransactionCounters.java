@@ -0,0 +1,152 @@
+package com.example.banktransactionmanager.stats;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatusTypeCount;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 未删除交易的近似计数，为不做COUNT的分页模式提供总数估计
+ * <p>
+ * 按 (状态, 交易类型) 维护计数矩阵，按账号维护计数。矩阵由定期执行的分组汇总重新赋值，
+ * 账号计数在首次被查询时用账号索引COUNT一次作为初值；此后都在事务提交后按变化增减。
+ * 汇总期间提交的变化可能被重复计入，其它副本的写入也不会通知到本进程，这些偏差在下一次汇总时消除，
+ * 因此计数只用作估计，精确总数仍需按需执行COUNT。
+ * 同时给出账号和状态/类型时，按"账号内的分布与全局相同"估算。
+ */
+public class TransactionCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionCounters.class);
+
+    private static final Transaction.Status[] STATUSES = Transaction.Status.values();
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final TransactionRepository transactionRepository;
+    private final int maxAccounts;
+    private final LongAdder[][] counts = new LongAdder[STATUSES.length][TYPES.length];
+    private final Map<String, LongAdder> accounts = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    /**
+     * @param maxAccounts 维护计数的账号数上限，超出后清空，之后按需重新取初值
+     */
+    public TransactionCounters(TransactionRepository transactionRepository, int maxAccounts) {
+        if (maxAccounts <= 0) {
+            throw new IllegalArgumentException("账号计数上限必须为正数");
+        }
+        this.transactionRepository = transactionRepository;
+        this.maxAccounts = maxAccounts;
+        for (LongAdder[] row : counts) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * 从数据库重新汇总计数矩阵，并丢弃账号计数（下次查询时重新取初值）
+     */
+    @Scheduled(fixedDelayString = "${transaction.counters.refresh-interval-ms:600000}")
+    public void refresh() {
+        long[][] fresh = new long[STATUSES.length][TYPES.length];
+        try {
+            for (StatusTypeCount group : transactionRepository.countByStatusAndType()) {
+                fresh[group.getStatus().ordinal()][group.getTransactionType().ordinal()] = group.getCount();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh transaction counters", e);
+            return;
+        }
+        for (int s = 0; s < STATUSES.length; s++) {
+            for (int t = 0; t < TYPES.length; t++) {
+                LongAdder adder = counts[s][t];
+                // 汇总期间的增减会被覆盖或重复计入，偏差留到下一次汇总
+                adder.add(fresh[s][t] - adder.sum());
+            }
+        }
+        accounts.clear();
+        seeded = true;
+    }
+
+    /**
+     * 记录交易数的变化，应在事务提交后调用
+     * @param delta 新增为正，删除为负；状态流转记为原状态-1、新状态+1
+     */
+    public void add(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status,
+                    long delta) {
+        if (transactionType == null || status == null) {
+            return;
+        }
+        counts[status.ordinal()][transactionType.ordinal()].add(delta);
+        if (accountNumber != null) {
+            LongAdder account = accounts.get(accountNumber);
+            if (account != null) {
+                account.add(delta);
+            }
+        }
+    }
+
+    /**
+     * 估计满足筛选条件的未删除交易数
+     * @param accountNumber 账号，null表示不限
+     * @param transactionType 交易类型，null表示不限
+     * @param status 状态，null表示不限
+     * @return 估计值；尚未完成首次汇总时为null
+     */
+    public Long estimate(String accountNumber, Transaction.TransactionType transactionType, Transaction.Status status) {
+        if (!seeded) {
+            return null;
+        }
+        long matching = 0;
+        for (int s = 0; s < STATUSES.length; s++) {
+            if (status != null && status.ordinal() != s) {
+                continue;
+            }
+            for (int t = 0; t < TYPES.length; t++) {
+                if (transactionType == null || transactionType.ordinal() == t) {
+                    matching += counts[s][t].sum();
+                }
+            }
+        }
+        matching = Math.max(matching, 0);
+        if (accountNumber == null) {
+            return matching;
+        }
+        long account = accountCount(accountNumber);
+        if (transactionType == null && status == null) {
+            return account;
+        }
+        long total = total();
+        return total <= 0 ? 0 : Math.min(account, Math.round((double) account * matching / total));
+    }
+
+    /**
+     * 全部未删除交易数的估计值；尚未完成首次汇总时为null
+     */
+    public Long total() {
+        return seeded ? estimate(null, null, null) : null;
+    }
+
+    private long accountCount(String accountNumber) {
+        LongAdder account = accounts.get(accountNumber);
+        if (account == null) {
+            if (accounts.size() >= maxAccounts) {
+                accounts.clear();
+            }
+            // 取初值与并发的增减之间存在竞争，偏差同样留到下一次汇总
+            long initial = transactionRepository.countByAccountNumberAndIsDeletedFalse(accountNumber);
+            account = accounts.computeIfAbsent(accountNumber, key -> {
+                LongAdder adder = new LongAdder();
+                adder.add(initial);
+                return adder;
+            });
+        }
+        return Math.max(account.sum(), 0);
+    }
+}
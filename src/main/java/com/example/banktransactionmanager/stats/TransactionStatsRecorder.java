@@ -0,0 +1,51 @@
+package com.example.banktransactionmanager.stats;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.util.AfterCommit;
+
+import java.util.Collection;
+
+/**
+ * 交易计数变化的入口：提交后更新未删除交易的近似计数（{@link TransactionCounters}）和看板汇总（{@link TransactionAggregates}）
+ * <p>
+ * 新建、修改、删除、批量状态流转、结算和文件导入写库后由写路径显式调用；回滚的写入不会计入。
+ * 不在事务中时立即更新。
+ */
+public class TransactionStatsRecorder {
+
+    private final TransactionCounters counters;
+    private final TransactionAggregates aggregates;
+
+    public TransactionStatsRecorder(TransactionCounters counters, TransactionAggregates aggregates) {
+        this.counters = counters;
+        this.aggregates = aggregates;
+    }
+
+    /**
+     * 记录单笔交易的计数变化
+     * @param transaction 变化前或变化后的交易快照（{@link TransactionRef#of}），按其中的状态计入
+     * @param delta 新增为正，删除为负；修改记为修改前-1、修改后+1
+     */
+    public void record(TransactionRef transaction, long delta) {
+        AfterCommit.run(() -> {
+            counters.add(transaction.getAccountNumber(), transaction.getTransactionType(), transaction.getStatus(), delta);
+            aggregates.add(transaction, transaction.getStatus(), delta);
+        });
+    }
+
+    /**
+     * 记录一批交易的计数变化
+     * @param status 计入的状态，为null时按投影中的状态
+     */
+    public void recordAll(Collection<? extends TransactionRef> transactions, Transaction.Status status, long delta) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            transactions.forEach(ref -> counters.add(ref.getAccountNumber(), ref.getTransactionType(),
+                    status != null ? status : ref.getStatus(), delta));
+            aggregates.addAll(transactions, status, delta);
+        });
+    }
+}
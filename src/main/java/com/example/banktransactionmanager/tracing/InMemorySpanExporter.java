@@ -0,0 +1,25 @@
+package com.example.banktransactionmanager.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 进程内导出器，保存所有已结束的Span，主要用于测试
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<Span> spans = new ArrayList<>();
+
+    @Override
+    public synchronized void export(TraceContext trace) {
+        spans.addAll(trace.getFinishedSpans());
+    }
+
+    public synchronized List<Span> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+}
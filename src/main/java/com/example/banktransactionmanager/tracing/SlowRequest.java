@@ -0,0 +1,29 @@
+package com.example.banktransactionmanager.tracing;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 慢请求快照，包含各阶段耗时
+ */
+@Value
+public class SlowRequest {
+
+    String traceId;
+    String name;
+    Instant startTime;
+    double durationMillis;
+    Object statusCode;
+    List<Stage> stages;
+
+    @Value
+    public static class Stage {
+        String spanId;
+        String parentSpanId;
+        String name;
+        long offsetMicros;
+        long durationMicros;
+    }
+}
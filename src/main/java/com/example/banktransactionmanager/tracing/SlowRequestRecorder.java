@@ -0,0 +1,94 @@
+package com.example.banktransactionmanager.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢请求缓冲区
+ * 以耗时为序的小顶堆保留耗时超过阈值的最慢N条请求：已满时新请求只替换堆中最快的一条，
+ * 偶发的慢请求不会被之后的普通请求挤出。读取时按耗时倒序返回。
+ */
+public class SlowRequestRecorder implements SpanExporter {
+
+    private static final Comparator<SlowRequest> BY_DURATION = Comparator.comparingDouble(SlowRequest::getDurationMillis);
+
+    private final int capacity;
+    private final PriorityQueue<SlowRequest> slowest;
+    private final long thresholdNanos;
+
+    public SlowRequestRecorder(int capacity, long thresholdMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("慢请求缓冲区容量必须大于0");
+        }
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity, BY_DURATION);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public void export(TraceContext trace) {
+        Span root = trace.getRoot();
+        if (root == null || root.getDurationNanos() < thresholdNanos) {
+            return;
+        }
+        double durationMillis = root.getDurationNanos() / 1_000_000.0;
+        // 已满且不比最快的一条慢时，不必构建阶段明细
+        synchronized (this) {
+            if (slowest.size() == capacity && durationMillis <= slowest.peek().getDurationMillis()) {
+                return;
+            }
+        }
+        SlowRequest slowRequest = toSlowRequest(trace, root);
+        synchronized (this) {
+            if (slowest.size() < capacity) {
+                slowest.add(slowRequest);
+            } else if (durationMillis > slowest.peek().getDurationMillis()) {
+                slowest.poll();
+                slowest.add(slowRequest);
+            }
+        }
+    }
+
+    /**
+     * 获取最慢的请求，按耗时从高到低排序
+     */
+    public List<SlowRequest> getSlowestRequests() {
+        List<SlowRequest> result;
+        synchronized (this) {
+            result = new ArrayList<>(slowest);
+        }
+        result.sort(BY_DURATION.reversed());
+        return result;
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+    }
+
+    private SlowRequest toSlowRequest(TraceContext trace, Span root) {
+        List<SlowRequest.Stage> stages = new ArrayList<>(trace.getFinishedSpans().size());
+        for (Span span : trace.getFinishedSpans()) {
+            if (span == root) {
+                continue;
+            }
+            stages.add(new SlowRequest.Stage(
+                    span.getSpanId(),
+                    span.getParentSpanId(),
+                    span.getName(),
+                    TimeUnit.NANOSECONDS.toMicros(span.getOffsetNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos())));
+        }
+        stages.sort(Comparator.comparingLong(SlowRequest.Stage::getOffsetMicros));
+        return new SlowRequest(
+                trace.getTraceId(),
+                root.getName(),
+                Instant.ofEpochMilli(root.getStartEpochNanos() / 1_000_000L),
+                root.getDurationNanos() / 1_000_000.0,
+                root.getAttributes().get("http.response.status_code"),
+                stages);
+    }
+}
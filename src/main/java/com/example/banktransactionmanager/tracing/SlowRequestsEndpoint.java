@@ -0,0 +1,30 @@
+package com.example.banktransactionmanager.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * /actuator/slowrequests：最近最慢的请求及其阶段耗时
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestRecorder recorder;
+
+    public SlowRequestsEndpoint(SlowRequestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowRequest> slowRequests() {
+        return recorder.getSlowestRequests();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.banktransactionmanager.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 链路中的一个阶段（Span）
+ * 字段语义与OpenTelemetry SpanData保持一致：traceId为32位十六进制，spanId为16位十六进制，
+ * 时间戳使用纳秒。未采样的请求统一使用 {@link #NOOP}，不产生任何分配。
+ */
+public class Span implements AutoCloseable {
+
+    /**
+     * 未采样时返回的空Span
+     */
+    public static final Span NOOP = new Span();
+
+    private final TraceContext trace;
+    private final String spanId;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private String name;
+    private long endNanos;
+    private Map<String, Object> attributes;
+
+    private Span() {
+        this.trace = null;
+        this.spanId = null;
+        this.parentSpanId = null;
+        this.startEpochNanos = 0L;
+        this.startNanos = 0L;
+        this.name = "noop";
+    }
+
+    Span(TraceContext trace, String name, String spanId, String parentSpanId) {
+        this.trace = trace;
+        this.name = name;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 是否为真实记录中的Span
+     */
+    public boolean isRecording() {
+        return trace != null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (trace != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public Span updateName(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+        return this;
+    }
+
+    /**
+     * 结束当前Span，重复调用无副作用
+     */
+    public void end() {
+        if (trace != null && endNanos == 0L) {
+            endNanos = System.nanoTime();
+            trace.onSpanEnd(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    /**
+     * W3C traceparent 头部值
+     */
+    public String traceparent() {
+        return trace == null ? null : "00-" + trace.getTraceId() + "-" + spanId + "-01";
+    }
+
+    public String getTraceId() {
+        return trace == null ? null : trace.getTraceId();
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * 相对于所属链路起点的偏移（纳秒）
+     */
+    public long getOffsetNanos() {
+        return trace == null ? 0L : startNanos - trace.getStartNanos();
+    }
+
+    public long getDurationNanos() {
+        return endNanos == 0L ? 0L : endNanos - startNanos;
+    }
+
+    public boolean isEnded() {
+        return endNanos != 0L;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes == null ? Collections.emptyMap() : Collections.unmodifiableMap(attributes);
+    }
+}
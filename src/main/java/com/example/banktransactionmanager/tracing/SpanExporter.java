@@ -0,0 +1,13 @@
+package com.example.banktransactionmanager.tracing;
+
+/**
+ * 链路导出器，请求结束时以整条链路为单位回调
+ */
+public interface SpanExporter {
+
+    /**
+     * 导出一条已结束的链路
+     * @param trace 链路上下文，包含全部已结束的Span
+     */
+    void export(TraceContext trace);
+}
@@ -0,0 +1,89 @@
+package com.example.banktransactionmanager.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 单个请求的链路上下文，只在处理该请求的线程内访问
+ */
+public class TraceContext {
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final long startNanos;
+    private final Deque<Span> openSpans = new ArrayDeque<>(8);
+    private final List<Span> finishedSpans = new ArrayList<>(16);
+    private Span root;
+    private Span stage;
+
+    TraceContext(Tracer tracer, String traceId) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.startNanos = System.nanoTime();
+    }
+
+    Span start(String name, String remoteParentSpanId) {
+        Span parent = openSpans.peekLast();
+        String parentId = parent != null ? parent.getSpanId() : remoteParentSpanId;
+        Span span = new Span(this, name, Tracer.newSpanId(), parentId);
+        if (root == null) {
+            root = span;
+        }
+        openSpans.addLast(span);
+        return span;
+    }
+
+    /**
+     * 开始一个阶段Span，上一个未结束的阶段会被自动结束
+     */
+    void startStage(String name) {
+        endStage();
+        stage = start(name, null);
+    }
+
+    void endStage() {
+        if (stage != null) {
+            Span current = stage;
+            stage = null;
+            current.end();
+        }
+    }
+
+    void onSpanEnd(Span span) {
+        if (span == root) {
+            endStage();
+            // 异常路径下可能还有未关闭的子Span，统一结束
+            Span open;
+            while ((open = openSpans.peekLast()) != null && open != root) {
+                open.end();
+            }
+        }
+        openSpans.removeLastOccurrence(span);
+        finishedSpans.add(span);
+        if (span == root) {
+            tracer.finish(this);
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * 已结束的Span，按结束顺序排列（根Span在最后）
+     */
+    public List<Span> getFinishedSpans() {
+        return Collections.unmodifiableList(finishedSpans);
+    }
+}
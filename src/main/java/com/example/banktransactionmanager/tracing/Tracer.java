@@ -0,0 +1,124 @@
+package com.example.banktransactionmanager.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 轻量级链路追踪器
+ * 采样决策在链路入口做出（遵循上游traceparent的采样标记，否则按比例采样），
+ * 未采样时所有静态方法都直接返回 {@link Span#NOOP}，开销只有一次ThreadLocal读取。
+ */
+public class Tracer {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracer.class);
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final double samplingProbability;
+    private final List<SpanExporter> exporters;
+
+    public Tracer(double samplingProbability, List<SpanExporter> exporters) {
+        if (samplingProbability < 0.0 || samplingProbability > 1.0) {
+            throw new IllegalArgumentException("采样率必须在0到1之间");
+        }
+        this.samplingProbability = samplingProbability;
+        this.exporters = List.copyOf(exporters);
+    }
+
+    /**
+     * 开始一条新的链路（请求入口调用）
+     * @param name 根Span名称
+     * @param traceparent 上游传入的W3C traceparent，可为null
+     * @return 根Span，未采样时返回 {@link Span#NOOP}
+     */
+    public Span startTrace(String name, String traceparent) {
+        if (CURRENT.get() != null) {
+            return startSpan(name);
+        }
+        String traceId = null;
+        String parentSpanId = null;
+        boolean sampled;
+        if (isValidTraceparent(traceparent)) {
+            traceId = traceparent.substring(3, 35);
+            parentSpanId = traceparent.substring(36, 52);
+            sampled = (Character.digit(traceparent.charAt(54), 16) & 0x01) == 1;
+        } else {
+            sampled = samplingProbability >= 1.0
+                    || (samplingProbability > 0.0 && ThreadLocalRandom.current().nextDouble() < samplingProbability);
+        }
+        if (!sampled) {
+            return Span.NOOP;
+        }
+        TraceContext trace = new TraceContext(this, traceId != null ? traceId : newTraceId());
+        CURRENT.set(trace);
+        return trace.start(name, parentSpanId);
+    }
+
+    /**
+     * 在当前链路下开始一个子Span
+     */
+    public static Span startSpan(String name) {
+        TraceContext trace = CURRENT.get();
+        return trace == null ? Span.NOOP : trace.start(name, null);
+    }
+
+    /**
+     * 开始一个阶段Span（无需持有Span引用，由下一个阶段或 {@link #endStage()} 结束）
+     */
+    public static void startStage(String name) {
+        TraceContext trace = CURRENT.get();
+        if (trace != null) {
+            trace.startStage(name);
+        }
+    }
+
+    public static void endStage() {
+        TraceContext trace = CURRENT.get();
+        if (trace != null) {
+            trace.endStage();
+        }
+    }
+
+    /**
+     * 当前线程是否处于被采样的链路中
+     */
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    void finish(TraceContext trace) {
+        CURRENT.remove();
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(trace);
+            } catch (RuntimeException e) {
+                log.warn("Span exporter {} failed", exporter.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return toHex(random.nextLong()) + toHex(random.nextLong() | 1L);
+    }
+
+    static String newSpanId() {
+        return toHex(ThreadLocalRandom.current().nextLong() | 1L);
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static boolean isValidTraceparent(String traceparent) {
+        return traceparent != null
+                && traceparent.length() == 55
+                && traceparent.startsWith("00-")
+                && traceparent.charAt(35) == '-'
+                && traceparent.charAt(52) == '-';
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.banktransactionmanager.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 控制器 → 服务 → 仓储 调用链的Span切面
+ * 优先级高于事务切面，因此服务层Span包含事务提交耗时；提交阶段单独记录为 db.commit。
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    private static final Object COMMIT_SPAN_KEY = new Object();
+
+    @Around("within(com.example.banktransactionmanager.controller..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isRecording()) {
+            return joinPoint.proceed();
+        }
+        Tracer.endStage();
+        return proceedInSpan(joinPoint, "controller.");
+    }
+
+    @Around("execution(* com.example.banktransactionmanager.service.*Service.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isRecording()) {
+            return joinPoint.proceed();
+        }
+        return proceedInSpan(joinPoint, "service.");
+    }
+
+    @Around("execution(* com.example.banktransactionmanager.repository.*Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isRecording()) {
+            return joinPoint.proceed();
+        }
+        registerCommitSpan();
+        try (Span span = Tracer.startSpan("db." + joinPoint.getSignature().getName())) {
+            span.setAttribute("db.operation", joinPoint.getSignature().getName());
+            return joinPoint.proceed();
+        }
+    }
+
+    private Object proceedInSpan(ProceedingJoinPoint joinPoint, String prefix) throws Throwable {
+        try (Span span = Tracer.startSpan(prefix + joinPoint.getSignature().getName())) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                span.setAttribute("exception.type", e.getClass().getName());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 每个事务只注册一次提交阶段的Span
+     */
+    private void registerCommitSpan() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(COMMIT_SPAN_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(COMMIT_SPAN_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Span commitSpan = Span.NOOP;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitSpan = Tracer.startSpan("db.commit");
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(COMMIT_SPAN_KEY);
+                commitSpan.setAttribute("db.transaction.committed", status == STATUS_COMMITTED);
+                commitSpan.end();
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.banktransactionmanager.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 为每个API请求开启一条链路，并通过traceparent响应头回传链路ID
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACEPARENT_HEADER = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Span root = tracer.startTrace(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TRACEPARENT_HEADER));
+        if (!root.isRecording()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(TRACEPARENT_HEADER, root.traceparent());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // 使用路由模板命名，避免根Span名称基数过高
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                root.updateName(request.getMethod() + " " + route);
+            }
+            root.setAttribute("http.request.method", request.getMethod());
+            root.setAttribute("http.response.status_code", response.getStatus());
+            root.end();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.banktransactionmanager.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行的动作：处于事务中时注册到提交后回调（回滚则不执行），否则立即执行
+ * 写路径的缓存失效、高水位标记和计数更新都经由这里，避免在提交前被并发读看到或在回滚后残留。
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.banktransactionmanager.util;
+
+import com.example.banktransactionmanager.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 交易业务编号编码器：渠道编码 + 雪花ID的十进制表示
+ * 渠道前缀按枚举预先编码为Latin-1字节常驻内存，数字从右向左直接写入线程内复用的缓冲区，
+ * 每次只分配结果字符串本身，不经过StringBuilder、Long.toString或字符串拼接的中间对象。
+ */
+public final class BizNoEncoder {
+
+    private static final String UNKNOWN_CHANNEL = "UNKNOWN";
+
+    // long最大值为19位十进制数
+    private static final int MAX_DIGITS = 19;
+
+    private static final byte[][] CHANNEL_PREFIXES;
+    private static final byte[] UNKNOWN_PREFIX = UNKNOWN_CHANNEL.getBytes(StandardCharsets.ISO_8859_1);
+    private static final int MAX_LENGTH;
+    private static final ThreadLocal<byte[]> BUFFER;
+
+    static {
+        Transaction.Channel[] channels = Transaction.Channel.values();
+        CHANNEL_PREFIXES = new byte[channels.length][];
+        int maxPrefix = UNKNOWN_PREFIX.length;
+        for (Transaction.Channel channel : channels) {
+            CHANNEL_PREFIXES[channel.ordinal()] = channel.name().getBytes(StandardCharsets.ISO_8859_1);
+            maxPrefix = Math.max(maxPrefix, channel.name().length());
+        }
+        MAX_LENGTH = maxPrefix + MAX_DIGITS;
+        BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_LENGTH]);
+    }
+
+    private BizNoEncoder() {
+    }
+
+    /**
+     * 生成业务编号，结果与 {@code channel.name() + id} 相同
+     * @param channel 渠道，为null时使用UNKNOWN
+     * @param id 非负的雪花ID
+     */
+    public static String encode(Transaction.Channel channel, long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID不能为负数: " + id);
+        }
+        byte[] prefix = channel != null ? CHANNEL_PREFIXES[channel.ordinal()] : UNKNOWN_PREFIX;
+        byte[] buffer = BUFFER.get();
+        System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+        int length = prefix.length + digitCount(id);
+        int pos = length;
+        do {
+            buffer[--pos] = (byte) ('0' + (int) (id % 10));
+            id /= 10;
+        } while (id != 0);
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int digitCount(long value) {
+        long limit = 10;
+        for (int digits = 1; digits < MAX_DIGITS; digits++) {
+            if (value < limit) {
+                return digits;
+            }
+            limit *= 10;
+        }
+        return MAX_DIGITS;
+    }
+}
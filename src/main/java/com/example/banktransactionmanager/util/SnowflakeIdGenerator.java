@@ -1,5 +1,7 @@
 package com.example.banktransactionmanager.util;
 
+import com.example.banktransactionmanager.profiling.SnowflakeWaitEvent;
+
 /**
  * SnowFlake算法生成分布式唯一ID
  * 64位ID结构：
@@ -84,10 +86,16 @@ public class SnowflakeIdGenerator {
      * @return 下一毫秒时间戳
      */
     private long getNextMill() {
+        SnowflakeWaitEvent event = new SnowflakeWaitEvent();
+        event.begin();
         long mill = getNewTimestamp();
         while (mill <= lastTimestamp) {
             mill = getNewTimestamp();
         }
+        if (event.shouldCommit()) {
+            event.lastTimestamp = lastTimestamp;
+            event.commit();
+        }
         return mill;
     }
     
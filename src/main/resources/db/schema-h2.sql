@@ -0,0 +1,94 @@
+-- 交易库表结构（faststart配置下由spring.sql.init执行，替代Hibernate启动时的ddl-auto）
+-- 修改实体映射时需同步本文件，FastStartIntegrationTest会以ddl-auto=validate校验两者一致
+
+create table if not exists transaction (
+    id bigint generated by default as identity,
+    transaction_biz_no varchar(64) not null unique,
+    idempotency_key varchar(128) unique,
+    account_number varchar(255) not null,
+    account_type varchar(255) not null check (account_type in ('SAVINGS','CHECKING','CREDIT','CORPORATE')),
+    transaction_type varchar(255) not null check (transaction_type in ('DEPOSIT','WITHDRAWAL','TRANSFER','PAYMENT','REFUND')),
+    amount bigint not null check ((amount >= 100) and (amount <= 9999999999999999)),
+    fee bigint not null check ((fee >= 0) and (fee <= 9999999999)),
+    currency varchar(3),
+    transaction_time timestamp(6) not null,
+    status varchar(255) not null check (status in ('PENDING','SUCCESS','FAILED','CANCELLED','HELD')),
+    channel varchar(255) not null check (channel in ('APP','ONLINE_BANK','COUNTER','THIRD_PARTY')),
+    counterparty_account_number varchar(255),
+    counterparty_name varchar(100),
+    description varchar(255),
+    reference_number varchar(50),
+    external_reference_no varchar(64),
+    remarks varchar(500),
+    settlement_owner varchar(64),
+    settlement_lease_until timestamp(6),
+    settlement_attempts integer default 0 not null,
+    creator varchar(50),
+    create_time timestamp(6) not null,
+    updater varchar(50),
+    update_time timestamp(6),
+    is_deleted boolean default false not null,
+    deleted_time timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_account_number on transaction (account_number);
+create index if not exists idx_transaction_time on transaction (transaction_time);
+create index if not exists idx_transaction_account_time on transaction (account_number, transaction_time);
+create index if not exists idx_transaction_settlement on transaction (status, settlement_lease_until);
+
+create table if not exists transaction_outbox (
+    id bigint generated by default as identity,
+    transaction_id bigint not null,
+    transaction_biz_no varchar(255) not null,
+    change_type varchar(20) not null check (change_type in ('CREATED','UPDATED','STATUS_CHANGED','DELETED')),
+    account_number varchar(255),
+    transaction_type varchar(255) check (transaction_type in ('DEPOSIT','WITHDRAWAL','TRANSFER','PAYMENT','REFUND')),
+    amount bigint,
+    status varchar(255) check (status in ('PENDING','SUCCESS','FAILED','CANCELLED','HELD')),
+    previous_status varchar(255) check (previous_status in ('PENDING','SUCCESS','FAILED','CANCELLED','HELD')),
+    channel varchar(255) check (channel in ('APP','ONLINE_BANK','COUNTER','THIRD_PARTY')),
+    transaction_time timestamp(6),
+    create_time timestamp(6) not null,
+    primary key (id)
+);
+
+create table if not exists import_job (
+    id bigint generated by default as identity,
+    file_name varchar(255) not null,
+    stored_path varchar(1024) not null,
+    format varchar(20) not null check (format in ('CSV','FIXED_WIDTH')),
+    channel varchar(255) not null check (channel in ('APP','ONLINE_BANK','COUNTER','THIRD_PARTY')),
+    status varchar(20) not null check (status in ('QUEUED','RUNNING','COMPLETED','FAILED')),
+    creator varchar(50),
+    file_bytes bigint not null,
+    checkpoint_offset bigint not null,
+    lines_read bigint not null,
+    imported_rows bigint not null,
+    rejected_rows bigint not null,
+    report_bytes bigint not null,
+    owner varchar(64),
+    lease_until timestamp(6),
+    error_message varchar(500),
+    create_time timestamp(6) not null,
+    start_time timestamp(6),
+    update_time timestamp(6),
+    finish_time timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_import_job_status_lease on import_job (status, lease_until);
+
+create table if not exists transaction_aggregate_snapshot (
+    id bigint generated by default as identity,
+    channel varchar(255) not null check (channel in ('APP','ONLINE_BANK','COUNTER','THIRD_PARTY')),
+    transaction_type varchar(255) not null check (transaction_type in ('DEPOSIT','WITHDRAWAL','TRANSFER','PAYMENT','REFUND')),
+    status varchar(255) not null check (status in ('PENDING','SUCCESS','FAILED','CANCELLED','HELD')),
+    business_day date,
+    transaction_count bigint not null,
+    amount_total bigint not null,
+    snapshot_time timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_aggregate_snapshot_time on transaction_aggregate_snapshot (snapshot_time);
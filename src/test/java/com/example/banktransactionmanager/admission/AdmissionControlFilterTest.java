@@ -0,0 +1,112 @@
+package com.example.banktransactionmanager.admission;
+
+import com.example.banktransactionmanager.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testChannelAndApiKeyRateLimitsRejectWithRetryAfter() throws Exception {
+        // 准备
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                Map.of(Transaction.Channel.THIRD_PARTY, new RateLimit(0.5, 2)), Map.of(), null,
+                Map.of("partner-a", new RateLimit(1, 1)),
+                null, 100, Map.of(), List.of(), List.of(), registry);
+
+        // 执行 & 验证：渠道桶突发2个
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", "THIRD_PARTY", null)).getStatus());
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", "THIRD_PARTY", null)).getStatus());
+        MockHttpServletResponse limited = perform(filter, request("GET", "/api/transactions", "THIRD_PARTY", null));
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("\"errorCode\":\"RATE_LIMITED\""));
+        // 其它渠道不受影响；配置了限额的Key单独计数，未配置且无默认限额的Key不限
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", "APP", null)).getStatus());
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", null, "partner-a")).getStatus());
+        assertEquals(429, perform(filter, request("GET", "/api/transactions", null, "partner-a")).getStatus());
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", null, "partner-b")).getStatus());
+        assertEquals(1.0, registry.get("admission.rejected").tag("limiter", "channel:THIRD_PARTY").counter().count());
+        assertEquals(1.0, registry.get("admission.rejected").tag("limiter", "api-key").counter().count());
+    }
+
+    @Test
+    void testConcurrencyLimitIsPerEndpointClass() throws Exception {
+        // 准备：写请求同时只允许1个
+        AdmissionControlFilter filter = new AdmissionControlFilter(Map.of(), Map.of(), null, Map.of(), null, 100,
+                Map.of(EndpointClass.WRITE, new ConcurrencyLimit(ConcurrencyLimiter.Algorithm.FIXED, 1, 1, 1, null)),
+                List.of("/api/statements/"), List.of("/api/transactions/changes"), registry);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+        FilterChain chain = (request, response) -> {
+            // 第一个写请求处理期间再进来一个写请求和一个读请求
+            nested[0] = perform(filter, request("POST", "/api/transactions", null, null));
+            nested[1] = perform(filter, request("GET", "/api/transactions", null, null));
+        };
+
+        // 执行
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/transactions", null, null), first, chain);
+
+        // 验证
+        assertEquals(200, first.getStatus());
+        assertEquals(503, nested[0].getStatus());
+        assertEquals(200, nested[1].getStatus());
+        assertEquals(200, perform(filter, request("POST", "/api/transactions", null, null)).getStatus());
+        assertEquals(1.0, registry.get("admission.rejected").tag("limiter", "write").counter().count());
+        assertEquals(0.0, registry.get("admission.concurrency.in-flight").tag("class", "write").gauge().value());
+        assertEquals(EndpointClass.STREAM, filter.classify(request("GET", "/api/transactions/changes", null, null)));
+        assertEquals(EndpointClass.EXPORT, filter.classify(request("POST", "/api/statements/batch", null, null)));
+        assertEquals(EndpointClass.WRITE, filter.classify(request("DELETE", "/api/transactions/1", null, null)));
+    }
+
+    @Test
+    void testChannelResolvedFromApiKeyAndMissingHeaderUsesDefaultBucket() throws Exception {
+        // 准备：partner-a 属于第三方渠道
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                Map.of(Transaction.Channel.THIRD_PARTY, new RateLimit(0.5, 1)),
+                Map.of("partner-a", Transaction.Channel.THIRD_PARTY), new RateLimit(0.5, 1),
+                Map.of(), null, 100, Map.of(), List.of(), List.of(), registry);
+
+        // 执行 & 验证：省略或伪造 X-Channel 都计入第三方渠道桶
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", null, "partner-a")).getStatus());
+        assertEquals(429, perform(filter, request("GET", "/api/transactions", "APP", "partner-a")).getStatus());
+        // 没有渠道信息的请求共用默认渠道桶，而不是不限
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", null, null)).getStatus());
+        assertEquals(429, perform(filter, request("GET", "/api/transactions", "UNKNOWN", "partner-b")).getStatus());
+        // 声明了未配置限额的渠道仍不限
+        assertEquals(200, perform(filter, request("GET", "/api/transactions", "APP", null)).getStatus());
+        assertEquals(1.0, registry.get("admission.rejected").tag("limiter", "channel:THIRD_PARTY").counter().count());
+        assertEquals(1.0, registry.get("admission.rejected").tag("limiter", "channel:default").counter().count());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String channel, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (channel != null) {
+            request.addHeader(AdmissionControlFilter.CHANNEL_HEADER, channel);
+        }
+        if (apiKey != null) {
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, apiKey);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
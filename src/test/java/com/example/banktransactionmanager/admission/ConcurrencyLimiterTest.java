@@ -0,0 +1,109 @@
+package com.example.banktransactionmanager.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testTokenBucketAllowsBurstThenSustainedRate() {
+        // 准备：每秒10个（间隔100ms），突发3个
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+
+        // 执行 & 验证
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(100 * MILLIS, bucket.tryAcquire(now));
+        assertEquals(40 * MILLIS, bucket.tryAcquire(now + 60 * MILLIS));
+        assertEquals(0, bucket.tryAcquire(now + 100 * MILLIS));
+        assertTrue(bucket.tryAcquire(now + 100 * MILLIS) > 0);
+        // 空闲足够久后突发容量恢复，但不会超过3个
+        long later = now + 10_000 * MILLIS;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void testRequestsBeyondLimitAreRejectedUntilReleased() {
+        // 准备
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.FIXED, 2, 1, 2,
+                Duration.ofMillis(100));
+
+        // 执行 & 验证
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(5 * MILLIS, false);
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testAimdBacksOffOnSlowOrFailedRequestsAndGrowsWhenUtilized() {
+        // 准备
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.AIMD, 20, 4, 40,
+                Duration.ofMillis(100));
+
+        // 执行：超过延迟阈值
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(200 * MILLIS, false);
+        }
+
+        // 验证：20 × 0.9^5 ≈ 11.8
+        assertEquals(11, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.release(10 * MILLIS, true);
+        assertEquals(10, limiter.getLimit());
+
+        // 执行：在途请求达到上限一半以上且延迟正常时加1
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(10 * MILLIS, false);
+        assertEquals(11, limiter.getLimit());
+        // 负载很低时不增长
+        for (int i = 0; i < 5; i++) {
+            limiter.release(10 * MILLIS, false);
+        }
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test
+    void testGradientShrinksWhenLatencyRisesAndRecovers() {
+        // 准备：满负载下延迟稳定在10ms，上限增长到最大值
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.GRADIENT, 20, 4, 100,
+                Duration.ofMillis(100));
+        saturatedSamples(limiter, 200, 10 * MILLIS);
+        assertEquals(100, limiter.getLimit());
+
+        // 执行：延迟升到10倍
+        saturatedSamples(limiter, 30, 100 * MILLIS);
+
+        // 验证
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < 50, "limit should shrink under queueing, was " + shrunk);
+        saturatedSamples(limiter, 300, 10 * MILLIS);
+        assertTrue(limiter.getLimit() > shrunk);
+    }
+
+    private static void saturatedSamples(ConcurrencyLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire()) {
+                // 占满所有名额
+            }
+            limiter.release(rttNanos, false);
+        }
+    }
+}
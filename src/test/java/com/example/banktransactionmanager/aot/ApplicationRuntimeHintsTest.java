@@ -0,0 +1,81 @@
+package com.example.banktransactionmanager.aot;
+
+import com.example.banktransactionmanager.codec.MinorUnitsSerializer;
+import com.example.banktransactionmanager.grpc.proto.TransactionMessage;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testEntityAndDtosAreBindable() throws Exception {
+        // 验证：Lombok生成的访问器与builder都可反射调用
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Transaction.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TransactionDTO.class.getMethod("getAmount")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TransactionCreateRequest.class.getMethod("setAccountNumber", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Transaction.Status.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(MinorUnitsSerializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void testCacheKeyExpressionsAndProjectionsAreReachable() throws Exception {
+        // 验证
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(PageRequest.class.getMethod("getPageNumber")).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(
+                TransactionRef.class,
+                TargetAware.class,
+                SpringProxy.class,
+                DecoratingProxy.class).test(hints));
+    }
+
+    @Test
+    void testEhcacheXmlConfigurationIsIncluded() {
+        // 验证：配置文件、XSD与JAXB模型类
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache-core.xsd").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/schema-h2.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.ehcache.xml.model.ConfigType")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.ehcache.xml.model.CacheLoaderWriterType$WriteBehind$Batching"))
+                .test(hints));
+    }
+
+    @Test
+    void testProtobufMessagesAreReflectable() {
+        // 验证
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TransactionMessage.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TransactionMessage.Builder.class)
+                .test(hints));
+    }
+}
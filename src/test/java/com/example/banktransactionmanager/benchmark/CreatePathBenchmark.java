@@ -0,0 +1,115 @@
+package com.example.banktransactionmanager.benchmark;
+
+import com.example.banktransactionmanager.BankTransactionManagerApplication;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
+import com.example.banktransactionmanager.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建交易热路径的分配量基准（服务层 + 内存H2，不含HTTP层）
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="CreatePathBenchmark -prof gc"
+ * 关注 gc.alloc.rate.norm（每次操作分配的字节数）。
+ * 直接运行main方法时会附加GC分析器，并按 {@link #ALLOCATION_BUDGETS} 检查每次操作的分配量，超出即失败。
+ * 预算取自优化后的实测值并留有余量（优化前：create约93KB/op，createWithIdempotencyKey约140KB/op；
+ * 优化后分别约69KB/op、117KB/op），可通过 -Dbenchmark.allocation-budget-scale 按比例放宽。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreatePathBenchmark {
+
+    static final Map<String, Long> ALLOCATION_BUDGETS = Map.of(
+            "create", 80_000L,
+            "createWithIdempotencyKey", 128_000L);
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionCreateRequest request;
+    private TransactionCreateRequest idempotentRequest;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankTransactionManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                // 以命令行参数传入，优先级高于application.properties
+                .run("--settlement.enabled=false",
+                        "--outbox.relay.enabled=false",
+                        "--grpc.server.enabled=false",
+                        "--profiling.jfr.enabled=false",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.banktransactionmanager=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        request = newRequest();
+        idempotentRequest = newRequest();
+    }
+
+    private static TransactionCreateRequest newRequest() {
+        return TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(10_000L)
+                .currency("CNY")
+                .description("Benchmark deposit")
+                .accountNumber("1234567890")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .fee(0L)
+                .creator("benchmark")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionCreateResponse create() {
+        return transactionService.createTransaction(request);
+    }
+
+    @Benchmark
+    public TransactionCreateResponse createWithIdempotencyKey() {
+        // 每次使用新的外部参考号，避免命中幂等重放
+        idempotentRequest.setExternalReferenceNo(Long.toString(++sequence));
+        return transactionService.createTransaction(idempotentRequest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double scale = Double.parseDouble(System.getProperty("benchmark.allocation-budget-scale", "1.0"));
+        Options options = new OptionsBuilder()
+                .include(CreatePathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            double bytesPerOp = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+            long budget = (long) (ALLOCATION_BUDGETS.get(method) * scale);
+            System.out.printf("%s: %.0f bytes/op (budget %d)%n", method, bytesPerOp, budget);
+            if (bytesPerOp > budget) {
+                throw new AssertionError(method + " allocates " + bytesPerOp + " bytes/op, budget is " + budget);
+            }
+        }
+    }
+}
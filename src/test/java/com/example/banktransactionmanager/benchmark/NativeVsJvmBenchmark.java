@@ -0,0 +1,130 @@
+package com.example.banktransactionmanager.benchmark;
+
+import com.example.banktransactionmanager.smoke.AppProcess;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM构建与原生可执行文件的对比：启动到就绪时间、就绪后RSS、稳态吞吐量与峰值RSS
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.main=com.example.banktransactionmanager.benchmark.NativeVsJvmBenchmark
+ * 需要先分别构建 target/bank-transaction-manager-1.0.0.jar（mvn package）与 target/bank-transaction-manager（mvn -Pnative package），
+ * 缺少的一方会被跳过。也可以用参数覆盖：-Djmh.args="jvm=java -jar app.jar" "native=./app"。
+ *
+ * 启动时间取 {@code benchmark.startups} 次冷启动的中位数；吞吐量在 {@code benchmark.warmup} 预热后
+ * 用 {@code benchmark.threads} 个线程在 {@code benchmark.duration} 内循环请求列表接口（每10次穿插一次创建）。
+ */
+public class NativeVsJvmBenchmark {
+
+    private static final String CREATE_BODY = "{\"transactionType\":\"DEPOSIT\",\"amount\":\"100.00\",\"description\":\"Benchmark\","
+            + "\"accountNumber\":\"6222020200110000\",\"accountType\":\"SAVINGS\",\"channel\":\"APP\",\"fee\":\"0\",\"creator\":\"benchmark\"}";
+
+    public static void main(String[] args) throws Exception {
+        int startups = Integer.getInteger("benchmark.startups", 5);
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT20S"));
+        Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+
+        Map<String, String> targets = new LinkedHashMap<>();
+        targets.put("jvm", "java -XX:+UseContainerSupport -XX:MaxRAMPercentage=75.0 -jar target/bank-transaction-manager-1.0.0.jar");
+        targets.put("native", "target/bank-transaction-manager");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            targets.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            String executable = target.getValue().trim().split("\\s+")[0];
+            boolean runnable = executable.equals("java") || Files.isExecutable(Path.of(executable));
+            String jar = target.getValue().contains("-jar") ? target.getValue().replaceAll(".*-jar\\s+(\\S+).*", "$1") : null;
+            if (!runnable || (jar != null && !Files.exists(Path.of(jar)))) {
+                System.out.printf("Skipping %s: %s not built%n", target.getKey(), jar != null ? jar : executable);
+                continue;
+            }
+            rows.add(measure(target.getKey(), target.getValue(), startups, threads, warmup, duration));
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "build", "ready (ms)", "RSS idle (MB)", "req/s", "RSS peak (MB)");
+        rows.forEach(System.out::println);
+    }
+
+    private static String measure(String name, String command, int startups, int threads,
+                                  Duration warmup, Duration duration) throws Exception {
+        long[] readyMillis = new long[startups];
+        long idleRssKb = 0;
+        for (int i = 0; i < startups; i++) {
+            try (AppProcess app = AppProcess.start(command, "--logging.level.root=WARN",
+                    "--logging.level.com.example.banktransactionmanager=WARN")) {
+                readyMillis[i] = app.awaitReady(Duration.ofSeconds(120));
+                idleRssKb = app.residentSetKb();
+            }
+            System.out.printf("%s startup %d: ready in %d ms%n", name, i + 1, readyMillis[i]);
+        }
+        Arrays.sort(readyMillis);
+
+        double throughput;
+        long peakRssKb;
+        try (AppProcess app = AppProcess.start(command, "--logging.level.root=WARN",
+                "--logging.level.com.example.banktransactionmanager=WARN")) {
+            app.awaitReady(Duration.ofSeconds(120));
+            load(app, threads, warmup);
+            throughput = load(app, threads, duration) * 1_000.0 / duration.toMillis();
+            peakRssKb = app.peakResidentSetKb();
+        }
+        return String.format("%-8s %14d %14.1f %14.0f %14.1f",
+                name, readyMillis[startups / 2], idleRssKb / 1024.0, throughput, peakRssKb / 1024.0);
+    }
+
+    /**
+     * 在指定时长内并发压测，返回完成的请求数
+     */
+    private static long load(AppProcess app, int threads, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest list = HttpRequest.newBuilder(app.baseUri().resolve("/api/transactions?page=0&size=20")).GET().build();
+        HttpRequest create = HttpRequest.newBuilder(app.baseUri().resolve("/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CREATE_BODY))
+                .build();
+        LongAdder completed = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(workers.submit(() -> {
+                long n = 0;
+                while (running.get()) {
+                    HttpRequest request = ++n % 10 == 0 ? create : list;
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    completed.increment();
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+        return completed.sum();
+    }
+}
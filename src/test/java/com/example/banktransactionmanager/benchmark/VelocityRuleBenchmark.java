@@ -0,0 +1,94 @@
+package com.example.banktransactionmanager.benchmark;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.risk.VelocityRule;
+import com.example.banktransactionmanager.risk.VelocityRuleEngine;
+import com.example.banktransactionmanager.risk.VelocityVerdict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 频率/限额规则评估给创建路径增加的延迟（4个线程并发，规则与默认配置相同）
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.main=com.example.banktransactionmanager.benchmark.VelocityRuleBenchmark
+ * spreadAccounts 在10万个账户间随机分布（含账户登记），hotAccount 所有线程争用同一个账户的锁。
+ * 直接运行main方法时按 {@link #P99_BUDGET_MICROS} 检查p99，超出即失败。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VelocityRuleBenchmark {
+
+    static final double P99_BUDGET_MICROS = 50.0;
+
+    private static final int ACCOUNTS = 100_000;
+
+    private VelocityRuleEngine engine;
+    private String[] accountNumbers;
+
+    @Setup
+    public void setUp() {
+        engine = new VelocityRuleEngine(List.of(
+                new VelocityRule("burst", null, null, Duration.ofMinutes(1), 60, null, VelocityRule.Action.HOLD),
+                new VelocityRule("app-daily-outflow", Transaction.Channel.APP,
+                        Set.of(Transaction.TransactionType.WITHDRAWAL, Transaction.TransactionType.TRANSFER,
+                                Transaction.TransactionType.PAYMENT),
+                        Duration.ofHours(24), 0, new BigDecimal("200000.00"), VelocityRule.Action.HOLD),
+                new VelocityRule("third-party-payment-burst", Transaction.Channel.THIRD_PARTY,
+                        Set.of(Transaction.TransactionType.PAYMENT), Duration.ofMinutes(10), 20, null,
+                        VelocityRule.Action.FAIL)),
+                ACCOUNTS * 2, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.format("62220202%08d", i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public VelocityVerdict spreadAccounts() {
+        String accountNumber = accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+        return engine.evaluate(accountNumber, Transaction.Channel.APP, Transaction.TransactionType.TRANSFER, 10_000L);
+    }
+
+    @Benchmark
+    public VelocityVerdict hotAccount() {
+        return engine.evaluate(accountNumbers[0], Transaction.Channel.APP, Transaction.TransactionType.TRANSFER, 10_000L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(VelocityRuleBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            System.out.printf("%s: p99 %.2f us (budget %.0f us)%n", method, p99, P99_BUDGET_MICROS);
+            if (p99 > P99_BUDGET_MICROS) {
+                throw new AssertionError(method + " p99 is " + p99 + " us, budget is " + P99_BUDGET_MICROS + " us");
+            }
+        }
+    }
+}
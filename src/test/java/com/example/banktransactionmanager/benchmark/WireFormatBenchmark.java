@@ -0,0 +1,105 @@
+package com.example.banktransactionmanager.benchmark;
+
+import com.example.banktransactionmanager.codec.CompactBinaryModule;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON 与紧凑二进制格式（Smile）的编解码开销对比，结果为每条记录的纳秒数
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="WireFormatBenchmark -prof gc"
+ * 每条记录的字节数在初始化时打印。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper smileMapper;
+    private List<TransactionDTO> page;
+    private byte[] jsonCreateRequest;
+    private byte[] smileCreateRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        smileMapper = CompactBinaryModule.createSmileMapper(ZoneId.systemDefault());
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        page = IntStream.range(0, PAGE_SIZE).mapToObj(i -> TransactionDTO.builder()
+                .id((long) i)
+                .transactionBizNo("APP" + (1_790_000_000_000_000_000L + i))
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .status(Transaction.Status.SUCCESS)
+                .amount(100_00L + i)
+                .currency("CNY")
+                .description("Utility payment " + i)
+                .transactionTime(base.plusSeconds(i))
+                .accountNumber("62220202001122" + (10 + i % 50))
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .externalReferenceNo("EXT" + i)
+                .fee(150L)
+                .isDeleted(false)
+                .createTime(base.plusSeconds(i))
+                .updateTime(base.plusSeconds(i))
+                .creator("SYSTEM")
+                .build()).toList();
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .amount(8850L)
+                .fee(100L)
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .description("Third party payment")
+                .externalReferenceNo("EXT-0001")
+                .build();
+        jsonCreateRequest = jsonMapper.writeValueAsBytes(request);
+        smileCreateRequest = smileMapper.writeValueAsBytes(request);
+
+        System.out.printf("%nbytes/record: json=%.1f smile=%.1f; create request: json=%d smile=%d%n",
+                jsonMapper.writeValueAsBytes(page).length / (double) PAGE_SIZE,
+                smileMapper.writeValueAsBytes(page).length / (double) PAGE_SIZE,
+                jsonCreateRequest.length, smileCreateRequest.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] jsonWritePage() throws Exception {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] smileWritePage() throws Exception {
+        return smileMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public TransactionCreateRequest jsonReadCreateRequest() throws Exception {
+        return jsonMapper.readValue(jsonCreateRequest, TransactionCreateRequest.class);
+    }
+
+    @Benchmark
+    public TransactionCreateRequest smileReadCreateRequest() throws Exception {
+        return smileMapper.readValue(smileCreateRequest, TransactionCreateRequest.class);
+    }
+}
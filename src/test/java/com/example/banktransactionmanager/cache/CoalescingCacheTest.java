@@ -0,0 +1,185 @@
+package com.example.banktransactionmanager.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // 准备：加载阻塞到所有线程都已发起请求
+        int threads = 16;
+        CoalescingCache cache = cache(null);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch allStarted = new CountDownLatch(threads);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            allStarted.await(5, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            return "page";
+        };
+
+        // 执行
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    allStarted.countDown();
+                    return cache.get("0-20", loader);
+                }));
+            }
+
+            // 验证
+            for (Future<String> result : results) {
+                assertEquals("page", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("page", cache.getTarget().get("0-20").get());
+    }
+
+    @Test
+    void testLoaderFailureIsPropagatedAndNotCached() {
+        // 准备
+        CoalescingCache cache = cache(null);
+
+        // 执行 & 验证
+        Cache.ValueRetrievalException ex = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("k", () -> {
+                    throw new IllegalStateException("db down");
+                }));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertNull(cache.get("k"));
+        assertEquals("v", cache.get("k", () -> "v"));
+    }
+
+    @Test
+    void testPopularEntryIsRefreshedInBackgroundBeforeExpiry() {
+        // 准备
+        CoalescingCache cache = cache(new CoalescingCache.RefreshPolicy(TTL, Duration.ofMinutes(4), 2, 0));
+        AtomicInteger version = new AtomicInteger();
+        Callable<Integer> loader = version::incrementAndGet;
+        cache.get("0-20", loader);
+
+        // 执行：刷新窗口之前命中不触发刷新
+        now.addAndGet(Duration.ofMinutes(3).toNanos());
+        cache.get("0-20", loader);
+        cache.get("0-20", loader);
+        assertTrue(refreshTasks.isEmpty());
+
+        // 执行：进入刷新窗口后，调用方仍拿到旧值，只提交一次刷新
+        now.addAndGet(Duration.ofSeconds(90).toNanos());
+        assertEquals(1, cache.get("0-20", loader));
+        assertEquals(1, cache.get("0-20", loader));
+        assertEquals(1, refreshTasks.size());
+        refreshTasks.remove(0).run();
+
+        // 验证
+        assertEquals(2, cache.get("0-20", loader));
+    }
+
+    @Test
+    void testRarelyReadEntryIsNotRefreshed() {
+        // 准备
+        CoalescingCache cache = cache(new CoalescingCache.RefreshPolicy(TTL, Duration.ofMinutes(4), 10, 0));
+        cache.get("rare", () -> "v1");
+
+        // 执行
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        cache.get("rare", () -> "v2");
+
+        // 验证
+        assertTrue(refreshTasks.isEmpty());
+    }
+
+    @Test
+    void testEarlyExpirationRecomputesSynchronouslyNearExpiry() {
+        // 准备：加载耗时1分钟，系数足够大时临近过期的命中必然提前重算
+        CoalescingCache cache = cache(new CoalescingCache.RefreshPolicy(TTL, TTL, Integer.MAX_VALUE, 1_000_000));
+        AtomicInteger version = new AtomicInteger();
+        Callable<Integer> slowLoader = () -> {
+            now.addAndGet(Duration.ofMinutes(1).toNanos());
+            return version.incrementAndGet();
+        };
+        cache.get("0-20", slowLoader);
+
+        // 执行
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        Integer value = cache.get("0-20", slowLoader);
+
+        // 验证
+        assertEquals(2, value);
+        assertTrue(refreshTasks.isEmpty());
+    }
+
+    @Test
+    void testEarlyExpirationSparesFreshEntries() {
+        // 准备：加载几乎不耗时
+        CoalescingCache cache = cache(new CoalescingCache.RefreshPolicy(TTL, TTL, Integer.MAX_VALUE, 1));
+        AtomicInteger version = new AtomicInteger();
+        cache.get("0-20", version::incrementAndGet);
+
+        // 执行
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        for (int i = 0; i < 100; i++) {
+            cache.get("0-20", version::incrementAndGet);
+        }
+
+        // 验证
+        assertEquals(1, version.get());
+    }
+
+    @Test
+    void testEvictionDuringLoadDiscardsStaleResult() throws Exception {
+        // 准备
+        CoalescingCache cache = cache(null);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = pool.submit(() -> cache.get("k", () -> {
+                loading.countDown();
+                evicted.await(5, TimeUnit.SECONDS);
+                return "stale";
+            }));
+
+            // 执行
+            loading.await(5, TimeUnit.SECONDS);
+            cache.evict("k");
+            evicted.countDown();
+
+            // 验证：调用方拿到加载结果，但不写回缓存
+            assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+            assertNull(cache.get("k"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private CoalescingCache cache(CoalescingCache.RefreshPolicy policy) {
+        return new CoalescingCache(new ConcurrentMapCache("transactionList"), policy, refreshTasks::add, now::get);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import org.ehcache.spi.serialization.SerializerException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionDTOSerializerTest {
+
+    private final TransactionDTOSerializer serializer = new TransactionDTOSerializer(getClass().getClassLoader());
+    private final TransactionCacheKeySerializer keySerializer =
+            new TransactionCacheKeySerializer(getClass().getClassLoader());
+
+    @Test
+    void testRoundTripPreservesAllFields() {
+        // 准备
+        TransactionDTO dto = fullDTO();
+
+        // 执行
+        ByteBuffer binary = serializer.serialize(dto);
+        Object decoded = serializer.read(binary.duplicate());
+
+        // 验证
+        assertEquals(dto, decoded);
+        assertTrue(serializer.equals(dto, binary.duplicate()));
+    }
+
+    @Test
+    void testNullFieldsAreOmittedAndRestored() {
+        // 准备：只有必填字段
+        TransactionDTO dto = TransactionDTO.builder()
+                .id(7L)
+                .transactionBizNo("APP7")
+                .status(Transaction.Status.PENDING)
+                .amount(100L)
+                .build();
+
+        // 执行
+        ByteBuffer binary = serializer.serialize(dto);
+
+        // 验证：标记+版本+位图+id+业务编号+状态+金额+手续费
+        assertEquals(2 + 4 + 8 + (2 + 4) + 1 + 8 + 8, binary.remaining());
+        assertEquals(dto, serializer.read(binary));
+    }
+
+    @Test
+    void testEncodingIsSmallerThanJavaSerialization() throws Exception {
+        // 准备
+        TransactionDTO dto = fullDTO();
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(javaSerialized)) {
+            out.writeObject(dto);
+        }
+
+        // 执行
+        int compactSize = serializer.serialize(dto).remaining();
+
+        // 验证
+        assertTrue(compactSize * 3 < javaSerialized.size(),
+                "compact=" + compactSize + " java=" + javaSerialized.size());
+    }
+
+    @Test
+    void testNullValueIsEncodedAsSingleByte() {
+        // 执行
+        ByteBuffer binary = serializer.serialize(NullValue.INSTANCE);
+
+        // 验证
+        assertEquals(1, binary.remaining());
+        assertSame(NullValue.INSTANCE, serializer.read(binary));
+    }
+
+    @Test
+    void testUnknownFormatVersionIsRejected() {
+        // 准备
+        ByteBuffer binary = serializer.serialize(fullDTO());
+        binary.put(1, (byte) (TransactionDTOSerializer.FORMAT_VERSION + 1));
+
+        // 执行 & 验证
+        assertThrows(SerializerException.class, () -> serializer.read(binary));
+    }
+
+    @Test
+    void testKeySerializerDistinguishesIdsFromBusinessNumbers() {
+        // 执行
+        Object id = keySerializer.read(keySerializer.serialize(42L));
+        Object bizNo = keySerializer.read(keySerializer.serialize("42"));
+
+        // 验证
+        assertEquals(42L, id);
+        assertEquals("42", bizNo);
+        assertFalse(keySerializer.equals(42L, keySerializer.serialize("42")));
+    }
+
+    private static TransactionDTO fullDTO() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 10, 30, 15, 123_456_000);
+        return TransactionDTO.builder()
+                .id(123456789L)
+                .transactionBizNo("APP20240301103015000001")
+                .transactionType(Transaction.TransactionType.TRANSFER)
+                .status(Transaction.Status.SUCCESS)
+                .amount(123456L)
+                .currency("CNY")
+                .description("Rent for March")
+                .transactionTime(time)
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.CHECKING)
+                .counterpartyAccountNumber("6222020200445566")
+                .counterpartyName("张三")
+                .channel(Transaction.Channel.APP)
+                .externalReferenceNo("EXT-001")
+                .fee(150L)
+                .remarks("月租")
+                .isDeleted(false)
+                .createTime(time)
+                .updateTime(time.plusSeconds(5))
+                .creator("system")
+                .updater("settlement")
+                .build();
+    }
+}
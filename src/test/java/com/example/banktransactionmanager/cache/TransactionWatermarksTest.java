@@ -0,0 +1,53 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionWatermarksTest {
+
+    private static final String ACCOUNT = "6222000000000001";
+    private static final String OTHER_ACCOUNT = "6222000000000002";
+
+    @Test
+    void testChangeRaisesOnlyFilterSetsThatCanContainTheTransaction() {
+        // 准备
+        TransactionWatermarks watermarks = new TransactionWatermarks(1000, null);
+        long all = watermarks.current(null, null, null);
+        long account = watermarks.current(ACCOUNT, null, null);
+        long otherAccount = watermarks.current(OTHER_ACCOUNT, null, null);
+        long accountFailed = watermarks.current(ACCOUNT, null, Transaction.Status.FAILED);
+        long withdrawals = watermarks.current(null, Transaction.TransactionType.WITHDRAWAL, null);
+
+        // 执行
+        watermarks.markChanged(ACCOUNT, Transaction.TransactionType.DEPOSIT, Transaction.Status.PENDING);
+
+        // 验证
+        assertTrue(watermarks.current(null, null, null) > all);
+        assertTrue(watermarks.current(ACCOUNT, null, null) > account);
+        assertTrue(watermarks.current(ACCOUNT, Transaction.TransactionType.DEPOSIT, Transaction.Status.PENDING) > account);
+        assertEquals(otherAccount, watermarks.current(OTHER_ACCOUNT, null, null));
+        assertEquals(accountFailed, watermarks.current(ACCOUNT, null, Transaction.Status.FAILED));
+        assertEquals(withdrawals, watermarks.current(null, Transaction.TransactionType.WITHDRAWAL, null));
+        assertNotEquals(watermarks.entityTag(all), watermarks.entityTag(watermarks.current(null, null, null)));
+    }
+
+    @Test
+    void testUnknownStatusAndOverflowNeverReportUnmodified() {
+        // 准备：上限为2个组合，一次变化就会超出
+        TransactionWatermarks watermarks = new TransactionWatermarks(2, null);
+        long failed = watermarks.current(ACCOUNT, null, Transaction.Status.FAILED);
+        long other = watermarks.current(OTHER_ACCOUNT, null, null);
+
+        // 执行：状态未知时按全部状态提升；第二次变化触发整体清空
+        watermarks.markChanged(ACCOUNT, Transaction.TransactionType.TRANSFER, null);
+        long failedAfterStatusChange = watermarks.current(ACCOUNT, null, Transaction.Status.FAILED);
+        watermarks.markChanged(ACCOUNT, Transaction.TransactionType.TRANSFER, Transaction.Status.SUCCESS);
+
+        // 验证：清空后未记录的组合回到新的下限，只会比之前大
+        assertTrue(failedAfterStatusChange > failed);
+        assertTrue(watermarks.current(OTHER_ACCOUNT, null, null) > other);
+        assertTrue(watermarks.current(ACCOUNT, null, Transaction.Status.FAILED) >= failedAfterStatusChange);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.banktransactionmanager.cache;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在同一个JVM中启动三个Hazelcast成员，模拟三个副本各自的本地缓存 + 共享层
+ */
+class TwoLevelCacheTest {
+
+    private static final String CACHE = "transactions";
+
+    private static final List<HazelcastInstance> members = new ArrayList<>();
+    private static final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    private List<CacheManager> replicas;
+
+    @BeforeAll
+    static void startCluster() {
+        String clusterName = "two-level-cache-test-" + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            Config config = new Config();
+            config.setClusterName(clusterName);
+            config.setProperty("hazelcast.logging.type", "slf4j");
+            config.setProperty("hazelcast.phone.home.enabled", "false");
+            config.getNetworkConfig().setPort(5901).setPortAutoIncrement(true);
+            JoinConfig join = config.getNetworkConfig().getJoin();
+            join.getMulticastConfig().setEnabled(false);
+            join.getAutoDetectionConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+            HazelcastInstance member = Hazelcast.newHazelcastInstance(config);
+            members.add(member);
+            buses.add(new CacheInvalidationBus(member));
+        }
+        assertEquals(3, members.get(0).getCluster().getMembers().size());
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        buses.forEach(CacheInvalidationBus::close);
+        members.forEach(HazelcastInstance::shutdown);
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicas = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            replicas.add(new TwoLevelCacheManager(new ConcurrentMapCacheManager(), members.get(i),
+                    Set.of(CACHE), buses.get(i)));
+        }
+        members.get(0).getMap(CACHE).clear();
+    }
+
+    @Test
+    void testValueCachedOnOneReplicaIsServedByAnother() {
+        // 准备
+        Cache first = replicas.get(0).getCache(CACHE);
+        TwoLevelCache second = (TwoLevelCache) replicas.get(1).getCache(CACHE);
+
+        // 执行
+        first.put(1L, dto(1L, Transaction.Status.PENDING));
+        TransactionDTO fetched = second.get(1L, TransactionDTO.class);
+
+        // 验证：从共享层读到并回填本地层
+        assertNotNull(fetched);
+        assertEquals(Transaction.Status.PENDING, fetched.getStatus());
+        assertNotNull(second.getLocal().get(1L));
+    }
+
+    @Test
+    void testEvictionIsBroadcastToOtherReplicas() throws Exception {
+        // 准备：三个副本的本地层都持有旧值
+        replicas.get(0).getCache(CACHE).put(2L, dto(2L, Transaction.Status.PENDING));
+        for (CacheManager replica : replicas) {
+            assertNotNull(replica.getCache(CACHE).get(2L));
+        }
+
+        // 执行：副本0更新数据后失效缓存
+        replicas.get(0).getCache(CACHE).evict(2L);
+
+        // 验证
+        for (CacheManager replica : replicas) {
+            TwoLevelCache cache = (TwoLevelCache) replica.getCache(CACHE);
+            awaitTrue(() -> cache.getLocal().get(2L) == null);
+            assertNull(cache.get(2L));
+        }
+    }
+
+    @Test
+    void testClearIsBroadcastToOtherReplicas() throws Exception {
+        // 准备
+        replicas.get(1).getCache(CACHE).put(3L, dto(3L, Transaction.Status.SUCCESS));
+        TwoLevelCache third = (TwoLevelCache) replicas.get(2).getCache(CACHE);
+        assertNotNull(third.get(3L));
+
+        // 执行
+        replicas.get(0).getCache(CACHE).clear();
+
+        // 验证
+        awaitTrue(() -> third.getLocal().get(3L) == null);
+        assertNull(third.get(3L));
+    }
+
+    @Test
+    void testBulkReadFetchesOnlyLocalMissesFromSharedTier() {
+        // 准备：副本0批量写入，其中一个键缓存"不存在"；副本1本地层只有键4
+        Map<Object, Object> entries = new HashMap<>();
+        entries.put(4L, dto(4L, Transaction.Status.PENDING));
+        entries.put(5L, dto(5L, Transaction.Status.SUCCESS));
+        entries.put(6L, null);
+        ((TwoLevelCache) replicas.get(0).getCache(CACHE)).putAll(entries);
+        TwoLevelCache second = (TwoLevelCache) replicas.get(1).getCache(CACHE);
+        second.getLocal().put(4L, dto(4L, Transaction.Status.PENDING));
+
+        // 执行
+        Map<Object, Cache.ValueWrapper> found = second.getAll(List.of(4L, 5L, 6L, 7L));
+
+        // 验证：共享层命中的条目回填本地层，未缓存的键不在结果中
+        assertEquals(Set.of(4L, 5L, 6L), found.keySet());
+        assertEquals(Transaction.Status.SUCCESS, ((TransactionDTO) found.get(5L).get()).getStatus());
+        assertNull(found.get(6L).get());
+        assertNotNull(second.getLocal().get(5L));
+        assertNotNull(second.getLocal().get(6L));
+    }
+
+    @Test
+    void testUnlistedCachesStayLocal() {
+        // 执行
+        Cache cache = replicas.get(0).getCache("transactionList");
+
+        // 验证
+        assertFalse(cache instanceof TwoLevelCache);
+    }
+
+    private static TransactionDTO dto(Long id, Transaction.Status status) {
+        return TransactionDTO.builder()
+                .id(id)
+                .transactionBizNo("APP" + id)
+                .status(status)
+                .amount(10_000L)
+                .currency("CNY")
+                .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
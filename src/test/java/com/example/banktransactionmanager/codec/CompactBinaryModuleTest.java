@@ -0,0 +1,103 @@
+package com.example.banktransactionmanager.codec;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBinaryModuleTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private final ObjectMapper smileMapper = CompactBinaryModule.createSmileMapper(ZONE);
+
+    @Test
+    void testEncodesAmountsAsScaledLongsAndTimesAsEpochMillis() throws Exception {
+        // 准备
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 10, 30, 15);
+        TransactionDTO dto = sampleDTO(1L, time);
+
+        // 执行
+        JsonNode tree = smileMapper.readTree(smileMapper.writeValueAsBytes(dto));
+
+        // 验证
+        assertTrue(tree.get("amount").isIntegralNumber());
+        assertEquals(123456L, tree.get("amount").asLong());
+        assertEquals(time.atZone(ZONE).toInstant().toEpochMilli(), tree.get("transactionTime").asLong());
+        assertEquals(Transaction.Status.SUCCESS.ordinal(), tree.get("status").asInt());
+        assertFalse(tree.has("remarks"));
+    }
+
+    @Test
+    void testRoundTripPreservesValues() throws Exception {
+        // 准备
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.TRANSFER)
+                .amount(9990L)
+                .fee(10L)
+                .transactionTime(LocalDateTime.of(2024, 1, 31, 23, 59, 59))
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.CHECKING)
+                .channel(Transaction.Channel.APP)
+                .counterpartyAccountNumber("6222020200445566")
+                .description("Rent")
+                .build();
+
+        // 执行
+        TransactionCreateRequest decoded = smileMapper.readValue(smileMapper.writeValueAsBytes(request),
+                TransactionCreateRequest.class);
+
+        // 验证
+        assertEquals(request, decoded);
+    }
+
+    @Test
+    void testListEncodingIsSmallerThanJson() throws Exception {
+        // 准备
+        ObjectMapper jsonMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        LocalDateTime base = LocalDateTime.ofEpochSecond(1_700_000_000L, 0, ZoneOffset.ofHours(8));
+        List<TransactionDTO> page = IntStream.range(0, 100)
+                .mapToObj(i -> sampleDTO((long) i, base.plusMinutes(i)))
+                .toList();
+
+        // 执行
+        int jsonBytes = jsonMapper.writeValueAsBytes(page).length;
+        int smileBytes = smileMapper.writeValueAsBytes(page).length;
+
+        // 验证
+        assertTrue(smileBytes * 2 < jsonBytes, "smile=" + smileBytes + " json=" + jsonBytes);
+    }
+
+    static TransactionDTO sampleDTO(Long id, LocalDateTime time) {
+        return TransactionDTO.builder()
+                .id(id)
+                .transactionBizNo("APP" + (1_790_000_000_000_000_000L + id))
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .status(Transaction.Status.SUCCESS)
+                .amount(123456L)
+                .currency("CNY")
+                .description("Utility payment")
+                .transactionTime(time)
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .externalReferenceNo("EXT" + id)
+                .fee(150L)
+                .isDeleted(false)
+                .createTime(time)
+                .updateTime(time)
+                .creator("SYSTEM")
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.banktransactionmanager.config;
+
+import com.example.banktransactionmanager.cache.CacheTierMetrics;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * "transactions"缓存的本地分层：每个用例使用独立的URI，避免拿到Spring测试上下文中已打开的缓存管理器
+ */
+class CacheConfigTest {
+
+    @TempDir
+    Path diskPath;
+
+    @Test
+    void testPersistentDiskTierSurvivesRestart() throws Exception {
+        // 准备
+        URI uri = URI.create("test:cache-config/restart");
+        CacheConfig.LocalTiers tiers = new CacheConfig.LocalTiers(10, 1, 8, true, diskPath);
+        try (CacheManager first = create(uri, tiers)) {
+            first.getCache(CacheConfig.TRANSACTIONS_CACHE).put(1L, dto(1L));
+            first.getCache(CacheConfig.TRANSACTIONS_CACHE).put("APP1", dto(1L));
+        }
+
+        // 执行：以相同目录重新创建，模拟进程重启
+        try (CacheManager second = create(uri, tiers)) {
+            Cache<Object, Object> cache = second.getCache(CacheConfig.TRANSACTIONS_CACHE);
+
+            // 验证
+            assertEquals(dto(1L), cache.get(1L));
+            assertEquals(dto(1L), cache.get("APP1"));
+        }
+    }
+
+    @Test
+    void testNonPersistentDiskTierStartsEmpty() throws Exception {
+        // 准备
+        URI uri = URI.create("test:cache-config/transient");
+        CacheConfig.LocalTiers tiers = new CacheConfig.LocalTiers(10, 1, 8, false, diskPath);
+        try (CacheManager first = create(uri, tiers)) {
+            first.getCache(CacheConfig.TRANSACTIONS_CACHE).put(2L, dto(2L));
+        }
+
+        // 执行
+        try (CacheManager second = create(uri, tiers)) {
+            // 验证
+            assertNull(second.getCache(CacheConfig.TRANSACTIONS_CACHE).get(2L));
+        }
+    }
+
+    @Test
+    void testTierMetricsReportHitsPerTier() throws Exception {
+        // 准备：堆上只放得下一个条目
+        URI uri = URI.create("test:cache-config/metrics");
+        CacheConfig.LocalTiers tiers = new CacheConfig.LocalTiers(1, 1, 0, false, diskPath);
+        try (CacheManager cacheManager = create(uri, tiers)) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new CacheTierMetrics(cacheManager).bindTo(registry);
+            Cache<Object, Object> cache = cacheManager.getCache(CacheConfig.TRANSACTIONS_CACHE);
+            cache.put(1L, dto(1L));
+            cache.put(2L, dto(2L));
+
+            // 执行：首次读取从堆外层取得并回填堆上层，再次读取由堆上层命中
+            cache.get(1L);
+            cache.get(1L);
+
+            // 验证
+            assertEquals(1.0, registry.get("cache.tier.hits")
+                    .tags("cache", CacheConfig.TRANSACTIONS_CACHE, "tier", "offheap").functionCounter().count());
+            assertEquals(1.0, registry.get("cache.tier.hits")
+                    .tags("cache", CacheConfig.TRANSACTIONS_CACHE, "tier", "heap").functionCounter().count());
+            assertEquals(2.0, registry.get("cache.tier.entries")
+                    .tags("cache", CacheConfig.TRANSACTIONS_CACHE, "tier", "offheap").gauge().value());
+            assertTrue(registry.get("cache.tier.occupied")
+                    .tags("cache", CacheConfig.TRANSACTIONS_CACHE, "tier", "offheap").gauge().value() > 0);
+            assertTrue(registry.find("cache.tier.hits").tags("tier", "disk").meters().isEmpty());
+        }
+    }
+
+    @Test
+    void testClusteredTierRequiresSharedDatabase() {
+        // 执行与验证：内存数据库被拒绝，共享数据库放行
+        assertThrows(IllegalStateException.class,
+                () -> CacheConfig.requireSharedDatabase("jdbc:h2:mem:bankdb;DB_CLOSE_DELAY=-1"));
+        assertDoesNotThrow(() -> CacheConfig.requireSharedDatabase("jdbc:postgresql://db:5432/bank"));
+    }
+
+    private static CacheManager create(URI uri, CacheConfig.LocalTiers tiers) throws Exception {
+        URL config = new ClassPathResource("ehcache.xml").getURL();
+        return CacheConfig.createJCacheManager(uri, config, CacheConfigTest.class.getClassLoader(), tiers);
+    }
+
+    private static TransactionDTO dto(Long id) {
+        return TransactionDTO.builder()
+                .id(id)
+                .transactionBizNo("APP" + id)
+                .status(Transaction.Status.SUCCESS)
+                .amount(10_000L)
+                .currency("CNY")
+                .build();
+    }
+}
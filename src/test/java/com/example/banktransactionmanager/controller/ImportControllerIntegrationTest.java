@@ -0,0 +1,210 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.imports.FileImportEngine;
+import com.example.banktransactionmanager.model.ImportJob;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.ImportJobStatus;
+import com.example.banktransactionmanager.repository.ImportJobRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 块大小设为2，小文件也会经过多块的流水线和检查点；参考号带随机前缀，避免共用内存库带来的干扰
+ */
+@SpringBootTest(properties = {"settlement.enabled=false", "outbox.relay.enabled=false", "grpc.server.port=0",
+        "imports.inbox-dir=target/test-imports/inbox",
+        "imports.work-dir=target/test-imports/work",
+        "imports.archive-dir=target/test-imports/archive",
+        "imports.report-dir=target/test-imports/reports",
+        "imports.inbox.settle-time=PT0S",
+        "imports.poll-interval-ms=600000",
+        "imports.chunk-size=2",
+        "imports.parallelism=2",
+        "imports.fixed-width.columns=transactionType:10,accountNumber:20,accountType:10,amount:12,fee:8,"
+                + "transactionTime:19,externalReferenceNo:20,description:20"})
+@AutoConfigureMockMvc
+class ImportControllerIntegrationTest {
+
+    private static final Path INBOX = Path.of("target/test-imports/inbox");
+    private static final Path WORK = Path.of("target/test-imports/work");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FileImportEngine fileImportEngine;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testUploadImportsValidRowsAndReportsRejectedOnes() throws Exception {
+        // 准备
+        String prefix = "IM" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        String csv = "transactionType,amount,fee,accountNumber,accountType,transactionTime,externalReferenceNo,description,counterpartyName\n"
+                + "DEPOSIT,100.00,0.00,6222000000000001,SAVINGS,2021-07-01 10:00:00," + prefix + "1,Counter deposit,\"Zhang, San\"\n"
+                + "WITHDRAWAL,50.5,1.00,6222000000000001,SAVINGS,2021-07-01 11:00:00," + prefix + "2,Counter withdrawal,\n"
+                + "DEPOSIT,abc,0.00,6222000000000001,SAVINGS,2021-07-01 12:00:00," + prefix + "3,Bad amount,\n"
+                + "DEPOSIT,100.00,0.00,123,SAVINGS,2021-07-01 12:00:00," + prefix + "4,Bad account,\n"
+                + "DEPOSIT,20.00,0.00,6222000000000001,SAVINGS,2021-07-01 13:00:00," + prefix + "1,Duplicate,\n"
+                + "\n"
+                + "PAYMENT,30.00,0.50,6222000000000002,CHECKING,2021-07-01 14:00:00," + prefix + "5,Utility bill,\n";
+        MockMultipartFile file = new MockMultipartFile("file", "counter-20210701.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        // 执行
+        MvcResult result = mockMvc.perform(multipart("/api/imports").file(file)
+                        .param("channel", "COUNTER")
+                        .param("creator", "branch-001"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        long id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        ImportJobStatus finished = awaitFinished(id);
+
+        // 验证：表头 + 6行数据 + 1个空行
+        assertEquals(ImportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(ImportJob.Format.CSV, finished.getFormat());
+        assertEquals(3, finished.getImportedRows());
+        assertEquals(3, finished.getRejectedRows());
+        assertEquals(8, finished.getLinesRead());
+        assertEquals(100.0, finished.getProgressPercent());
+        Transaction imported = transactionRepository.findByIdempotencyKey("COUNTER:" + prefix + "1").orElseThrow();
+        assertEquals(10_000L, imported.getAmount());
+        assertEquals("Zhang, San", imported.getCounterpartyName());
+        assertEquals(Transaction.Status.PENDING, imported.getStatus());
+        assertEquals(Transaction.Channel.COUNTER, imported.getChannel());
+        assertEquals("branch-001", imported.getCreator());
+        assertEquals(5_050L, transactionRepository.findByIdempotencyKey("COUNTER:" + prefix + "2").orElseThrow().getAmount());
+
+        String report = mockMvc.perform(get("/api/imports/{id}/rejected", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = report.lines().toList();
+        assertEquals("lineNumber,reason,row", lines.get(0));
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(1).startsWith("4,Invalid amount: abc,"));
+        assertTrue(lines.get(2).startsWith("5,accountNumber: Account number must be 10-20 digits,"));
+        assertTrue(lines.get(3).startsWith("6,Duplicate external reference number: " + prefix + "1,"));
+    }
+
+    @Test
+    void testInterruptedImportResumesFromCheckpoint() throws Exception {
+        // 准备：第一行已在上次运行中提交，持有节点已停止
+        String prefix = "FW" + UUID.randomUUID().toString().substring(0, 8);
+        String first = fixedWidthRow(prefix + "A", "100.00");
+        String content = first + "\n" + fixedWidthRow(prefix + "B", "200.00") + "\n" + fixedWidthRow(prefix + "C", "300.00") + "\n";
+        Files.createDirectories(WORK);
+        Path stored = WORK.resolve(prefix + ".dat");
+        Files.writeString(stored, content, StandardCharsets.UTF_8);
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .fileName(prefix + ".dat")
+                .storedPath(stored.toAbsolutePath().toString())
+                .format(ImportJob.Format.FIXED_WIDTH)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .status(ImportJob.Status.RUNNING)
+                .creator("partner")
+                .fileBytes(Files.size(stored))
+                .checkpointOffset(first.length() + 1)
+                .linesRead(1)
+                .importedRows(1)
+                .owner("stopped-node")
+                .leaseUntil(LocalDateTime.now().minusMinutes(1))
+                .startTime(LocalDateTime.now().minusMinutes(5))
+                .build());
+
+        // 执行
+        fileImportEngine.poll();
+        ImportJobStatus finished = awaitFinished(job.getId());
+
+        // 验证：只导入检查点之后的两行
+        assertEquals(ImportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(3, finished.getImportedRows());
+        assertEquals(3, finished.getLinesRead());
+        assertFalse(transactionRepository.findByIdempotencyKey("THIRD_PARTY:" + prefix + "A").isPresent());
+        assertEquals(30_000L, transactionRepository.findByIdempotencyKey("THIRD_PARTY:" + prefix + "C")
+                .orElseThrow().getAmount());
+        assertFalse(Files.exists(stored));
+    }
+
+    @Test
+    void testInboxFilesArePickedUpByChannelPrefix() throws Exception {
+        // 准备
+        String prefix = "IB" + UUID.randomUUID().toString().substring(0, 8);
+        Files.createDirectories(INBOX);
+        Files.writeString(INBOX.resolve("THIRD_PARTY_" + prefix + ".dat"),
+                fixedWidthRow(prefix, "12.34") + "\r\n", StandardCharsets.UTF_8);
+        Files.writeString(INBOX.resolve(prefix + ".unknown"), "ignored", StandardCharsets.UTF_8);
+
+        // 执行
+        fileImportEngine.poll();
+
+        // 验证
+        Transaction imported = awaitTransaction("THIRD_PARTY:" + prefix);
+        assertEquals(1_234L, imported.getAmount());
+        assertEquals("FILE_IMPORT", imported.getCreator());
+        assertTrue(Files.exists(INBOX.resolve(prefix + ".unknown")));
+        mockMvc.perform(get("/api/imports/{id}/rejected", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImportJobStatus awaitFinished(long id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/imports/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode node = objectMapper.readTree(body);
+            String status = node.get("status").asText();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status) || System.currentTimeMillis() > deadline) {
+                return objectMapper.treeToValue(node, ImportJobStatus.class);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private Transaction awaitTransaction(String idempotencyKey) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            var found = transactionRepository.findByIdempotencyKey(idempotencyKey);
+            if (found.isPresent() || System.currentTimeMillis() > deadline) {
+                return found.orElseThrow();
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static String fixedWidthRow(String reference, String amount) {
+        return pad("PAYMENT", 10) + pad("6222000000000003", 20) + pad("SAVINGS", 10) + pad(amount, 12)
+                + pad("0.00", 8) + "2021-08-01 09:30:00" + pad(reference, 20) + "Partner settlement";
+    }
+
+    private static String pad(String value, int width) {
+        return String.format("%-" + width + "s", value);
+    }
+}
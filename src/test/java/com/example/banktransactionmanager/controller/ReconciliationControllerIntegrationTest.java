@@ -0,0 +1,136 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.ReconciliationRequest;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 以独立渠道和远离其它测试数据的日期对账，避免共用内存库带来的干扰
+ */
+@SpringBootTest(properties = {"settlement.enabled=false", "outbox.relay.enabled=false", "grpc.server.port=0",
+        "reconciliation.inbox-dir=target/test-reconciliation/inbox",
+        "reconciliation.report-dir=target/test-reconciliation/reports"})
+@AutoConfigureMockMvc
+class ReconciliationControllerIntegrationTest {
+
+    private static final Path INBOX = Path.of("target/test-reconciliation/inbox");
+    private static final LocalDate DAY = LocalDate.of(2021, 6, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testReconcileProducesCountsAndReports() throws Exception {
+        // 准备
+        String prefix = "RC" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        save(prefix + "1", 10_000L, Transaction.Status.SUCCESS);
+        save(prefix + "2", 20_000L, Transaction.Status.SUCCESS);
+        long missingId = save(prefix + "3", 30_000L, Transaction.Status.SUCCESS);
+        save(prefix + "4", 40_000L, Transaction.Status.FAILED);
+        Files.createDirectories(INBOX);
+        String fileName = prefix + "settlement.csv";
+        Files.writeString(INBOX.resolve(fileName), "reference,amount\n"
+                + prefix + "1,100.00\n"
+                + prefix + "2,200.01\n"
+                + prefix + "9,5.00\n", StandardCharsets.UTF_8);
+        ReconciliationRequest request = ReconciliationRequest.builder()
+                .fileName(fileName)
+                .from(DAY)
+                .to(DAY)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .includeMatched(true)
+                .build();
+
+        // 执行
+        MvcResult result = mockMvc.perform(post("/api/reconciliations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // 验证：4 是失败交易，不在文件中属于正常
+        JsonNode report = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertEquals(3, report.get("fileRows").asLong());
+        assertEquals(1, report.get("matched").asLong());
+        assertEquals(1, report.get("amountMismatches").asLong());
+        assertEquals(1, report.get("missingInLedger").asLong());
+        assertEquals(1, report.get("missingInFile").asLong());
+        Path reports = Path.of(report.get("reportDirectory").asText());
+        assertEquals(List.of("type,externalReferenceNo,transactionId,ledgerAmount,ledgerStatus,fileAmount",
+                        "MISSING_IN_FILE," + prefix + "3," + missingId + ",300.00,SUCCESS,"),
+                Files.readAllLines(reports.resolve("missing-in-file.csv")));
+        assertTrue(Files.readAllLines(reports.resolve("mismatched.csv")).get(1)
+                .startsWith("AMOUNT_MISMATCH," + prefix + "2,"));
+        assertTrue(Files.readAllLines(reports.resolve("missing-in-ledger.csv")).get(1)
+                .endsWith(prefix + "9,,,,5.00"));
+        assertEquals(2, Files.readAllLines(reports.resolve("matched.csv")).size());
+    }
+
+    @Test
+    void testFilesOutsideInboxAreRejected() throws Exception {
+        // 准备
+        ReconciliationRequest request = ReconciliationRequest.builder()
+                .fileName("../../../pom.xml")
+                .from(DAY)
+                .to(DAY)
+                .build();
+
+        // 执行 & 验证
+        mockMvc.perform(post("/api/reconciliations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        request.setFileName("does-not-exist.csv");
+        mockMvc.perform(post("/api/reconciliations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    private long save(String externalReferenceNo, long amount, Transaction.Status status) {
+        return transactionRepository.save(Transaction.builder()
+                .transactionBizNo("RC" + UUID.randomUUID().toString().substring(0, 20))
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .status(status)
+                .amount(amount)
+                .fee(0L)
+                .currency("CNY")
+                .description("Partner payment")
+                .transactionTime(DAY.atTime(12, 0))
+                .accountNumber("6222020200998877")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .externalReferenceNo(externalReferenceNo)
+                .isDeleted(false)
+                .createTime(LocalDateTime.now())
+                .creator("test")
+                .build()).getId();
+    }
+}
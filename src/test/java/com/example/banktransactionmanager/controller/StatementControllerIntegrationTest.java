@@ -0,0 +1,158 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 每个用例使用独立账号，与共用同一内存库的其它测试互不影响
+ */
+@SpringBootTest(properties = {"settlement.enabled=false", "outbox.relay.enabled=false", "grpc.server.port=0",
+        "statement.batch.output-dir=target/test-statements"})
+@AutoConfigureMockMvc
+class StatementControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void setUp() {
+        accountNumber = "62229" + String.format("%011d", Math.abs(UUID.randomUUID().getLeastSignificantBits() % 100_000_000_000L));
+        // 账期之前：期初余额 1000.00 - 100.00 - 0.50 = 899.50
+        save(Transaction.TransactionType.DEPOSIT, Transaction.Status.SUCCESS, 100_000L, 0L, "2024-02-10T09:00:00");
+        save(Transaction.TransactionType.WITHDRAWAL, Transaction.Status.SUCCESS, 10_000L, 50L, "2024-02-20T09:00:00");
+        // 账期内，故意乱序写入
+        save(Transaction.TransactionType.PAYMENT, Transaction.Status.SUCCESS, 5_000L, 100L, "2024-03-15T12:00:00");
+        save(Transaction.TransactionType.DEPOSIT, Transaction.Status.SUCCESS, 20_000L, 0L, "2024-03-01T00:00:00");
+        save(Transaction.TransactionType.REFUND, Transaction.Status.SUCCESS, 1_000L, 0L, "2024-03-31T23:59:59");
+        // 不计入：失败、已删除、账期之后
+        save(Transaction.TransactionType.PAYMENT, Transaction.Status.FAILED, 9_999L, 0L, "2024-03-10T12:00:00");
+        Transaction deleted = save(Transaction.TransactionType.TRANSFER, Transaction.Status.SUCCESS, 7_777L, 0L, "2024-03-11T12:00:00");
+        deleted.setIsDeleted(true);
+        transactionRepository.save(deleted);
+        save(Transaction.TransactionType.WITHDRAWAL, Transaction.Status.SUCCESS, 3_000L, 0L, "2024-04-01T00:00:00");
+    }
+
+    @Test
+    void testCsvStatementHasRunningBalanceAndTotals() throws Exception {
+        // 执行
+        String csv = download("csv", "text/csv");
+
+        // 验证
+        String[] rows = csv.split("\n");
+        assertEquals(7, rows.length, csv);
+        assertTrue(rows[1].startsWith("OPENING,2024-03-01 00:00:00,"));
+        assertTrue(rows[1].endsWith(",899.50,"));
+        assertTrue(rows[2].startsWith("TXN,2024-03-01 00:00:00,"));
+        assertTrue(rows[2].endsWith(",,200.00,0.00,1099.50,CNY"));
+        assertTrue(rows[3].startsWith("TXN,2024-03-15 12:00:00,"));
+        assertTrue(rows[3].endsWith(",50.00,,1.00,1048.50,CNY"));
+        assertTrue(rows[4].startsWith("TXN,2024-03-31 23:59:59,"));
+        assertTrue(rows[4].endsWith(",,10.00,0.00,1058.50,CNY"));
+        assertEquals("FEE,,,PAYMENT,,1 charged,,,,1.00,,CNY", rows[5]);
+        assertEquals("CLOSING,,,,,3 transactions,,50.00,210.00,1.00,1058.50,CNY", rows[6]);
+    }
+
+    @Test
+    void testPdfStatementIsAttachment() throws Exception {
+        // 执行
+        String pdf = download("pdf", "application/pdf");
+
+        // 验证
+        assertTrue(pdf.startsWith("%PDF-1.4"));
+        assertTrue(pdf.contains("Opening balance 899.50"));
+        assertTrue(pdf.contains("3 transactions  Debits 50.00  Credits 210.00  Fees 1.00  Closing balance 1058.50 CNY"));
+    }
+
+    @Test
+    void testInvalidPeriodAndFormatAreRejected() throws Exception {
+        // 执行 & 验证
+        mockMvc.perform(get("/api/accounts/{accountNumber}/statements", accountNumber)
+                        .param("from", "2024-03-31").param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/{accountNumber}/statements", accountNumber)
+                        .param("from", "2023-01-01").param("to", "2024-12-31"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/{accountNumber}/statements", accountNumber)
+                        .param("from", "2024-03-01").param("to", "2024-03-31").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBatchWritesOneFilePerAccount() throws Exception {
+        // 执行
+        MvcResult result = mockMvc.perform(post("/api/statements/batch")
+                        .param("from", "2024-03-01").param("to", "2024-03-31"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // 验证
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertTrue(body.get("failedAccounts").isEmpty());
+        assertEquals(body.get("accounts").asInt(), body.get("generated").asInt());
+        Path file = Path.of(body.get("outputDirectory").asText()).resolve(accountNumber + ".csv");
+        List<String> rows = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals("CLOSING,,,,,3 transactions,,50.00,210.00,1.00,1058.50,CNY", rows.get(rows.size() - 1));
+    }
+
+    private String download(String format, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/accounts/{accountNumber}/statements", accountNumber)
+                        .param("from", "2024-03-01").param("to", "2024-03-31").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"statement-" + accountNumber + "-2024-03-01_2024-03-31." + format + "\""))
+                .andReturn();
+        assertTrue(result.getResponse().getContentType().startsWith(contentType));
+        return new String(result.getResponse().getContentAsByteArray(),
+                "pdf".equals(format) ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    private Transaction save(Transaction.TransactionType type, Transaction.Status status, long amount, long fee, String time) {
+        return transactionRepository.save(Transaction.builder()
+                .transactionBizNo("STMT" + UUID.randomUUID().toString().substring(0, 20))
+                .transactionType(type)
+                .status(status)
+                .amount(amount)
+                .fee(fee)
+                .currency("CNY")
+                .description(type.name())
+                .transactionTime(LocalDateTime.parse(time))
+                .accountNumber(accountNumber)
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .isDeleted(false)
+                .createTime(LocalDateTime.now())
+                .creator("test")
+                .build());
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.banktransactionmanager.controller;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"settlement.enabled=false", "grpc.server.port=0"})
+@AutoConfigureMockMvc
+class TransactionControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionCreateRequest createRequest(String externalReferenceNo) {
+        return TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .amount(8850L)
+                .description("Third party payment")
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .externalReferenceNo(externalReferenceNo)
+                .fee(100L)
+                .creator("partner")
+                .build();
+    }
+
+    @Test
+    void testRetriedCreateWithIdempotencyKeyReturnsOriginal() throws Exception {
+        // 准备
+        String body = objectMapper.writeValueAsString(createRequest(null));
+
+        // 执行：模拟第三方超时重试
+        MvcResult first = mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "it-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult second = mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "it-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(true))
+                .andReturn();
+
+        // 验证：只写入一条记录
+        JsonNode created = objectMapper.readTree(first.getResponse().getContentAsString());
+        JsonNode replayed = objectMapper.readTree(second.getResponse().getContentAsString());
+        assertEquals(created.get("id").asLong(), replayed.get("id").asLong());
+        assertEquals(created.get("transactionBizNo").asText(), replayed.get("transactionBizNo").asText());
+        assertTrue(transactionRepository.findByIdempotencyKey("THIRD_PARTY:it-retry-1").isPresent());
+    }
+
+    @Test
+    void testRetriedCreateWithExternalReferenceIsDeduplicated() throws Exception {
+        // 准备
+        String body = objectMapper.writeValueAsString(createRequest("EXT-IT-0001"));
+
+        // 执行
+        mockMvc.perform(post("/api/transactions").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/transactions").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(true));
+
+        // 验证：新建的交易可以按ID读取（经过缓存）
+        Transaction saved = transactionRepository.findByIdempotencyKey("THIRD_PARTY:EXT-IT-0001").orElseThrow();
+        assertEquals(Transaction.Status.PENDING, saved.getStatus());
+        assertEquals("CNY", saved.getCurrency());
+        mockMvc.perform(get("/api/transactions?page=0&size=20"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testLookupReturnsTransactionsInRequestOrder() throws Exception {
+        // 准备
+        String first = createAndGetBizNo("EXT-IT-LOOKUP-1");
+        String second = createAndGetBizNo("EXT-IT-LOOKUP-2");
+        String body = "{\"transactionBizNos\":[\"" + second + "\",\"APP-MISSING\",\"" + first + "\"]}";
+
+        // 执行 & 验证：第二次请求全部由缓存（包括缓存的空结果）应答
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/transactions/lookup").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions.length()").value(2))
+                    .andExpect(jsonPath("$.transactions[0].transactionBizNo").value(second))
+                    .andExpect(jsonPath("$.transactions[1].transactionBizNo").value(first))
+                    .andExpect(jsonPath("$.notFound[0]").value("APP-MISSING"));
+        }
+        mockMvc.perform(post("/api/transactions/lookup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"transactionBizNos\":[\"" + first + "\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListReturnsOnlyRequestedFields() throws Exception {
+        // 准备
+        String bizNo = createAndGetBizNo("EXT-IT-FIELDS-1");
+
+        // 执行 & 验证
+        mockMvc.perform(get("/api/transactions?accountNumber=6222020200112233&size=100&fields=transactionBizNo,amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.transactionBizNo == '" + bizNo + "')].amount").value(88.5))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].fee").doesNotExist());
+    }
+
+    @Test
+    void testCountFreeListAndSearchReturnSlices() throws Exception {
+        // 准备
+        createAndGetBizNo("EXT-IT-SLICE-1");
+        createAndGetBizNo("EXT-IT-SLICE-2");
+
+        // 执行 & 验证：不返回精确总数，只返回是否有下一页
+        mockMvc.perform(get("/api/transactions?accountNumber=6222020200112233&size=1&count=estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/api/transactions/search?keyword=third party&size=1&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.approximateTotal").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/api/transactions?count=approximate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStatsReflectCreatedTransactionWithoutQuery() throws Exception {
+        // 准备
+        JsonNode before = objectMapper.readTree(mockMvc.perform(get("/api/stats?channel=THIRD_PARTY&days=1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // 执行
+        createAndGetBizNo("EXT-IT-STATS-1");
+
+        // 验证：新建交易在提交后计入当天的统计
+        JsonNode after = objectMapper.readTree(mockMvc.perform(get("/api/stats?channel=THIRD_PARTY&days=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countsByChannel.APP").doesNotExist())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(sum(before.get("countsByChannel").get("THIRD_PARTY")) + 1,
+                sum(after.get("countsByChannel").get("THIRD_PARTY")));
+        assertEquals(sum(before.get("daily").get(0).get("counts")) + 1, sum(after.get("daily").get(0).get("counts")));
+        mockMvc.perform(get("/api/stats?days=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static long sum(JsonNode counts) {
+        long total = 0;
+        for (JsonNode count : counts) {
+            total += count.asLong();
+        }
+        return total;
+    }
+
+    private String createAndGetBizNo(String externalReferenceNo) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest(externalReferenceNo))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("transactionBizNo").asText();
+    }
+
+    @Test
+    void testCreatedTransactionAppearsInChangeFeed() throws Exception {
+        // 准备
+        MvcResult created = mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest("EXT-IT-FEED-1"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String bizNo = objectMapper.readTree(created.getResponse().getContentAsString()).get("transactionBizNo").asText();
+
+        // 执行：按游标长轮询，直到中继把该交易的事件投递到变更流
+        JsonNode found = null;
+        long since = 0;
+        for (int i = 0; i < 20 && found == null; i++) {
+            MvcResult poll = mockMvc.perform(get("/api/transactions/changes")
+                            .param("since", String.valueOf(since))
+                            .param("waitMs", "2000"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(mockMvc.perform(asyncDispatch(poll))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode event : page.get("events")) {
+                if (bizNo.equals(event.get("transactionBizNo").asText())) {
+                    found = event;
+                }
+            }
+            since = page.get("nextOffset").asLong();
+        }
+
+        // 验证
+        assertNotNull(found);
+        assertEquals("CREATED", found.get("changeType").asText());
+        assertEquals("PENDING", found.get("status").asText());
+        assertTrue(found.get("offset").asLong() > 0);
+    }
+}
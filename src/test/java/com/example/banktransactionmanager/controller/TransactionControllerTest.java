@@ -1,35 +1,52 @@
 package com.example.banktransactionmanager.controller;
 
+import com.example.banktransactionmanager.cache.TransactionWatermarks;
+import com.example.banktransactionmanager.codec.CompactBinaryModule;
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.BulkDeleteRequest;
+import com.example.banktransactionmanager.model.dto.BulkStatusUpdateRequest;
 import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
 import com.example.banktransactionmanager.model.dto.TransactionDTO;
 import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.TransactionField;
 import com.example.banktransactionmanager.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransactionController.class)
+@Import(TransactionControllerTest.WatermarksConfig.class)
 class TransactionControllerTest {
 
     @Autowired
@@ -41,6 +58,18 @@ class TransactionControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TransactionWatermarks transactionWatermarks;
+
+    @TestConfiguration
+    static class WatermarksConfig {
+
+        @Bean
+        TransactionWatermarks transactionWatermarks() {
+            return new TransactionWatermarks(1000, null);
+        }
+    }
+
     private TransactionDTO transactionDTO;
 
     @BeforeEach
@@ -50,7 +79,7 @@ class TransactionControllerTest {
         transactionDTO.setTransactionBizNo("20240101APP12345678");
         transactionDTO.setTransactionType(Transaction.TransactionType.DEPOSIT);
         transactionDTO.setStatus(Transaction.Status.SUCCESS);
-        transactionDTO.setAmount(BigDecimal.valueOf(1000.00));
+        transactionDTO.setAmount(100_000L);
         transactionDTO.setCurrency("CNY");
         transactionDTO.setDescription("Test deposit");
         transactionDTO.setTransactionTime(LocalDateTime.now());
@@ -58,7 +87,7 @@ class TransactionControllerTest {
         transactionDTO.setAccountType(Transaction.AccountType.SAVINGS);
         transactionDTO.setChannel(Transaction.Channel.APP);
         transactionDTO.setExternalReferenceNo("TEST123");
-        transactionDTO.setFee(BigDecimal.ZERO);
+        transactionDTO.setFee(0L);
         transactionDTO.setRemarks("Test remarks");
         transactionDTO.setIsDeleted(false);
         transactionDTO.setCreateTime(LocalDateTime.now());
@@ -70,7 +99,7 @@ class TransactionControllerTest {
         // 准备
         TransactionCreateRequest request = new TransactionCreateRequest();
         request.setTransactionType(null); // Invalid input
-        request.setAmount(BigDecimal.valueOf(-100)); // Invalid input
+        request.setAmount(-10_000L); // Invalid input
 
         // 执行 & 验证
         mockMvc.perform(post("/api/transactions")
@@ -84,23 +113,61 @@ class TransactionControllerTest {
         // 准备
         TransactionCreateRequest request = new TransactionCreateRequest();
         request.setTransactionType(Transaction.TransactionType.DEPOSIT);
-        request.setAmount(BigDecimal.valueOf(1000.00));
+        request.setAmount(100_000L);
         request.setDescription("Test deposit");
         request.setAccountNumber("1234567890123456");
         request.setAccountType(Transaction.AccountType.SAVINGS);
         request.setChannel(Transaction.Channel.APP);
         request.setExternalReferenceNo("TEST123");
-        request.setFee(BigDecimal.ZERO);
+        request.setFee(0L);
         request.setCreator("testUser");
         
-        when(transactionService.createTransaction(any(TransactionCreateRequest.class))).thenReturn(true);
+        TransactionCreateResponse response = TransactionCreateResponse.builder()
+                .id(1L)
+                .transactionBizNo("APP12345678")
+                .status(Transaction.Status.PENDING)
+                .build();
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), isNull())).thenReturn(response);
 
         // 执行 & 验证
         mockMvc.perform(post("/api/transactions")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
-                .andExpect(content().string("Transaction created successfully"));
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.transactionBizNo").value("APP12345678"))
+                .andExpect(jsonPath("$.replayed").value(false));
+    }
+
+    @Test
+    void testCreateTransaction_IdempotentReplay() throws Exception {
+        // 准备
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setTransactionType(Transaction.TransactionType.DEPOSIT);
+        request.setAmount(100_000L);
+        request.setDescription("Test deposit");
+        request.setAccountNumber("1234567890123456");
+        request.setAccountType(Transaction.AccountType.SAVINGS);
+        request.setChannel(Transaction.Channel.THIRD_PARTY);
+        request.setFee(0L);
+        request.setCreator("testUser");
+
+        TransactionCreateResponse response = TransactionCreateResponse.builder()
+                .id(1L)
+                .transactionBizNo("THIRD_PARTY12345678")
+                .status(Transaction.Status.PENDING)
+                .replayed(true)
+                .build();
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), eq("retry-key-1"))).thenReturn(response);
+
+        // 执行 & 验证：重放返回200和首次创建的结果
+        mockMvc.perform(post("/api/transactions")
+                .header("Idempotency-Key", "retry-key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionBizNo").value("THIRD_PARTY12345678"))
+                .andExpect(jsonPath("$.replayed").value(true));
     }
 
     @Test
@@ -108,16 +175,93 @@ class TransactionControllerTest {
         // 准备
         List<TransactionDTO> transactions = Collections.singletonList(transactionDTO);
         Page<TransactionDTO> page = new PageImpl<>(transactions, PageRequest.of(0, 10), 1);
-        when(transactionService.getAllTransactions(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class))).thenReturn(page);
+        when(transactionService.getAllTransactions(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class), eq(TransactionField.COMPACT))).thenReturn(page);
 
-        // 执行 & 验证
+        // 执行 & 验证：默认为精简视图，不输出备注和审计字段
         mockMvc.perform(get("/api/transactions?page=0&size=10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content.length()").value(1))
                 .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].amount").value(1000.00))
+                .andExpect(jsonPath("$.content[0].remarks").doesNotExist())
+                .andExpect(jsonPath("$.content[0].creator").doesNotExist())
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void testGetAllTransactions_SparseFieldsets() throws Exception {
+        // 准备
+        Page<TransactionDTO> page = new PageImpl<>(Collections.singletonList(transactionDTO), PageRequest.of(0, 10), 1);
+        when(transactionService.getAllTransactions(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class),
+                eq(EnumSet.of(TransactionField.TRANSACTION_BIZ_NO, TransactionField.FEE)))).thenReturn(page);
+        when(transactionService.getAllTransactions(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class))).thenReturn(page);
+
+        // 执行 & 验证
+        mockMvc.perform(get("/api/transactions?fields=transactionBizNo, FEE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].transactionBizNo").value("20240101APP12345678"))
+                .andExpect(jsonPath("$.content[0].fee").value(0.00))
+                .andExpect(jsonPath("$.content[0].id").doesNotExist())
+                .andExpect(jsonPath("$.content[0].amount").doesNotExist());
+        mockMvc.perform(get("/api/transactions?fields=*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].creator").value("system"));
+        mockMvc.perform(get("/api/transactions?fields=id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field: password"));
+    }
+
+    @Test
+    void testGetAllTransactions_NotModifiedUntilFilterSetChanges() throws Exception {
+        // 准备
+        Page<TransactionDTO> page = new PageImpl<>(Collections.singletonList(transactionDTO), PageRequest.of(0, 10), 1);
+        when(transactionService.getAllTransactions(any(Pageable.class), eq("1234567890123456"), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class), eq(TransactionField.COMPACT))).thenReturn(page);
+        String eTag = mockMvc.perform(get("/api/transactions?accountNumber=1234567890123456"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 执行 & 验证：其它账号的变化不影响该列表，未修改时不调用服务层
+        transactionWatermarks.markChanged("6222000000000009", Transaction.TransactionType.DEPOSIT, Transaction.Status.PENDING);
+        mockMvc.perform(get("/api/transactions?accountNumber=1234567890123456").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+        // 只带 If-Modified-Since 的请求不会得到304，秒级时间无法区分同一秒内的修改
+        mockMvc.perform(get("/api/transactions?accountNumber=1234567890123456")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2100 23:59:59 GMT"))
+                .andExpect(status().isOk());
+        verify(transactionService, times(2)).getAllTransactions(any(Pageable.class), eq("1234567890123456"), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class), eq(TransactionField.COMPACT));
+
+        transactionWatermarks.markChanged("1234567890123456", Transaction.TransactionType.DEPOSIT, Transaction.Status.SUCCESS);
+        mockMvc.perform(get("/api/transactions?accountNumber=1234567890123456").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L));
+    }
+
+    @Test
+    void testGetTransactionById_ConditionalOnUpdateTime() throws Exception {
+        // 准备
+        transactionDTO.setUpdateTime(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000));
+        when(transactionService.getTransactionById(1L)).thenReturn(Optional.of(transactionDTO));
+        String eTag = mockMvc.perform(get("/api/transactions/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionBizNo").value("20240101APP12345678"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 执行 & 验证
+        mockMvc.perform(get("/api/transactions/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        transactionDTO.setUpdateTime(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_457_000));
+        mockMvc.perform(get("/api/transactions/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        when(transactionService.getTransactionById(2L)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/transactions/{id}", 2L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testUpdateTransaction_Success() throws Exception {
         // 准备
@@ -125,14 +269,14 @@ class TransactionControllerTest {
         TransactionUpdateRequest request = new TransactionUpdateRequest();
         request.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
         request.setStatus(Transaction.Status.SUCCESS);
-        request.setAmount(BigDecimal.valueOf(1000.00));
+        request.setAmount(100_000L);
         request.setCurrency("CNY");
         request.setDescription("Updated withdrawal");
         request.setAccountNumber("1234567890123456");
         request.setAccountType(Transaction.AccountType.SAVINGS);
         request.setChannel(Transaction.Channel.APP);
         request.setExternalReferenceNo("TEST123");
-        request.setFee(BigDecimal.ZERO);
+        request.setFee(0L);
         request.setUpdater("processor");
 
         doNothing().when(transactionService).updateTransaction(eq(transactionId), any(TransactionUpdateRequest.class));
@@ -157,4 +301,85 @@ class TransactionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBulkUpdateStatus() throws Exception {
+        // 准备
+        BulkStatusUpdateRequest request = BulkStatusUpdateRequest.builder()
+                .ids(List.of(1L, 2L, 3L))
+                .fromStatus(Transaction.Status.PENDING)
+                .toStatus(Transaction.Status.SUCCESS)
+                .updater("settlement")
+                .build();
+        when(transactionService.updateTransactionStatus(List.of(1L, 2L, 3L), Transaction.Status.PENDING,
+                Transaction.Status.SUCCESS, "settlement")).thenReturn(2);
+
+        // 执行 & 验证
+        mockMvc.perform(post("/api/transactions/bulk-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    void testBulkSoftDelete_RequiresIdsOrFilter() throws Exception {
+        // 准备：同时提供ID列表和筛选条件
+        BulkDeleteRequest request = BulkDeleteRequest.builder()
+                .ids(List.of(1L))
+                .accountNumber("1234567890123456")
+                .build();
+
+        // 执行 & 验证
+        mockMvc.perform(post("/api/transactions/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllTransactions_CompactBinary() throws Exception {
+        // 准备
+        Page<TransactionDTO> page = new PageImpl<>(Collections.singletonList(transactionDTO), PageRequest.of(0, 10), 1);
+        when(transactionService.getAllTransactions(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class), eq(TransactionField.COMPACT))).thenReturn(page);
+        ObjectMapper smileMapper = CompactBinaryModule.createSmileMapper(ZoneId.systemDefault());
+
+        // 执行
+        byte[] body = mockMvc.perform(get("/api/transactions?page=0&size=10")
+                        .accept(CompactBinaryModule.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactBinaryModule.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // 验证：金额为缩放整数，时间为epoch毫秒，字段集同样生效
+        JsonNode content = smileMapper.readTree(body).get("content").get(0);
+        assertEquals(100000L, content.get("amount").asLong());
+        assertTrue(content.get("transactionTime").isIntegralNumber());
+        assertFalse(content.has("remarks"));
+    }
+
+    @Test
+    void testCreateTransaction_CompactBinaryRequest() throws Exception {
+        // 准备
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setTransactionType(Transaction.TransactionType.DEPOSIT);
+        request.setAmount(100_000L);
+        request.setDescription("Test deposit");
+        request.setAccountNumber("1234567890123456");
+        request.setAccountType(Transaction.AccountType.SAVINGS);
+        request.setChannel(Transaction.Channel.APP);
+        request.setFee(0L);
+        request.setCreator("testUser");
+        ObjectMapper smileMapper = CompactBinaryModule.createSmileMapper(ZoneId.systemDefault());
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), isNull()))
+                .thenReturn(TransactionCreateResponse.builder().id(1L).transactionBizNo("APP1").build());
+
+        // 执行 & 验证
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(CompactBinaryModule.MEDIA_TYPE)
+                        .content(smileMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+        verify(transactionService).createTransaction(argThat(r -> r.getAmount() == 100_000L), isNull());
+    }
+}
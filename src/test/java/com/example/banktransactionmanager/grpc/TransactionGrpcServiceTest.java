@@ -0,0 +1,251 @@
+package com.example.banktransactionmanager.grpc;
+
+import com.example.banktransactionmanager.exception.BusinessException;
+import com.example.banktransactionmanager.grpc.proto.AccountType;
+import com.example.banktransactionmanager.grpc.proto.BulkCreateTransactionsResponse;
+import com.example.banktransactionmanager.grpc.proto.Channel;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionRequest;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionResponse;
+import com.example.banktransactionmanager.grpc.proto.GetTransactionByBizNoRequest;
+import com.example.banktransactionmanager.grpc.proto.ListTransactionsRequest;
+import com.example.banktransactionmanager.grpc.proto.TransactionMessage;
+import com.example.banktransactionmanager.grpc.proto.TransactionServiceGrpc;
+import com.example.banktransactionmanager.grpc.proto.TransactionType;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.service.TransactionService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TransactionGrpcServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    @Mock
+    private TransactionService transactionService;
+
+    private ValidatorFactory validatorFactory;
+    private Server server;
+    private ManagedChannel channel;
+    private TransactionServiceGrpc.TransactionServiceBlockingStub blockingStub;
+    private TransactionServiceGrpc.TransactionServiceStub asyncStub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new TransactionGrpcService(transactionService, new TransactionProtoMapper(ZONE), validatorFactory.getValidator()))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        blockingStub = TransactionServiceGrpc.newBlockingStub(channel);
+        asyncStub = TransactionServiceGrpc.newStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        validatorFactory.close();
+    }
+
+    @Test
+    void testCreateTransaction_MapsScaledAmountAndIdempotencyKey() {
+        // 准备
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), eq("idem-1")))
+                .thenReturn(createResponse(1L, false));
+
+        // 执行
+        CreateTransactionResponse response = blockingStub.createTransaction(validRequest()
+                .setIdempotencyKey("idem-1")
+                .build());
+
+        // 验证
+        assertEquals(1L, response.getId());
+        assertEquals("TXN1", response.getTransactionBizNo());
+        assertEquals(com.example.banktransactionmanager.grpc.proto.Status.PENDING, response.getStatus());
+        ArgumentCaptor<TransactionCreateRequest> captor = ArgumentCaptor.forClass(TransactionCreateRequest.class);
+        verify(transactionService).createTransaction(captor.capture(), eq("idem-1"));
+        assertEquals(12_345L, captor.getValue().getAmount());
+        assertEquals(Transaction.Channel.APP, captor.getValue().getChannel());
+        assertNull(captor.getValue().getCounterpartyName());
+    }
+
+    @Test
+    void testCreateTransaction_ValidationFailureIsInvalidArgument() {
+        // 执行
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub.createTransaction(validRequest().clearAccountNumber().setAmount(0L).build()));
+
+        // 验证
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertTrue(e.getStatus().getDescription().contains("accountNumber"));
+        assertTrue(e.getStatus().getDescription().contains("amount"));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void testBulkCreateTransactions_CollectsResultsAndErrors() throws Exception {
+        // 准备
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), isNull()))
+                .thenReturn(createResponse(1L, false))
+                .thenThrow(new BusinessException("duplicate"));
+        when(transactionService.createTransaction(any(TransactionCreateRequest.class), eq("replay")))
+                .thenReturn(createResponse(2L, true));
+        CompletableFuture<BulkCreateTransactionsResponse> result = new CompletableFuture<>();
+
+        // 执行
+        StreamObserver<CreateTransactionRequest> requests = asyncStub.bulkCreateTransactions(observer(result));
+        requests.onNext(validRequest().build());
+        requests.onNext(validRequest().build());
+        requests.onNext(validRequest().clearDescription().build());
+        requests.onNext(validRequest().setIdempotencyKey("replay").build());
+        requests.onCompleted();
+        BulkCreateTransactionsResponse response = result.get(5, TimeUnit.SECONDS);
+
+        // 验证
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getReplayed());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(1, 2), response.getErrorsList().stream().map(e -> e.getIndex()).toList());
+        assertEquals("duplicate", response.getErrors(0).getMessage());
+        assertEquals(List.of(1L, 2L), response.getResultsList().stream().map(CreateTransactionResponse::getId).toList());
+    }
+
+    @Test
+    void testGetTransactionByBizNo_NotFound() {
+        // 准备
+        when(transactionService.getTransactionByTransactionBizNo(anyString())).thenReturn(Optional.empty());
+
+        // 执行
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> blockingStub.getTransactionByBizNo(
+                GetTransactionByBizNoRequest.newBuilder().setTransactionBizNo("TXN404").build()));
+
+        // 验证
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void testListTransactions_StreamsPagesUpToMaxResults() {
+        // 准备
+        when(transactionService.getTransactionsAfter(anyLong(), anyInt(), eq("1234567890"), isNull(), isNull()))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    int limit = invocation.getArgument(1);
+                    return LongStream.rangeClosed(afterId + 1, afterId + limit)
+                            .mapToObj(TransactionGrpcServiceTest::transactionDTO)
+                            .toList();
+                });
+
+        // 执行
+        Iterator<TransactionMessage> stream = blockingStub.listTransactions(ListTransactionsRequest.newBuilder()
+                .setAccountNumber("1234567890")
+                .setPageSize(10)
+                .setMaxResults(25)
+                .build());
+        List<TransactionMessage> messages = new ArrayList<>();
+        stream.forEachRemaining(messages::add);
+
+        // 验证：按上一块最后的ID续读，不走带缓存的分页列表
+        assertEquals(25, messages.size());
+        assertEquals(1L, messages.get(0).getId());
+        assertEquals(25L, messages.get(24).getId());
+        assertEquals(10_000L, messages.get(0).getAmount());
+        verify(transactionService).getTransactionsAfter(eq(20L), eq(10), eq("1234567890"), isNull(), isNull());
+        verify(transactionService, times(3)).getTransactionsAfter(anyLong(), anyInt(), anyString(), isNull(), isNull());
+        verify(transactionService, never()).getAllTransactions(any(Pageable.class), any(), any(), any());
+    }
+
+    private static CreateTransactionRequest.Builder validRequest() {
+        return CreateTransactionRequest.newBuilder()
+                .setTransactionType(TransactionType.DEPOSIT)
+                .setAmount(12345L)
+                .setCurrency("CNY")
+                .setDescription("gRPC deposit")
+                .setAccountNumber("1234567890")
+                .setAccountType(AccountType.SAVINGS)
+                .setChannel(Channel.APP)
+                .setFee(0L)
+                .setCreator("grpc-test");
+    }
+
+    private static TransactionCreateResponse createResponse(Long id, boolean replayed) {
+        return TransactionCreateResponse.builder()
+                .id(id)
+                .transactionBizNo("TXN" + id)
+                .status(Transaction.Status.PENDING)
+                .createTime(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .replayed(replayed)
+                .build();
+    }
+
+    private static TransactionDTO transactionDTO(long id) {
+        return TransactionDTO.builder()
+                .id(id)
+                .transactionBizNo("TXN" + id)
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .status(Transaction.Status.SUCCESS)
+                .amount(10_000L)
+                .currency("CNY")
+                .accountNumber("1234567890")
+                .channel(Transaction.Channel.APP)
+                .transactionTime(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .build();
+    }
+
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.banktransactionmanager.imports;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowParserTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCsvParserMapsColumnsByHeaderAndHandlesQuotes() {
+        // 准备：列名大小写和下划线不敏感，未知列被忽略
+        CsvRowParser parser = CsvRowParser.fromHeader("TRANSACTION_TYPE,amount,branch,description,transactionTime", ',');
+
+        // 执行
+        TransactionCreateRequest request = parser.parse("deposit, 1234.5 ,B01,\"Cash, \"\"counter\"\"\",2021-07-01 10:00:00");
+
+        // 验证
+        assertEquals(Transaction.TransactionType.DEPOSIT, request.getTransactionType());
+        assertEquals(123_450L, request.getAmount());
+        assertEquals("Cash, \"counter\"", request.getDescription());
+        assertEquals(LocalDateTime.of(2021, 7, 1, 10, 0), request.getTransactionTime());
+        assertNull(request.getAccountNumber());
+        IllegalArgumentException columns = assertThrows(IllegalArgumentException.class, () -> parser.parse("DEPOSIT,1.00"));
+        assertEquals("Expected 5 columns but found 2", columns.getMessage());
+        assertEquals("Invalid amount: 1.001", assertThrows(IllegalArgumentException.class,
+                () -> parser.parse("DEPOSIT,1.001,B01,x,2021-07-01 10:00:00")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> CsvRowParser.fromHeader("a,b,c", ','));
+    }
+
+    @Test
+    void testFixedWidthParserTrimsAndToleratesMissingTrailingColumns() {
+        // 准备
+        FixedWidthRowParser parser = new FixedWidthRowParser(List.of(
+                FixedWidthColumn.parse("accountNumber:12"),
+                FixedWidthColumn.parse("filler:2"),
+                FixedWidthColumn.parse("amount:8"),
+                FixedWidthColumn.parse("remarks:10")));
+
+        // 执行
+        TransactionCreateRequest request = parser.parse("622200000001XX  100.00");
+
+        // 验证
+        assertEquals("622200000001", request.getAccountNumber());
+        assertEquals(10_000L, request.getAmount());
+        assertNull(request.getRemarks());
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("x".repeat(33)));
+        assertThrows(IllegalArgumentException.class, () -> FixedWidthColumn.parse("unknown:3"));
+    }
+
+    @Test
+    void testLineReaderTracksByteOffsetsForCheckpoints() throws Exception {
+        // 准备：BOM、CRLF、多字节字符、超长行、末行无换行
+        Path file = directory.resolve("rows.csv");
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "header\r\n张三\n".getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("x".repeat(40) + "\nlast").getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[bom.length + body.length + tail.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(body, 0, content, bom.length, body.length);
+        System.arraycopy(tail, 0, content, bom.length + body.length, tail.length);
+        Files.write(file, content);
+
+        // 执行 & 验证
+        long afterHeader;
+        try (LineReader reader = new LineReader(file, 0, StandardCharsets.UTF_8, 16)) {
+            assertEquals("header", reader.readLine());
+            afterHeader = reader.position();
+            assertEquals(11, afterHeader);
+            assertEquals("张三", reader.readLine());
+            assertEquals("x".repeat(16), reader.readLine());
+            assertTrue(reader.isTruncated());
+            assertEquals("last", reader.readLine());
+            assertFalse(reader.isTruncated());
+            assertNull(reader.readLine());
+            assertEquals(content.length, reader.position());
+        }
+        // 从检查点重新打开时接着读下一行
+        try (LineReader reader = new LineReader(file, afterHeader, StandardCharsets.UTF_8, 16)) {
+            assertEquals("张三", reader.readLine());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.banktransactionmanager.model;
+
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testConversionAndFormatting() {
+        // 准备
+        char[] buffer = new char[22];
+
+        // 执行 & 验证
+        assertEquals(123_450L, Money.toMinorUnits(new BigDecimal("1234.5")));
+        assertEquals(new BigDecimal("1233.00"), Money.toDecimal(123_300L));
+        assertEquals("-0.05", new String(buffer, 0, Money.format(-5L, buffer)));
+        assertEquals("-92233720368547758.08", new String(buffer, 0, Money.format(Long.MIN_VALUE, buffer)));
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void testJsonShape_AmountsStayTwoDecimalNumbers() throws Exception {
+        // 准备
+        TransactionDTO dto = TransactionDTO.builder().amount(100_000L).fee(5L).build();
+
+        // 执行
+        String json = objectMapper.writeValueAsString(dto);
+        TransactionCreateRequest request = objectMapper.readValue(
+                "{\"amount\": 88.5, \"fee\": \"1\"}", TransactionCreateRequest.class);
+
+        // 验证
+        assertTrue(json.contains("\"amount\":1000.00"));
+        assertTrue(json.contains("\"fee\":0.05"));
+        assertEquals(8_850L, request.getAmount());
+        assertEquals(100L, request.getFee());
+    }
+
+    @Test
+    void testJsonRejectsMoreThanTwoDecimals() {
+        // 执行 & 验证
+        assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"amount\": 1.005}", TransactionCreateRequest.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangePage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @Test
+    void testRead_AssignsSequentialOffsetsAndPagesWithCursor() {
+        // 准备
+        ChangeFeed feed = new ChangeFeed(100);
+        feed.publish(events(5));
+
+        // 执行
+        TransactionChangePage first = feed.read(0, 3);
+        TransactionChangePage second = feed.read(first.getNextOffset(), 3);
+        TransactionChangePage third = feed.read(second.getNextOffset(), 3);
+
+        // 验证
+        assertEquals(List.of(1L, 2L, 3L), offsets(first));
+        assertEquals(List.of(4L, 5L), offsets(second));
+        assertTrue(third.getEvents().isEmpty());
+        assertEquals(5L, third.getNextOffset());
+        assertFalse(third.isTruncated());
+    }
+
+    @Test
+    void testRead_FlagsTruncationWhenCursorFellOutOfWindow() {
+        // 准备
+        ChangeFeed feed = new ChangeFeed(3);
+        feed.publish(events(5));
+
+        // 执行
+        TransactionChangePage behind = feed.read(1, 10);
+        TransactionChangePage afterRestart = feed.read(42, 10);
+
+        // 验证：从保留窗口的最早事件开始返回
+        assertTrue(behind.isTruncated());
+        assertEquals(List.of(3L, 4L, 5L), offsets(behind));
+        assertTrue(afterRestart.isTruncated());
+        assertEquals(List.of(3L, 4L, 5L), offsets(afterRestart));
+    }
+
+    @Test
+    void testRead_FlagsTruncationForCursorFromAnotherEpoch() {
+        // 准备：重启后的变更流重新从1分配 offset
+        ChangeFeed beforeRestart = new ChangeFeed(100, 1L);
+        beforeRestart.publish(events(5));
+        TransactionChangePage consumed = beforeRestart.read(null, 0, 2);
+        ChangeFeed afterRestart = new ChangeFeed(100, 2L);
+        afterRestart.publish(events(5));
+
+        // 执行
+        TransactionChangePage resumed = afterRestart.read(consumed.getEpoch(), consumed.getNextOffset(), 10);
+        TransactionChangePage sameEpoch = afterRestart.read(resumed.getEpoch(), 2, 10);
+
+        // 验证：since 仍在新的 offset 范围内，但 epoch 不同，从头返回并标记截断
+        assertEquals(1L, consumed.getEpoch());
+        assertTrue(resumed.isTruncated());
+        assertEquals(2L, resumed.getEpoch());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), offsets(resumed));
+        assertFalse(sameEpoch.isTruncated());
+        assertEquals(List.of(3L, 4L, 5L), offsets(sameEpoch));
+    }
+
+    @Test
+    void testReadOrSubscribe_NotifiesOnlyWhenCaughtUp() {
+        // 准备
+        ChangeFeed feed = new ChangeFeed(100);
+        feed.publish(events(2));
+        AtomicInteger notified = new AtomicInteger();
+
+        // 执行：有未读事件时直接返回且不注册
+        TransactionChangePage page = feed.readOrSubscribe(null, 0, 10, notified::incrementAndGet);
+        feed.publish(events(1));
+        // 已追上时注册，下一批事件到达时收到通知
+        TransactionChangePage caughtUp = feed.readOrSubscribe(null, 3, 10, notified::incrementAndGet);
+        feed.publish(events(1));
+
+        // 验证
+        assertEquals(2, page.getEvents().size());
+        assertTrue(caughtUp.getEvents().isEmpty());
+        assertEquals(1, notified.get());
+        assertEquals(List.of(4L), offsets(feed.read(3, 10)));
+    }
+
+    private List<TransactionChangeEvent> events(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> TransactionChangeEvent.builder()
+                        .changeType(TransactionOutboxEvent.ChangeType.CREATED)
+                        .transactionId(i)
+                        .transactionBizNo("APP" + i)
+                        .build())
+                .toList();
+    }
+
+    private List<Long> offsets(TransactionChangePage page) {
+        return page.getEvents().stream().map(TransactionChangeEvent::getOffset).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.banktransactionmanager.outbox;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
+import com.example.banktransactionmanager.model.dto.TransactionChangeEvent;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private TransactionOutboxRepository outboxRepository;
+
+    private final List<TransactionChangeEvent> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(outboxRepository.findBatch(any(Pageable.class))).thenReturn(List.of(
+                outboxEvent(7L, TransactionOutboxEvent.ChangeType.CREATED),
+                outboxEvent(8L, TransactionOutboxEvent.ChangeType.STATUS_CHANGED)));
+    }
+
+    @Test
+    void testRelayBatch_PublishesThenDeletesAcknowledged() {
+        // 准备
+        OutboxRelay relay = new OutboxRelay(outboxRepository, List.of(published::addAll), new SimpleMeterRegistry(), 100, 1);
+
+        // 执行
+        int relayed = relay.relayBatch();
+
+        // 验证
+        assertEquals(2, relayed);
+        assertEquals(List.of(TransactionOutboxEvent.ChangeType.CREATED, TransactionOutboxEvent.ChangeType.STATUS_CHANGED),
+                published.stream().map(TransactionChangeEvent::getChangeType).toList());
+        assertEquals(Transaction.Status.PENDING, published.get(1).getPreviousStatus());
+        verify(outboxRepository).deleteByIdIn(List.of(7L, 8L));
+    }
+
+    @Test
+    void testPoll_SinkFailureKeepsEventsForRetry() {
+        // 准备
+        OutboxEventSink failing = events -> {
+            throw new IllegalStateException("broker down");
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay relay = new OutboxRelay(outboxRepository, List.of(published::addAll, failing), meterRegistry, 100, 1);
+        relay.start();
+
+        // 执行
+        relay.poll();
+
+        // 验证
+        verify(outboxRepository, never()).deleteByIdIn(any());
+        assertEquals(1.0, meterRegistry.counter("outbox.relay.failures").count());
+    }
+
+    @Test
+    void testPoll_ChangeFeedSeesEachEventOnceAcrossRetries() {
+        // 准备：变更流注册在前，第二个目标第一次投递失败；第二轮删除发件箱记录失败
+        ChangeFeed feed = new ChangeFeed(100);
+        AtomicInteger attempts = new AtomicInteger();
+        OutboxEventSink flaky = events -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        doThrow(new IllegalStateException("connection reset")).doReturn(2)
+                .when(outboxRepository).deleteByIdIn(any());
+        OutboxRelay relay = new OutboxRelay(outboxRepository, List.of(feed, flaky), new SimpleMeterRegistry(), 100, 1);
+        relay.start();
+
+        // 执行
+        relay.poll();
+        long afterFailedSink = feed.getLastOffset();
+        relay.poll();
+        relay.poll();
+
+        // 验证：外部目标失败时变更流未收到事件，重投的同一批事件只分配一次 offset
+        assertEquals(0L, afterFailedSink);
+        assertEquals(3, attempts.get());
+        assertEquals(List.of(70L, 80L),
+                feed.read(0, 10).getEvents().stream().map(TransactionChangeEvent::getTransactionId).toList());
+    }
+
+    @Test
+    void testPoll_StoppedRelayDoesNotTouchRepository() {
+        // 准备
+        OutboxRelay relay = new OutboxRelay(outboxRepository, List.of(published::addAll), new SimpleMeterRegistry(), 100, 1);
+        relay.start();
+        relay.stop();
+
+        // 执行
+        relay.poll();
+
+        // 验证
+        assertFalse(relay.isRunning());
+        verify(outboxRepository, never()).findBatch(any());
+        assertTrue(published.isEmpty());
+    }
+
+    private TransactionOutboxEvent outboxEvent(Long id, TransactionOutboxEvent.ChangeType changeType) {
+        return TransactionOutboxEvent.builder()
+                .id(id)
+                .changeType(changeType)
+                .transactionId(id * 10)
+                .transactionBizNo("APP" + id)
+                .status(Transaction.Status.SUCCESS)
+                .previousStatus(changeType == TransactionOutboxEvent.ChangeType.STATUS_CHANGED ? Transaction.Status.PENDING : null)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 离线JFR分析工具：将.jfr文件中的自定义事件汇总为按操作分组的延迟表
+ * 用法：mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.example.banktransactionmanager.profiling.JfrEventSummary -Dexec.args=recording.jfr
+ */
+public final class JfrEventSummary {
+
+    private static final String EVENT_PREFIX = "bank.";
+
+    private JfrEventSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrEventSummary <recording.jfr>");
+            System.exit(1);
+        }
+        System.out.print(format(summarize(Path.of(args[0]))));
+    }
+
+    /**
+     * 读取录制文件并按（事件类型, 操作）分组统计
+     */
+    public static List<Row> summarize(Path recordingFile) throws IOException {
+        Map<String, Accumulator> groups = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recordingFile)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String eventType = event.getEventType().getName();
+                if (!eventType.startsWith(EVENT_PREFIX)) {
+                    continue;
+                }
+                String type = eventType.substring(EVENT_PREFIX.length());
+                String operation = operation(type, event);
+                groups.computeIfAbsent(type + '\u0000' + operation, key -> new Accumulator(type, operation))
+                        .add(event);
+            }
+        }
+        List<Row> rows = new ArrayList<>(groups.size());
+        for (Accumulator accumulator : groups.values()) {
+            rows.add(accumulator.toRow());
+        }
+        return rows;
+    }
+
+    public static String format(List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-18s %-52s %8s %10s %10s %10s %10s %10s %10s%n",
+                "EVENT", "OPERATION", "COUNT", "MEAN(us)", "P50(us)", "P95(us)", "P99(us)", "MAX(us)", "ROWS"));
+        for (Row row : rows) {
+            sb.append(String.format("%-18s %-52s %8d %10.1f %10d %10d %10d %10d %10s%n",
+                    row.eventType(), row.operation(), row.count(), row.meanMicros(), row.p50Micros(),
+                    row.p95Micros(), row.p99Micros(), row.maxMicros(), row.rows() < 0 ? "-" : Long.toString(row.rows())));
+        }
+        return sb.toString();
+    }
+
+    private static String operation(String type, RecordedEvent event) {
+        switch (type) {
+            case "QueryExecution":
+                return event.getString("queryName");
+            case "CacheLookup":
+                return event.getString("cacheName") + (event.getBoolean("hit") ? " hit" : " miss");
+            case "TransactionCreate":
+                return event.getString("channel") + (event.getBoolean("success") ? "" : " failed");
+            default:
+                return "-";
+        }
+    }
+
+    public record Row(String eventType, String operation, long count, double meanMicros, long p50Micros,
+                      long p95Micros, long p99Micros, long maxMicros, long rows) {
+    }
+
+    private static final class Accumulator {
+        private final String eventType;
+        private final String operation;
+        private long[] durations = new long[64];
+        private int count;
+        private long rows = -1;
+
+        Accumulator(String eventType, String operation) {
+            this.eventType = eventType;
+            this.operation = operation;
+        }
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos() / 1000;
+            if (event.hasField("rowCount") && event.getLong("rowCount") >= 0) {
+                rows = Math.max(rows, 0) + event.getLong("rowCount");
+            }
+        }
+
+        Row toRow() {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long duration : sorted) {
+                total += duration;
+            }
+            return new Row(eventType, operation, count, (double) total / count,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[count - 1], rows);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.banktransactionmanager.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventSummaryTest {
+
+    private static final Set<String> RECORDED_OPERATIONS = Set.of(
+            "TransactionRepository.findByIsDeletedFalseAndFilters", "transactions hit");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSummarizeGroupsEventsByOperation() throws Exception {
+        // 准备：录制若干自定义事件
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QueryExecutionEvent.class);
+            recording.enable(CacheLookupEvent.class);
+            recording.start();
+
+            for (int i = 0; i < 3; i++) {
+                QueryExecutionEvent query = new QueryExecutionEvent();
+                query.begin();
+                query.queryName = "TransactionRepository.findByIsDeletedFalseAndFilters";
+                query.rowCount = 20;
+                query.commit();
+            }
+            CacheLookupEvent lookup = new CacheLookupEvent();
+            lookup.begin();
+            lookup.cacheName = "transactions";
+            lookup.hit = true;
+            lookup.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // 执行：同一JVM中缓存的其它Spring测试上下文会在后台轮询并产生查询事件，只保留本测试录制的操作
+        List<JfrEventSummary.Row> rows = JfrEventSummary.summarize(file).stream()
+                .filter(row -> RECORDED_OPERATIONS.contains(row.operation()))
+                .toList();
+
+        // 验证
+        assertEquals(2, rows.size());
+        JfrEventSummary.Row cache = rows.get(0);
+        assertEquals("CacheLookup", cache.eventType());
+        assertEquals("transactions hit", cache.operation());
+        assertEquals(1, cache.count());
+        JfrEventSummary.Row query = rows.get(1);
+        assertEquals("TransactionRepository.findByIsDeletedFalseAndFilters", query.operation());
+        assertEquals(3, query.count());
+        assertEquals(60, query.rows());
+        assertTrue(JfrEventSummary.format(rows).contains("findByIsDeletedFalseAndFilters"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.banktransactionmanager.reconciliation;
+
+import com.example.banktransactionmanager.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementFileMatcherTest {
+
+    private static final SettlementFileFormat FORMAT = new SettlementFileFormat((byte) ',', 1, 2, true);
+
+    @TempDir
+    Path directory;
+
+    private SettlementFileMatcher matcher;
+
+    @AfterEach
+    void tearDown() {
+        if (matcher != null) {
+            matcher.shutdown();
+        }
+    }
+
+    @Test
+    void testRowsAreClassifiedAcrossChunkBoundaries() throws IOException {
+        // 准备：块很小，保证一行会落在块边界附近
+        ReferenceIndex index = new ReferenceIndex(2);
+        index.add("EXT-001", 1L, 10_000L, Transaction.Status.SUCCESS);
+        index.add("EXT-002", 2L, 5_000L, Transaction.Status.SUCCESS);
+        index.add("EXT-003", 3L, 7_000L, Transaction.Status.PENDING);
+        index.add("EXT-004", 4L, 1_000L, Transaction.Status.SUCCESS);
+        index.add("支付-005", 5L, 2_500L, Transaction.Status.SUCCESS);
+        Path file = write("date,reference,amount\r\n"
+                + "2024-03-01,EXT-001,100.00\r\n"
+                + "2024-03-01, \"EXT-002\" ,49.99\r\n"
+                + "\r\n"
+                + "2024-03-01,EXT-003,70\r\n"
+                + "2024-03-01,EXT-001,100.00\r\n"
+                + "2024-03-02,EXT-999,1.5\r\n"
+                + "2024-03-02,,3.00\r\n"
+                + "2024-03-02,EXT-004,abc\r\n"
+                + "2024-03-02,支付-005,25.00");
+        matcher = new SettlementFileMatcher(FORMAT, 3, 16);
+
+        // 执行
+        MatchResult result = matcher.match(file, index, new AtomicInteger(100));
+
+        // 验证
+        assertEquals(8, result.getFileRows());
+        assertEquals(2, result.getMatched());
+        assertEquals(1, result.getIssueCount(ReconciliationIssue.Type.AMOUNT_MISMATCH));
+        assertEquals(1, result.getIssueCount(ReconciliationIssue.Type.STATUS_MISMATCH));
+        assertEquals(1, result.getIssueCount(ReconciliationIssue.Type.DUPLICATE_IN_FILE));
+        assertEquals(1, result.getIssueCount(ReconciliationIssue.Type.MISSING_IN_LEDGER));
+        assertEquals(2, result.getIssueCount(ReconciliationIssue.Type.MALFORMED_ROW));
+        // 两行 EXT-001 落在不同的块，哪一行被判为重复取决于线程调度，明细顺序不作断言
+        List<ReconciliationIssue> issues = result.getIssues();
+        assertTrue(issues.contains(new ReconciliationIssue(ReconciliationIssue.Type.AMOUNT_MISMATCH, "EXT-002", 2L,
+                5_000L, Transaction.Status.SUCCESS, 4_999L)));
+        assertTrue(issues.contains(new ReconciliationIssue(ReconciliationIssue.Type.STATUS_MISMATCH, "EXT-003", 3L,
+                7_000L, Transaction.Status.PENDING, 7_000L)));
+        assertTrue(issues.contains(new ReconciliationIssue(ReconciliationIssue.Type.MISSING_IN_LEDGER, "EXT-999",
+                null, null, null, 150L)));
+        assertTrue(issues.stream().anyMatch(issue -> issue.type() == ReconciliationIssue.Type.MALFORMED_ROW
+                && issue.externalReferenceNo().equals("2024-03-02,EXT-004,abc")));
+        assertTrue(index.isReconciled(4));
+        assertTrue(index.isClaimed(1));
+        assertFalse(index.isReconciled(1));
+        assertFalse(index.isClaimed(3));
+    }
+
+    @Test
+    void testIssueDetailsAreCappedButCountsAreExact() throws IOException {
+        // 准备
+        ReferenceIndex index = new ReferenceIndex(1);
+        StringBuilder content = new StringBuilder("date,reference,amount\n");
+        for (int i = 0; i < 50; i++) {
+            content.append("2024-03-01,UNKNOWN-").append(i).append(",1.00\n");
+        }
+        matcher = new SettlementFileMatcher(FORMAT, 2, 64);
+
+        // 执行
+        MatchResult result = matcher.match(write(content.toString()), index, new AtomicInteger(10));
+
+        // 验证
+        assertEquals(50, result.getIssueCount(ReconciliationIssue.Type.MISSING_IN_LEDGER));
+        assertEquals(10, result.getIssues().size());
+        assertTrue(result.isTruncated());
+    }
+
+    @Test
+    void testLedgerReferencesSharedByTwoTransactionsMatchOncePerFileRow() throws IOException {
+        // 准备：不限渠道时两个渠道可能使用相同的外部参考号；扩容时重建哈希表
+        ReferenceIndex index = new ReferenceIndex(1);
+        for (int i = 0; i < 100; i++) {
+            index.add("REF-" + i, i, 100L, Transaction.Status.SUCCESS);
+        }
+        index.add("REF-7", 1007L, 100L, Transaction.Status.SUCCESS);
+        matcher = new SettlementFileMatcher(FORMAT, 1);
+
+        // 执行
+        MatchResult result = matcher.match(write("h\nd,REF-7,1.00\nd,REF-7,1.00\nd,REF-7,1.00\n"), index, new AtomicInteger(10));
+
+        // 验证
+        assertEquals(2, result.getMatched());
+        assertEquals(1, result.getIssueCount(ReconciliationIssue.Type.DUPLICATE_IN_FILE));
+        assertTrue(index.isReconciled(7));
+        assertTrue(index.isReconciled(100));
+        assertEquals("REF-7", index.reference(100));
+    }
+
+    @Test
+    void testChunkBoundsFallOnLineStarts() throws IOException {
+        // 准备
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("d,REF-").append(i).append(',').append(i).append(".00\n");
+        }
+        Path file = write(content.toString());
+        matcher = new SettlementFileMatcher(FORMAT, 4, 100);
+
+        // 执行
+        long[] bounds;
+        try (FileChannel channel = FileChannel.open(file)) {
+            bounds = matcher.chunkBounds(channel);
+        }
+
+        // 验证
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(17, bounds.length);
+        assertEquals(0, bounds[0]);
+        assertEquals(bytes.length, bounds[bounds.length - 1]);
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i] > bounds[i - 1]);
+            assertEquals('\n', bytes[(int) bounds[i] - 1]);
+        }
+    }
+
+    @Test
+    void testAmountParsing() {
+        assertEquals(12_345L, parse("123.45"));
+        assertEquals(12_340L, parse("123.4"));
+        assertEquals(12_300L, parse(" 123 "));
+        assertEquals(12_300L, parse("123."));
+        assertEquals(-50L, parse("-0.50"));
+        assertEquals(Long.MIN_VALUE, parse("1.234"));
+        assertEquals(Long.MIN_VALUE, parse("1,000.00"));
+        assertEquals(Long.MIN_VALUE, parse(".5"));
+        assertEquals(Long.MIN_VALUE, parse(""));
+    }
+
+    private static long parse(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        return SettlementFileMatcher.parseAmount(buffer, 0, buffer.limit());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("settlement.csv"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.banktransactionmanager.repository;
 
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.projection.DailyTotal;
+import com.example.banktransactionmanager.model.projection.TransactionField;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +13,11 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +33,7 @@ class TransactionRepositoryTest {
 
     private Transaction depositTransaction;
     private Transaction withdrawalTransaction;
+    private Transaction deletedTransaction;
 
     @BeforeEach
     void setUp() {
@@ -34,7 +41,7 @@ class TransactionRepositoryTest {
         depositTransaction = Transaction.builder()
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(1000.00))
+                .amount(100_000L)
                 .currency("CNY")
                 .description("Initial deposit")
                 .transactionTime(LocalDateTime.now().minusDays(1))
@@ -43,7 +50,7 @@ class TransactionRepositoryTest {
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
                 .referenceNumber("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .transactionBizNo("20240101APP" + generateRandomString(8))
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -54,7 +61,7 @@ class TransactionRepositoryTest {
         withdrawalTransaction = Transaction.builder()
                 .transactionType(Transaction.TransactionType.WITHDRAWAL)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(200.00))
+                .amount(20_000L)
                 .currency("CNY")
                 .description("Cash withdrawal")
                 .transactionTime(LocalDateTime.now())
@@ -63,7 +70,7 @@ class TransactionRepositoryTest {
                 .channel(Transaction.Channel.COUNTER)
                 .externalReferenceNo("REF456")
                 .referenceNumber("REF456")
-                .fee(BigDecimal.valueOf(2.00))
+                .fee(200L)
                 .transactionBizNo("20240101CTR" + generateRandomString(8))
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -75,7 +82,7 @@ class TransactionRepositoryTest {
         Transaction otherAccountTransaction = Transaction.builder()
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(500.00))
+                .amount(50_000L)
                 .currency("CNY")
                 .description("Transfer from another account")
                 .transactionTime(LocalDateTime.now())
@@ -86,7 +93,7 @@ class TransactionRepositoryTest {
                 .channel(Transaction.Channel.ONLINE_BANK)
                 .externalReferenceNo("REF789")
                 .referenceNumber("REF789")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .transactionBizNo("20240101WEB" + generateRandomString(8))
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -95,10 +102,10 @@ class TransactionRepositoryTest {
         entityManager.persist(otherAccountTransaction);
 
         // 创建一个已删除的交易
-        Transaction deletedTransaction = Transaction.builder()
+        deletedTransaction = Transaction.builder()
                 .transactionType(Transaction.TransactionType.TRANSFER)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(300.00))
+                .amount(30_000L)
                 .currency("CNY")
                 .description("Transfer to another account")
                 .transactionTime(LocalDateTime.now())
@@ -106,7 +113,7 @@ class TransactionRepositoryTest {
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.THIRD_PARTY)
                 .externalReferenceNo("REF999")
-                .fee(BigDecimal.valueOf(1.00))
+                .fee(100L)
                 .transactionBizNo("20240101MOB" + generateRandomString(8))
                 .isDeleted(true)
                 .deletedTime(LocalDateTime.now())
@@ -177,4 +184,107 @@ class TransactionRepositoryTest {
         assertEquals(depositTransaction.getId(), foundTransaction.get().getId());
         assertEquals("REF123", foundTransaction.get().getReferenceNumber());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSoftDeleteByIdIn() {
+        // 执行
+        int affected = transactionRepository.softDeleteByIdIn(
+                List.of(depositTransaction.getId(), deletedTransaction.getId()), "batch", LocalDateTime.now());
+
+        // 验证：已删除的记录不计入
+        assertEquals(1, affected);
+        Transaction deleted = transactionRepository.findById(depositTransaction.getId()).orElseThrow();
+        assertTrue(deleted.getIsDeleted());
+        assertNotNull(deleted.getDeletedTime());
+        assertEquals("batch", deleted.getUpdater());
+    }
+
+    @Test
+    void testUpdateStatusByIdIn() {
+        // 执行
+        int affected = transactionRepository.updateStatusByIdIn(
+                List.of(depositTransaction.getId(), withdrawalTransaction.getId(), deletedTransaction.getId()),
+                Transaction.Status.SUCCESS, Transaction.Status.FAILED, "settlement", LocalDateTime.now());
+
+        // 验证
+        assertEquals(2, affected);
+        assertEquals(Transaction.Status.FAILED,
+                transactionRepository.findById(withdrawalTransaction.getId()).orElseThrow().getStatus());
+        assertEquals(Transaction.Status.SUCCESS,
+                transactionRepository.findById(deletedTransaction.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFindFieldsByIsDeletedFalseAndFiltersSelectsOnlyRequestedColumns() {
+        // 执行
+        Page<TransactionDTO> page = transactionRepository.findFieldsByIsDeletedFalseAndFilters(
+                EnumSet.of(TransactionField.TRANSACTION_BIZ_NO, TransactionField.AMOUNT, TransactionField.STATUS),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "amount")), "1234567890123456", null, null);
+
+        // 验证：按金额倒序取第一页，未选择的属性保持默认值
+        assertEquals(2, page.getTotalElements());
+        TransactionDTO first = page.getContent().get(0);
+        assertEquals(depositTransaction.getTransactionBizNo(), first.getTransactionBizNo());
+        assertEquals(100_000L, first.getAmount());
+        assertEquals(Transaction.Status.SUCCESS, first.getStatus());
+        assertNull(first.getId());
+        assertNull(first.getDescription());
+        assertNull(first.getCreateTime());
+    }
+
+    @Test
+    void testSumByChannelTypeStatusAndDayGroupsUndeletedByBusinessDay() {
+        // 执行
+        List<DailyTotal> totals = transactionRepository.sumByChannelTypeStatusAndDay(LocalDateTime.now().minusDays(2));
+
+        // 验证：每笔未删除交易各占一组，已删除的交易不计入
+        assertEquals(3, totals.size());
+        DailyTotal deposit = totals.stream()
+                .filter(total -> total.getChannel() == Transaction.Channel.APP)
+                .findFirst().orElseThrow();
+        assertEquals(Transaction.TransactionType.DEPOSIT, deposit.getTransactionType());
+        assertEquals(depositTransaction.getTransactionTime().toLocalDate(), deposit.getBusinessDay());
+        assertEquals(1, deposit.getCount());
+        assertEquals(100_000L, deposit.getVolume());
+        assertTrue(totals.stream().noneMatch(total -> total.getChannel() == Transaction.Channel.THIRD_PARTY));
+    }
+
+    @Test
+    void testFindRefsByFilter() {
+        // 执行
+        List<TransactionRef> refs = transactionRepository.findRefsByFilter("1234567890123456",
+                LocalDateTime.now().minusDays(2), null, 0L, PageRequest.of(0, 10));
+
+        // 验证
+        assertFalse(refs.isEmpty());
+        assertTrue(refs.stream().noneMatch(r -> r.getId().equals(deletedTransaction.getId())));
+        assertEquals(depositTransaction.getTransactionBizNo(), refs.get(0).getTransactionBizNo());
+    }
+
+    @Test
+    void testClaimAndCompleteSettlement() {
+        // 准备
+        depositTransaction.setStatus(Transaction.Status.PENDING);
+        entityManager.persistAndFlush(depositTransaction);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = transactionRepository.findSettlementCandidates(now, PageRequest.of(0, 10));
+        assertEquals(List.of(depositTransaction.getId()), candidates);
+
+        // 执行：两个节点竞争领取同一批交易
+        int claimedByA = transactionRepository.claimForSettlement(candidates, "node-a-1", now.plusMinutes(1), now);
+        int claimedByB = transactionRepository.claimForSettlement(candidates, "node-b-1", now.plusMinutes(1), now);
+
+        // 验证：只有一个节点领取成功，租约有效期内不再是候选，非持有者无法完成结算
+        assertEquals(1, claimedByA);
+        assertEquals(0, claimedByB);
+        assertTrue(transactionRepository.findSettlementCandidates(now, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(0, transactionRepository.completeSettlement(candidates, "node-b-1",
+                Transaction.Status.SUCCESS, "SETTLEMENT", now));
+        assertEquals(1, transactionRepository.findClaimedForSettlement("node-a-1").size());
+        assertEquals(1, transactionRepository.completeSettlement(candidates, "node-a-1",
+                Transaction.Status.SUCCESS, "SETTLEMENT", now));
+        Transaction settled = transactionRepository.findById(depositTransaction.getId()).orElseThrow();
+        assertEquals(Transaction.Status.SUCCESS, settled.getStatus());
+        assertNull(settled.getSettlementOwner());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.banktransactionmanager.risk;
+
+import com.example.banktransactionmanager.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityRuleEngineTest {
+
+    private static final String ACCOUNT = "6222020200001111";
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private VelocityRuleEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testCountRuleHoldsUntilWindowSlides() {
+        // 准备
+        engine = engine(1000, new VelocityRule("burst", null, null, Duration.ofMinutes(1), 3, null,
+                VelocityRule.Action.HOLD));
+
+        // 执行 & 验证：第4笔超出上限，HOLD的交易也计入窗口
+        for (int i = 0; i < 3; i++) {
+            assertTrue(deposit(10_000L).isAllowed());
+        }
+        assertEquals(new VelocityVerdict(VelocityRule.Action.HOLD, "burst", clock.millis()), deposit(10_000L));
+        clock.advance(Duration.ofSeconds(30));
+        assertFalse(deposit(10_000L).isAllowed());
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(deposit(10_000L).isAllowed());
+        assertEquals(2.0, registry.get("velocity.rule.hits").tag("rule", "burst").counter().count());
+    }
+
+    @Test
+    void testAmountRuleHonoursChannelAndTypeAndFailIsNotRecorded() {
+        // 准备
+        engine = engine(1000,
+                new VelocityRule("app-outflow", Transaction.Channel.APP, Set.of(Transaction.TransactionType.WITHDRAWAL),
+                        Duration.ofHours(1), 0, new BigDecimal("1000.00"), VelocityRule.Action.FAIL),
+                new VelocityRule("app-count", Transaction.Channel.APP, null, Duration.ofHours(1), 2, null,
+                        VelocityRule.Action.HOLD));
+
+        // 执行 & 验证
+        assertTrue(withdraw(Transaction.Channel.APP, 60_000L).isAllowed());
+        assertTrue(withdraw(Transaction.Channel.COUNTER, 90_000L).isAllowed());
+        // 失败的交易不计入窗口，之后额度内的交易仍可通过
+        assertEquals(new VelocityVerdict(VelocityRule.Action.FAIL, "app-outflow"),
+                withdraw(Transaction.Channel.APP, 50_000L));
+        assertEquals(new VelocityVerdict(VelocityRule.Action.FAIL, "app-outflow"),
+                withdraw(Transaction.Channel.APP, 50_000L));
+        assertTrue(withdraw(Transaction.Channel.APP, 40_000L).isAllowed());
+        // 金额与笔数同时超限时取更严重的FAIL；存款只受笔数规则约束
+        assertEquals(new VelocityVerdict(VelocityRule.Action.FAIL, "app-outflow"),
+                withdraw(Transaction.Channel.APP, 100L));
+        assertEquals(new VelocityVerdict(VelocityRule.Action.HOLD, "app-count", clock.millis()), engine.evaluate(ACCOUNT,
+                Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 100L));
+    }
+
+    @Test
+    void testReleaseUndoesRecordingOfTransactionsThatWereNotCreated() {
+        // 准备
+        engine = engine(1000, new VelocityRule("burst", null, null, Duration.ofMinutes(1), 2, null,
+                VelocityRule.Action.HOLD));
+        VelocityVerdict first = deposit(10_000L);
+        assertTrue(deposit(10_000L).isAllowed());
+
+        // 执行：第一笔最终未入库，撤销后窗口内只剩一笔
+        engine.release(ACCOUNT, Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 10_000L, first);
+
+        // 验证
+        assertTrue(deposit(10_000L).isAllowed());
+        assertFalse(deposit(10_000L).isAllowed());
+        // 未计入窗口的结果撤销无效果
+        engine.release(ACCOUNT, Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 10_000L,
+                VelocityVerdict.ALLOW);
+        assertFalse(deposit(10_000L).isAllowed());
+    }
+
+    @Test
+    void testIdleAccountsAreEvictedAndTrackingIsBounded() {
+        // 准备
+        engine = engine(2, new VelocityRule("burst", null, null, Duration.ofMinutes(1), 1, null,
+                VelocityRule.Action.HOLD));
+        engine.evaluate("A", Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 100L);
+        engine.evaluate("B", Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 100L);
+
+        // 执行：账户数已满时新账户不登记
+        engine.evaluate("C", Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 100L);
+        assertEquals(2, engine.trackedAccounts());
+        clock.advance(Duration.ofMinutes(2));
+        engine.sweep();
+
+        // 验证：空闲账户的桶都已过期，移除后重新登记不影响判定
+        assertEquals(0, engine.trackedAccounts());
+        assertTrue(engine.evaluate("A", Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, 100L).isAllowed());
+        assertEquals(1, engine.trackedAccounts());
+        assertEquals(1.0, registry.get("velocity.accounts.untracked").counter().count());
+    }
+
+    @Test
+    void testConcurrentEvaluationsNeverExceedTheLimit() throws Exception {
+        // 准备
+        engine = engine(1000, new VelocityRule("burst", null, null, Duration.ofMinutes(1), 100, null,
+                VelocityRule.Action.FAIL));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger allowed = new AtomicInteger();
+
+        // 执行
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        if (deposit(100L).isAllowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 验证
+        assertEquals(100, allowed.get());
+    }
+
+    private VelocityRuleEngine engine(int maxAccounts, VelocityRule... rules) {
+        return new VelocityRuleEngine(List.of(rules), maxAccounts, Duration.ofHours(1), registry, clock);
+    }
+
+    private VelocityVerdict deposit(long amount) {
+        return engine.evaluate(ACCOUNT, Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, amount);
+    }
+
+    private VelocityVerdict withdraw(Transaction.Channel channel, long amount) {
+        return engine.evaluate(ACCOUNT, channel, Transaction.TransactionType.WITHDRAWAL, amount);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MutableClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
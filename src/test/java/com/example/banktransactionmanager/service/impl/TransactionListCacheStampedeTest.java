@@ -0,0 +1,90 @@
+package com.example.banktransactionmanager.service.impl;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * 仪表盘并发请求首页（缓存键 0-20）且缓存刚好过期时，只应有一个请求访问数据库
+ * 关闭outbox投递，避免与共用同一内存库的其它测试上下文争抢事件
+ */
+@SpringBootTest(properties = {"settlement.enabled=false", "outbox.relay.enabled=false", "grpc.server.port=0"})
+class TransactionListCacheStampedeTest {
+
+    private static final int CONCURRENT_REQUESTS = 32;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("transactionList").clear();
+    }
+
+    @Test
+    void testConcurrentMissesOnFirstPageRunOneQuery() throws Exception {
+        // 准备：查询放慢，保证所有请求都在加载完成前到达
+        CountDownLatch allStarted = new CountDownLatch(CONCURRENT_REQUESTS);
+        doAnswer(invocation -> {
+            allStarted.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return new PageImpl<Transaction>(List.of(), invocation.getArgument(0), 0);
+        }).when(transactionRepository).findByIsDeletedFalseAndFilters(any(Pageable.class), isNull(), isNull(), isNull());
+        Pageable firstPage = PageRequest.of(0, 20);
+
+        // 执行
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<Page<TransactionDTO>> pages = new ArrayList<>();
+        try {
+            List<Future<Page<TransactionDTO>>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(pool.submit(() -> {
+                    allStarted.countDown();
+                    return transactionService.getAllTransactions(firstPage);
+                }));
+            }
+            for (Future<Page<TransactionDTO>> future : futures) {
+                pages.add(future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 验证
+        verify(transactionRepository, times(1))
+                .findByIsDeletedFalseAndFilters(any(Pageable.class), isNull(), isNull(), isNull());
+        assertEquals(CONCURRENT_REQUESTS, pages.size());
+        pages.forEach(page -> assertSame(pages.get(0), page));
+        assertNotNull(cacheManager.getCache("transactionList").get("0-20-UNSORTED"));
+    }
+}
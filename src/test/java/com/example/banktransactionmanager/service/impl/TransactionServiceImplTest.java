@@ -1,23 +1,47 @@
 package com.example.banktransactionmanager.service.impl;
 
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.cache.TransactionWatermarks;
 import com.example.banktransactionmanager.exception.BusinessException;
 import com.example.banktransactionmanager.exception.ResourceNotFoundException;
 import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionOutboxEvent;
 import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.model.dto.TransactionCreateResponse;
 import com.example.banktransactionmanager.model.dto.TransactionDTO;
+import com.example.banktransactionmanager.model.dto.TransactionLookupRequest;
+import com.example.banktransactionmanager.model.dto.TransactionLookupResponse;
+import com.example.banktransactionmanager.model.dto.TransactionSlice;
 import com.example.banktransactionmanager.model.dto.TransactionUpdateRequest;
+import com.example.banktransactionmanager.model.projection.SampleCount;
+import com.example.banktransactionmanager.model.projection.StatusTypeCount;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.outbox.TransactionOutbox;
+import com.example.banktransactionmanager.repository.TransactionAggregateSnapshotRepository;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
 import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.risk.VelocityRule;
+import com.example.banktransactionmanager.risk.VelocityRuleEngine;
+import com.example.banktransactionmanager.risk.VelocityVerdict;
+import com.example.banktransactionmanager.stats.TransactionAggregates;
+import com.example.banktransactionmanager.stats.TransactionCounters;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -30,8 +54,18 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private TransactionOutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private VelocityRuleEngine velocityRuleEngine;
+
     private TransactionServiceImpl transactionService;
+    private ConcurrentMapCacheManager cacheManager;
+    private TransactionCounters transactionCounters;
 
     private Transaction transaction;
     private TransactionDTO transactionDTO;
@@ -39,6 +73,16 @@ class TransactionServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        cacheManager = new ConcurrentMapCacheManager();
+        when(velocityRuleEngine.evaluate(any(), any(), any(), anyLong())).thenReturn(VelocityVerdict.ALLOW);
+        transactionCounters = new TransactionCounters(transactionRepository, 1000);
+        transactionService = new TransactionServiceImpl(transactionRepository,
+                new TransactionTemplate(transactionManager), cacheManager,
+                new TransactionCacheInvalidator(cacheManager, new TransactionWatermarks(1000, null)),
+                new TransactionOutbox(outboxRepository), velocityRuleEngine, transactionCounters,
+                new TransactionStatsRecorder(transactionCounters,
+                        new TransactionAggregates(transactionRepository, mock(TransactionAggregateSnapshotRepository.class),
+                                new TransactionTemplate(transactionManager), null, 90, 2)));
 
         // 初始化测试数据
         transaction = Transaction.builder()
@@ -46,7 +90,7 @@ class TransactionServiceImplTest {
                 .transactionBizNo("20240101APP12345678")
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(1000.00))
+                .amount(100_000L)
                 .currency("CNY")
                 .description("Initial deposit")
                 .transactionTime(LocalDateTime.now())
@@ -54,7 +98,7 @@ class TransactionServiceImplTest {
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .remarks("Test remarks")
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -66,7 +110,7 @@ class TransactionServiceImplTest {
                 .transactionBizNo("20240101APP12345678")
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(1000.00))
+                .amount(100_000L)
                 .currency("CNY")
                 .description("Initial deposit")
                 .transactionTime(LocalDateTime.now())
@@ -74,7 +118,7 @@ class TransactionServiceImplTest {
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .remarks("Test remarks")
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -87,25 +131,144 @@ class TransactionServiceImplTest {
         // 准备
         TransactionCreateRequest request = TransactionCreateRequest.builder()
                 .transactionType(Transaction.TransactionType.DEPOSIT)
-                .amount(BigDecimal.valueOf(1000.00))
+                .amount(100_000L)
                 .description("Initial deposit")
                 .accountNumber("1234567890123456")
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .creator("system")
                 .build();
         
-        when(transactionRepository.existsByTransactionBizNo(anyString())).thenReturn(false);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // 执行
-        transactionService.createTransaction(request);
+        TransactionCreateResponse response = transactionService.createTransaction(request);
 
         // 验证
-        verify(transactionRepository).existsByTransactionBizNo(anyString());
-        verify(transactionRepository).save(any(Transaction.class));
+        assertEquals(transaction.getTransactionBizNo(), response.getTransactionBizNo());
+        assertEquals(1L, response.getId());
+        assertFalse(response.isReplayed());
+        verify(transactionRepository, never()).existsByTransactionBizNo(anyString());
+        verify(transactionRepository).save(argThat(saved -> saved.getTransactionBizNo().matches("APP\\d+")
+                && "APP:REF123".equals(saved.getIdempotencyKey())));
+        verify(outboxRepository).save(argThat(event -> event.getChangeType() == TransactionOutboxEvent.ChangeType.CREATED
+                && event.getTransactionId().equals(1L)));
+        verify(velocityRuleEngine, never()).release(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void testCreateTransaction_HeldByVelocityRule() {
+        // 准备
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.WITHDRAWAL)
+                .amount(100_000L)
+                .description("ATM withdrawal")
+                .accountNumber("1234567890123456")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .fee(0L)
+                .build();
+        when(velocityRuleEngine.evaluate("1234567890123456", Transaction.Channel.APP,
+                Transaction.TransactionType.WITHDRAWAL, 100_000L))
+                .thenReturn(new VelocityVerdict(VelocityRule.Action.HOLD, "burst"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 执行
+        TransactionCreateResponse response = transactionService.createTransaction(request);
+
+        // 验证
+        assertEquals(Transaction.Status.HELD, response.getStatus());
+        verify(transactionRepository).save(argThat(saved -> saved.getStatus() == Transaction.Status.HELD));
+    }
+
+    @Test
+    void testCreateTransaction_ReplayFromIdempotencyIndex() {
+        // 准备
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(100_000L)
+                .description("Initial deposit")
+                .accountNumber("1234567890123456")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.THIRD_PARTY)
+                .fee(0L)
+                .creator("system")
+                .build();
+
+        when(transactionRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+
+        // 执行：同一幂等键请求两次
+        TransactionCreateResponse first = transactionService.createTransaction(request, "retry-key-1");
+        TransactionCreateResponse second = transactionService.createTransaction(request, "retry-key-1");
+
+        // 验证：第二次直接从内存索引返回，不再访问数据库
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getTransactionBizNo(), second.getTransactionBizNo());
+        verify(transactionRepository, times(1)).findByIdempotencyKey("THIRD_PARTY:retry-key-1");
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+    }
+
+    @Test
+    void testCreateTransaction_ReplayFromDatabaseByExternalReference() {
+        // 准备：未带请求头，使用 渠道+外部参考号 作为幂等键
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(100_000L)
+                .description("Initial deposit")
+                .accountNumber("1234567890123456")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .externalReferenceNo("REF123")
+                .fee(0L)
+                .creator("system")
+                .build();
+
+        when(transactionRepository.findByIdempotencyKey("APP:REF123")).thenReturn(Optional.of(transaction));
+
+        // 执行
+        TransactionCreateResponse response = transactionService.createTransaction(request);
+
+        // 验证
+        assertTrue(response.isReplayed());
+        assertEquals(transaction.getTransactionBizNo(), response.getTransactionBizNo());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateTransaction_ConcurrentDuplicateResolvedToOriginal() {
+        // 准备：插入时撞上幂等键唯一约束（另一个重放请求先写入）
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(100_000L)
+                .description("Initial deposit")
+                .accountNumber("1234567890123456")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .externalReferenceNo("REF123")
+                .fee(0L)
+                .creator("system")
+                .build();
+
+        when(transactionRepository.findByIdempotencyKey("APP:REF123"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenThrow(new DataIntegrityViolationException("idx_transaction_idempotency_key"));
+
+        // 执行
+        TransactionCreateResponse response = transactionService.createTransaction(request);
+
+        // 验证
+        assertTrue(response.isReplayed());
+        assertEquals(1L, response.getId());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        // 重放没有新增交易，撤销评估时计入的频率窗口
+        verify(velocityRuleEngine).release("1234567890123456", Transaction.Channel.APP,
+                Transaction.TransactionType.DEPOSIT, 100_000L, VelocityVerdict.ALLOW);
     }
 
     @Test
@@ -113,24 +276,29 @@ class TransactionServiceImplTest {
         // 准备
         TransactionCreateRequest request = TransactionCreateRequest.builder()
                 .transactionType(Transaction.TransactionType.DEPOSIT)
-                .amount(BigDecimal.valueOf(1000.00))
+                .amount(100_000L)
                 .description("Initial deposit")
                 .accountNumber("1234567890123456")
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .creator("system")
                 .build();
         
-        when(transactionRepository.existsByTransactionBizNo(anyString())).thenReturn(true);
+        // 业务编号撞上唯一索引（不再预先查询是否存在）
+        when(transactionRepository.findByIdempotencyKey("APP:REF123")).thenReturn(Optional.empty());
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenThrow(new DataIntegrityViolationException("idx_transaction_biz_no"));
 
         // 执行 & 验证
         BusinessException exception = assertThrows(BusinessException.class, 
                 () -> transactionService.createTransaction(request));
         assertEquals("Failed to create transaction after 3 attempts due to ID conflicts", exception.getMessage());
-        verify(transactionRepository, times(3)).existsByTransactionBizNo(anyString());
-        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository, never()).existsByTransactionBizNo(anyString());
+        verify(transactionRepository, times(3)).save(any(Transaction.class));
+        verify(velocityRuleEngine).release("1234567890123456", Transaction.Channel.APP,
+                Transaction.TransactionType.DEPOSIT, 100_000L, VelocityVerdict.ALLOW);
     }
 
     @Test
@@ -160,6 +328,27 @@ class TransactionServiceImplTest {
         verify(transactionRepository).findById(1L);
     }
 
+    @Test
+    void testLookupTransactions_LoadsOnlyCacheMissesAndPreservesOrder() {
+        // 准备：ID 2已在缓存中，ID 3不存在
+        TransactionDTO cached = TransactionDTO.builder().id(2L).transactionBizNo("APP2").build();
+        cacheManager.getCache("transactions").put(2L, cached);
+        when(transactionRepository.findByIdInAndIsDeletedFalse(List.of(3L, 1L))).thenReturn(List.of(transaction));
+        TransactionLookupRequest request = TransactionLookupRequest.builder().ids(List.of(3L, 2L, 1L, 2L)).build();
+
+        // 执行
+        TransactionLookupResponse response = transactionService.lookupTransactions(request);
+        TransactionLookupResponse repeated = transactionService.lookupTransactions(request);
+
+        // 验证：一次IN查询只包含未命中的键，结果（包括不存在的键）写回缓存，第二次全部命中
+        assertEquals(List.of(2L, 1L), response.getTransactions().stream().map(TransactionDTO::getId).toList());
+        assertEquals(List.of(3L), response.getNotFound());
+        assertEquals(response, repeated);
+        assertEquals(1L, cacheManager.getCache("transactions").get(1L, TransactionDTO.class).getId());
+        assertNull(cacheManager.getCache("transactions").get(3L).get());
+        verify(transactionRepository, times(1)).findByIdInAndIsDeletedFalse(anyCollection());
+    }
+
     @Test
     void testUpdateTransaction_Success() {
         // 准备
@@ -168,7 +357,7 @@ class TransactionServiceImplTest {
                 .transactionBizNo("20240101APP12345678")
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(2000.00))
+                .amount(200_000L)
                 .currency("CNY")
                 .description("Updated deposit")
                 .transactionTime(LocalDateTime.now())
@@ -176,7 +365,7 @@ class TransactionServiceImplTest {
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .remarks("Test remarks")
                 .isDeleted(false)
                 .createTime(LocalDateTime.now())
@@ -186,7 +375,7 @@ class TransactionServiceImplTest {
         TransactionUpdateRequest request = TransactionUpdateRequest.builder()
                 .transactionType(Transaction.TransactionType.DEPOSIT)
                 .status(Transaction.Status.SUCCESS)
-                .amount(BigDecimal.valueOf(2000.00))
+                .amount(200_000L)
                 .currency("CNY")
                 .description("Updated deposit")
                 .transactionTime(LocalDateTime.now())
@@ -194,20 +383,22 @@ class TransactionServiceImplTest {
                 .accountType(Transaction.AccountType.SAVINGS)
                 .channel(Transaction.Channel.APP)
                 .externalReferenceNo("REF123")
-                .fee(BigDecimal.ZERO)
+                .fee(0L)
                 .remarks("Test remarks")
                 .updater("system")
                 .build();
 
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction);
+        cacheManager.getCache("transactions").put("20240101APP12345678", Optional.of(transactionDTO));
 
         // 执行
         transactionService.updateTransaction(1L, request);
 
-        // 验证
+        // 验证：按业务编号缓存的旧值同样失效
         verify(transactionRepository).findById(1L);
         verify(transactionRepository).save(any(Transaction.class));
+        assertNull(cacheManager.getCache("transactions").get("20240101APP12345678"));
     }
 
     @Test
@@ -223,6 +414,27 @@ class TransactionServiceImplTest {
         verify(transactionRepository).softDeleteById(1L);
     }
 
+    @Test
+    void testSoftDeleteTransaction_EvictsEveryCacheKeyAndListPages() {
+        // 准备：按ID、业务编号、参考号缓存的条目以及任意列表页
+        transaction.setReferenceNumber("RN-1");
+        Cache cache = cacheManager.getCache("transactions");
+        cache.put(1L, Optional.of(transactionDTO));
+        cache.put("20240101APP12345678", Optional.of(transactionDTO));
+        cache.put("RN-1", Optional.of(transactionDTO));
+        cacheManager.getCache("transactionList").put("1000-5000-0-20", "page");
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+
+        // 执行
+        transactionService.softDeleteTransaction(1L);
+
+        // 验证
+        assertNull(cache.get(1L));
+        assertNull(cache.get("20240101APP12345678"));
+        assertNull(cache.get("RN-1"));
+        assertNull(cacheManager.getCache("transactionList").get("1000-5000-0-20"));
+    }
+
     @Test
     void testSoftDeleteTransaction_NotFound() {
         // 准备
@@ -251,4 +463,125 @@ class TransactionServiceImplTest {
         assertEquals(1, result.getTotalElements());
         verify(transactionRepository).findByIsDeletedFalseAndFilters(any(Pageable.class), isNull(String.class), isNull(Transaction.TransactionType.class), isNull(Transaction.Status.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchTransactionSliceByKeyword_SampledEstimateWithoutCount() {
+        // 准备：全表约1万笔，ID跨度10万，抽样窗口2000行命中100行
+        when(transactionRepository.countByStatusAndType()).thenReturn(List.of(
+                statusTypeCount(Transaction.Status.SUCCESS, Transaction.TransactionType.DEPOSIT, 10_000)));
+        transactionCounters.refresh();
+        when(transactionRepository.findSliceByDescriptionContainingIgnoreCaseAndIsDeletedFalse(eq("rent"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(transaction), PageRequest.of(0, 1), true));
+        when(transactionRepository.findMinId()).thenReturn(1L);
+        when(transactionRepository.findMaxId()).thenReturn(100_000L);
+        SampleCount sample = mock(SampleCount.class);
+        when(sample.getSampled()).thenReturn(2000L);
+        when(sample.getMatched()).thenReturn(100L);
+        when(transactionRepository.sampleDescriptionContaining(eq("rent"), anyLong(), anyLong())).thenReturn(sample);
+
+        // 执行
+        TransactionSlice result = transactionService.searchTransactionSliceByKeyword("rent", PageRequest.of(0, 1), true);
+
+        // 验证：估计值 = 10000 * 100 / 2000，不执行COUNT查询
+        assertTrue(result.isHasNext());
+        assertEquals(500L, result.getApproximateTotal());
+        assertEquals(1, result.getContent().size());
+        verify(transactionRepository).sampleDescriptionContaining(eq("rent"),
+                longThat(fromId -> fromId >= 1 && fromId <= 98_001), longThat(toId -> toId <= 100_001));
+        verify(transactionRepository, never()).findByDescriptionContainingIgnoreCaseAndIsDeletedFalse(any(), any());
+    }
+
+    @Test
+    void testSearchTransactionSliceByKeyword_LastSliceHasExactTotal() {
+        // 准备
+        when(transactionRepository.findSliceByDescriptionContainingIgnoreCaseAndIsDeletedFalse(eq("rent"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(transaction), PageRequest.of(2, 10), false));
+
+        // 执行
+        TransactionSlice result = transactionService.searchTransactionSliceByKeyword("rent", PageRequest.of(2, 10), true);
+
+        // 验证：没有下一页时总数就是偏移量加本页行数，无需抽样
+        assertFalse(result.isHasNext());
+        assertEquals(21L, result.getApproximateTotal());
+        verify(transactionRepository, never()).sampleDescriptionContaining(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testUpdateTransactionStatus_ChunkedSetBasedUpdateWithPreciseEviction() {
+        // 准备
+        ReflectionTestUtils.setField(transactionService, "bulkChunkSize", 2);
+        cacheManager.getCache("transactions").put(1L, transactionDTO);
+        cacheManager.getCache("transactions").put("BIZ1", transactionDTO);
+        cacheManager.getCache("transactions").put(4L, transactionDTO);
+        cacheManager.getCache("transactionList").put("0-20", "page");
+        when(transactionRepository.findRefsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                ref(1L, "BIZ1", Transaction.Status.PENDING), ref(2L, "BIZ2", Transaction.Status.SUCCESS)));
+        when(transactionRepository.findRefsByIdIn(List.of(3L))).thenReturn(List.of(
+                ref(3L, "BIZ3", Transaction.Status.PENDING)));
+        when(transactionRepository.updateStatusByIdIn(anyCollection(), eq(Transaction.Status.PENDING),
+                eq(Transaction.Status.SUCCESS), eq("settlement"), any())).thenReturn(1);
+
+        // 执行
+        int affected = transactionService.updateTransactionStatus(List.of(1L, 2L, 2L, 3L),
+                Transaction.Status.PENDING, Transaction.Status.SUCCESS, "settlement");
+
+        // 验证：每块一条UPDATE，只包含当前状态匹配的ID；只失效受影响交易的缓存
+        assertEquals(2, affected);
+        verify(transactionRepository).updateStatusByIdIn(eq(List.of(1L)), eq(Transaction.Status.PENDING),
+                eq(Transaction.Status.SUCCESS), eq("settlement"), any());
+        verify(transactionRepository).updateStatusByIdIn(eq(List.of(3L)), eq(Transaction.Status.PENDING),
+                eq(Transaction.Status.SUCCESS), eq("settlement"), any());
+        assertNull(cacheManager.getCache("transactions").get(1L));
+        assertNull(cacheManager.getCache("transactions").get("BIZ1"));
+        assertNotNull(cacheManager.getCache("transactions").get(4L));
+        assertNull(cacheManager.getCache("transactionList").get("0-20"));
+        verify(outboxRepository, times(2)).saveAll(argThat(events -> ((List<?>) events).size() == 1));
+    }
+
+    @Test
+    void testUpdateTransactionStatus_SameStatus() {
+        // 执行和验证
+        assertThrows(BusinessException.class, () -> transactionService.updateTransactionStatus(
+                List.of(1L), Transaction.Status.PENDING, Transaction.Status.PENDING, null));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testSoftDeleteTransactions_ByFilterPagesWithIdCursor() {
+        // 准备
+        ReflectionTestUtils.setField(transactionService, "bulkChunkSize", 2);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(transactionRepository.findRefsByFilter(eq("1234567890123456"), eq(from), eq(to), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(ref(1L, "BIZ1", Transaction.Status.SUCCESS), ref(5L, "BIZ5", Transaction.Status.PENDING)));
+        when(transactionRepository.findRefsByFilter(eq("1234567890123456"), eq(from), eq(to), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(ref(9L, "BIZ9", Transaction.Status.SUCCESS)));
+        when(transactionRepository.softDeleteByIdIn(eq(List.of(1L, 5L)), eq("SYSTEM"), any())).thenReturn(2);
+        when(transactionRepository.softDeleteByIdIn(eq(List.of(9L)), eq("SYSTEM"), any())).thenReturn(1);
+
+        // 执行
+        int affected = transactionService.softDeleteTransactions("1234567890123456", from, to, null);
+
+        // 验证
+        assertEquals(3, affected);
+        verify(transactionRepository, times(2)).findRefsByFilter(any(), any(), any(), anyLong(), any(Pageable.class));
+    }
+
+    private TransactionRef ref(Long id, String bizNo, Transaction.Status status) {
+        return new Ref(id, bizNo, null, status, "1234567890123456", Transaction.TransactionType.DEPOSIT,
+                Transaction.Channel.APP, 1_000L, LocalDateTime.now());
+    }
+
+    private record Ref(Long getId, String getTransactionBizNo, String getReferenceNumber, Transaction.Status getStatus,
+                       String getAccountNumber, Transaction.TransactionType getTransactionType, Transaction.Channel getChannel,
+                       long getAmount, LocalDateTime getTransactionTime) implements TransactionRef {
+    }
+
+    private StatusTypeCount statusTypeCount(Transaction.Status status, Transaction.TransactionType type, long count) {
+        return new Group(status, type, count);
+    }
+
+    private record Group(Transaction.Status getStatus, Transaction.TransactionType getTransactionType, long getCount)
+            implements StatusTypeCount {
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.banktransactionmanager.settlement;
+
+import com.example.banktransactionmanager.cache.TransactionCacheInvalidator;
+import com.example.banktransactionmanager.cache.TransactionWatermarks;
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.outbox.TransactionOutbox;
+import com.example.banktransactionmanager.repository.TransactionOutboxRepository;
+import com.example.banktransactionmanager.repository.TransactionAggregateSnapshotRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import com.example.banktransactionmanager.stats.TransactionAggregates;
+import com.example.banktransactionmanager.stats.TransactionCounters;
+import com.example.banktransactionmanager.stats.TransactionStatsRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SettlementEngineTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionOutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SettlementEngine engine;
+    private final Map<String, List<Long>> settledByAccount = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        SettlementProcessor recordingProcessor = transaction -> {
+            settledByAccount.computeIfAbsent(transaction.getAccountNumber(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(transaction.getId());
+            if ("9999999999".equals(transaction.getAccountNumber())) {
+                throw new IllegalStateException("downstream unavailable");
+            }
+            return new DefaultSettlementProcessor().settle(transaction);
+        };
+        engine = new SettlementEngine(transactionRepository, new TransactionTemplate(transactionManager),
+                new TransactionCacheInvalidator(new ConcurrentMapCacheManager(), new TransactionWatermarks(1000, null)),
+                new TransactionStatsRecorder(new TransactionCounters(transactionRepository, 1000),
+                        new TransactionAggregates(transactionRepository, mock(TransactionAggregateSnapshotRepository.class),
+                                new TransactionTemplate(transactionManager), null, 90, 2)),
+                new TransactionOutbox(outboxRepository), recordingProcessor,
+                meterRegistry, "node-a", 4, 100, 1, Duration.ofSeconds(30),
+                Duration.ofSeconds(10), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testSettleBatch_PartitionsByAccountAndCompletesInBatches() {
+        // 准备
+        List<Transaction> claimed = List.of(
+                pending(1L, "1111111111", 10_000L),
+                pending(2L, "2222222222", -500L),
+                pending(3L, "1111111111", 20_000L),
+                pending(4L, "2222222222", 5000L),
+                pending(5L, "1111111111", 30_000L));
+        when(transactionRepository.findSettlementCandidates(any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(transactionRepository.claimForSettlement(anyCollection(), startsWith("node-a-"), any(), any())).thenReturn(5);
+        when(transactionRepository.findClaimedForSettlement(startsWith("node-a-"))).thenReturn(claimed);
+        when(transactionRepository.completeSettlement(anyCollection(), anyString(), eq(Transaction.Status.SUCCESS), anyString(), any()))
+                .thenReturn(4);
+        when(transactionRepository.completeSettlement(anyCollection(), anyString(), eq(Transaction.Status.FAILED), anyString(), any()))
+                .thenReturn(1);
+
+        // 执行
+        int settled = engine.settleBatch();
+
+        // 验证：同一账户按ID顺序处理；成功、失败各一条批量UPDATE
+        assertEquals(5, settled);
+        assertEquals(List.of(1L, 3L, 5L), settledByAccount.get("1111111111"));
+        assertEquals(List.of(2L, 4L), settledByAccount.get("2222222222"));
+        verify(transactionRepository).completeSettlement(argThat(ids -> ids.size() == 4 && ids.containsAll(List.of(1L, 3L, 4L, 5L))),
+                anyString(), eq(Transaction.Status.SUCCESS), eq(SettlementEngine.UPDATER), any());
+        verify(transactionRepository).completeSettlement(eq(List.of(2L)),
+                anyString(), eq(Transaction.Status.FAILED), eq(SettlementEngine.UPDATER), any());
+        verify(transactionRepository, never()).releaseSettlementClaim(anyCollection(), anyString());
+        verify(outboxRepository, times(2)).saveAll(anyList());
+        assertEquals(4.0, meterRegistry.counter("settlement.transactions", "outcome", "success").count());
+        assertEquals(1.0, meterRegistry.counter("settlement.transactions", "outcome", "failed").count());
+        assertEquals(1L, meterRegistry.timer("settlement.batch").count());
+    }
+
+    @Test
+    void testSettleBatch_ProcessorErrorDefersRestOfAccount() {
+        // 准备
+        List<Transaction> claimed = List.of(
+                pending(1L, "9999999999", 10_000L),
+                pending(2L, "9999999999", 20_000L));
+        when(transactionRepository.findSettlementCandidates(any(), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.claimForSettlement(anyCollection(), anyString(), any(), any())).thenReturn(2);
+        when(transactionRepository.findClaimedForSettlement(anyString())).thenReturn(claimed);
+
+        // 执行
+        engine.settleBatch();
+
+        // 验证：出错的交易计入尝试次数并退避，同账户后续交易不再处理、释放租约
+        assertEquals(List.of(1L), settledByAccount.get("9999999999"));
+        verify(transactionRepository).deferSettlement(eq(List.of(1L)), anyString(),
+                argThat(retryAt -> retryAt.isAfter(LocalDateTime.now().plusSeconds(5))));
+        verify(transactionRepository).releaseSettlementClaim(eq(List.of(2L)), anyString());
+        verify(transactionRepository, never()).completeSettlement(anyCollection(), anyString(), any(), anyString(), any());
+        assertEquals(2.0, meterRegistry.counter("settlement.transactions", "outcome", "deferred").count());
+    }
+
+    @Test
+    void testSettleBatch_HoldsAfterMaxAttempts() {
+        // 准备
+        Transaction poison = pending(1L, "9999999999", 10_000L);
+        poison.setSettlementAttempts(2);
+        when(transactionRepository.findSettlementCandidates(any(), any(Pageable.class))).thenReturn(List.of(1L));
+        when(transactionRepository.claimForSettlement(anyCollection(), anyString(), any(), any())).thenReturn(1);
+        when(transactionRepository.findClaimedForSettlement(anyString())).thenReturn(List.of(poison));
+        when(transactionRepository.completeSettlement(anyCollection(), anyString(), eq(Transaction.Status.HELD), anyString(), any()))
+                .thenReturn(1);
+
+        // 执行
+        engine.settleBatch();
+
+        // 验证：第3次出错后转为 HELD，不再退避重试
+        verify(transactionRepository).completeSettlement(eq(List.of(1L)), anyString(),
+                eq(Transaction.Status.HELD), eq(SettlementEngine.UPDATER), any());
+        verify(transactionRepository, never()).deferSettlement(anyCollection(), anyString(), any());
+        assertEquals(1.0, meterRegistry.counter("settlement.transactions", "outcome", "held").count());
+    }
+
+    @Test
+    void testSettleBatch_YieldsAccountsClaimedConcurrentlyByAnotherNode() {
+        // 准备
+        List<Transaction> claimed = List.of(
+                pending(1L, "1111111111", 10_000L),
+                pending(2L, "2222222222", 20_000L));
+        when(transactionRepository.findSettlementCandidates(any(), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.claimForSettlement(anyCollection(), anyString(), any(), any())).thenReturn(2);
+        when(transactionRepository.findClaimedForSettlement(anyString())).thenReturn(claimed);
+        when(transactionRepository.findContestedSettlementAccounts(anyString(), any())).thenReturn(List.of("2222222222"));
+        when(transactionRepository.completeSettlement(anyCollection(), anyString(), eq(Transaction.Status.SUCCESS), anyString(), any()))
+                .thenReturn(1);
+
+        // 执行
+        engine.settleBatch();
+
+        // 验证：被其他节点同时领取的账户让出，不处理
+        assertNull(settledByAccount.get("2222222222"));
+        verify(transactionRepository).releaseSettlementClaim(eq(List.of(2L)), anyString());
+        verify(transactionRepository).completeSettlement(eq(List.of(1L)), anyString(),
+                eq(Transaction.Status.SUCCESS), eq(SettlementEngine.UPDATER), any());
+        assertEquals(1.0, meterRegistry.counter("settlement.claims.lost").count());
+    }
+
+    @Test
+    void testSettleBatch_AllClaimsLostToAnotherNode() {
+        // 准备
+        when(transactionRepository.findSettlementCandidates(any(), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.claimForSettlement(anyCollection(), anyString(), any(), any())).thenReturn(0);
+
+        // 执行
+        int settled = engine.settleBatch();
+
+        // 验证
+        assertEquals(0, settled);
+        verify(transactionRepository, never()).findClaimedForSettlement(anyString());
+        assertEquals(2.0, meterRegistry.counter("settlement.claims.lost").count());
+    }
+
+    private Transaction pending(Long id, String accountNumber, long amount) {
+        return Transaction.builder()
+                .id(id)
+                .transactionBizNo("APP" + id)
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .status(Transaction.Status.PENDING)
+                .amount(amount)
+                .accountNumber(accountNumber)
+                .fee(0L)
+                .isDeleted(false)
+                .build();
+    }
+}
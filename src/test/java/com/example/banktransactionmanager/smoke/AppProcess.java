@@ -0,0 +1,139 @@
+package com.example.banktransactionmanager.smoke;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以独立进程启动应用（原生可执行文件或 java -jar），用于冒烟测试与启动/内存对比
+ * HTTP与gRPC端口在启动前随机选取，进程输出写入日志文件，避免管道写满阻塞子进程
+ */
+public final class AppProcess implements AutoCloseable {
+
+    private final Process process;
+    private final long startNanos;
+    private final int httpPort;
+    private final int grpcPort;
+    private final Path logFile;
+
+    private AppProcess(Process process, long startNanos, int httpPort, int grpcPort, Path logFile) {
+        this.process = process;
+        this.startNanos = startNanos;
+        this.httpPort = httpPort;
+        this.grpcPort = grpcPort;
+        this.logFile = logFile;
+    }
+
+    /**
+     * 启动应用
+     * @param command 启动命令，按空白拆分，例如 "target/bank-transaction-manager" 或 "java -jar target/app.jar"
+     * @param extraArgs 追加的Spring Boot命令行参数
+     */
+    public static AppProcess start(String command, String... extraArgs) throws IOException {
+        int httpPort = freePort();
+        int grpcPort = freePort();
+        List<String> commandLine = new ArrayList<>(Arrays.asList(command.trim().split("\\s+")));
+        commandLine.add("--server.port=" + httpPort);
+        commandLine.add("--grpc.server.port=" + grpcPort);
+        commandLine.addAll(Arrays.asList(extraArgs));
+        Path logFile = Files.createTempFile("app-process-", ".log");
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new AppProcess(process, startNanos, httpPort, grpcPort, logFile);
+    }
+
+    /**
+     * 轮询就绪探针直到返回200
+     * @return 进程启动到就绪的毫秒数
+     */
+    public long awaitReady(Duration timeout) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest readiness = HttpRequest.newBuilder(baseUri().resolve("/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = startNanos + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                }
+            } catch (ConnectException e) {
+                // 端口尚未监听
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application not ready within " + timeout + ", see " + logFile);
+    }
+
+    /**
+     * 当前常驻内存（KB），读取 /proc/&lt;pid&gt;/status，非Linux平台返回-1
+     */
+    public long residentSetKb() {
+        return readProcStatus("VmRSS:");
+    }
+
+    /**
+     * 峰值常驻内存（KB），非Linux平台返回-1
+     */
+    public long peakResidentSetKb() {
+        return readProcStatus("VmHWM:");
+    }
+
+    private long readProcStatus(String field) {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1L;
+        }
+        return -1L;
+    }
+
+    public URI baseUri() {
+        return URI.create("http://localhost:" + httpPort);
+    }
+
+    public int getGrpcPort() {
+        return grpcPort;
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.banktransactionmanager.smoke;
+
+import com.example.banktransactionmanager.grpc.proto.AccountType;
+import com.example.banktransactionmanager.grpc.proto.Channel;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionRequest;
+import com.example.banktransactionmanager.grpc.proto.CreateTransactionResponse;
+import com.example.banktransactionmanager.grpc.proto.GetTransactionByBizNoRequest;
+import com.example.banktransactionmanager.grpc.proto.TransactionMessage;
+import com.example.banktransactionmanager.grpc.proto.TransactionServiceGrpc;
+import com.example.banktransactionmanager.grpc.proto.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 针对独立进程的冒烟测试，主要用于验证原生可执行文件（mvn -Pnative verify）
+ * 反射/资源/代理提示缺失在原生镜像里只会在运行时暴露，因此每个用例都覆盖一类依赖提示的路径：
+ * Jackson绑定Lombok DTO、Bean Validation、JPA与@Cacheable键表达式、Ehcache XML配置、springdoc、gRPC/protobuf。
+ * 通过系统属性 smoke.command 指定启动命令，未指定时跳过。
+ */
+class NativeSmokeIT {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeSmokeIT.class);
+
+    private static final String ACCOUNT_NUMBER = "6222020200119988";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static AppProcess app;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        String command = System.getProperty("smoke.command");
+        assumeTrue(command != null && !command.isBlank(), "smoke.command not set");
+        app = AppProcess.start(command);
+        long readyMillis = app.awaitReady(Duration.ofSeconds(60));
+        log.info("Application ready in {} ms, RSS {} KB", readyMillis, app.residentSetKb());
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (app != null) {
+            app.close();
+        }
+    }
+
+    @Test
+    void testCreateAndListTransaction() throws Exception {
+        // 准备
+        String body = """
+                {"transactionType":"DEPOSIT","amount":"123.45","currency":"CNY","description":"Smoke deposit",
+                 "accountNumber":"%s","accountType":"SAVINGS","channel":"APP","fee":"0.50","creator":"smoke"}
+                """.formatted(ACCOUNT_NUMBER);
+
+        // 执行
+        HttpResponse<String> created = send(HttpRequest.newBuilder(app.baseUri().resolve("/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        HttpResponse<String> listed = send(HttpRequest.newBuilder(
+                app.baseUri().resolve("/api/transactions?accountNumber=" + ACCOUNT_NUMBER)).GET().build());
+
+        // 验证
+        assertEquals(201, created.statusCode(), created.body());
+        assertTrue(objectMapper.readTree(created.body()).get("transactionBizNo").asText().startsWith("APP"));
+        assertEquals(200, listed.statusCode(), listed.body());
+        JsonNode content = objectMapper.readTree(listed.body()).get("content");
+        assertEquals(1, content.size());
+        assertEquals("123.45", content.get(0).get("amount").asText());
+    }
+
+    @Test
+    void testValidationErrorsAreReported() throws Exception {
+        // 执行
+        HttpResponse<String> response = send(HttpRequest.newBuilder(app.baseUri().resolve("/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"accountNumber\":\"abc\"}"))
+                .build());
+
+        // 验证
+        assertEquals(400, response.statusCode());
+        JsonNode error = objectMapper.readTree(response.body());
+        assertEquals("VALIDATION_ERROR", error.get("errorCode").asText());
+        assertTrue(error.get("fieldErrors").has("accountNumber"));
+    }
+
+    @Test
+    void testOpenApiDocumentIsServed() throws Exception {
+        // 执行
+        HttpResponse<String> response = send(HttpRequest.newBuilder(app.baseUri().resolve("/api-docs")).GET().build());
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("/api/transactions"));
+    }
+
+    @Test
+    void testGrpcCreateAndGet() throws Exception {
+        // 准备
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", app.getGrpcPort()).usePlaintext().build();
+        try {
+            TransactionServiceGrpc.TransactionServiceBlockingStub stub = TransactionServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(10, TimeUnit.SECONDS);
+
+            // 执行
+            CreateTransactionResponse created = stub.createTransaction(CreateTransactionRequest.newBuilder()
+                    .setTransactionType(TransactionType.WITHDRAWAL)
+                    .setAmount(5000L)
+                    .setCurrency("CNY")
+                    .setDescription("Smoke withdrawal")
+                    .setAccountNumber("6222020200117766")
+                    .setAccountType(AccountType.CHECKING)
+                    .setChannel(Channel.ONLINE_BANK)
+                    .setFee(0L)
+                    .setCreator("smoke")
+                    .build());
+            TransactionMessage fetched = stub.getTransactionByBizNo(GetTransactionByBizNoRequest.newBuilder()
+                    .setTransactionBizNo(created.getTransactionBizNo())
+                    .build());
+
+            // 验证
+            assertFalse(created.getReplayed());
+            assertEquals(5000L, fetched.getAmount());
+            assertEquals(TransactionType.WITHDRAWAL, fetched.getTransactionType());
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
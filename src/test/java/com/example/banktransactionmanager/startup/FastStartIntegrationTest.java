@@ -0,0 +1,97 @@
+package com.example.banktransactionmanager.startup;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.dto.TransactionCreateRequest;
+import com.example.banktransactionmanager.outbox.OutboxRelay;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * faststart profile下的启动验证
+ * 使用独立的内存库并把ddl-auto设为validate：表结构只来自db/schema-h2.sql，与实体映射不一致时上下文启动失败
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:faststartdb;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "settlement.enabled=false",
+        "grpc.server.port=0",
+        "faststart.warmup.requests-per-round=20",
+        "faststart.warmup.max-rounds=5"})
+@ActiveProfiles("faststart")
+class FastStartIntegrationTest {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testWarmupRunsBeforeReadinessAndRecordsStartupMetrics() {
+        // 执行
+        WarmupRunner.WarmupResult result = warmupRunner.getResult();
+
+        // 验证
+        assertNotNull(result);
+        assertTrue(result.rounds() > 0);
+        assertTrue(result.timeToPeakThroughputMillis() >= result.timeToFirstRequestMillis());
+        assertNotNull(meterRegistry.find("startup.time-to-first-request").gauge());
+        assertNotNull(meterRegistry.find("startup.time-to-peak-throughput").gauge());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+        // 预热只发送只读请求
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void testBackgroundWorkersAreNotLazy() {
+        // 验证：outbox转发器带@Scheduled，懒加载时不会被任何请求触达，必须在启动时创建
+        assertTrue(context.getBeanFactory().containsSingleton("outboxRelay"));
+        assertNotNull(context.getBean(OutboxRelay.class));
+    }
+
+    @Test
+    void testSchemaScriptSupportsCreate() {
+        // 准备
+        TransactionCreateRequest request = TransactionCreateRequest.builder()
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(100_000L)
+                .description("Cash deposit")
+                .accountNumber("6222020200112233")
+                .accountType(Transaction.AccountType.SAVINGS)
+                .channel(Transaction.Channel.APP)
+                .fee(0L)
+                .creator("faststart")
+                .build();
+
+        // 执行
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/transactions", request, String.class);
+
+        // 验证
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        transactionRepository.deleteAll();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.banktransactionmanager.statement;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatementLine;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementWriterTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @Test
+    void testCsvQuotesSeparatorsAndNeutralisesFormulas() throws IOException {
+        // 准备
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = StatementFormat.CSV.newWriter(out);
+        StatementSummary summary = new StatementSummary(10_000L);
+        StatementLine deposit = line(Transaction.TransactionType.DEPOSIT, "Salary, March", "=HYPERLINK(\"x\")", 50_000L, 0L);
+        StatementLine payment = line(Transaction.TransactionType.PAYMENT, "电费", "State Grid", 12_345L, 100L);
+
+        // 执行
+        writer.begin(new StatementHeader("6222020200112233", FROM, TO, summary.getOpeningBalance()));
+        writer.line(deposit, summary.post(deposit));
+        writer.line(payment, summary.post(payment));
+        writer.finish(summary);
+
+        // 验证
+        String[] rows = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(CsvStatementWriter.HEADER, rows[0]);
+        assertEquals("OPENING,2024-03-01 00:00:00,,,,Account 6222020200112233 2024-03-01 ~ 2024-03-31,,,,,100.00,", rows[1]);
+        assertEquals("TXN,2024-03-05 10:00:00,BIZ-DEPOSIT,DEPOSIT,APP,\"Salary, March\",\"'=HYPERLINK(\"\"x\"\")\","
+                + ",500.00,0.00,600.00,CNY", rows[2]);
+        assertEquals("TXN,2024-03-05 10:00:00,BIZ-PAYMENT,PAYMENT,APP,电费,State Grid,123.45,,1.00,475.55,CNY", rows[3]);
+        assertEquals("FEE,,,PAYMENT,,1 charged,,,,1.00,,CNY", rows[4]);
+        assertEquals("CLOSING,,,,,2 transactions,,123.45,500.00,1.00,475.55,CNY", rows[5]);
+        assertEquals(6, rows.length);
+    }
+
+    @Test
+    void testPdfIsWrittenPageByPageWithValidCrossReferences() throws IOException {
+        // 准备：超过两页的交易
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = StatementFormat.PDF.newWriter(out);
+        StatementSummary summary = new StatementSummary(0L);
+        writer.begin(new StatementHeader("6222020200112233", FROM, TO, 0L));
+        int pagesBeforeFinish = 0;
+
+        // 执行
+        for (int i = 0; i < 120; i++) {
+            StatementLine line = line(Transaction.TransactionType.DEPOSIT, "Top-up (app) 转入", null, 100L, 0L);
+            writer.line(line, summary.post(line));
+            if (i == 100) {
+                pagesBeforeFinish = count(out.toString(StandardCharsets.ISO_8859_1), "/Type /Page /Parent");
+            }
+        }
+        writer.finish(summary);
+
+        // 验证：写到第101行时前两页已经输出
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertEquals(2, pagesBeforeFinish);
+        assertTrue(pdf.startsWith("%PDF-1.4"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertTrue(pdf.contains("/Count 3 >>"));
+        assertTrue(pdf.contains("Top-up \\(app\\) ??"));
+        assertTrue(pdf.contains("120 transactions  Debits 0.00  Credits 120.00  Fees 0.00  Closing balance 120.00 CNY"));
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n").matcher(pdf);
+        assertTrue(startXref.find());
+        int xref = Integer.parseInt(startXref.group(1));
+        assertTrue(pdf.startsWith("xref\n", xref));
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n \n").matcher(pdf.substring(xref));
+        int objectId = 0;
+        while (entries.find()) {
+            objectId++;
+            assertTrue(pdf.startsWith(objectId + " 0 obj\n", Integer.parseInt(entries.group(1))), "object " + objectId);
+        }
+        // 目录、页树、两个字体，每页一个内容流和一个页对象
+        assertEquals(4 + 3 * 2, objectId);
+    }
+
+    private static StatementLine line(Transaction.TransactionType type, String description, String counterparty,
+                                      long amount, long fee) {
+        return new StatementLine(LocalDateTime.of(2024, 3, 5, 10, 0), "BIZ-" + type.name(), type,
+                Transaction.Channel.APP, description, counterparty, amount, fee, "CNY");
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.banktransactionmanager.stats;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.TransactionAggregateSnapshot;
+import com.example.banktransactionmanager.model.dto.DailyTransactionStats;
+import com.example.banktransactionmanager.model.dto.TransactionStats;
+import com.example.banktransactionmanager.model.projection.DailyTotal;
+import com.example.banktransactionmanager.model.projection.TransactionRef;
+import com.example.banktransactionmanager.repository.TransactionAggregateSnapshotRepository;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionAggregatesTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    private TransactionRepository transactionRepository;
+    private TransactionAggregateSnapshotRepository snapshotRepository;
+    private TransactionAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        snapshotRepository = mock(TransactionAggregateSnapshotRepository.class);
+        Clock clock = Clock.fixed(TODAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        aggregates = new TransactionAggregates(transactionRepository, snapshotRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), null, 30, 2, clock);
+    }
+
+    @Test
+    void testRecoverTakesOlderDaysFromSnapshotAndRebuildsRecentDays() {
+        // 准备：快照取于前一天；快照中前一天的数据会被交易表的重新汇总覆盖
+        LocalDateTime snapshotTime = TODAY.minusDays(1).atTime(23, 0);
+        when(snapshotRepository.findLatest()).thenReturn(List.of(
+                snapshotRow(Transaction.Channel.APP, Transaction.Status.SUCCESS, null, 1000, 5_000_000, snapshotTime),
+                snapshotRow(Transaction.Channel.APP, Transaction.Status.SUCCESS, TODAY.minusDays(5), 10, 50_000, snapshotTime),
+                snapshotRow(Transaction.Channel.APP, Transaction.Status.SUCCESS, TODAY.minusDays(1), 99, 990_000, snapshotTime)));
+        when(transactionRepository.sumByChannelTypeStatusAndDay(TODAY.minusDays(3).atStartOfDay())).thenReturn(List.of(
+                new Total(Transaction.Channel.APP, Transaction.TransactionType.DEPOSIT, Transaction.Status.SUCCESS,
+                        TODAY.minusDays(1), 3, 30_000),
+                new Total(Transaction.Channel.COUNTER, Transaction.TransactionType.WITHDRAWAL, Transaction.Status.PENDING,
+                        TODAY, 2, 8_000)));
+
+        // 执行
+        aggregates.recover();
+        TransactionStats stats = aggregates.stats(null, 7);
+
+        // 验证
+        assertEquals(1013L, stats.getCountsByChannel().get(Transaction.Channel.APP).get(Transaction.Status.SUCCESS));
+        assertEquals(2L, stats.getCountsByChannel().get(Transaction.Channel.COUNTER).get(Transaction.Status.PENDING));
+        assertEquals(0L, stats.getCountsByChannel().get(Transaction.Channel.ONLINE_BANK).get(Transaction.Status.FAILED));
+        assertEquals(7, stats.getDaily().size());
+        DailyTransactionStats yesterday = stats.getDaily().get(5);
+        assertEquals(TODAY.minusDays(1), yesterday.getDay());
+        assertEquals(3L, yesterday.getCounts().get(Transaction.Status.SUCCESS));
+        assertEquals(30_000L, yesterday.getVolume());
+        assertEquals(50_000L, stats.getDaily().get(1).getVolume());
+        // 待处理交易计入笔数，不计入成交金额
+        assertEquals(2L, stats.getDaily().get(6).getCounts().get(Transaction.Status.PENDING));
+        assertEquals(0L, stats.getDaily().get(6).getVolume());
+    }
+
+    @Test
+    void testCommittedChangesMoveBetweenCellsAndOldDaysRollUp() {
+        // 准备
+        when(snapshotRepository.findLatest()).thenReturn(List.of());
+        when(transactionRepository.sumByChannelTypeStatusAndDay(any())).thenReturn(List.of());
+        aggregates.recover();
+        TransactionRef created = ref(Transaction.Status.PENDING, 20_000L, TODAY.atTime(9, 30));
+        TransactionRef old = ref(Transaction.Status.SUCCESS, 7_000L, TODAY.minusDays(60).atTime(9, 30));
+
+        // 执行：新建一笔，随后流转为成功；一笔保留期之前的交易被删除
+        aggregates.add(created, Transaction.Status.PENDING, 1);
+        aggregates.addAll(List.of(created), Transaction.Status.PENDING, -1);
+        aggregates.addAll(List.of(created), Transaction.Status.SUCCESS, 1);
+        aggregates.add(old, Transaction.Status.SUCCESS, -1);
+        TransactionStats stats = aggregates.stats(Transaction.Channel.APP, 1);
+
+        // 验证
+        assertEquals(1, stats.getCountsByChannel().size());
+        assertEquals(0L, stats.getCountsByChannel().get(Transaction.Channel.APP).get(Transaction.Status.PENDING));
+        assertEquals(0L, stats.getCountsByChannel().get(Transaction.Channel.APP).get(Transaction.Status.SUCCESS));
+        assertEquals(1L, stats.getDaily().get(0).getCounts().get(Transaction.Status.SUCCESS));
+        assertEquals(20_000L, stats.getDaily().get(0).getVolume());
+        assertThrows(IllegalArgumentException.class, () -> aggregates.stats(null, 31));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshotWritesNonEmptyCellsAndReplacesOlderSnapshots() {
+        // 准备
+        aggregates.add(ref(Transaction.Status.SUCCESS, 20_000L, TODAY.atTime(9, 30)), Transaction.Status.SUCCESS, 1);
+        aggregates.add(ref(Transaction.Status.FAILED, 5_000L, TODAY.atTime(10, 0)), Transaction.Status.FAILED, 1);
+        aggregates.add(ref(Transaction.Status.FAILED, 5_000L, TODAY.atTime(10, 0)), Transaction.Status.FAILED, -1);
+
+        // 执行
+        aggregates.snapshot();
+
+        // 验证
+        ArgumentCaptor<List<TransactionAggregateSnapshot>> rows = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(rows.capture());
+        assertEquals(1, rows.getValue().size());
+        TransactionAggregateSnapshot row = rows.getValue().get(0);
+        assertEquals(Transaction.Status.SUCCESS, row.getStatus());
+        assertEquals(TODAY, row.getBusinessDay());
+        assertEquals(1L, row.getTransactionCount());
+        assertEquals(20_000L, row.getAmountTotal());
+        verify(snapshotRepository).deleteOlderThan(row.getSnapshotTime());
+    }
+
+    private static TransactionAggregateSnapshot snapshotRow(Transaction.Channel channel, Transaction.Status status,
+                                                            LocalDate day, long count, long volume,
+                                                            LocalDateTime snapshotTime) {
+        return new TransactionAggregateSnapshot(null, channel, Transaction.TransactionType.DEPOSIT, status, day,
+                count, volume, snapshotTime);
+    }
+
+    private static TransactionRef ref(Transaction.Status status, long amount, LocalDateTime transactionTime) {
+        return TransactionRef.of(Transaction.builder()
+                .id(1L)
+                .status(status)
+                .accountNumber("6222000000000001")
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .channel(Transaction.Channel.APP)
+                .amount(amount)
+                .transactionTime(transactionTime)
+                .build());
+    }
+
+    private record Total(Transaction.Channel getChannel, Transaction.TransactionType getTransactionType,
+                         Transaction.Status getStatus, LocalDate getBusinessDay, long getCount, long getVolume)
+            implements DailyTotal {
+    }
+}
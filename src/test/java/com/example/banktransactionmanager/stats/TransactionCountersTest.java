@@ -0,0 +1,73 @@
+package com.example.banktransactionmanager.stats;
+
+import com.example.banktransactionmanager.model.Transaction;
+import com.example.banktransactionmanager.model.projection.StatusTypeCount;
+import com.example.banktransactionmanager.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionCountersTest {
+
+    private static final String ACCOUNT = "6222000000000001";
+
+    @Test
+    void testRefreshSeedsMatrixAndCommittedChangesAdjustIt() {
+        // 准备
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.countByStatusAndType()).thenReturn(List.of(
+                group(Transaction.Status.SUCCESS, Transaction.TransactionType.DEPOSIT, 60),
+                group(Transaction.Status.PENDING, Transaction.TransactionType.TRANSFER, 40)));
+        TransactionCounters counters = new TransactionCounters(repository, 1000);
+        assertNull(counters.total());
+        assertNull(counters.estimate(null, null, Transaction.Status.SUCCESS));
+
+        // 执行：一笔新建，一笔从待处理流转为成功
+        counters.refresh();
+        counters.add(ACCOUNT, Transaction.TransactionType.DEPOSIT, Transaction.Status.PENDING, 1);
+        counters.add(ACCOUNT, Transaction.TransactionType.TRANSFER, Transaction.Status.PENDING, -1);
+        counters.add(ACCOUNT, Transaction.TransactionType.TRANSFER, Transaction.Status.SUCCESS, 1);
+
+        // 验证
+        assertEquals(101L, counters.total());
+        assertEquals(61L, counters.estimate(null, null, Transaction.Status.SUCCESS));
+        assertEquals(40L, counters.estimate(null, null, Transaction.Status.PENDING));
+        assertEquals(61L, counters.estimate(null, Transaction.TransactionType.DEPOSIT, null));
+        assertEquals(1L, counters.estimate(null, Transaction.TransactionType.TRANSFER, Transaction.Status.SUCCESS));
+    }
+
+    @Test
+    void testAccountCountSeededOnceAndScaledByGlobalDistribution() {
+        // 准备
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.countByStatusAndType()).thenReturn(List.of(
+                group(Transaction.Status.SUCCESS, Transaction.TransactionType.DEPOSIT, 75),
+                group(Transaction.Status.FAILED, Transaction.TransactionType.DEPOSIT, 25)));
+        when(repository.countByAccountNumberAndIsDeletedFalse(ACCOUNT)).thenReturn(20L);
+        TransactionCounters counters = new TransactionCounters(repository, 1000);
+        counters.refresh();
+
+        // 执行
+        Long account = counters.estimate(ACCOUNT, null, null);
+        counters.add(ACCOUNT, Transaction.TransactionType.DEPOSIT, Transaction.Status.SUCCESS, 4);
+        Long afterCreate = counters.estimate(ACCOUNT, null, null);
+        Long accountFailed = counters.estimate(ACCOUNT, null, Transaction.Status.FAILED);
+
+        // 验证：账号计数只取一次初值，之后按变化增减；带状态时按全局分布 24 * 25 / 104 估算
+        assertEquals(20L, account);
+        assertEquals(24L, afterCreate);
+        assertEquals(6L, accountFailed);
+        verify(repository, times(1)).countByAccountNumberAndIsDeletedFalse(ACCOUNT);
+    }
+
+    private static StatusTypeCount group(Transaction.Status status, Transaction.TransactionType type, long count) {
+        return new Group(status, type, count);
+    }
+
+    private record Group(Transaction.Status getStatus, Transaction.TransactionType getTransactionType, long getCount)
+            implements StatusTypeCount {
+    }
+}
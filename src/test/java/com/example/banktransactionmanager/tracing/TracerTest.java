@@ -0,0 +1,121 @@
+package com.example.banktransactionmanager.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    private InMemorySpanExporter exporter;
+    private SlowRequestRecorder recorder;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter();
+        recorder = new SlowRequestRecorder(2, 0);
+        tracer = new Tracer(1.0, List.of(exporter, recorder));
+    }
+
+    @Test
+    void testStagesAndChildSpansShareTrace() {
+        // 执行
+        Span root = tracer.startTrace("POST /api/transactions", null);
+        Tracer.startStage("http.request.deserialize");
+        Tracer.startStage("http.request.validation");
+        Tracer.endStage();
+        try (Span service = Tracer.startSpan("service.createTransaction")) {
+            Tracer.startSpan("db.save").end();
+        }
+        root.end();
+
+        // 验证
+        assertFalse(Tracer.isRecording());
+        List<Span> spans = exporter.getFinishedSpans();
+        assertEquals(5, spans.size());
+        assertTrue(spans.stream().allMatch(s -> root.getTraceId().equals(s.getTraceId())));
+        Span service = spans.stream().filter(s -> s.getName().equals("service.createTransaction")).findFirst().orElseThrow();
+        Span save = spans.stream().filter(s -> s.getName().equals("db.save")).findFirst().orElseThrow();
+        assertEquals(service.getSpanId(), save.getParentSpanId());
+        assertEquals(root.getSpanId(), service.getParentSpanId());
+        assertSame(root, spans.get(spans.size() - 1));
+
+        List<SlowRequest> slowRequests = recorder.getSlowestRequests();
+        assertEquals(1, slowRequests.size());
+        assertEquals(4, slowRequests.get(0).getStages().size());
+        assertEquals("http.request.deserialize", slowRequests.get(0).getStages().get(0).getName());
+    }
+
+    @Test
+    void testRootEndClosesOpenSpans() {
+        // 执行：子Span未关闭（模拟异常路径）
+        Span root = tracer.startTrace("GET /api/transactions", null);
+        Tracer.startSpan("service.getAllTransactions");
+        Tracer.startStage("http.request.validation");
+        root.end();
+
+        // 验证
+        assertFalse(Tracer.isRecording());
+        assertEquals(3, exporter.getFinishedSpans().size());
+        assertTrue(exporter.getFinishedSpans().stream().allMatch(Span::isEnded));
+    }
+
+    @Test
+    void testSampledOutReturnsNoop() {
+        // 准备
+        Tracer neverSample = new Tracer(0.0, List.of(exporter));
+
+        // 执行
+        Span root = neverSample.startTrace("GET /api/transactions", null);
+        Span child = Tracer.startSpan("service.getAllTransactions");
+        child.end();
+        root.end();
+
+        // 验证
+        assertSame(Span.NOOP, root);
+        assertSame(Span.NOOP, child);
+        assertFalse(Tracer.isRecording());
+        assertTrue(exporter.getFinishedSpans().isEmpty());
+    }
+
+    @Test
+    void testRemoteParentIsHonoured() {
+        // 准备
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        String traceparent = "00-" + traceId + "-00f067aa0ba902b7-01";
+        Tracer neverSample = new Tracer(0.0, List.of(exporter));
+
+        // 执行：上游已采样时即使本地采样率为0也要记录
+        Span root = neverSample.startTrace("GET /api/transactions", traceparent);
+        root.end();
+
+        // 验证
+        assertEquals(traceId, root.getTraceId());
+        assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+        assertTrue(root.traceparent().startsWith("00-" + traceId + "-"));
+        assertEquals(1, exporter.getFinishedSpans().size());
+    }
+
+    @Test
+    void testSlowRequestRecorderKeepsSlowestAndSortsByDuration() throws InterruptedException {
+        // 执行：容量为2，最慢的请求之后再写入若干更快的请求
+        Span slow = tracer.startTrace("slow", null);
+        Thread.sleep(20);
+        slow.end();
+        Span medium = tracer.startTrace("medium", null);
+        Thread.sleep(5);
+        medium.end();
+        for (int i = 0; i < 5; i++) {
+            tracer.startTrace("fast", null).end();
+        }
+
+        // 验证：更快的请求不会挤出已保留的慢请求
+        List<SlowRequest> slowRequests = recorder.getSlowestRequests();
+        assertEquals(2, slowRequests.size());
+        assertEquals("slow", slowRequests.get(0).getName());
+        assertEquals("medium", slowRequests.get(1).getName());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.banktransactionmanager.util;
+
+import com.example.banktransactionmanager.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BizNoEncoderTest {
+
+    @Test
+    void testEncode_MatchesConcatenation() {
+        // 准备
+        long[] ids = {0L, 7L, 10L, 99L, 1_000_000L, 123_456_789_012_345L, 999_999_999_999_999_999L, Long.MAX_VALUE};
+
+        // 执行 & 验证
+        for (Transaction.Channel channel : Transaction.Channel.values()) {
+            for (long id : ids) {
+                assertEquals(channel.name() + id, BizNoEncoder.encode(channel, id));
+            }
+        }
+        assertEquals("UNKNOWN42", BizNoEncoder.encode(null, 42L));
+    }
+
+    @Test
+    void testEncode_RejectsNegativeId() {
+        // 执行 & 验证
+        assertThrows(IllegalArgumentException.class, () -> BizNoEncoder.encode(Transaction.Channel.APP, -1L));
+    }
+}